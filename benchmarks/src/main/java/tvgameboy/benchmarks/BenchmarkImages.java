@@ -0,0 +1,40 @@
+package tvgameboy.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+public final class BenchmarkImages {
+    // Roughly the size and layout of the stockcake "_large" JPEG as ImageIO decodes it
+    public static final int SOURCE_WIDTH = 2000;
+    public static final int SOURCE_HEIGHT = 1333;
+
+    private BenchmarkImages() {
+    }
+
+    public static BufferedImage raftSource() {
+        BufferedImage image = new BufferedImage(SOURCE_WIDTH, SOURCE_HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+        Random rnd = new Random(7);
+        for (int y = 0; y < SOURCE_HEIGHT; y++) {
+            for (int x = 0; x < SOURCE_WIDTH; x++) {
+                int r = (x * 255 / SOURCE_WIDTH + rnd.nextInt(16)) & 0xFF;
+                int g = (y * 255 / SOURCE_HEIGHT + rnd.nextInt(16)) & 0xFF;
+                int b = (160 + rnd.nextInt(64)) & 0xFF;
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return image;
+    }
+
+    public static int[] resolution(String name) {
+        switch (name) {
+            case "720p":
+                return new int[] {1280, 720};
+            case "1080p":
+                return new int[] {1920, 1080};
+            case "4K":
+                return new int[] {3840, 2160};
+            default:
+                throw new IllegalArgumentException("Unknown resolution " + name);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package tvgameboy.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tvgameboy.games.template.FishingModel;
+import tvgameboy.games.template.FishingRules;
+import tvgameboy.games.template.FishingSimulator;
+
+// Simulated casts per second: one model stepped a cast at a time, and the simulator
+// fast-forwarding many casts on one thread and on every core. Only fastForward takes the
+// thread count, so castCycle runs once rather than once per count.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1)
+public class FishingSimulationBenchmark {
+    private static final int SIMULATED_CASTS = 16 << 20;
+
+    private final FishingModel model = new FishingModel(FishingRules.DEFAULT, 1);
+
+    @Benchmark
+    public long castCycle() {
+        model.reel();
+        model.advance(model.getBiteTicksLeft());
+        return model.reel();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIMULATED_CASTS)
+    public FishingSimulator.Result fastForward(Threads threads) {
+        int count = threads.threads > 0 ? threads.threads : Runtime.getRuntime().availableProcessors();
+        return FishingSimulator.run(FishingRules.DEFAULT, 1, SIMULATED_CASTS, count);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Threads {
+        // 0 means every available core
+        @Param({"1", "0"})
+        public int threads;
+    }
+}
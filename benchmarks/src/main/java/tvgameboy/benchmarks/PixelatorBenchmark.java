@@ -0,0 +1,80 @@
+package tvgameboy.benchmarks;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tvgameboy.shared.render.Pixelator;
+
+// Pixelating the raft crop to full screen: the two-pass nearest-neighbour
+// drawImage the raft screen used before, against Pixelator's averaged single pass.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PixelatorBenchmark {
+    @Param({"720p", "1080p", "4K"})
+    public String resolution;
+
+    private BufferedImage source;
+    private Rectangle crop;
+    private int width;
+    private int height;
+    private int blockSize;
+    private BufferedImage target;
+    private Pixelator pixelator;
+
+    @Setup
+    public void setUp() {
+        int[] size = BenchmarkImages.resolution(resolution);
+        width = size[0];
+        height = size[1];
+        blockSize = Math.max(16, Math.min(48, Math.min(width, height) / 20));
+        source = BenchmarkImages.raftSource();
+        crop = new Rectangle(source.getWidth() / 2, 0, source.getWidth() - source.getWidth() / 2, source.getHeight() / 2);
+        target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        pixelator = new Pixelator();
+    }
+
+    @Benchmark
+    public BufferedImage twoPassDrawImage() {
+        BufferedImage cropped = source.getSubimage(crop.x, crop.y, crop.width, crop.height);
+        BufferedImage small = new BufferedImage(Math.max(1, width / blockSize), Math.max(1, height / blockSize),
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D gSmall = small.createGraphics();
+        gSmall.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        gSmall.drawImage(cropped, 0, 0, small.getWidth(), small.getHeight(), null);
+        gSmall.dispose();
+
+        Graphics2D g = target.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g.drawImage(small, 0, 0, width, height, null);
+        g.dispose();
+        return target;
+    }
+
+    @Benchmark
+    public BufferedImage pixelator() {
+        return pixelator.pixelate(source, crop, width, height, blockSize);
+    }
+
+    // A fresh Pixelator has no cached copy, so this includes converting the crop to int pixels
+    @Benchmark
+    public BufferedImage pixelatorFirstUse() {
+        return new Pixelator().pixelate(source, crop, width, height, blockSize);
+    }
+}
@@ -0,0 +1,89 @@
+package tvgameboy.benchmarks;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tvgameboy.games.template.TemplateGame;
+import tvgameboy.shared.GameTimers;
+
+// Drives TemplateGame through its own listeners on the benchmark thread: timer
+// ticks via the manual GameTimers clock (so Swing's timer thread never touches
+// the view concurrently) and a full cast, bite and catch cycle via the cast button.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TemplateGameBenchmark {
+    private TemplateGame game;
+    private GameTimers timers;
+    private JButton castButton;
+    private ActionEvent castEvent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameTimers.setManualClock(true);
+        game = new TemplateGame();
+        JComponent view = game.getView(() -> { });
+        timers = game.getTimers();
+        castButton = findButton(view, "Cast");
+        castEvent = new ActionEvent(castButton, ActionEvent.ACTION_PERFORMED, "Cast");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        game.dispose();
+    }
+
+    @Benchmark
+    public void tick() {
+        timers.advance(1000);
+    }
+
+    @Benchmark
+    public String castCycle() {
+        click();
+        // Two simulated seconds: the fish bites and the day/night clock ticks twice
+        timers.advance(2000);
+        click();
+        return castButton.getText();
+    }
+
+    private void click() {
+        for (ActionListener listener : castButton.getActionListeners()) {
+            listener.actionPerformed(castEvent);
+        }
+    }
+
+    private static JButton findButton(Container container, String text) {
+        for (Component child : container.getComponents()) {
+            if (child instanceof JButton && text.equals(((JButton) child).getText())) {
+                return (JButton) child;
+            }
+            if (child instanceof Container) {
+                JButton found = findButton((Container) child, text);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,81 @@
+package tvgameboy.launcher;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tvgameboy.benchmarks.BenchmarkImages;
+import tvgameboy.shared.render.Pixelator;
+
+// Paints the raft screen (makeWhiteScreen) into an offscreen image. "repaint" is
+// the steady state served from the frame cache; "rebuild" forces the full render
+// that happens on resize or when the image changes.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RaftScenePaintBenchmark {
+    @Param({"720p", "1080p", "4K"})
+    public String resolution;
+
+    @Param({"image", "fallback"})
+    public String branch;
+
+    private RaftScreenPanel panel;
+    private BufferedImage target;
+    private Graphics2D g;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] size = BenchmarkImages.resolution(resolution);
+        panel = new RaftScreenPanel("image".equals(branch) ? raftBlocks(size[0], size[1]) : null);
+        panel.setSize(size[0], size[1]);
+        target = new BufferedImage(size[0], size[1], BufferedImage.TYPE_INT_RGB);
+        g = target.createGraphics();
+    }
+
+    // What the asset loader hands the panel: the top-right quadrant averaged to the panel's block grid
+    private static BufferedImage raftBlocks(int width, int height) {
+        BufferedImage source = BenchmarkImages.raftSource();
+        int pixelFactor = RaftScreenPanel.pixelFactor(width, height);
+        BufferedImage blocks = new BufferedImage(width / pixelFactor, height / pixelFactor, BufferedImage.TYPE_INT_RGB);
+        Rectangle quadrant = new Rectangle(source.getWidth() / 2, 0, source.getWidth() - source.getWidth() / 2,
+                source.getHeight() / 2);
+        new Pixelator().pixelateInto(source, quadrant, blocks.getWidth(), blocks.getHeight(), blocks);
+        return blocks;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage repaint() {
+        panel.paintComponent(g);
+        return target;
+    }
+
+    @Benchmark
+    public BufferedImage rebuild() {
+        panel.getImageFrameCache().invalidate();
+        panel.getOceanFrameCache().invalidate();
+        panel.paintComponent(g);
+        return target;
+    }
+}
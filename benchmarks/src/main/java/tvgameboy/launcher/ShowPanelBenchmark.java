@@ -0,0 +1,76 @@
+package tvgameboy.launcher;
+
+import java.awt.BorderLayout;
+import java.awt.Graphics2D;
+import java.awt.GridLayout;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tvgameboy.games.template.TemplateGame;
+import tvgameboy.shared.GameTimers;
+
+// Swaps between a menu-like grid and the TemplateGame view the way showPanel
+// does, then lays out and paints the result as the next frame would.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ShowPanelBenchmark {
+    private JPanel content;
+    private JComponent menu;
+    private JComponent gameView;
+    private TemplateGame game;
+    private BufferedImage target;
+    private Graphics2D g;
+    private boolean showingMenu;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        content = new JPanel(new BorderLayout());
+        content.setSize(1920, 1080);
+
+        JPanel tiles = new JPanel(new GridLayout(2, 3, 16, 16));
+        for (int i = 0; i < 6; i++) {
+            tiles.add(new JButton("Tile " + i));
+        }
+        menu = tiles;
+
+        GameTimers.setManualClock(true);
+        game = new TemplateGame();
+        gameView = game.getView(() -> { });
+
+        target = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB);
+        g = target.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        game.dispose();
+        g.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage switchView() {
+        showingMenu = !showingMenu;
+        LauncherApp.showIn(content, showingMenu ? menu : gameView);
+        content.validate();
+        content.paint(g);
+        return target;
+    }
+}
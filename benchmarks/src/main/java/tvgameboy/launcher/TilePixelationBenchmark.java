@@ -0,0 +1,60 @@
+package tvgameboy.launcher;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tvgameboy.shared.asset.AssetBundle;
+import tvgameboy.shared.asset.RegionDecoder;
+import tvgameboy.shared.render.Pixelator;
+
+// Building the raft tile in createTileButton from the bundled image: decoding
+// the whole image and then averaging its top-right quadrant, against decoding
+// only that quadrant at the tile's block size. The gc profiler's
+// alloc.rate.norm shows the heap each path needs.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TilePixelationBenchmark {
+    private static final int BLOCKS_WIDE = 160 / 12;
+    private static final int BLOCKS_HIGH = 100 / 12;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        encoded = AssetBundle.find(LauncherApp.class.getClassLoader(), "launcher")
+                .readBytes("serene-ocean-raft-stockcake.webp");
+    }
+
+    @Benchmark
+    public BufferedImage fullDecode() throws IOException {
+        BufferedImage src = ImageIO.read(new MemoryCacheImageInputStream(new ByteArrayInputStream(encoded)));
+        int cx = src.getWidth() / 2;
+        Rectangle crop = new Rectangle(cx, 0, src.getWidth() - cx, src.getHeight() / 2);
+        BufferedImage blocks = new BufferedImage(BLOCKS_WIDE, BLOCKS_HIGH, BufferedImage.TYPE_INT_RGB);
+        new Pixelator().pixelateInto(src, crop, BLOCKS_WIDE, BLOCKS_HIGH, blocks);
+        return LauncherApp.pixelateTile(blocks);
+    }
+
+    @Benchmark
+    public BufferedImage regionDecode() {
+        return LauncherApp.pixelateTile(RegionDecoder.decode(encoded, LauncherApp.raftCrop(BLOCKS_WIDE, BLOCKS_HIGH)));
+    }
+}
@@ -0,0 +1,237 @@
+package tvgameboy.games.template;
+
+import java.io.IOException;
+import tvgameboy.shared.snapshot.SnapshotReader;
+import tvgameboy.shared.snapshot.SnapshotWriter;
+
+// The fishing rules as a pure, seeded state machine, advanced in fixed ticks of game
+// time. It knows nothing of Swing or wall-clock time: TemplateGame drives it from a
+// timer and redraws whatever the returned change flags name, and FishingSimulator
+// fast-forwards it without a view. Equal rules, seed and calls give equal results.
+//
+// Not thread-safe; use one model per thread.
+public final class FishingModel {
+    public static final int TICK_MILLIS = 100;
+    public static final int TICKS_PER_SECOND = 1000 / TICK_MILLIS;
+
+    // Change flags returned by tick, advance and reel
+    public static final int CLOCK_CHANGED = 1;
+    public static final int PHASE_CHANGED = 1 << 1;
+    public static final int LINE_CHANGED = 1 << 2;
+    public static final int SCORE_CHANGED = 1 << 3;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    public enum Line {
+        IDLE, WAITING, BITING
+    }
+
+    public enum Outcome {
+        NONE, CAUGHT, ESCAPED
+    }
+
+    private static final Line[] LINES = Line.values();
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private final FishingRules rules;
+    // Compared against the top 53 bits of a random long
+    private final long catchThreshold;
+    private long random;
+    private long ticks;
+    private int secondsLeft;
+    private boolean day = true;
+    private long phases;
+    private Line line = Line.IDLE;
+    private Outcome outcome = Outcome.NONE;
+    private int biteTicksLeft;
+    private long casts;
+    private long catches;
+    private long dayCatches;
+
+    public FishingModel(FishingRules rules, long seed) {
+        this.rules = rules;
+        this.catchThreshold = (long) (rules.getCatchChance() * (1L << 53));
+        this.random = seed;
+        this.secondsLeft = rules.getPhaseSeconds();
+    }
+
+    // Seed for the index-th of several independent models derived from one seed.
+    public static long seedFor(long seed, long index) {
+        return mix(seed + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    public int tick() {
+        return advance(1);
+    }
+
+    // Moves game time forward by the given number of ticks in constant time. Nothing
+    // random happens while time passes, so this equals calling tick that many times.
+    public int advance(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        int changes = 0;
+        // The clock loses a second on every tick that starts one, beginning with tick 0
+        long seconds = ceilDiv(ticks + count, TICKS_PER_SECOND) - ceilDiv(ticks, TICKS_PER_SECOND);
+        if (seconds > 0) {
+            changes |= CLOCK_CHANGED;
+            if (seconds < secondsLeft) {
+                secondsLeft -= (int) seconds;
+            } else {
+                int phase = rules.getPhaseSeconds();
+                long pastFlip = seconds - secondsLeft;
+                long flips = 1 + pastFlip / phase;
+                if (flips % 2 == 1) {
+                    day = !day;
+                }
+                phases += flips;
+                secondsLeft = phase - (int) (pastFlip % phase);
+                changes |= PHASE_CHANGED;
+            }
+        }
+        if (line == Line.WAITING && count > 0) {
+            if (count >= biteTicksLeft) {
+                biteTicksLeft = 0;
+                line = Line.BITING;
+                changes |= LINE_CHANGED;
+            } else {
+                biteTicksLeft -= (int) count;
+            }
+        }
+        ticks += count;
+        return changes;
+    }
+
+    // The one button: casts when the line is idle, reels in a biting fish, and does
+    // nothing while waiting for a bite.
+    public int reel() {
+        switch (line) {
+            case IDLE:
+                casts++;
+                line = Line.WAITING;
+                outcome = Outcome.NONE;
+                biteTicksLeft = rules.getBiteDelayTicks();
+                return LINE_CHANGED;
+            case BITING:
+                line = Line.IDLE;
+                if ((nextRandom() >>> 11) < catchThreshold) {
+                    outcome = Outcome.CAUGHT;
+                    catches++;
+                    if (day) {
+                        dayCatches++;
+                    }
+                    return LINE_CHANGED | SCORE_CHANGED;
+                }
+                outcome = Outcome.ESCAPED;
+                return LINE_CHANGED;
+            default:
+                return 0;
+        }
+    }
+
+    public FishingRules getRules() {
+        return rules;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public int getSecondsLeft() {
+        return secondsLeft;
+    }
+
+    public boolean isDay() {
+        return day;
+    }
+
+    // How many times day has turned to night or back
+    public long getPhaseChanges() {
+        return phases;
+    }
+
+    public Line getLine() {
+        return line;
+    }
+
+    // How the last reel-in went, or NONE since the last cast
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    // Ticks until a fish bites, or 0 when not waiting
+    public int getBiteTicksLeft() {
+        return biteTicksLeft;
+    }
+
+    public long getCasts() {
+        return casts;
+    }
+
+    public long getCatches() {
+        return catches;
+    }
+
+    public long getDayCatches() {
+        return dayCatches;
+    }
+
+    // Everything but the rules, which the reader supplies; about 20 bytes mid-game.
+    public void writeTo(SnapshotWriter out) {
+        out.putLong(random)
+                .putVarint(ticks)
+                .putVarint(secondsLeft)
+                .putBoolean(day)
+                .putVarint(phases)
+                .putByte(line.ordinal())
+                .putByte(outcome.ordinal())
+                .putVarint(biteTicksLeft)
+                .putVarint(casts)
+                .putVarint(catches)
+                .putVarint(dayCatches);
+    }
+
+    public static FishingModel readFrom(FishingRules rules, SnapshotReader in) throws IOException {
+        FishingModel model = new FishingModel(rules, 0);
+        model.random = in.getLong();
+        model.ticks = in.getVarint();
+        model.secondsLeft = in.getVarint(rules.getPhaseSeconds());
+        model.day = in.getBoolean();
+        model.phases = in.getVarint();
+        model.line = LINES[checkIndex(in.getByte(), LINES.length)];
+        model.outcome = OUTCOMES[checkIndex(in.getByte(), OUTCOMES.length)];
+        model.biteTicksLeft = in.getVarint(rules.getBiteDelayTicks());
+        model.casts = in.getVarint();
+        model.catches = in.getVarint();
+        model.dayCatches = in.getVarint();
+        if (model.secondsLeft < 1 || model.day != (model.phases % 2 == 0)
+                || model.catches > model.casts || model.dayCatches > model.catches
+                || (model.line == Line.WAITING) != (model.biteTicksLeft > 0)) {
+            throw new IOException("Inconsistent fishing state");
+        }
+        return model;
+    }
+
+    // SplitMix64: a full-period generator with no allocation and one long of state
+    private long nextRandom() {
+        random += GOLDEN_GAMMA;
+        return mix(random);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int checkIndex(int index, int length) throws IOException {
+        if (index >= length) {
+            throw new IOException("Bad enum index " + index);
+        }
+        return index;
+    }
+
+    private static long ceilDiv(long value, int divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+}
@@ -0,0 +1,50 @@
+package tvgameboy.games.template;
+
+// The tunable numbers of the fishing game. Instances are immutable, so one set of
+// rules can be shared by every model a simulation runs in parallel.
+public final class FishingRules {
+    public static final FishingRules DEFAULT = new FishingRules(60, 2000, 0.5);
+
+    private final int phaseSeconds;
+    private final int biteDelayMillis;
+    private final double catchChance;
+
+    public FishingRules(int phaseSeconds, int biteDelayMillis, double catchChance) {
+        if (phaseSeconds < 1) {
+            throw new IllegalArgumentException("phaseSeconds must be at least 1: " + phaseSeconds);
+        }
+        if (biteDelayMillis < FishingModel.TICK_MILLIS) {
+            throw new IllegalArgumentException("biteDelayMillis must be at least one tick: " + biteDelayMillis);
+        }
+        if (!(catchChance >= 0 && catchChance <= 1)) {
+            throw new IllegalArgumentException("catchChance must be within [0, 1]: " + catchChance);
+        }
+        this.phaseSeconds = phaseSeconds;
+        this.biteDelayMillis = biteDelayMillis;
+        this.catchChance = catchChance;
+    }
+
+    // Length of each day and each night
+    public int getPhaseSeconds() {
+        return phaseSeconds;
+    }
+
+    // Time from casting until a fish bites
+    public int getBiteDelayMillis() {
+        return biteDelayMillis;
+    }
+
+    // Chance that reeling in a biting fish catches it
+    public double getCatchChance() {
+        return catchChance;
+    }
+
+    int getBiteDelayTicks() {
+        return (biteDelayMillis + FishingModel.TICK_MILLIS - 1) / FishingModel.TICK_MILLIS;
+    }
+
+    @Override
+    public String toString() {
+        return "phase " + phaseSeconds + " s, bite after " + biteDelayMillis + " ms, catch chance " + catchChance;
+    }
+}
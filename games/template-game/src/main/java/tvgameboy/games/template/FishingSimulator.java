@@ -0,0 +1,159 @@
+package tvgameboy.games.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fast-forwards FishingModel for balance testing: a player who casts again at once
+// and reels in the moment a fish bites. The casts are cut into fixed-size shards, each
+// with its own model and a seed derived from the run's seed, and the shards are shared
+// out between worker threads. Results depend only on the rules, seed and cast count,
+// never on the thread count.
+//
+// gradle :games:template-game:simulate [-Psim.casts=100000000] [-Psim.threads=4] [-Psim.seed=1]
+public final class FishingSimulator {
+    static final int SHARD_CASTS = 1 << 20;
+
+    private FishingSimulator() {
+    }
+
+    public static Result run(FishingRules rules, long seed, long casts, int threads) {
+        if (casts < 0 || threads < 1) {
+            throw new IllegalArgumentException("casts " + casts + ", threads " + threads);
+        }
+        long start = System.nanoTime();
+        long shards = (casts + SHARD_CASTS - 1) / SHARD_CASTS;
+        long[] totals = new long[4];
+        if (threads == 1 || shards <= 1) {
+            work(rules, seed, casts, shards, new AtomicLong(), totals);
+            return new Result(rules, totals, System.nanoTime() - start);
+        }
+        int workers = (int) Math.min(threads, shards);
+        AtomicLong nextShard = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "fishing-simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                results.add(pool.submit(() -> work(rules, seed, casts, shards, nextShard, new long[4])));
+            }
+            for (Future<long[]> result : results) {
+                long[] part = result.get();
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += part[i];
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Result(rules, totals, System.nanoTime() - start);
+    }
+
+    // Runs shards until none are left; totals holds casts, catches, day catches and ticks
+    private static long[] work(FishingRules rules, long seed, long casts, long shards, AtomicLong nextShard,
+            long[] totals) {
+        long shard;
+        while ((shard = nextShard.getAndIncrement()) < shards) {
+            long count = Math.min(SHARD_CASTS, casts - shard * SHARD_CASTS);
+            FishingModel model = new FishingModel(rules, FishingModel.seedFor(seed, shard));
+            for (long i = 0; i < count; i++) {
+                model.reel();
+                model.advance(model.getBiteTicksLeft());
+                model.reel();
+            }
+            totals[0] += model.getCasts();
+            totals[1] += model.getCatches();
+            totals[2] += model.getDayCatches();
+            totals[3] += model.getTicks();
+        }
+        return totals;
+    }
+
+    public static void main(String[] args) {
+        long casts = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000L;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+        System.out.println("Rules: " + FishingRules.DEFAULT);
+        System.out.println("Seed " + seed + ", " + threads + " thread(s)");
+        System.out.println(run(FishingRules.DEFAULT, seed, casts, threads));
+    }
+
+    public static final class Result {
+        private final FishingRules rules;
+        private final long casts;
+        private final long catches;
+        private final long dayCatches;
+        private final long ticks;
+        private final long elapsedNanos;
+
+        private Result(FishingRules rules, long[] totals, long elapsedNanos) {
+            this.rules = rules;
+            this.casts = totals[0];
+            this.catches = totals[1];
+            this.dayCatches = totals[2];
+            this.ticks = totals[3];
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public FishingRules getRules() {
+            return rules;
+        }
+
+        public long getCasts() {
+            return casts;
+        }
+
+        public long getCatches() {
+            return catches;
+        }
+
+        public long getDayCatches() {
+            return dayCatches;
+        }
+
+        public long getNightCatches() {
+            return catches - dayCatches;
+        }
+
+        // Game time summed over every shard
+        public long getSimulatedMillis() {
+            return ticks * FishingModel.TICK_MILLIS;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getCatchRate() {
+            return casts == 0 ? 0 : (double) catches / casts;
+        }
+
+        public double getCatchesPerGameMinute() {
+            return ticks == 0 ? 0 : catches * 60_000.0 / getSimulatedMillis();
+        }
+
+        public double getCastsPerSecond() {
+            return elapsedNanos == 0 ? 0 : casts * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d casts, %,d catches (%.4f), %,d by day and %,d by night, "
+                            + "%.2f catches per game minute; %.1f M casts/s",
+                    casts, catches, getCatchRate(), dayCatches, getNightCatches(),
+                    getCatchesPerGameMinute(), getCastsPerSecond() / 1e6);
+        }
+    }
+}
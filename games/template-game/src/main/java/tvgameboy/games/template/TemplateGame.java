@@ -1,11 +1,8 @@
 package tvgameboy.games.template;
 
 import java.awt.BorderLayout;
-import java.awt.Color;
-import java.awt.Font;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.util.Random;
+import java.io.IOException;
+import java.util.function.IntConsumer;
 import javax.swing.JComponent;
 import javax.swing.JButton;
 import javax.swing.JLabel;
@@ -13,48 +10,91 @@ import javax.swing.JPanel;
 import javax.swing.SwingConstants;
 import javax.swing.Timer;
 import tvgameboy.shared.Game;
+import tvgameboy.shared.GameTimers;
+import tvgameboy.shared.input.InputAction;
+import tvgameboy.shared.input.InputQueue;
+import tvgameboy.shared.metrics.Counter;
+import tvgameboy.shared.metrics.Metrics;
+import tvgameboy.shared.snapshot.SnapshotReader;
+import tvgameboy.shared.snapshot.SnapshotWriter;
+import tvgameboy.shared.theme.ColorRole;
+import tvgameboy.shared.theme.FontRole;
+import tvgameboy.shared.theme.Theme;
 
 public final class TemplateGame implements Game {
+    private static final Theme THEME = Theme.DARK;
+    private static final String SEED_PROPERTY = "tvgameboy.template.seed";
+    private static final String SESSION_SEED_PROPERTY = "tvgameboy.seed";
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final GameTimers timers = new GameTimers();
+    private final Counter casts = Metrics.get().counter("template-game.casts");
+    private final Counter catches = Metrics.get().counter("template-game.catches");
+    private final FishingRules rules;
+    private final long seed;
+    private FishingModel model;
+
+    // -Dtvgameboy.template.seed fixes the catch rolls, as the rendering harness does; otherwise
+    // the launcher's session seed, which input recordings store and replays restore, is used
+    public TemplateGame() {
+        this(FishingRules.DEFAULT, Long.getLong(SEED_PROPERTY, Long.getLong(SESSION_SEED_PROPERTY, System.nanoTime())));
+    }
+
+    public TemplateGame(FishingRules rules, long seed) {
+        this.rules = rules;
+        this.seed = seed;
+    }
+
     @Override
     public JComponent getView(Runnable returnToMenu) {
         JPanel panel = new JPanel(new BorderLayout());
-        panel.setBackground(new Color(10, 12, 14));
+        // Names label the per-component repaint statistics on the launcher's HUD
+        panel.setName("template-game");
+        panel.setBackground(THEME.color(ColorRole.BACKGROUND));
 
         JButton menuButton = new JButton("Menu");
-        menuButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
-        menuButton.setBackground(new Color(0, 100, 0));
-        menuButton.setForeground(new Color(245, 246, 248));
+        menuButton.setName("menu");
+        menuButton.setFont(FontRole.TITLE.font());
+        menuButton.setBackground(THEME.color(ColorRole.ACCENT));
+        menuButton.setForeground(THEME.color(ColorRole.TEXT));
         menuButton.setFocusPainted(false);
 
         JPanel topBar = new JPanel(new BorderLayout());
-        topBar.setBackground(new Color(10, 12, 14));
+        topBar.setName("top-bar");
+        topBar.setBackground(THEME.color(ColorRole.BACKGROUND));
         topBar.setBorder(javax.swing.BorderFactory.createEmptyBorder(12, 12, 12, 12));
         topBar.add(menuButton, BorderLayout.WEST);
 
         JLabel dayLabel = new JLabel("Day", SwingConstants.CENTER);
-        dayLabel.setForeground(new Color(245, 246, 248));
-        dayLabel.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        dayLabel.setName("day");
+        dayLabel.setForeground(THEME.color(ColorRole.TEXT));
+        dayLabel.setFont(FontRole.CAPTION.font());
         topBar.add(dayLabel, BorderLayout.CENTER);
 
         JLabel timerLabel = new JLabel("60", SwingConstants.RIGHT);
-        timerLabel.setForeground(new Color(245, 246, 248));
-        timerLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        timerLabel.setName("timer");
+        timerLabel.setForeground(THEME.color(ColorRole.TEXT));
+        timerLabel.setFont(FontRole.BODY_SMALL.font());
         topBar.add(timerLabel, BorderLayout.EAST);
 
         JPanel center = new JPanel(new BorderLayout());
+        center.setName("center");
         center.setOpaque(false);
 
         JLabel statusLabel = new JLabel("Click 'Cast' to fish.", SwingConstants.CENTER);
-        statusLabel.setForeground(new Color(245, 246, 248));
-        statusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 18));
+        statusLabel.setName("status");
+        statusLabel.setForeground(THEME.color(ColorRole.TEXT));
+        statusLabel.setFont(FontRole.BODY_LARGE.font());
 
         JButton castButton = new JButton("Cast");
-        castButton.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        castButton.setName("cast");
+        castButton.setFont(FontRole.BUTTON.font());
         castButton.setFocusPainted(false);
 
         JLabel scoreLabel = new JLabel("Fish caught: 0", SwingConstants.CENTER);
-        scoreLabel.setForeground(new Color(245, 246, 248));
-        scoreLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        scoreLabel.setName("score");
+        scoreLabel.setForeground(THEME.color(ColorRole.TEXT));
+        scoreLabel.setFont(FontRole.BODY.font());
 
         center.add(statusLabel, BorderLayout.CENTER);
         center.add(castButton, BorderLayout.SOUTH);
@@ -63,86 +103,134 @@ public final class TemplateGame implements Game {
         panel.add(topBar, BorderLayout.NORTH);
         panel.add(center, BorderLayout.CENTER);
 
-        // Game state
-        final int[] score = {0};
-        final boolean[] isCasting = {false};
-        final boolean[] fishPresent = {false};
-
-        // Day/night cycle: 60s each
-        final boolean[] isDay = {true};
-        final int[] secondsLeft = {60};
-
-        // Day/night timer (ticks every second)
-        Timer dayNightTimer = new Timer(1000, null);
-        dayNightTimer.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                secondsLeft[0]--;
-                if (secondsLeft[0] <= 0) {
-                    isDay[0] = !isDay[0];
-                    secondsLeft[0] = 60;
-                    dayLabel.setText(isDay[0] ? "Day" : "Night");
-                    panel.setBackground(isDay[0] ? new Color(120, 168, 255) : new Color(10, 12, 40));
-                    topBar.setBackground(panel.getBackground());
-                    center.setBackground(panel.getBackground());
+        // The rules live in the model; this view only shows what each tick or press changed.
+        // A model restored from a snapshot carries on where the last session left off.
+        boolean restored = model != null;
+        if (!restored) {
+            model = new FishingModel(rules, seed);
+        }
+        FishingModel model = this.model;
+        IntConsumer show = changes -> {
+            if ((changes & FishingModel.CLOCK_CHANGED) != 0) {
+                timerLabel.setText(Integer.toString(model.getSecondsLeft()));
+            }
+            if ((changes & FishingModel.PHASE_CHANGED) != 0) {
+                dayLabel.setText(model.isDay() ? "Day" : "Night");
+                panel.setBackground((model.isDay() ? Theme.DAY : Theme.NIGHT).color(ColorRole.SKY));
+                topBar.setBackground(panel.getBackground());
+                center.setBackground(panel.getBackground());
+            }
+            if ((changes & FishingModel.SCORE_CHANGED) != 0) {
+                scoreLabel.setText("Fish caught: " + model.getCatches());
+            }
+            if ((changes & FishingModel.LINE_CHANGED) != 0) {
+                switch (model.getLine()) {
+                    case WAITING:
+                        castButton.setText("Waiting...");
+                        statusLabel.setText("Casting...");
+                        break;
+                    case BITING:
+                        castButton.setText("Catch");
+                        statusLabel.setText("Fish biting! Click 'Cast' to catch.");
+                        break;
+                    default:
+                        castButton.setText("Cast");
+                        statusLabel.setText(model.getOutcome() == FishingModel.Outcome.CAUGHT ? "You caught a fish!"
+                                : model.getOutcome() == FishingModel.Outcome.ESCAPED ? "The fish got away!"
+                                : "Click 'Cast' to fish.");
+                        break;
                 }
-                timerLabel.setText(Integer.toString(secondsLeft[0]));
             }
-        });
-        dayNightTimer.setInitialDelay(0);
-        dayNightTimer.start();
+        };
+        if (restored) {
+            // The first day keeps the plain background, as in a fresh game
+            show.accept(FishingModel.CLOCK_CHANGED | FishingModel.SCORE_CHANGED | FishingModel.LINE_CHANGED
+                    | (model.getPhaseChanges() > 0 ? FishingModel.PHASE_CHANGED : 0));
+        }
+
+        Timer tickTimer = timers.create(FishingModel.TICK_MILLIS, event -> show.accept(model.tick()));
+        tickTimer.setInitialDelay(0);
+        tickTimer.start();
 
         // Helper to stop timers when returning to menu
-        Runnable stopAll = () -> {
-            dayNightTimer.stop();
-        };
+        Runnable stopAll = timers::stopAll;
 
-        menuButton.addActionListener(event -> {
+        Runnable leave = () -> {
             stopAll.run();
             returnToMenu.run();
-        });
+        };
+        menuButton.addActionListener(event -> leave.run());
 
-        // Casting / catching logic
-        castButton.addActionListener(event -> {
-            if (isCasting[0]) {
-                // If fish is present, catch it
-                if (fishPresent[0]) {
-                    // 50% chance to catch the fish
-                    Random rnd = new Random();
-                    boolean caught = rnd.nextBoolean();
-                    if (caught) {
-                        score[0]++;
-                        scoreLabel.setText("Fish caught: " + score[0]);
-                        statusLabel.setText("You caught a fish!");
-                    } else {
-                        statusLabel.setText("The fish got away!");
-                    }
-                    fishPresent[0] = false;
-                    isCasting[0] = false;
-                    castButton.setText("Cast");
-                }
-                return;
+        // Casts, or catches once a fish is biting
+        Runnable castOrCatch = () -> {
+            int changes = model.reel();
+            if ((changes & FishingModel.LINE_CHANGED) != 0 && model.getLine() == FishingModel.Line.WAITING) {
+                casts.increment();
             }
+            if ((changes & FishingModel.SCORE_CHANGED) != 0) {
+                catches.increment();
+            }
+            show.accept(changes);
+        };
 
-            // Start casting
-            isCasting[0] = true;
-            castButton.setText("Waiting...");
-            statusLabel.setText("Casting...");
-
-            // After 2 seconds, a fish will appear
-            Timer fishTimer = new Timer(2000, null);
-            fishTimer.setRepeats(false);
-            fishTimer.addActionListener(new ActionListener() {
-                @Override
-                public void actionPerformed(ActionEvent e) {
-                    fishPresent[0] = true;
-                    statusLabel.setText("Fish biting! Click 'Cast' to catch.");
-                    castButton.setText("Catch");
-                }
-            });
-            fishTimer.start();
+        // The remote's select button casts and catches; back returns to the menu
+        InputQueue input = InputQueue.drainingOnEdt((action, pressed, timestampNanos) -> {
+            if (!pressed) {
+                return;
+            }
+            if (action == InputAction.SELECT) {
+                castOrCatch.run();
+            } else if (action == InputAction.BACK) {
+                leave.run();
+            }
+        });
+        input.attachTo(panel);
+        // Clicks take the same route, so the launcher records and replays every cast alike
+        castButton.addActionListener(event -> {
+            long now = System.nanoTime();
+            input.offer(InputAction.SELECT, true, now);
+            input.offer(InputAction.SELECT, false, now);
         });
 
         return panel;
     }
+
+    @Override
+    public boolean writeSnapshot(SnapshotWriter out) {
+        if (model == null) {
+            return false;
+        }
+        out.putVarint(SNAPSHOT_VERSION);
+        model.writeTo(out);
+        return true;
+    }
+
+    @Override
+    public boolean readSnapshot(SnapshotReader in) throws IOException {
+        if (in.getVarint() != SNAPSHOT_VERSION) {
+            return false;
+        }
+        model = FishingModel.readFrom(rules, in);
+        return true;
+    }
+
+    @Override
+    public void pause() {
+        timers.pauseAll();
+    }
+
+    @Override
+    public void resume() {
+        timers.resumeAll();
+    }
+
+    @Override
+    public void dispose() {
+        timers.stopAll();
+    }
+
+    @Override
+    public GameTimers getTimers() {
+        return timers;
+    }
 }
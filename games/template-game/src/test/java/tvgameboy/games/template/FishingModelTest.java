@@ -0,0 +1,81 @@
+package tvgameboy.games.template;
+
+import java.util.Arrays;
+import java.util.Random;
+import tvgameboy.shared.snapshot.SnapshotWriter;
+
+// Two models with the same seed and the same casts end in the same state, and
+// advance(n) leaves the same state and reports the same changes as n tick() calls,
+// from several points in the phase and with a line out, across the day/night flip
+// at 60 seconds and several flips after it.
+final class FishingModelTest {
+    private static final long[] STARTS = {0, 1, 9, 10, 589, 590, 591, 599, 600, 601};
+    private static final long[] COUNTS = {0, 1, 9, 10, 11, 20, 590, 591, 599, 600, 601, 1200, 1805, 36_001};
+
+    public static void main(String[] args) {
+        FishingModel first = play(42);
+        FishingModel second = play(42);
+        check(first.getCasts() > 0 && first.getCatches() > 0 && first.getPhaseChanges() > 0,
+                "scripted play cast, caught and saw a phase change");
+        check(Arrays.equals(state(first), state(second)), "same seed, same state");
+        check(!Arrays.equals(state(first), state(play(43))), "another seed, another state");
+
+        FishingModel flip = new FishingModel(FishingRules.DEFAULT, 1);
+        // The clock counts a second down as each one starts, so the 60th starts on tick 590
+        flip.advance(590);
+        check(flip.isDay() && flip.getSecondsLeft() == 1 && flip.getPhaseChanges() == 0, "day with a second left");
+        flip.advance(1);
+        check(!flip.isDay() && flip.getPhaseChanges() == 1, "night once the 60th second starts");
+
+        for (boolean lineOut : new boolean[] {false, true}) {
+            for (long start : STARTS) {
+                for (long count : COUNTS) {
+                    FishingModel ticked = at(start, lineOut);
+                    FishingModel advanced = at(start, lineOut);
+                    int tickChanges = 0;
+                    for (long i = 0; i < count; i++) {
+                        tickChanges |= ticked.tick();
+                    }
+                    int advanceChanges = advanced.advance(count);
+                    String name = "advance(" + count + ") from tick " + start + (lineOut ? " with the line out" : "");
+                    check(advanceChanges == tickChanges, name + " reports the changes of as many ticks");
+                    check(Arrays.equals(state(ticked), state(advanced)), name + " equals as many ticks");
+                }
+            }
+        }
+    }
+
+    private static FishingModel play(long seed) {
+        FishingModel model = new FishingModel(FishingRules.DEFAULT, seed);
+        Random script = new Random(7);
+        for (int step = 0; step < 2000; step++) {
+            if (script.nextInt(4) == 0) {
+                model.reel();
+            } else {
+                model.advance(script.nextInt(30));
+            }
+        }
+        return model;
+    }
+
+    private static FishingModel at(long start, boolean lineOut) {
+        FishingModel model = new FishingModel(FishingRules.DEFAULT, 5);
+        model.advance(start);
+        if (lineOut) {
+            model.reel();
+        }
+        return model;
+    }
+
+    private static byte[] state(FishingModel model) {
+        SnapshotWriter out = new SnapshotWriter(64);
+        model.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package tvgameboy.launcher;
+
+import java.util.Arrays;
+
+// Paint timings for one named frame of a scenario at one size, and its golden
+// comparison when the frame was captured.
+final class FrameResult {
+    private final String scenario;
+    private final String size;
+    private final String frame;
+    private final long[] paintNanos;
+    private final GoldenImages.Comparison comparison;
+
+    FrameResult(String scenario, String size, String frame, long[] paintNanos, GoldenImages.Comparison comparison) {
+        this.scenario = scenario;
+        this.size = size;
+        this.frame = frame;
+        this.paintNanos = paintNanos.clone();
+        this.comparison = comparison;
+    }
+
+    boolean isFailure() {
+        return comparison != null && (comparison.getStatus() == GoldenImages.Status.MISMATCH
+                || comparison.getStatus() == GoldenImages.Status.MISSING);
+    }
+
+    String format() {
+        long[] sorted = paintNanos.clone();
+        Arrays.sort(sorted);
+        String result = comparison == null ? "-" : comparison.getStatus().name();
+        if (comparison != null && comparison.getStatus() == GoldenImages.Status.MISMATCH) {
+            result += " (" + comparison.getDifferingPixels() + " px)";
+        }
+        return String.format("%-14s %-10s %-16s %-22s %6d %9.2f %9.2f %9.2f %9.2f",
+                scenario, size, frame, result, paintNanos.length,
+                millis(paintNanos[0]), millis(percentile(sorted, 50)),
+                millis(percentile(sorted, 95)), millis(sorted[sorted.length - 1]));
+    }
+
+    static String header() {
+        return String.format("%-14s %-10s %-16s %-22s %6s %9s %9s %9s %9s",
+                "scenario", "size", "frame", "result", "paints", "first ms", "p50 ms", "p95 ms", "max ms");
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
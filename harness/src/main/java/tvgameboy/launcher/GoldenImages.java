@@ -0,0 +1,101 @@
+package tvgameboy.launcher;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+
+// Compares rendered frames with the PNGs under the golden directory. Every frame
+// is written to actual/; frames that differ also get a diff/ image with the
+// differing pixels in red over a dimmed copy of the actual frame. Goldens are only
+// written in update mode; otherwise a frame without one is MISSING.
+final class GoldenImages {
+    enum Status {
+        MATCH, MISMATCH, MISSING, NEW, UPDATED
+    }
+
+    static final class Comparison {
+        private final Status status;
+        private final int differingPixels;
+
+        Comparison(Status status, int differingPixels) {
+            this.status = status;
+            this.differingPixels = differingPixels;
+        }
+
+        Status getStatus() {
+            return status;
+        }
+
+        int getDifferingPixels() {
+            return differingPixels;
+        }
+    }
+
+    private final Path goldenDir;
+    private final Path actualDir;
+    private final Path diffDir;
+    private final boolean update;
+    private final int tolerance;
+
+    GoldenImages(Path goldenDir, Path outputDir, boolean update, int tolerance) {
+        this.goldenDir = goldenDir;
+        this.actualDir = outputDir.resolve("actual");
+        this.diffDir = outputDir.resolve("diff");
+        this.update = update;
+        this.tolerance = tolerance;
+    }
+
+    // name is "<WxH>/<scenario>-<frame>"
+    Comparison check(String name, BufferedImage actual) throws IOException {
+        String file = name + ".png";
+        write(actual, actualDir.resolve(file));
+        Path golden = goldenDir.resolve(file);
+        boolean exists = Files.isRegularFile(golden);
+        if (update) {
+            write(actual, golden);
+            return new Comparison(exists ? Status.UPDATED : Status.NEW, 0);
+        }
+        if (!exists) {
+            return new Comparison(Status.MISSING, 0);
+        }
+
+        BufferedImage expected = ImageIO.read(golden.toFile());
+        int width = actual.getWidth();
+        int height = actual.getHeight();
+        if (expected == null || expected.getWidth() != width || expected.getHeight() != height) {
+            return new Comparison(Status.MISMATCH, width * height);
+        }
+        BufferedImage diff = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int differing = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int a = actual.getRGB(x, y);
+                if (channelDistance(a, expected.getRGB(x, y)) > tolerance) {
+                    differing++;
+                    diff.setRGB(x, y, 0xFF0000);
+                } else {
+                    diff.setRGB(x, y, (a >> 2) & 0x3F3F3F);
+                }
+            }
+        }
+        if (differing == 0) {
+            return new Comparison(Status.MATCH, 0);
+        }
+        write(diff, diffDir.resolve(file));
+        return new Comparison(Status.MISMATCH, differing);
+    }
+
+    private static int channelDistance(int a, int b) {
+        int red = Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF));
+        int green = Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF));
+        int blue = Math.abs((a & 0xFF) - (b & 0xFF));
+        return Math.max(red, Math.max(green, blue));
+    }
+
+    private static void write(BufferedImage image, Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        ImageIO.write(image, "png", path.toFile());
+    }
+}
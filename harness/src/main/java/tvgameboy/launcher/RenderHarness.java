@@ -0,0 +1,99 @@
+package tvgameboy.launcher;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.swing.RepaintManager;
+import javax.swing.SwingUtilities;
+import tvgameboy.shared.GameTimers;
+
+// Runs every scenario script at every configured size with java.awt.headless=true,
+// writing frames, golden diffs and report.txt under the output directory. Exits
+// non-zero when a frame differs from its golden, has no golden, or a script fails.
+// With --update every captured frame is written as its golden instead.
+//
+//   RenderHarness [--update]
+public final class RenderHarness {
+    private RenderHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path scenarioDir = Paths.get(System.getProperty("harness.scenarioDir", "scenarios"));
+        Path outputDir = Paths.get(System.getProperty("harness.outputDir", "build/harness"));
+        boolean update = false;
+        for (String arg : args) {
+            if (!arg.equals("--update")) {
+                throw new IllegalArgumentException("Usage: RenderHarness [--update]");
+            }
+            update = true;
+        }
+        GoldenImages goldens = new GoldenImages(Paths.get(System.getProperty("harness.goldenDir", "golden")),
+                outputDir, update, Integer.getInteger("harness.tolerance", 8));
+        int paints = Math.max(1, Integer.getInteger("harness.paints", 10));
+        List<int[]> sizes = parseSizes(System.getProperty("harness.sizes", "1280x720,1920x1080"));
+        List<Path> scenarios = findScenarios(scenarioDir, System.getProperty("harness.scenarios", ""));
+
+        // Games created from here on only move when a script ticks them
+        GameTimers.setManualClock(true);
+        // Nothing is shown, so paint straight into the harness image rather than a back buffer
+        SwingUtilities.invokeAndWait(() -> RepaintManager.currentManager((java.awt.Component) null)
+                .setDoubleBufferingEnabled(false));
+
+        List<String> report = new ArrayList<>();
+        report.add(FrameResult.header());
+        boolean failed = false;
+        for (int[] size : sizes) {
+            for (Path script : scenarios) {
+                String name = script.getFileName().toString().replaceFirst("\\.txt$", "");
+                try {
+                    ScenarioRun run = new ScenarioRun(name, size[0], size[1], paints, goldens);
+                    for (FrameResult result : run.run(Files.readAllLines(script, StandardCharsets.UTF_8))) {
+                        report.add(result.format());
+                        failed |= result.isFailure();
+                    }
+                } catch (Exception ex) {
+                    report.add(name + " at " + size[0] + "x" + size[1] + " failed: " + ex);
+                    failed = true;
+                }
+            }
+        }
+
+        Files.createDirectories(outputDir);
+        Files.write(outputDir.resolve("report.txt"), report, StandardCharsets.UTF_8);
+        report.forEach(System.out::println);
+        System.exit(failed ? 1 : 0);
+    }
+
+    private static List<int[]> parseSizes(String value) {
+        List<int[]> sizes = new ArrayList<>();
+        for (String size : value.split(",")) {
+            String[] parts = size.trim().split("x");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Sizes look like 1280x720: " + size);
+            }
+            sizes.add(new int[] {Integer.parseInt(parts[0]), Integer.parseInt(parts[1])});
+        }
+        return sizes;
+    }
+
+    private static List<Path> findScenarios(Path dir, String names) throws IOException {
+        if (!names.isBlank()) {
+            List<Path> selected = new ArrayList<>();
+            for (String name : names.split(",")) {
+                selected.add(dir.resolve(name.trim() + ".txt"));
+            }
+            return selected;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".txt"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
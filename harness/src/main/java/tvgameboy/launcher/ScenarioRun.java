@@ -0,0 +1,395 @@
+package tvgameboy.launcher;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import javax.swing.AbstractButton;
+import javax.swing.Action;
+import javax.swing.InputMap;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+import tvgameboy.shared.Game;
+import tvgameboy.shared.GameTimers;
+
+// Plays one scenario script against an offscreen launcher at one size. Each line
+// is a command; blank lines and lines starting with # are skipped.
+//
+//   screen menu | raft | game <id>   switch screens the way the menu tiles do
+//   hover <text>                     move the mouse onto the button or label with that text
+//   click <text>                     press and release the mouse on it
+//   key <VK_NAME>                    press and release a key: remote keys go to the open game's
+//                                    input queue, others to the last hovered or clicked component
+//   tick <millis>                    advance the open game's timers on the manual clock
+//   settle [millis]                  paint once, then let asset loads and queued events finish (default 300)
+//   frame <name>                     paint repeatedly, then capture and compare the last image
+//   frames <name> <count> <millis>   tick and paint count times, timing each paint
+final class ScenarioRun {
+    private static final int DEFAULT_SETTLE_MILLIS = 300;
+
+    private final String scenario;
+    private final int width;
+    private final int height;
+    private final int paints;
+    private final GoldenImages goldens;
+    private final List<FrameResult> results = new ArrayList<>();
+    private LauncherApp app;
+    private Component target;
+    private BufferedImage canvas;
+
+    ScenarioRun(String scenario, int width, int height, int paints, GoldenImages goldens) {
+        this.scenario = scenario;
+        this.width = width;
+        this.height = height;
+        this.paints = paints;
+        this.goldens = goldens;
+    }
+
+    List<FrameResult> run(List<String> lines) throws Exception {
+        app = onEdt(() -> new LauncherApp(true));
+        canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        try {
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i).trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    execute(line.split("\\s+", 2));
+                } catch (IllegalArgumentException | IllegalStateException ex) {
+                    throw new IllegalArgumentException(scenario + ":" + (i + 1) + ": " + ex.getMessage(), ex);
+                }
+            }
+        } finally {
+            // Ends any open game session so its timers do not outlive the scenario
+            onEdt(() -> {
+                app.showMenu();
+                return null;
+            });
+        }
+        return results;
+    }
+
+    private void execute(String[] command) throws Exception {
+        String argument = command.length > 1 ? command[1].trim() : "";
+        switch (command[0]) {
+            case "screen":
+                onEdt(() -> {
+                    showScreen(argument);
+                    return null;
+                });
+                break;
+            case "hover":
+                onEdt(() -> {
+                    hover(find(argument));
+                    return null;
+                });
+                break;
+            case "click":
+                onEdt(() -> {
+                    click(find(argument));
+                    return null;
+                });
+                break;
+            case "key":
+                onEdt(() -> {
+                    key(keyCode(argument));
+                    return null;
+                });
+                break;
+            case "tick":
+                onEdt(() -> {
+                    timers().advance(parseInt(argument, "tick needs a millisecond count"));
+                    return null;
+                });
+                break;
+            case "settle":
+                settle(argument.isEmpty() ? DEFAULT_SETTLE_MILLIS : parseInt(argument, "settle takes milliseconds"));
+                break;
+            case "frame":
+                capture(requireName(argument));
+                break;
+            case "frames":
+                String[] parts = argument.split("\\s+");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("frames needs <name> <count> <millis>");
+                }
+                sequence(parts[0], parseInt(parts[1], "frame count"), parseInt(parts[2], "tick millis"));
+                break;
+            default:
+                throw new IllegalArgumentException("unknown command " + command[0]);
+        }
+    }
+
+    private void showScreen(String argument) {
+        target = null;
+        if (argument.equals("menu")) {
+            app.showMenu();
+        } else if (argument.equals("raft")) {
+            app.showRaftScreen();
+        } else if (argument.startsWith("game ")) {
+            String id = argument.substring(5).trim();
+            GameEntry entry = GameRegistry.getGames().stream()
+                    .filter(game -> game.getId().equals(id))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("no game with id " + id));
+            app.openGame(entry);
+        } else {
+            throw new IllegalArgumentException("screen must be menu, raft or game <id>");
+        }
+    }
+
+    private void settle(int millis) throws Exception {
+        // Paint first so components that request assets while painting have done so
+        onEdt(this::paint);
+        onEdt(() -> null);
+        Thread.sleep(millis);
+        onEdt(() -> null);
+    }
+
+    private void capture(String name) throws Exception {
+        long[] nanos = new long[paints];
+        for (int i = 0; i < paints; i++) {
+            nanos[i] = onEdt(this::paint);
+        }
+        BufferedImage image = onEdt(() -> copy(canvas));
+        String size = width + "x" + height;
+        GoldenImages.Comparison comparison;
+        try {
+            comparison = goldens.check(size + "/" + scenario + "-" + name, image);
+        } catch (IOException ex) {
+            throw new IOException("could not write or read the golden for " + name, ex);
+        }
+        results.add(new FrameResult(scenario, size, name, nanos, comparison));
+    }
+
+    private void sequence(String name, int count, int tickMillis) throws Exception {
+        long[] nanos = new long[count];
+        for (int i = 0; i < count; i++) {
+            nanos[i] = onEdt(() -> {
+                if (tickMillis > 0) {
+                    timers().advance(tickMillis);
+                }
+                return paint();
+            });
+        }
+        results.add(new FrameResult(scenario, width + "x" + height, name, nanos, null));
+    }
+
+    // Lays the tree out at the chosen size and paints it into the canvas; returns the paint time
+    private long paint() {
+        JComponent root = app.getRootComponent();
+        root.setSize(width, height);
+        layOut(root);
+        Graphics2D g = canvas.createGraphics();
+        try {
+            g.setClip(0, 0, width, height);
+            long start = System.nanoTime();
+            root.paint(g);
+            return System.nanoTime() - start;
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Without a window there is no peer to validate against, so layout is driven by hand
+    private static void layOut(Component component) {
+        component.doLayout();
+        if (component instanceof Container) {
+            for (Component child : ((Container) component).getComponents()) {
+                layOut(child);
+            }
+        }
+    }
+
+    private Component find(String text) {
+        Component found = find(app.getContentComponent(), text);
+        if (found == null) {
+            throw new IllegalArgumentException("nothing visible with text \"" + text + "\"");
+        }
+        return found;
+    }
+
+    private static Component find(Component component, String text) {
+        if (!component.isVisible()) {
+            return null;
+        }
+        if (component instanceof AbstractButton && text.equals(((AbstractButton) component).getText())
+                || component instanceof JLabel && text.equals(((JLabel) component).getText())) {
+            return component;
+        }
+        if (component instanceof Container) {
+            for (Component child : ((Container) component).getComponents()) {
+                Component found = find(child, text);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void hover(Component component) {
+        if (target != null && target != component) {
+            mouse(target, MouseEvent.MOUSE_EXITED, 0, 0);
+        }
+        target = component;
+        mouse(component, MouseEvent.MOUSE_ENTERED, 0, 0);
+        mouse(component, MouseEvent.MOUSE_MOVED, 0, 0);
+    }
+
+    private void click(Component component) {
+        if (target != component) {
+            hover(component);
+        }
+        mouse(component, MouseEvent.MOUSE_PRESSED, InputEvent.BUTTON1_DOWN_MASK, 1);
+        mouse(component, MouseEvent.MOUSE_RELEASED, 0, 1);
+        mouse(component, MouseEvent.MOUSE_CLICKED, 0, 1);
+    }
+
+    private static void mouse(Component component, int id, int modifiers, int clickCount) {
+        component.dispatchEvent(new MouseEvent(component, id, System.currentTimeMillis(), modifiers,
+                component.getWidth() / 2, component.getHeight() / 2, clickCount, false, MouseEvent.BUTTON1));
+    }
+
+    // Remote keys go to the open game's input queue as they would in the window. Otherwise,
+    // since offscreen components never own focus, key bindings are resolved the way
+    // JComponent does for the focus owner, and key listeners are called directly
+    private void key(int keyCode) {
+        Component source = target != null ? target : screen();
+        for (boolean released : new boolean[] {false, true}) {
+            KeyEvent event = new KeyEvent(source, released ? KeyEvent.KEY_RELEASED : KeyEvent.KEY_PRESSED,
+                    System.currentTimeMillis(), 0, keyCode, KeyEvent.CHAR_UNDEFINED);
+            if (app.getRemoteInput().dispatchKeyEvent(event)) {
+                continue;
+            }
+            KeyStroke stroke = KeyStroke.getKeyStroke(keyCode, 0, released);
+            for (KeyListener listener : source.getKeyListeners()) {
+                if (released) {
+                    listener.keyReleased(event);
+                } else {
+                    listener.keyPressed(event);
+                }
+            }
+            if (!notifyBinding(source, stroke, event)) {
+                notifyWindowBinding(app.getContentComponent(), stroke, event);
+            }
+        }
+    }
+
+    private static boolean notifyBinding(Component source, KeyStroke stroke, KeyEvent event) {
+        int condition = JComponent.WHEN_FOCUSED;
+        for (Component c = source; c != null; c = c.getParent()) {
+            if (c instanceof JComponent && notify((JComponent) c, condition, stroke, event)) {
+                return true;
+            }
+            condition = JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT;
+        }
+        return false;
+    }
+
+    private static boolean notifyWindowBinding(Component component, KeyStroke stroke, KeyEvent event) {
+        if (component instanceof JComponent
+                && notify((JComponent) component, JComponent.WHEN_IN_FOCUSED_WINDOW, stroke, event)) {
+            return true;
+        }
+        if (component instanceof Container) {
+            for (Component child : ((Container) component).getComponents()) {
+                if (notifyWindowBinding(child, stroke, event)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean notify(JComponent component, int condition, KeyStroke stroke, KeyEvent event) {
+        InputMap inputs = component.getInputMap(condition);
+        Object binding = inputs == null ? null : inputs.get(stroke);
+        Action action = binding == null ? null : component.getActionMap().get(binding);
+        return action != null && SwingUtilities.notifyAction(action, stroke, event, component, 0);
+    }
+
+    private Component screen() {
+        JComponent content = app.getContentComponent();
+        return content.getComponentCount() > 0 ? content.getComponent(0) : content;
+    }
+
+    private GameTimers timers() {
+        Game game = app.getSessions().getActiveGame();
+        if (game == null) {
+            throw new IllegalStateException("no game is open");
+        }
+        GameTimers timers = game.getTimers();
+        if (timers == null || !timers.isManualClock()) {
+            throw new IllegalStateException("the open game does not expose manual-clock timers");
+        }
+        return timers;
+    }
+
+    private static int keyCode(String name) {
+        try {
+            return KeyEvent.class.getField(name).getInt(null);
+        } catch (NoSuchFieldException | IllegalAccessException ex) {
+            throw new IllegalArgumentException("unknown key " + name);
+        }
+    }
+
+    private static int parseInt(String value, String message) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(message + ": " + value);
+        }
+    }
+
+    private static String requireName(String name) {
+        if (name.isEmpty() || !name.matches("[A-Za-z0-9_.-]+")) {
+            throw new IllegalArgumentException("frame needs a file-safe name");
+        }
+        return name;
+    }
+
+    private static BufferedImage copy(BufferedImage image) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), image.getType());
+        copy.setData(image.getRaster());
+        return copy;
+    }
+
+    private static <T> T onEdt(Callable<T> task) throws Exception {
+        Object[] result = new Object[1];
+        Exception[] failure = new Exception[1];
+        try {
+            SwingUtilities.invokeAndWait(() -> {
+                try {
+                    result[0] = task.call();
+                } catch (Exception ex) {
+                    failure[0] = ex;
+                }
+            });
+        } catch (InvocationTargetException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (Exception) cause;
+        }
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+}
@@ -0,0 +1,294 @@
+package tvgameboy.launcher;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.swing.AbstractButton;
+import javax.swing.ButtonModel;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JToggleButton;
+import javax.swing.RepaintManager;
+import javax.swing.SwingUtilities;
+import tvgameboy.shared.metrics.Counter;
+import tvgameboy.shared.metrics.Metrics;
+
+// Swing keeps one dirty rectangle per component and paints each separately, so
+// overlapping requests from neighbouring components paint the overlap twice. This
+// manager merges overlapping requests in a frame onto their nearest common ancestor
+// when the merged rectangle is no bigger than the parts; Swing then folds the parts
+// into the ancestor's repaint. Merging waits until the frame's invalid components
+// have been validated, so it sees the bounds that will actually be painted. It also
+// drops repaints of stock labels and buttons whose visual state is unchanged since
+// they were last painted.
+//
+// Pixels repainted per second are published as the repaint.px/s gauge (while metrics
+// are enabled), with repaint.requests, repaint.merged and repaint.skipped counters.
+// -Dtvgameboy.repaint.coalesce=false keeps the stock manager.
+final class DirtyRegionRepaintManager extends RepaintManager {
+    private static final String COALESCE_PROPERTY = "tvgameboy.repaint.coalesce";
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    // Subclasses may paint from state of their own, so only these exact classes are skipped
+    private static final Set<Class<?>> KNOWN_CLASSES = Set.of(JLabel.class, JButton.class, JToggleButton.class);
+
+    private final Queue<JComponent> changedOffEdt = new ConcurrentLinkedQueue<>();
+    // Visual state of each label or button as of its last paint
+    private final Map<JComponent, List<Object>> paintedState = new WeakHashMap<>();
+    private final Counter requests = Metrics.get().counter("repaint.requests");
+    private final Counter merged = Metrics.get().counter("repaint.merged");
+    private final Counter skipped = Metrics.get().counter("repaint.skipped");
+    private List<Request> frameRequests = new ArrayList<>();
+    private List<Request> spareRequests = new ArrayList<>();
+    private List<JComponent> requestedThisFrame = new ArrayList<>();
+    private List<JComponent> spareRequested = new ArrayList<>();
+    private final List<Region> regions = new ArrayList<>();
+    private long windowPixels;
+    private long windowStart = System.nanoTime();
+    private volatile long pixelsPerSecond;
+    private volatile long publishedAt;
+
+    private DirtyRegionRepaintManager() {
+        // A gauge that has not been republished for two windows means nothing repainted
+        Metrics.get().gauge("repaint.px/s", () -> System.nanoTime() - publishedAt > 2 * WINDOW_NANOS
+                ? 0 : pixelsPerSecond);
+    }
+
+    static void install() {
+        if (Boolean.parseBoolean(System.getProperty(COALESCE_PROPERTY, "true"))) {
+            RepaintManager.setCurrentManager(new DirtyRegionRepaintManager());
+        }
+    }
+
+    @Override
+    public void addDirtyRegion(JComponent c, int x, int y, int w, int h) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            // Swing allows repaint from any thread; bookkeeping stays on the EDT
+            changedOffEdt.add(c);
+            super.addDirtyRegion(c, x, y, w, h);
+            return;
+        }
+        forgetChangedOffEdt();
+        Rectangle dirty = new Rectangle(x, y, w, h).intersection(new Rectangle(0, 0, c.getWidth(), c.getHeight()));
+        if (dirty.isEmpty() || !c.isShowing()) {
+            // A change while hidden is painted by whichever ancestor shows it again
+            paintedState.remove(c);
+            super.addDirtyRegion(c, x, y, w, h);
+            return;
+        }
+        requests.increment();
+        if (isUnchanged(c)) {
+            skipped.increment();
+            return;
+        }
+        if (hasVisualState(c) && !requestedThisFrame.contains(c)) {
+            requestedThisFrame.add(c);
+        }
+        frameRequests.add(new Request(c, dirty));
+        super.addDirtyRegion(c, dirty.x, dirty.y, dirty.width, dirty.height);
+    }
+
+    // Runs after the frame's invalid components are validated and before anything is painted
+    @Override
+    public void paintDirtyRegions() {
+        // Requests made while painting belong to the next frame, so the lists are swapped out first
+        List<Request> requested = frameRequests;
+        List<JComponent> stateful = requestedThisFrame;
+        frameRequests = spareRequests;
+        requestedThisFrame = spareRequested;
+        mergeRegions(requested);
+        super.paintDirtyRegions();
+        forgetChangedOffEdt();
+        for (JComponent c : stateful) {
+            paintedState.put(c, visualState(c));
+        }
+        if (Metrics.get().isEnabled()) {
+            for (Region region : regions) {
+                windowPixels += pixels(region.area);
+            }
+            rollWindow();
+        }
+        regions.clear();
+        requested.clear();
+        stateful.clear();
+        spareRequests = requested;
+        spareRequested = stateful;
+    }
+
+    // Every request is already dirty in Swing's own map; a merged region adds its common
+    // ancestor, which Swing paints once in place of the descendants it covers.
+    private void mergeRegions(List<Request> requested) {
+        for (Request request : requested) {
+            JComponent owner = request.component;
+            if (!owner.isShowing()) {
+                continue;
+            }
+            Component root = owner;
+            while (root.getParent() != null) {
+                root = root.getParent();
+            }
+            Rectangle area = toRoot(owner, request.area);
+            boolean grown = false;
+            boolean covered = false;
+            for (int i = regions.size() - 1; i >= 0; i--) {
+                Region region = regions.get(i);
+                if (region.root != root) {
+                    continue;
+                }
+                if (region.area.contains(area) && isAncestor(region.owner, owner)) {
+                    // Already covered by a pending repaint
+                    covered = true;
+                    break;
+                }
+                if (!region.area.intersects(area)) {
+                    continue;
+                }
+                Rectangle union = region.area.union(area);
+                JComponent ancestor = commonAncestor(region.owner, owner);
+                if (ancestor == null || pixels(union) > pixels(region.area) + pixels(area)) {
+                    continue;
+                }
+                regions.remove(i);
+                merged.increment();
+                owner = ancestor;
+                area = union;
+                grown = true;
+                // The grown area may now reach regions already passed over
+                i = regions.size();
+            }
+            if (covered) {
+                skipped.increment();
+                continue;
+            }
+            regions.add(new Region(root, owner, area));
+            if (grown) {
+                Rectangle offset = toRoot(owner, new Rectangle());
+                super.addDirtyRegion(owner, area.x - offset.x, area.y - offset.y, area.width, area.height);
+            }
+        }
+    }
+
+    private void forgetChangedOffEdt() {
+        JComponent c;
+        while ((c = changedOffEdt.poll()) != null) {
+            paintedState.remove(c);
+        }
+    }
+
+    private boolean isUnchanged(JComponent c) {
+        if (!hasVisualState(c) || requestedThisFrame.contains(c)) {
+            return false;
+        }
+        List<Object> painted = paintedState.get(c);
+        return painted != null && painted.equals(visualState(c));
+    }
+
+    // Stock labels and buttons paint only from these properties, and every setter of them repaints on change.
+    // Toolkit images can be animated and repaint through imageUpdate without any property changing.
+    private static boolean hasVisualState(JComponent c) {
+        if (!KNOWN_CLASSES.contains(c.getClass()) || c.getComponentCount() > 0) {
+            return false;
+        }
+        Icon icon = c instanceof JLabel ? ((JLabel) c).getIcon() : ((AbstractButton) c).getIcon();
+        return !(icon instanceof ImageIcon) || ((ImageIcon) icon).getImage() instanceof BufferedImage;
+    }
+
+    private static List<Object> visualState(JComponent c) {
+        List<Object> state = new ArrayList<>(Arrays.asList(c.getBackground(), c.getForeground(), c.getFont(),
+                c.isEnabled(), c.isOpaque(), c.hasFocus(), c.getBorder(), c.getWidth(), c.getHeight(),
+                c.getComponentOrientation(), c.getUI()));
+        if (c instanceof JLabel) {
+            JLabel label = (JLabel) c;
+            state.addAll(Arrays.asList(label.getText(), label.isEnabled() ? label.getIcon() : label.getDisabledIcon(),
+                    label.getHorizontalAlignment(), label.getVerticalAlignment(),
+                    label.getHorizontalTextPosition(), label.getVerticalTextPosition(),
+                    label.getIconTextGap(), label.getDisplayedMnemonicIndex()));
+        } else {
+            AbstractButton button = (AbstractButton) c;
+            ButtonModel model = button.getModel();
+            state.addAll(Arrays.asList(button.getText(), button.getIcon(), button.getPressedIcon(),
+                    button.getRolloverIcon(), button.getSelectedIcon(), button.getRolloverSelectedIcon(),
+                    button.getDisabledIcon(), button.getDisabledSelectedIcon(),
+                    model.isArmed(), model.isPressed(), model.isRollover(), model.isSelected(),
+                    button.isBorderPainted(), button.isFocusPainted(), button.isContentAreaFilled(),
+                    button.isRolloverEnabled(), button.getMargin(),
+                    button.getHorizontalAlignment(), button.getVerticalAlignment(),
+                    button.getHorizontalTextPosition(), button.getVerticalTextPosition(),
+                    button.getIconTextGap(), button.getDisplayedMnemonicIndex()));
+        }
+        return state;
+    }
+
+    private void rollWindow() {
+        long now = System.nanoTime();
+        if (now - windowStart < WINDOW_NANOS) {
+            return;
+        }
+        pixelsPerSecond = (long) (windowPixels / ((now - windowStart) / 1e9));
+        windowPixels = 0;
+        windowStart = now;
+        publishedAt = now;
+    }
+
+    private static boolean isAncestor(Component ancestor, Component c) {
+        return ancestor == c || (ancestor instanceof Container && SwingUtilities.isDescendingFrom(c, ancestor));
+    }
+
+    // The nearest JComponent containing both, or null if they share none
+    private static JComponent commonAncestor(JComponent a, JComponent b) {
+        for (Container p = a; p instanceof JComponent; p = p.getParent()) {
+            if (isAncestor(p, b)) {
+                return (JComponent) p;
+            }
+        }
+        return null;
+    }
+
+    // Moves r from c's coordinates into those of its topmost ancestor
+    private static Rectangle toRoot(Component c, Rectangle r) {
+        Rectangle moved = new Rectangle(r);
+        for (Component p = c; p.getParent() != null; p = p.getParent()) {
+            moved.translate(p.getX(), p.getY());
+        }
+        return moved;
+    }
+
+    private static long pixels(Rectangle r) {
+        return (long) r.width * r.height;
+    }
+
+    private static final class Request {
+        private final JComponent component;
+        // In the component's coordinates
+        private final Rectangle area;
+
+        private Request(JComponent component, Rectangle area) {
+            this.component = component;
+            this.area = area;
+        }
+    }
+
+    private static final class Region {
+        private final Component root;
+        private final JComponent owner;
+        // In the root's coordinates
+        private final Rectangle area;
+
+        private Region(Component root, JComponent owner, Rectangle area) {
+            this.root = root;
+            this.owner = owner;
+            this.area = area;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package tvgameboy.launcher;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import tvgameboy.shared.metrics.Counter;
+import tvgameboy.shared.metrics.Metrics;
+
+// Times every event the EDT dispatches. A daemon thread polls the event in
+// flight; once it runs past the threshold the EDT stack is captured and the
+// stall is written, with the active game id, to a rotating log.
+public final class EdtWatchdog {
+    private static final Logger LOG = Logger.getLogger(EdtWatchdog.class.getName());
+    private static final String THRESHOLD_PROPERTY = "tvgameboy.watchdog.thresholdMillis";
+    private static final String LOG_DIR_PROPERTY = "tvgameboy.log.dir";
+    private static final int LOG_FILE_LIMIT_BYTES = 1024 * 1024;
+    private static final int LOG_FILE_COUNT = 5;
+    private static final int RECENT_STALLS = 50;
+
+    private final Supplier<String> activeGameId;
+    private final Logger stallLog = Logger.getLogger(EdtWatchdog.class.getName() + ".stalls");
+    private final Counter stallCount = Metrics.get().counter("launcher.edt.stalls");
+    private final Deque<Stall> recent = new ArrayDeque<>();
+    private volatile long thresholdNanos;
+    private volatile Thread edt;
+    private volatile long dispatchStart;
+    private volatile AWTEvent dispatching;
+    private long reportedStart;
+
+    private EdtWatchdog(Supplier<String> activeGameId, long thresholdMillis) {
+        this.activeGameId = activeGameId;
+        this.thresholdNanos = thresholdMillis * 1_000_000L;
+    }
+
+    // A threshold of 0 or less turns the watchdog off.
+    public static boolean isEnabled() {
+        return thresholdProperty() > 0;
+    }
+
+    public static EdtWatchdog install(Supplier<String> activeGameId) {
+        EdtWatchdog watchdog = new EdtWatchdog(activeGameId, Math.max(1, thresholdProperty()));
+        watchdog.openLog();
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(watchdog.new TimedEventQueue());
+        Thread poller = new Thread(watchdog::poll, "edt-watchdog");
+        poller.setDaemon(true);
+        poller.start();
+        return watchdog;
+    }
+
+    private static long thresholdProperty() {
+        return Long.getLong(THRESHOLD_PROPERTY, 250);
+    }
+
+    public void setThresholdMillis(long millis) {
+        thresholdNanos = Math.max(1, millis) * 1_000_000L;
+    }
+
+    public long getThresholdMillis() {
+        return thresholdNanos / 1_000_000L;
+    }
+
+    public List<Stall> getRecentStalls() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    private void openLog() {
+        stallLog.setUseParentHandlers(false);
+        try {
+            Path dir = logDirectory();
+            Files.createDirectories(dir);
+            FileHandler handler = new FileHandler(dir.resolve("edt-stalls-%g.log").toString(),
+                    LOG_FILE_LIMIT_BYTES, LOG_FILE_COUNT, true);
+            handler.setFormatter(new SimpleFormatter());
+            stallLog.addHandler(handler);
+        } catch (IOException | SecurityException ex) {
+            // Still report through the normal launcher log if the file cannot be opened
+            stallLog.setUseParentHandlers(true);
+            LOG.log(Level.WARNING, "Cannot open the EDT stall log", ex);
+        }
+    }
+
+    private static Path logDirectory() {
+        String configured = System.getProperty(LOG_DIR_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".tvgameboy", "logs");
+    }
+
+    private void poll() {
+        while (true) {
+            try {
+                Thread.sleep(Math.max(10, thresholdNanos / 4_000_000L));
+            } catch (InterruptedException ex) {
+                return;
+            }
+            long start = dispatchStart;
+            AWTEvent event = dispatching;
+            Thread thread = edt;
+            if (start == 0 || event == null || thread == null || start == reportedStart) {
+                continue;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (elapsed < thresholdNanos) {
+                continue;
+            }
+            StackTraceElement[] stack = thread.getStackTrace();
+            // The event may have finished while the stack was being taken
+            if (dispatchStart != start) {
+                continue;
+            }
+            reportedStart = start;
+            record(new Stall(activeGameId.get(), describe(event), elapsed, stack));
+        }
+    }
+
+    private void record(Stall stall) {
+        stallCount.increment();
+        synchronized (recent) {
+            if (recent.size() == RECENT_STALLS) {
+                recent.removeFirst();
+            }
+            recent.addLast(stall);
+        }
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("EDT stalled %d ms+ on screen %s, event %s",
+                stall.getElapsedNanos() / 1_000_000L, stall.getGameId(), stall.getEvent()));
+        for (StackTraceElement frame : stall.getStack()) {
+            report.append(System.lineSeparator()).append("    at ").append(frame);
+        }
+        stallLog.warning(report.toString());
+    }
+
+    private static String describe(AWTEvent event) {
+        String source = event.getSource() == null ? "null" : event.getSource().getClass().getName();
+        return event.getClass().getSimpleName() + "[id=" + event.getID() + "] from " + source;
+    }
+
+    private final class TimedEventQueue extends EventQueue {
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            edt = Thread.currentThread();
+            // Nested loops (modal dialogs) dispatch from inside an event; time the innermost one
+            long outerStart = dispatchStart;
+            AWTEvent outerEvent = dispatching;
+            dispatching = event;
+            dispatchStart = System.nanoTime();
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                dispatching = outerEvent;
+                dispatchStart = outerStart;
+            }
+        }
+    }
+
+    public static final class Stall {
+        private final String gameId;
+        private final String event;
+        private final long elapsedNanos;
+        private final StackTraceElement[] stack;
+
+        Stall(String gameId, String event, long elapsedNanos, StackTraceElement[] stack) {
+            this.gameId = gameId;
+            this.event = event;
+            this.elapsedNanos = elapsedNanos;
+            this.stack = stack;
+        }
+
+        public String getGameId() {
+            return gameId;
+        }
+
+        public String getEvent() {
+            return event;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public StackTraceElement[] getStack() {
+            return stack.clone();
+        }
+    }
+}
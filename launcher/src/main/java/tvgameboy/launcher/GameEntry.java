@@ -1,5 +1,6 @@
 package tvgameboy.launcher;
 
+import java.io.IOException;
 import java.util.function.Supplier;
 import javax.swing.Icon;
 import tvgameboy.shared.Game;
@@ -8,16 +9,27 @@ public final class GameEntry {
     private final String id;
     private final String displayName;
     private final Icon icon;
+    private final IconData iconData;
     private final Supplier<Game> factory;
 
+    // Reads the raw bytes of an entry's icon image when a tile first shows it
+    interface IconData {
+        byte[] read() throws IOException;
+    }
+
     public GameEntry(String id, String displayName, Supplier<Game> factory) {
         this(id, displayName, null, factory);
     }
 
     public GameEntry(String id, String displayName, Icon icon, Supplier<Game> factory) {
+        this(id, displayName, icon, null, factory);
+    }
+
+    GameEntry(String id, String displayName, Icon icon, IconData iconData, Supplier<Game> factory) {
         this.id = id;
         this.displayName = displayName;
         this.icon = icon;
+        this.iconData = iconData;
         this.factory = factory;
     }
 
@@ -29,10 +41,20 @@ public final class GameEntry {
         return displayName;
     }
 
+    // An icon given up front; plugins' icons are read on demand through readIconData instead.
     public Icon getIcon() {
         return icon;
     }
 
+    boolean hasIconData() {
+        return iconData != null;
+    }
+
+    // The undecoded icon image, or null if the entry has none to read.
+    byte[] readIconData() throws IOException {
+        return iconData == null ? null : iconData.read();
+    }
+
     public Supplier<Game> getFactory() {
         return factory;
     }
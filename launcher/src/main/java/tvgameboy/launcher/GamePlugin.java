@@ -0,0 +1,163 @@
+package tvgameboy.launcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import tvgameboy.shared.Game;
+import tvgameboy.shared.asset.AssetBundle;
+
+// One game described by its META-INF/tvgameboy/game.properties index. Only the
+// index is read at discovery; the icon is read from the game's asset bundle or its
+// jar when a tile first shows it, and the game's classes the first time the launcher
+// asks for an instance.
+final class GamePlugin {
+    static final String INDEX_RESOURCE = "META-INF/tvgameboy/game.properties";
+
+    private final Path jar;
+    private final ClassLoader parent;
+    private final String id;
+    private final String displayName;
+    private final String className;
+    private final int order;
+    private final String iconPath;
+    private ClassLoader loader;
+    private Class<? extends Game> gameClass;
+    private AssetBundle assets;
+    private boolean assetsChecked;
+
+    private GamePlugin(Path jar, ClassLoader parent, Properties index) {
+        this.jar = jar;
+        this.parent = parent;
+        this.id = require(index, "id");
+        this.displayName = index.getProperty("name", id);
+        this.className = require(index, "class");
+        this.order = parseOrder(index.getProperty("order"));
+        String icon = index.getProperty("icon");
+        this.iconPath = icon == null || icon.isBlank() ? null : stripLeadingSlash(icon.trim());
+    }
+
+    static GamePlugin fromJar(Path jar, ClassLoader parent) throws IOException {
+        try (JarFile file = new JarFile(jar.toFile())) {
+            ZipEntry indexEntry = file.getEntry(INDEX_RESOURCE);
+            if (indexEntry == null) {
+                return null;
+            }
+            Properties index = new Properties();
+            try (InputStream stream = file.getInputStream(indexEntry)) {
+                index.load(stream);
+            }
+            return new GamePlugin(jar, parent, index);
+        }
+    }
+
+    // Games already on the launcher's class path (IDE runs) use the launcher's class loader.
+    static GamePlugin fromClassPath(URL indexUrl, ClassLoader loader) throws IOException {
+        Properties index = new Properties();
+        try (InputStream stream = indexUrl.openStream()) {
+            index.load(stream);
+        }
+        GamePlugin plugin = new GamePlugin(null, loader, index);
+        plugin.loader = loader;
+        return plugin;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    int getOrder() {
+        return order;
+    }
+
+    boolean isLoaded() {
+        return gameClass != null;
+    }
+
+    GameEntry toEntry() {
+        return new GameEntry(id, displayName, null, iconPath == null ? null : this::readIcon, this::newGame);
+    }
+
+    // Null if the index names an icon neither the asset bundle nor the jar has
+    private byte[] readIcon() throws IOException {
+        AssetBundle bundle = getAssets();
+        if (bundle != null && bundle.contains(iconPath)) {
+            return bundle.readBytes(iconPath);
+        }
+        if (jar == null) {
+            try (InputStream stream = parent.getResourceAsStream(iconPath)) {
+                return stream == null ? null : stream.readAllBytes();
+            }
+        }
+        try (JarFile file = new JarFile(jar.toFile())) {
+            ZipEntry entry = file.getEntry(iconPath);
+            if (entry == null) {
+                // A jar dropped in without its bundle beside it still carries a copy inside
+                bundle = AssetBundle.find(jar, id);
+                return bundle == null ? null : bundle.readBytes(iconPath);
+            }
+            try (InputStream stream = file.getInputStream(entry)) {
+                return stream.readAllBytes();
+            }
+        }
+    }
+
+    // The bundle installed next to the jar, or for class-path games the one on the class
+    // path; looked up once, and null if there is none.
+    private synchronized AssetBundle getAssets() throws IOException {
+        if (!assetsChecked) {
+            assetsChecked = true;
+            if (jar == null) {
+                assets = AssetBundle.find(parent, id);
+            } else {
+                Path installed = jar.resolveSibling(id + AssetBundle.EXTENSION);
+                assets = Files.isRegularFile(installed) ? AssetBundle.open(installed) : null;
+            }
+        }
+        return assets;
+    }
+
+    synchronized Game newGame() {
+        try {
+            if (gameClass == null) {
+                if (loader == null) {
+                    loader = new URLClassLoader("game-" + id, new URL[] {jar.toUri().toURL()}, parent);
+                }
+                gameClass = Class.forName(className, true, loader).asSubclass(Game.class);
+            }
+            return gameClass.getDeclaredConstructor().newInstance();
+        } catch (IOException | ReflectiveOperationException | ClassCastException ex) {
+            Throwable cause = ex instanceof InvocationTargetException ? ex.getCause() : ex;
+            throw new IllegalStateException("Cannot load game " + id + " (" + className + ")", cause);
+        }
+    }
+
+    private static String require(Properties index, String key) {
+        String value = index.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Game index is missing '" + key + "'");
+        }
+        return value.trim();
+    }
+
+    private static int parseOrder(String value) {
+        if (value == null) {
+            return Integer.MAX_VALUE;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    private static String stripLeadingSlash(String path) {
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+}
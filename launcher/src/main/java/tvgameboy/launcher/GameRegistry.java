@@ -1,30 +1,103 @@
 package tvgameboy.launcher;
 
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
-import tvgameboy.games.template.TemplateGame;
-
+// Discovers games from the plugins directory (one jar per game) and from the
+// launcher's class path. Only each game's index is read here; game classes load
+// when the game is first opened.
 public final class GameRegistry {
-    private static final List<GameEntry> GAMES;
+    private static final Logger LOG = Logger.getLogger(GameRegistry.class.getName());
+    private static final String PLUGINS_DIR_PROPERTY = "tvgameboy.plugins.dir";
 
-    static {
-        List<GameEntry> games = new ArrayList<>();
+    private GameRegistry() {
+    }
 
-        games.add(0, new GameEntry(
-            "template-game",
-            "Cast",
-            TemplateGame::new
-        ));
+    public static List<GameEntry> getGames() {
+        return Holder.GAMES;
+    }
 
-        GAMES = Collections.unmodifiableList(games);
+    public static Path getPluginsDirectory() {
+        String configured = System.getProperty(PLUGINS_DIR_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured);
+        }
+        // Installed layout: <app>/lib/launcher.jar next to <app>/plugins
+        CodeSource source = GameRegistry.class.getProtectionDomain().getCodeSource();
+        if (source != null) {
+            try {
+                Path location = Paths.get(source.getLocation().toURI());
+                if (Files.isRegularFile(location) && location.getParent() != null
+                        && location.getParent().getParent() != null) {
+                    return location.getParent().getParent().resolve("plugins");
+                }
+            } catch (URISyntaxException | IllegalArgumentException ignored) {
+            }
+        }
+        return Paths.get("plugins");
     }
 
-    private GameRegistry() {
+    static List<GameEntry> discover(Path pluginsDirectory, ClassLoader parent) {
+        Map<String, GamePlugin> plugins = new LinkedHashMap<>();
+
+        try {
+            Enumeration<URL> indexes = parent.getResources(GamePlugin.INDEX_RESOURCE);
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+                try {
+                    GamePlugin plugin = GamePlugin.fromClassPath(index, parent);
+                    plugins.putIfAbsent(plugin.getId(), plugin);
+                } catch (IOException | IllegalArgumentException ex) {
+                    LOG.log(Level.WARNING, "Skipping game index " + index, ex);
+                }
+            }
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Cannot scan the class path for games", ex);
+        }
+
+        if (Files.isDirectory(pluginsDirectory)) {
+            try (DirectoryStream<Path> jars = Files.newDirectoryStream(pluginsDirectory, "*.jar")) {
+                for (Path jar : jars) {
+                    try {
+                        GamePlugin plugin = GamePlugin.fromJar(jar, parent);
+                        if (plugin != null) {
+                            plugins.putIfAbsent(plugin.getId(), plugin);
+                        }
+                    } catch (IOException | IllegalArgumentException ex) {
+                        LOG.log(Level.WARNING, "Skipping game plugin " + jar, ex);
+                    }
+                }
+            } catch (IOException ex) {
+                LOG.log(Level.WARNING, "Cannot read plugins directory " + pluginsDirectory, ex);
+            }
+        }
+
+        List<GamePlugin> sorted = new ArrayList<>(plugins.values());
+        sorted.sort(Comparator.comparingInt(GamePlugin::getOrder).thenComparing(GamePlugin::getId));
+        List<GameEntry> games = new ArrayList<>(sorted.size());
+        for (GamePlugin plugin : sorted) {
+            games.add(plugin.toEntry());
+        }
+        return Collections.unmodifiableList(games);
     }
 
-    public static List<GameEntry> getGames() {
-        return GAMES;
+    private static final class Holder {
+        private static final List<GameEntry> GAMES =
+                discover(getPluginsDirectory(), GameRegistry.class.getClassLoader());
     }
 }
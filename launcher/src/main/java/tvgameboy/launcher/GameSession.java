@@ -0,0 +1,117 @@
+package tvgameboy.launcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.swing.JComponent;
+import tvgameboy.shared.Game;
+
+public final class GameSession {
+    private final GameEntry entry;
+    private final Game game;
+    private final Set<Thread> threadsAtStart;
+    private Set<Thread> threadsAtClose;
+    private JComponent view;
+    private boolean paused;
+    private boolean disposed;
+
+    GameSession(GameEntry entry, Game game, Set<Thread> threadsAtStart) {
+        this.entry = entry;
+        this.game = game;
+        this.threadsAtStart = threadsAtStart;
+    }
+
+    JComponent open(Runnable returnToMenu) {
+        view = game.getView(returnToMenu);
+        return view;
+    }
+
+    public GameEntry getEntry() {
+        return entry;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public JComponent getView() {
+        return view;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    void pause() {
+        if (paused || disposed) {
+            return;
+        }
+        paused = true;
+        game.pause();
+    }
+
+    void resume() {
+        if (!paused || disposed) {
+            return;
+        }
+        paused = false;
+        game.resume();
+    }
+
+    void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        try {
+            game.dispose();
+        } finally {
+            // Threads started after this belong to whatever opens next, not to this session
+            threadsAtClose = liveThreads();
+            view = null;
+        }
+    }
+
+    // Every live thread, without the stack walk of Thread.getAllStackTraces.
+    static Set<Thread> liveThreads() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        Thread[] threads = new Thread[root.activeCount() + 16];
+        int count;
+        // activeCount is an estimate; a full array may have missed some
+        while ((count = root.enumerate(threads, true)) == threads.length) {
+            threads = new Thread[threads.length * 2];
+        }
+        return new HashSet<>(Arrays.asList(threads).subList(0, count));
+    }
+
+    // Threads started while the session was open, up to its dispose, that are still alive,
+    // minus shared launcher pools.
+    List<Thread> findLeakedThreads(List<String> ignoredPrefixes) {
+        List<Thread> leaked = new ArrayList<>();
+        for (Thread thread : threadsAtClose != null ? threadsAtClose : liveThreads()) {
+            if (!thread.isAlive() || threadsAtStart.contains(thread) || isIgnored(thread, ignoredPrefixes)) {
+                continue;
+            }
+            leaked.add(thread);
+        }
+        return leaked;
+    }
+
+    private static boolean isIgnored(Thread thread, List<String> ignoredPrefixes) {
+        for (String prefix : ignoredPrefixes) {
+            if (thread.getName().startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
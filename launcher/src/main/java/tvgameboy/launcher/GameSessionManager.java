@@ -0,0 +1,347 @@
+package tvgameboy.launcher;
+
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import tvgameboy.shared.Game;
+import tvgameboy.shared.snapshot.SnapshotReader;
+
+// Owns the running game: pauses it while the window is iconified, disposes it
+// when the player leaves by any route, and then audits for leaked timers and threads.
+// With warm start on, a tile that stays hovered or focused for a moment gets its game
+// loaded and its view built ahead of the click; the paused result is handed over or
+// discarded. Sweeping across tiles only warms the one the player settles on.
+// With a SnapshotStore set, a game's snapshot is taken when the player leaves it and
+// handed to the next instance of that game before its view is built.
+public final class GameSessionManager {
+    private static final Logger LOG = Logger.getLogger(GameSessionManager.class.getName());
+    private static final int LEAK_CHECK_DELAY_MILLIS = 1000;
+    private static final int WARM_DELAY_MILLIS = 200;
+    private static final String WARM_START_PROPERTY = "tvgameboy.warmstart";
+
+    private final List<String> ignoredThreadPrefixes = new ArrayList<>(List.of(
+            "AWT-", "Java2D", "TimerQueue", "Swing-", "asset-loader-", "ForkJoinPool.commonPool",
+            "Common-Cleaner", "process reaper", "Attach Listener", "DestroyJavaVM", "game-warmup"
+    ));
+    private final boolean warmStartEnabled =
+            Boolean.parseBoolean(System.getProperty(WARM_START_PROPERTY, "true"));
+    private final Map<String, Long> timeToFirstFrameNanos = new HashMap<>();
+    private final Timer warmDelay = new Timer(WARM_DELAY_MILLIS, event -> settleWarm());
+    private ExecutorService warmupExecutor;
+    private SnapshotStore snapshots;
+    private Runnable returnToMenu;
+    // Told true when the active game is paused and false when it resumes, as the input recorder is
+    private Consumer<Boolean> pauseObserver;
+    // The tile the player is on, warmed once the delay passes without them moving on
+    private GameEntry warmTarget;
+    private GameEntry warmEntry;
+    private GameSession warm;
+    private GameSession active;
+    // The game whose factory, snapshot restore or view is running on the EDT; read by the stall watchdog
+    private volatile String openingId;
+    private int leakedSessions;
+
+    public GameSessionManager() {
+        warmDelay.setRepeats(false);
+    }
+
+    public void install(JFrame frame) {
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowIconified(WindowEvent event) {
+                pauseActive();
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent event) {
+                resumeActive();
+            }
+
+            @Override
+            public void windowClosing(WindowEvent event) {
+                warmDelay.stop();
+                discardWarm();
+                closeActive();
+            }
+
+            @Override
+            public void windowClosed(WindowEvent event) {
+                warmDelay.stop();
+                discardWarm();
+                closeActive();
+            }
+        });
+    }
+
+    public JComponent open(GameEntry entry, Runnable returnToMenu) {
+        closeActive();
+        warmTarget = null;
+        warmDelay.stop();
+        GameSession session = takeWarm(entry);
+        openingId = entry.getId();
+        try {
+            if (session != null) {
+                session.resume();
+            } else {
+                // Taken before the factory runs, so threads the game starts while loading count as its own
+                Set<Thread> threadsAtStart = GameSession.liveThreads();
+                session = new GameSession(entry, entry.getFactory().get(), threadsAtStart);
+                restore(session);
+                session.open(returnToMenu);
+            }
+        } finally {
+            openingId = null;
+        }
+        active = session;
+        return session.getView();
+    }
+
+    void setSnapshotStore(SnapshotStore snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    void setPauseObserver(Consumer<Boolean> observer) {
+        this.pauseObserver = observer;
+    }
+
+    public boolean isWarmStartEnabled() {
+        return warmStartEnabled;
+    }
+
+    // Loads and builds the entry's game ahead of a likely click, once the player has stayed
+    // on its tile for the warm delay.
+    public void warm(GameEntry entry, Runnable returnToMenu) {
+        if (!warmStartEnabled) {
+            return;
+        }
+        this.returnToMenu = returnToMenu;
+        warmTarget = entry;
+        warmDelay.restart();
+    }
+
+    // Drops a speculative game if the player moved on from its tile; also after the delay,
+    // so passing back over the tile keeps it.
+    public void cancelWarm(GameEntry entry) {
+        if (entry == warmTarget) {
+            warmTarget = null;
+            warmDelay.restart();
+        }
+    }
+
+    private void settleWarm() {
+        GameEntry entry = warmTarget;
+        // Already warm or warming
+        if (entry == warmEntry) {
+            return;
+        }
+        discardWarm();
+        if (entry == null || (active != null && active.getEntry() == entry)) {
+            return;
+        }
+        warmEntry = entry;
+        if (warmupExecutor == null) {
+            warmupExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "game-warmup");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        }
+        // The thread snapshot, class loading and construction run off the EDT; the Swing view
+        // is built on it
+        CompletableFuture.supplyAsync(GameSession::liveThreads, warmupExecutor)
+                .thenApply(threadsAtStart -> new GameSession(entry, entry.getFactory().get(), threadsAtStart))
+                .whenComplete((session, error) -> SwingUtilities.invokeLater(() -> finishWarm(entry, session, error)));
+    }
+
+    // Call after the opened view has been shown; runs once the queued paint has happened.
+    public void recordFirstFrame(GameEntry entry, long openedNanos, boolean warmStarted) {
+        long elapsed = System.nanoTime() - openedNanos;
+        timeToFirstFrameNanos.put(entry.getId(), elapsed);
+        LOG.info(String.format("Game %s first frame after %.1f ms (%s start)",
+                entry.getId(), elapsed / 1_000_000.0, warmStarted ? "warm" : "cold"));
+    }
+
+    // The game whose view is showing, or null on the menu.
+    public Game getActiveGame() {
+        return active == null ? null : active.getGame();
+    }
+
+    public JComponent getActiveView() {
+        return active == null ? null : active.getView();
+    }
+
+    // The id of the game being opened or warmed on the EDT right now, or null.
+    public String getOpeningId() {
+        return openingId;
+    }
+
+    public boolean isWarm(GameEntry entry) {
+        return warm != null && warm.getEntry() == entry;
+    }
+
+    public Map<String, Long> getTimeToFirstFrameNanos() {
+        return Collections.unmodifiableMap(timeToFirstFrameNanos);
+    }
+
+    private void finishWarm(GameEntry entry, GameSession session, Throwable error) {
+        if (error != null) {
+            if (entry == warmEntry) {
+                warmEntry = null;
+            }
+            LOG.log(Level.FINE, "Warm start of " + entry.getId() + " failed", error);
+            return;
+        }
+        if (entry != warmEntry) {
+            // The player moved on while the game was loading
+            closeSession(session);
+            return;
+        }
+        openingId = entry.getId();
+        try {
+            restore(session);
+            session.open(returnToMenu);
+            session.pause();
+            warm = session;
+        } catch (RuntimeException ex) {
+            warmEntry = null;
+            LOG.log(Level.WARNING, "Warm start of " + entry.getId() + " failed", ex);
+            closeSession(session);
+        } finally {
+            openingId = null;
+        }
+    }
+
+    private GameSession takeWarm(GameEntry entry) {
+        if (warm == null || warm.getEntry() != entry) {
+            discardWarm();
+            return null;
+        }
+        GameSession session = warm;
+        warm = null;
+        warmEntry = null;
+        return session;
+    }
+
+    private void discardWarm() {
+        warmEntry = null;
+        GameSession session = warm;
+        warm = null;
+        if (session != null) {
+            closeSession(session);
+        }
+    }
+
+    public GameSession getActive() {
+        return active;
+    }
+
+    public void pauseActive() {
+        if (active != null && !active.isPaused()) {
+            active.pause();
+            if (pauseObserver != null) {
+                pauseObserver.accept(true);
+            }
+        }
+    }
+
+    public void resumeActive() {
+        if (active != null && active.isPaused()) {
+            active.resume();
+            if (pauseObserver != null) {
+                pauseObserver.accept(false);
+            }
+        }
+    }
+
+    public void closeActive() {
+        GameSession session = active;
+        if (session == null) {
+            return;
+        }
+        active = null;
+        if (snapshots != null) {
+            snapshots.save(session.getEntry().getId(), session.getGame());
+        }
+        closeSession(session);
+    }
+
+    private void restore(GameSession session) {
+        if (snapshots == null) {
+            return;
+        }
+        String id = session.getEntry().getId();
+        try {
+            byte[] snapshot = snapshots.get(id);
+            if (snapshot == null) {
+                return;
+            }
+            long start = System.nanoTime();
+            if (session.getGame().readSnapshot(new SnapshotReader(snapshot))) {
+                LOG.info(String.format("Game %s restored from %d bytes in %.2f ms",
+                        id, snapshot.length, (System.nanoTime() - start) / 1_000_000.0));
+                return;
+            }
+            LOG.info("Game " + id + " declined its snapshot; starting fresh");
+        } catch (IOException | RuntimeException ex) {
+            LOG.log(Level.WARNING, "Game " + id + " could not read its snapshot; starting fresh", ex);
+        }
+        snapshots.discard(id);
+    }
+
+    private void closeSession(GameSession session) {
+        try {
+            session.dispose();
+        } catch (RuntimeException ex) {
+            LOG.log(Level.WARNING, "Game " + session.getEntry().getId() + " failed to dispose", ex);
+        }
+
+        // Give threads that were told to stop a moment to finish before auditing
+        Timer audit = new Timer(LEAK_CHECK_DELAY_MILLIS, event -> audit(session));
+        audit.setRepeats(false);
+        audit.start();
+    }
+
+    public void ignoreThreadPrefix(String prefix) {
+        ignoredThreadPrefixes.add(prefix);
+    }
+
+    public int getLeakedSessionCount() {
+        return leakedSessions;
+    }
+
+    private void audit(GameSession session) {
+        String id = session.getEntry().getId();
+        int timers = session.getGame().getActiveTimerCount();
+        List<Thread> threads = session.findLeakedThreads(ignoredThreadPrefixes);
+        if (timers == 0 && threads.isEmpty()) {
+            return;
+        }
+
+        leakedSessions++;
+        StringBuilder report = new StringBuilder("Game ").append(id).append(" outlived its session:");
+        if (timers > 0) {
+            report.append(' ').append(timers).append(" running timer(s)");
+        }
+        for (Thread thread : threads) {
+            report.append(" thread '").append(thread.getName()).append('\'');
+        }
+        LOG.warning(report.toString());
+    }
+}
@@ -0,0 +1,185 @@
+package tvgameboy.launcher;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.JComponent;
+import javax.swing.RepaintManager;
+import javax.swing.SwingUtilities;
+import tvgameboy.shared.Game;
+import tvgameboy.shared.GameTimers;
+import tvgameboy.shared.input.InputQueue;
+import tvgameboy.shared.replay.InputLogReader;
+
+// With -Dtvgameboy.replay=<file>, plays a log written by SessionRecorder back into
+// the launcher once its first frame is up, at the recorded pace or, with
+// -Dtvgameboy.replay.speed=max, as fast as events can be applied. Game timers run on
+// the manual GameTimers clock and never fire by themselves: each TICK record fires
+// the one timer it names, once, and pauses and resumes are replayed where they were
+// recorded. With the recorded seed restored, each replay feeds the games the same
+// input and timer firings in the same order.
+//
+// After each event the dirty regions are painted at once and timed; the report
+// logged at the end gives the frame times so builds can be compared on equal input.
+// -Dtvgameboy.replay.exit=true exits when the replay is done.
+final class InputReplay {
+    static final String REPLAY_PROPERTY = "tvgameboy.replay";
+    static final String SPEED_PROPERTY = "tvgameboy.replay.speed";
+    static final String EXIT_PROPERTY = "tvgameboy.replay.exit";
+    private static final Logger LOG = Logger.getLogger(InputReplay.class.getName());
+
+    private final LauncherApp app;
+    private final InputLogReader log;
+    private final boolean realTime;
+    private long[] frameNanos = new long[1024];
+    private int frames;
+    private int events;
+    private int skipped;
+
+    private InputReplay(LauncherApp app, InputLogReader log, boolean realTime) {
+        this.app = app;
+        this.log = log;
+        this.realTime = realTime;
+    }
+
+    // Must run before any game is created: switches games to the manual clock and the recorded seed.
+    static InputReplay prepareIfRequested(LauncherApp app) {
+        String file = System.getProperty(REPLAY_PROPERTY);
+        if (file == null || file.isBlank()) {
+            return null;
+        }
+        Path path = Paths.get(file);
+        InputLogReader log;
+        try {
+            log = new InputLogReader(path);
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Cannot replay " + path, ex);
+            return null;
+        }
+        GameTimers.setManualClock(true);
+        System.setProperty(SessionRecorder.SEED_PROPERTY, Long.toString(log.getSeed()));
+        boolean realTime = !"max".equalsIgnoreCase(System.getProperty(SPEED_PROPERTY, "1"));
+        LOG.info("Replaying " + path.toAbsolutePath() + (realTime ? " at 1x" : " at full speed"));
+        return new InputReplay(app, log, realTime);
+    }
+
+    void start() {
+        Thread thread = new Thread(this::run, "input-replay");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        long startNanos = System.nanoTime();
+        try {
+            while (log.next()) {
+                if (realTime) {
+                    long due = startNanos + log.getTimeNanos();
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                SwingUtilities.invokeAndWait(this::apply);
+                // Queued behind whatever the event scheduled, such as an input queue drain
+                SwingUtilities.invokeAndWait(this::paintNow);
+            }
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Replay stopped at a damaged record", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (InvocationTargetException ex) {
+            LOG.log(Level.WARNING, "Replay failed", ex.getCause());
+        }
+        LOG.info(report(System.nanoTime() - startNanos));
+        if (Boolean.getBoolean(EXIT_PROPERTY)) {
+            System.exit(0);
+        }
+    }
+
+    private void apply() {
+        events++;
+        GameSessionManager sessions = app.getSessions();
+        switch (log.getEvent()) {
+            case OPEN:
+                if ("raft".equals(log.getScreenId())) {
+                    app.showRaftScreen();
+                    return;
+                }
+                GameEntry entry = GameRegistry.getGames().stream()
+                        .filter(game -> game.getId().equals(log.getScreenId()))
+                        .findFirst()
+                        .orElse(null);
+                if (entry == null) {
+                    skipped++;
+                    LOG.warning("Replay skips unknown game " + log.getScreenId());
+                    return;
+                }
+                app.openGame(entry);
+                return;
+            case MENU:
+                app.showMenu();
+                return;
+            default:
+                if (!applyToActive(log, sessions)) {
+                    skipped++;
+                }
+        }
+    }
+
+    // Applies an INPUT, TICK, PAUSE or RESUME record to the active game. Returns false if it
+    // could not be, because no game is open, the game has no input queue or timers, or the
+    // timer named is not running: the replay has then left the recorded path.
+    static boolean applyToActive(InputLogReader log, GameSessionManager sessions) {
+        switch (log.getEvent()) {
+            case INPUT:
+                InputQueue queue = InputQueue.of(sessions.getActiveView());
+                return queue != null && queue.offer(log.getAction(), log.isPressed(), System.nanoTime());
+            case TICK:
+                Game game = sessions.getActiveGame();
+                GameTimers timers = game == null ? null : game.getTimers();
+                return timers != null && timers.isManualClock() && timers.fire(log.getTimerId());
+            case PAUSE:
+                sessions.pauseActive();
+                return sessions.getActive() != null;
+            case RESUME:
+                sessions.resumeActive();
+                return sessions.getActive() != null;
+            default:
+                return false;
+        }
+    }
+
+    private void paintNow() {
+        JComponent root = app.getRootComponent();
+        long start = System.nanoTime();
+        RepaintManager.currentManager(root).paintDirtyRegions();
+        if (frames == frameNanos.length) {
+            frameNanos = Arrays.copyOf(frameNanos, frames * 2);
+        }
+        frameNanos[frames++] = System.nanoTime() - start;
+    }
+
+    private String report(long elapsedNanos) {
+        long[] sorted = Arrays.copyOf(frameNanos, frames);
+        Arrays.sort(sorted);
+        return String.format("Replay done: %d events (%d skipped) in %.1f ms; frame ms p50 %.2f, p95 %.2f, "
+                        + "p99 %.2f, max %.2f", events, skipped, elapsedNanos / 1e6,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+}
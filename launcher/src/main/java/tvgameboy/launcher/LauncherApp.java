@@ -5,16 +5,10 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.GradientPaint;
-import java.awt.RenderingHints;
-import java.awt.geom.Path2D;
-import java.util.Random;
 import java.awt.Frame;
 import java.awt.GraphicsEnvironment;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
-import java.net.URL;
 import java.awt.Insets;
 import java.awt.Point;
 import java.awt.Rectangle;
@@ -22,396 +16,480 @@ import java.awt.Toolkit;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import javax.imageio.ImageIO;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.AbstractAction;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JComponent;
 import javax.swing.JFrame;
+import javax.swing.Icon;
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JRootPane;
+import javax.swing.KeyStroke;
 import javax.swing.SwingUtilities;
 import javax.swing.Timer;
+import javax.swing.UIDefaults;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
-import tvgameboy.shared.Game;
+import tvgameboy.shared.asset.AssetBundle;
+import tvgameboy.shared.asset.AssetLoader;
+import tvgameboy.shared.asset.DiskCache;
+import tvgameboy.shared.asset.ImageAsset;
+import tvgameboy.shared.asset.ImageRegion;
+import tvgameboy.shared.asset.RegionDecoder;
+import tvgameboy.shared.input.GridFocus;
+import tvgameboy.shared.render.Pixelator;
+import tvgameboy.shared.render.SurfaceType;
+import tvgameboy.shared.theme.ColorRole;
+import tvgameboy.shared.theme.FontRole;
+import tvgameboy.shared.theme.Theme;
 
 public final class LauncherApp {
+    private static final Logger LOG = Logger.getLogger(LauncherApp.class.getName());
+    private static final boolean FAST_START = Boolean.getBoolean("tvgameboy.faststart");
+    private static final String EXIT_AFTER_STARTUP_PROPERTY = "tvgameboy.startup.exit";
+    private static final Theme THEME = Theme.DARK;
     private static final int TILE_ROWS = 2;
     private static final int TILE_COLUMNS = 3;
-    private static final int TILE_COUNT = TILE_ROWS * TILE_COLUMNS;
-
+    // The tile that shows the raft screen when no game takes it
+    private static final int RAFT_SLOT = 2;
+    // Tile icons kept for about three screens of tiles
+    private static final int THUMBNAIL_CACHE_SIZE = TILE_ROWS * TILE_COLUMNS * 3;
+    private static final int THUMBNAIL_SIZE = 64;
+    private static final int TILE_WIDTH = 160;
+    private static final int TILE_HEIGHT = 100;
+    private static final int TILE_PIXEL_FACTOR = 12;
+    private static final int TILE_BLOCKS_WIDE = TILE_WIDTH / TILE_PIXEL_FACTOR;
+    private static final int TILE_BLOCKS_HIGH = TILE_HEIGHT / TILE_PIXEL_FACTOR;
+    private static final ImageAsset RAFT_IMAGE = ImageAsset.bundled("/serene-ocean-raft-stockcake.webp");
+    private static final String APP_ICON = "icons/app-logo.png";
+    // The sizes the logo is scaled to when the asset bundle is built, in launcher/build.gradle
+    private static final int TITLE_ICON_SIZE = 18;
+    private static final Dimension[] WINDOW_ICON_SIZES = {new Dimension(48, 32), new Dimension(128, 84)};
+    // The raft tile's id among the tile images; game ids come from their plugin index
+    private static final String RAFT_TILE_ID = "launcher.raft-tile";
+
+    private static boolean themeApplied;
+
+    // Null in offscreen mode, where the same component tree is built but never shown in a window
     private final JFrame frame;
+    private final JPanel root;
     private final JPanel menuPanel;
     private final JPanel contentPanel;
+    private final GameSessionManager sessions = new GameSessionManager();
+    private final RemoteInput remoteInput = new RemoteInput(sessions);
+    private final SessionRecorder recorder;
+    private final List<Runnable> afterWarmUp = new ArrayList<>();
+    private boolean warmedUp;
+    private JLabel titleIconLabel;
+    private final TileThumbnails thumbnails = new TileThumbnails(new DiskCache(DiskCache.defaultRoot()),
+            THUMBNAIL_CACHE_SIZE, THUMBNAIL_SIZE, this::isTileShowing);
+    private TileGrid<GameEntry> menuTiles;
+    private Icon raftTileArt;
+    private JButton lastTile;
+    private final PerformanceHud hud;
+    private volatile String screenName = "menu";
     private Point dragOffset;
     private JButton maximizeButton;
     private Rectangle normalBounds;
 
     public static void main(String[] args) {
+        // The pipeline is fixed once AWT loads, so it is chosen first
+        StartupProfiler.get().time("render pipeline", RenderCalibration::apply);
         SwingUtilities.invokeLater(LauncherApp::new);
     }
 
     public LauncherApp() {
-        applyTheme();
+        this(false);
+    }
+
+    // Offscreen instances work under java.awt.headless=true; getRootComponent() can be sized and
+    // painted into an image, as the rendering harness does.
+    LauncherApp(boolean offscreen) {
+        StartupProfiler profiler = StartupProfiler.get();
+        if (!offscreen && EdtWatchdog.isEnabled()) {
+            // screenName is only set once a game's view is back from its factory and getView,
+            // so while a game is being opened its stalls go to that game's id instead
+            profiler.time("watchdog", () -> EdtWatchdog.install(() -> {
+                String opening = sessions.getOpeningId();
+                return opening != null ? opening : screenName;
+            }));
+        }
+        profiler.time("theme", LauncherApp::applyTheme);
+        // Opened before anything asks the asset loader for the raft image
+        profiler.time("asset bundle", Assets::get);
+        if (!offscreen) {
+            DirtyRegionRepaintManager.install();
+        }
+        recorder = offscreen ? null : SessionRecorder.startIfRequested();
+        if (recorder != null) {
+            sessions.setPauseObserver(recorder::paused);
+        }
+        InputReplay replay = offscreen ? null : InputReplay.prepareIfRequested(this);
+        if (!offscreen && recorder == null && replay == null) {
+            // Recorded and replayed sessions always start games fresh
+            sessions.setSnapshotStore(SnapshotStore.openIfEnabled());
+        }
 
-        frame = new JFrame("TV GameBoy");
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.setUndecorated(true);
-        frame.setMinimumSize(new Dimension(900, 600));
-        applyWindowIcon();
+        frame = offscreen ? null : profiler.time("frame", () -> {
+            JFrame window = new JFrame("TV GameBoy");
+            window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            window.setUndecorated(true);
+            window.setMinimumSize(new Dimension(900, 600));
+            return window;
+        });
+        if (frame != null) {
+            sessions.install(frame);
+            remoteInput.install();
+        }
 
-        menuPanel = buildMenuPanel();
-        contentPanel = new JPanel(new BorderLayout());
-        contentPanel.setBackground(new Color(10, 12, 14));
+        menuPanel = profiler.time("menu", this::buildMenuPanel);
+        contentPanel = new JPanel(new BorderLayout()) {
+            @Override
+            protected void paintChildren(Graphics g) {
+                if (!hud.isActive()) {
+                    super.paintChildren(g);
+                    return;
+                }
+                long start = System.nanoTime();
+                super.paintChildren(g);
+                hud.recordPaint(start, System.nanoTime());
+            }
+        };
+        contentPanel.setBackground(THEME.color(ColorRole.BACKGROUND));
+        hud = new PerformanceHud(contentPanel, () -> screenName);
 
-        JPanel root = new JPanel(new BorderLayout());
-        root.add(buildTitleBar(), BorderLayout.NORTH);
+        root = new JPanel(new BorderLayout()) {
+            @Override
+            public void paint(Graphics g) {
+                super.paint(g);
+                profiler.markFirstFrame();
+            }
+        };
+        root.add(profiler.time("title bar", this::buildTitleBar), BorderLayout.NORTH);
         root.add(contentPanel, BorderLayout.CENTER);
+        showPanel(menuPanel, "menu");
+        profiler.onFirstFrame(this::startWarmUp);
+
+        if (!FAST_START) {
+            profiler.time("app icon", () -> applyAppIcon(loadWindowIcons(), loadTitleIcon()));
+        }
+        if (frame == null) {
+            return;
+        }
+        frame.setGlassPane(hud);
+        installHudToggle();
         frame.setContentPane(root);
 
-        showPanel(menuPanel);
+        profiler.time("show", () -> {
+            frame.setLocationRelativeTo(null);
+            frame.setVisible(true);
+        });
+        SwingUtilities.invokeLater(this::focusMenu);
+        if (replay != null) {
+            profiler.onFirstFrame(replay::start);
+        } else {
+            // Kept out of replays, whose frame times it would skew
+            sessions.ignoreThreadPrefix("render-calibration");
+            profiler.onFirstFrame(RenderCalibration::startIfNeeded);
+            if (!offscreen) {
+                sessions.ignoreThreadPrefix("tile-icons");
+                profiler.onFirstFrame(() -> deferUntilWarm(this::sweepTileImages));
+            }
+        }
+    }
 
-        frame.setLocationRelativeTo(null);
-        frame.setVisible(true);
+    // Runs work that the first frame does not need. In fast-start mode this includes the window
+    // icon and tile artwork; font warm-up always happens here so games find the fonts loaded.
+    private void startWarmUp() {
+        StartupProfiler profiler = StartupProfiler.get();
+        Thread warmUp = new Thread(() -> {
+            List<Image> windowIcons = FAST_START ? profiler.time("app icon", LauncherApp::loadWindowIcons) : null;
+            Icon titleIcon = FAST_START ? loadTitleIcon() : null;
+            profiler.time("font warm-up", FontRole::warmUp);
+            SwingUtilities.invokeLater(() -> {
+                if (FAST_START) {
+                    applyAppIcon(windowIcons, titleIcon);
+                }
+                List<Runnable> tasks = new ArrayList<>(afterWarmUp);
+                afterWarmUp.clear();
+                warmedUp = true;
+                for (Runnable task : tasks) {
+                    task.run();
+                }
+                LOG.info(profiler.report());
+                if (Boolean.getBoolean(EXIT_AFTER_STARTUP_PROPERTY)) {
+                    // Used by the cdsArchive build task to dump the classes a full startup loads
+                    System.exit(0);
+                }
+            });
+        }, "startup-warmup");
+        warmUp.setDaemon(true);
+        warmUp.start();
+    }
+
+    private void deferUntilWarm(Runnable task) {
+        if (!FAST_START || warmedUp) {
+            task.run();
+        } else {
+            afterWarmUp.add(task);
+        }
     }
 
     private JPanel buildMenuPanel() {
         JPanel outer = new JPanel(new BorderLayout());
         outer.setBorder(BorderFactory.createEmptyBorder(24, 24, 24, 24));
-        outer.setBackground(new Color(10, 12, 14));
-
-        JPanel tiles = new JPanel(new GridLayout(TILE_ROWS, TILE_COLUMNS, 16, 16));
-        tiles.setBorder(BorderFactory.createEmptyBorder(6, 6, 6, 6));
-        tiles.setBackground(new Color(10, 12, 14));
+        outer.setBackground(THEME.color(ColorRole.BACKGROUND));
 
+        // The first game takes the top-right slot, where the raft tile sits when there are none
         List<GameEntry> games = GameRegistry.getGames();
-        GameEntry[] entries = new GameEntry[TILE_COUNT];
-        for (int i = 0; i < TILE_COUNT; i++) {
-            entries[i] = i < games.size() ? games.get(i) : null;
+        List<GameEntry> slots = new ArrayList<>(games);
+        while (slots.size() <= RAFT_SLOT) {
+            slots.add(null);
         }
+        Collections.swap(slots, 0, RAFT_SLOT);
 
-        // Move everything from top-left (index 0) into the CAST slot (index 2)
-        GameEntry tmp = entries[2];
-        entries[2] = entries[0];
-        entries[0] = tmp;
+        // Only one screen of tiles is built; scrolling rebinds them to other games
+        TileGrid<GameEntry> tiles = new TileGrid<>(TILE_ROWS, TILE_COLUMNS, 16, slots, this::createTile, this::bindTile);
+        tiles.setBorder(BorderFactory.createEmptyBorder(6, 6, 6, 6));
+        tiles.setBackground(THEME.color(ColorRole.BACKGROUND));
+        menuTiles = tiles;
+        outer.add(tiles, BorderLayout.CENTER);
 
-        for (int i = 0; i < TILE_COUNT; i++) {
-            JButton button = createTileButton(i, entries[i]);
-            tiles.add(button);
+        if (tiles.getRowCount() > tiles.getVisibleRows()) {
+            JLabel position = new JLabel("", JLabel.CENTER);
+            position.setFont(FontRole.CAPTION.font());
+            position.setForeground(THEME.color(ColorRole.TEXT_MUTED));
+            position.setBorder(BorderFactory.createEmptyBorder(8, 0, 0, 0));
+            Runnable update = () -> {
+                int first = tiles.getFirstRow() * TILE_COLUMNS;
+                position.setText(String.format("Games %d-%d of %d", first + 1,
+                        Math.min(first + TILE_ROWS * TILE_COLUMNS, games.size()), games.size()));
+            };
+            update.run();
+            tiles.setOnScroll(update);
+            outer.add(position, BorderLayout.SOUTH);
         }
-
-        outer.add(tiles, BorderLayout.CENTER);
         return outer;
     }
 
-    private JButton createTileButton(int index, GameEntry entry) {
-        Color tileBackground = new Color(0, 100, 0);
-        Color tileBorder = new Color(0, 128, 0);
-        Color tileText = new Color(245, 246, 248);
-        Color tileHover = new Color(0, 114, 0);
-        Font tileFont = new Font("Segoe UI", Font.BOLD, 18);
-
-        if (index == 2 && entry == null) {
-            // Create a low-resolution tile using the supplied raft image (top-right crop)
-            JButton button = new JButton();
-            button.setOpaque(true);
-            button.setContentAreaFilled(true);
-            button.setBorderPainted(false);
-            button.setBackground(tileBackground);
-            button.setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createLineBorder(tileBorder),
-                    BorderFactory.createEmptyBorder(8, 8, 8, 8)
-            ));
-            button.setFocusPainted(false);
-
-            // Attempt to fetch and pixelate the image for the tile icon; fall back to text if it fails
-            try {
-                URL url = new URL("https://images.stockcake.com/public/b/d/0/bd0c0ea7-48f6-4e80-8c4c-89e074cc5cf9_large/serene-ocean-raft-stockcake.jpg");
-                BufferedImage src = ImageIO.read(url);
-                if (src != null) {
-                    // crop top-right quadrant, like the full-screen view
-                    int iw = src.getWidth();
-                    int ih = src.getHeight();
-                    int cx = Math.max(0, iw / 2);
-                    int cy = 0;
-                    int cw = Math.max(1, iw - cx);
-                    int ch = Math.max(1, ih / 2);
-                    BufferedImage cropped = src.getSubimage(cx, cy, cw, ch);
-
-                    // create a very low-res small image then scale up to give chunky pixels
-                    int tw = 160;
-                    int th = 100;
-                    int factor = 12; // pixelation factor
-                    int sw = Math.max(1, tw / factor);
-                    int sh = Math.max(1, th / factor);
-                    BufferedImage small = new BufferedImage(sw, sh, BufferedImage.TYPE_INT_RGB);
-                    Graphics2D gSmall = small.createGraphics();
-                    gSmall.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
-                    gSmall.drawImage(cropped, 0, 0, sw, sh, null);
-                    gSmall.dispose();
-
-                    BufferedImage tileImg = new BufferedImage(tw, th, BufferedImage.TYPE_INT_RGB);
-                    Graphics2D gTile = tileImg.createGraphics();
-                    gTile.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
-                    gTile.drawImage(small, 0, 0, tw, th, null);
-                    gTile.dispose();
-
-                    button.setIcon(new ImageIcon(tileImg));
-                } else {
-                    button.setText("CAST");
-                    button.setForeground(Color.WHITE);
-                    button.setFont(new Font("Comic Sans MS", Font.BOLD, 18));
-                }
-            } catch (IOException ex) {
-                button.setText("CAST");
-                button.setForeground(Color.WHITE);
-                button.setFont(new Font("Comic Sans MS", Font.BOLD, 18));
-            }
-
-            // hover effects
-            button.addMouseListener(new MouseAdapter() {
-                @Override
-                public void mouseEntered(MouseEvent event) {
-                    button.setBackground(tileHover);
-                    button.repaint();
-                }
-
-                @Override
-                public void mouseExited(MouseEvent event) {
-                    button.setBackground(tileBackground);
-                    button.repaint();
-                }
-            });
-            button.addActionListener(event -> showPanel(makeWhiteScreen(() -> showMenu())));
-            return button;
-        }
-
-        if (entry == null) {
-            JButton button = new JButton("Empty Slot");
-            button.setFont(tileFont);
-            button.setOpaque(true);
-            button.setBackground(tileBackground);
-            button.setForeground(new Color(190, 195, 202));
-            button.setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createLineBorder(tileBorder),
-                    BorderFactory.createEmptyBorder(20, 16, 20, 16)
-            ));
-            button.setEnabled(false);
-            return button;
+    // Puts focus back on the tile the player left from, so the remote always has a starting point
+    private void focusMenu() {
+        if (lastTile != null && lastTile.isEnabled()) {
+            lastTile.requestFocusInWindow();
+        } else {
+            GridFocus.focusFirst(menuTiles);
         }
+    }
 
-        JButton button = new JButton(entry.getDisplayName(), entry.getIcon());
-        button.setFont(tileFont);
-        button.setOpaque(true);
-        button.setContentAreaFilled(true);
-        button.setBorderPainted(false);
-        button.setBackground(tileBackground);
-        button.setForeground(tileText);
-        button.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(tileBorder),
-                BorderFactory.createEmptyBorder(20, 16, 20, 16)
-        ));
-        button.setFocusPainted(false);
-        button.setHorizontalTextPosition(JButton.CENTER);
-        button.setVerticalTextPosition(JButton.BOTTOM);
-        button.setIconTextGap(12);
+    // A recycled tile: its listeners act on whatever the grid has bound it to
+    private JButton createTile() {
+        Color tileBackground = THEME.color(ColorRole.ACCENT);
+        Color tileHover = THEME.color(ColorRole.ACCENT_RAISED);
+        JButton button = new JButton();
         button.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseEntered(MouseEvent event) {
+                if (!button.isEnabled()) {
+                    return;
+                }
                 button.setBackground(tileHover);
                 button.repaint();
+                GameEntry entry = menuTiles.itemOf(button);
+                if (entry != null) {
+                    sessions.warm(entry, LauncherApp.this::showMenu);
+                }
             }
 
             @Override
             public void mouseExited(MouseEvent event) {
-                button.setBackground(tileBackground);
+                if (!button.isEnabled()) {
+                    return;
+                }
+                button.setBackground(button.hasFocus() ? tileHover : tileBackground);
                 button.repaint();
+                GameEntry entry = menuTiles.itemOf(button);
+                if (entry != null && !button.hasFocus()) {
+                    sessions.cancelWarm(entry);
+                }
             }
         });
-        button.addActionListener(event -> openGame(entry));
-        return button;
-    }
-
-    private JComponent makeWhiteScreen(Runnable returnToMenu) {
-        JPanel panel = new JPanel(new BorderLayout()) {
+        // Focus painting is off for the tiles, so the remote's position shows as the hover colour
+        button.addFocusListener(new FocusAdapter() {
             @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                int w = Math.max(1, getWidth());
-                int h = Math.max(1, getHeight());
-                Graphics2D g2 = (Graphics2D) g.create();
-
-                // Try to load the provided image and render a pixelated, first-person raft view.
-                BufferedImage img = null;
-                try {
-                    URL url = new URL("https://images.stockcake.com/public/b/d/0/bd0c0ea7-48f6-4e80-8c4c-89e074cc5cf9_large/serene-ocean-raft-stockcake.jpg");
-                    img = ImageIO.read(url);
-                } catch (IOException ex) {
-                    img = null;
+            public void focusGained(FocusEvent event) {
+                lastTile = button;
+                button.setBackground(tileHover);
+                GameEntry entry = menuTiles.itemOf(button);
+                if (entry != null) {
+                    sessions.warm(entry, LauncherApp.this::showMenu);
                 }
+            }
 
-                if (img != null) {
-                    // Crop the top-right tile of the source image (upper-right quadrant)
-                    int iw = img.getWidth();
-                    int ih = img.getHeight();
-                    int cx = Math.max(0, iw / 2);
-                    int cy = 0;
-                    int cw = Math.max(1, iw - cx);
-                    int ch = Math.max(1, ih / 2);
-                    BufferedImage cropped = img.getSubimage(cx, cy, cw, ch);
-
-                    // Force low resolution: scale the cropped image down then back up (strong pixelation)
-                    int pixelFactor = Math.max(16, Math.min(48, Math.min(w, h) / 20));
-                    int sw = Math.max(1, w / pixelFactor);
-                    int sh = Math.max(1, h / pixelFactor);
-
-                    BufferedImage small = new BufferedImage(sw, sh, BufferedImage.TYPE_INT_RGB);
-                    Graphics2D gSmall = small.createGraphics();
-                    gSmall.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
-                    gSmall.drawImage(cropped, 0, 0, sw, sh, null);
-                    gSmall.dispose();
-
-                    g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
-                    g2.drawImage(small, 0, 0, w, h, null);
-
-                    // Simple first-person raft overlay: draw wooden plank across bottom center
-                    int plankH = Math.max(40, h / 8);
-                    int plankW = Math.max(200, w / 2);
-                    int px = (w - plankW) / 2;
-                    int py = h - plankH - 20;
-                    g2.setColor(new Color(102, 66, 40));
-                    g2.fillRect(px, py, plankW, plankH);
-                    g2.setColor(new Color(80, 48, 28));
-                    for (int i = 0; i < 8; i++) {
-                        int x = px + i * (plankW / 8);
-                        g2.fillRect(x, py, 2, plankH);
-                    }
+            @Override
+            public void focusLost(FocusEvent event) {
+                if (button.getModel().isRollover()) {
+                    return;
+                }
+                button.setBackground(tileBackground);
+                GameEntry entry = menuTiles.itemOf(button);
+                if (entry != null) {
+                    sessions.cancelWarm(entry);
+                }
+            }
+        });
+        button.addActionListener(event -> {
+            GameEntry entry = menuTiles.itemOf(button);
+            if (entry != null) {
+                openGame(entry);
+            } else if (menuTiles.indexOf(button) == RAFT_SLOT) {
+                showRaftScreen();
+            }
+        });
+        return button;
+    }
 
-                    // Simple rope/edge in front
-                    g2.setColor(new Color(60, 40, 20));
-                    g2.fillOval(px + plankW/2 - 30, py - 10, 60, 20);
+    // Dresses a tile as the game, the raft screen or an empty slot, setting everything the others change
+    private void bindTile(JButton button, int index, GameEntry entry) {
+        Color tileBackground = THEME.color(ColorRole.ACCENT);
+        Color tileBorder = THEME.color(ColorRole.ACCENT_BRIGHT);
+        Color tileHover = THEME.color(ColorRole.ACCENT_RAISED);
+        boolean raft = entry == null && index == RAFT_SLOT;
 
-                } else {
-                    // Fallback to original gradient ocean if image fails to load
-                    g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                    // Sky gradient (top half)
-                    GradientPaint sky = new GradientPaint(0, 0, new Color(135, 206, 235), 0, h / 2, new Color(70, 130, 180));
-                    g2.setPaint(sky);
-                    g2.fillRect(0, 0, w, h / 2);
-
-                    // Ocean gradient (bottom half)
-                    GradientPaint sea = new GradientPaint(0, h / 2, new Color(28, 107, 160), 0, h, new Color(0, 51, 102));
-                    g2.setPaint(sea);
-                    g2.fillRect(0, h / 2, w, h / 2);
-
-                    // Soft, organic clouds (overlapping translucent ovals)
-                    Random rnd = new Random(42);
-                    int cloudCount = 3 + (w / 500);
-                    g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                    for (int c = 0; c < cloudCount; c++) {
-                        int cx = 40 + c * (w / Math.max(3, cloudCount)) + rnd.nextInt(120) - 60;
-                        int cy = 30 + rnd.nextInt(h / 8);
-                        int blobs = 5 + rnd.nextInt(6);
-                        for (int b = 0; b < blobs; b++) {
-                            int sx = cx + rnd.nextInt(140) - 70;
-                            int sy = cy + rnd.nextInt(60) - 30;
-                            int rw = 60 + rnd.nextInt(100);
-                            int rh = 24 + rnd.nextInt(40);
-                            int alpha = 120 + rnd.nextInt(100);
-                            g2.setColor(new Color(255, 255, 255, Math.min(255, alpha)));
-                            g2.fillOval(sx - rw / 2, sy - rh / 2, rw, rh);
-                        }
-                        // brighter core
-                        for (int core = 0; core < 2; core++) {
-                            int sx = cx + rnd.nextInt(60) - 30;
-                            int sy = cy + rnd.nextInt(30) - 15;
-                            int rw = 40 + rnd.nextInt(40);
-                            int rh = 18 + rnd.nextInt(20);
-                            g2.setColor(new Color(255, 255, 255, 200));
-                            g2.fillOval(sx - rw / 2, sy - rh / 2, rw, rh);
-                        }
+        button.setName(entry != null ? "tile." + entry.getId() : raft ? "tile.raft" : null);
+        button.setEnabled(entry != null || raft);
+        button.setOpaque(true);
+        button.setContentAreaFilled(true);
+        button.setBorderPainted(entry == null && !raft);
+        button.setFocusPainted(entry == null && !raft);
+        button.setHorizontalTextPosition(entry != null ? JButton.CENTER : JButton.TRAILING);
+        button.setVerticalTextPosition(entry != null ? JButton.BOTTOM : JButton.CENTER);
+        button.setIconTextGap(entry != null ? 12 : 4);
+        int padding = raft ? 8 : 20;
+        button.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(tileBorder),
+                BorderFactory.createEmptyBorder(padding, raft ? 8 : 16, padding, raft ? 8 : 16)
+        ));
+        boolean highlighted = button.isEnabled() && (button.hasFocus() || button.getModel().isRollover());
+        button.setBackground(highlighted ? tileHover : tileBackground);
+
+        if (raft) {
+            // Show the text label until the raft artwork arrives from the tile image cache
+            button.setFont(FontRole.DISPLAY.font());
+            button.setForeground(Color.WHITE);
+            button.setText(raftTileArt == null ? "CAST" : null);
+            button.setIcon(raftTileArt);
+            if (raftTileArt == null) {
+                deferUntilWarm(() -> thumbnails.load(raftTileJob(), art -> {
+                    if (art == null) {
+                        return;
                     }
-
-                    // Multi-hue ocean bands for richer texture
-                    Color[] oceanBands = new Color[] {
-                            new Color(28, 107, 160),
-                            new Color(20, 90, 150),
-                            new Color(15, 75, 140),
-                            new Color(10, 60, 120),
-                            new Color(6, 45, 100)
-                    };
-                    int bands = oceanBands.length;
-                    for (int i = 0; i < bands; i++) {
-                        int y0 = h / 2 + (i * (h / 2)) / bands;
-                        int y1 = h / 2 + ((i + 1) * (h / 2)) / bands;
-                        GradientPaint gp = new GradientPaint(0, y0, oceanBands[i], 0, y1,
-                                oceanBands[Math.min(i + 1, bands - 1)]);
-                        g2.setPaint(gp);
-                        g2.fillRect(0, y0, w, Math.max(1, y1 - y0));
+                    raftTileArt = art;
+                    if (menuTiles.indexOf(button) == RAFT_SLOT && menuTiles.itemOf(button) == null) {
+                        button.setText(null);
+                        button.setIcon(raftTileArt);
                     }
-
-                    // Subtle highlights and foam: many small translucent ovals
-                    int highlights = Math.max(200, (w * h) / 8000);
-                    for (int i = 0; i < highlights; i++) {
-                        int xx = rnd.nextInt(w);
-                        int yy = h / 2 + rnd.nextInt(h / 2);
-                        int rw = 1 + rnd.nextInt(6);
-                        int rh = 1 + rnd.nextInt(3);
-                        int a = 20 + rnd.nextInt(120);
-                        g2.setColor(new Color(255, 255, 255, Math.min(200, a)));
-                        g2.fillOval(xx - rw, yy - rh, rw * 2, rh * 2);
+                }));
+            }
+        } else if (entry == null) {
+            button.setFont(FontRole.HEADING.font());
+            button.setForeground(THEME.color(ColorRole.TEXT_MUTED));
+            button.setText("Empty Slot");
+            button.setIcon(null);
+        } else {
+            button.setFont(FontRole.HEADING.font());
+            button.setForeground(THEME.color(ColorRole.TEXT));
+            button.setText(entry.getDisplayName());
+            // The icon follows once read; a tile rebound in the meantime ignores it
+            button.setIcon(thumbnails.getIfLoaded(entry));
+            if (button.getIcon() == null) {
+                thumbnails.load(entry, icon -> {
+                    if (menuTiles.itemOf(button) == entry) {
+                        button.setIcon(icon);
                     }
+                });
+            }
+            if (button.hasFocus()) {
+                // Scrolling moved a new game under the remote's focus
+                sessions.warm(entry, LauncherApp.this::showMenu);
+            }
+        }
+    }
 
-                    // More detailed waves using multiple sine layers
-                    for (int layer = 0; layer < 8; layer++) {
-                        float alpha = 60 - layer * 6;
-                        g2.setColor(new Color(255, 255, 255, Math.max(20, (int) alpha)));
-                        int rows = 3 + layer;
-                        for (int r = 0; r < rows; r++) {
-                            int y = h / 2 + 10 + r * 14 + layer * 6;
-                            Path2D.Double path = new Path2D.Double();
-                            path.moveTo(0, y);
-                            double freq = 0.01 + layer * 0.002;
-                            double ampBase = 4 + layer;
-                            for (int x = 0; x <= w; x += 6) {
-                                double phase = (x * freq) + (r * 0.5) + (layer * 0.3);
-                                double offset = Math.sin(phase) * (ampBase + Math.sin(x * 0.005) * 2);
-                                path.lineTo(x, y + offset);
-                            }
-                            g2.draw(path);
-                        }
-                    }
+    // True while the grid is being built, since every tile is about to be shown
+    private boolean isTileShowing(String id) {
+        return menuTiles == null || id.equals(RAFT_TILE_ID)
+                || menuTiles.isShowing(entry -> entry != null && entry.getId().equals(id));
+    }
 
-                    // Bubbles: small translucent circles rising near the surface
-                    for (int i = 0; i < 30; i++) {
-                        int bx = rnd.nextInt(w);
-                        int by = h / 2 + rnd.nextInt(h / 3);
-                        int radius = 2 + rnd.nextInt(6);
-                        int a = 80 + rnd.nextInt(120);
-                        g2.setColor(new Color(255, 255, 255, a));
-                        g2.fillOval(bx - radius, by - radius, radius * 2, radius * 2);
-                        g2.setColor(new Color(255, 255, 255, Math.max(40, a - 60)));
-                        g2.drawOval(bx - radius, by - radius, radius * 2, radius * 2);
-                    }
+    // Builds every game's tile icon into the disk cache, so scrolling to it later only reads it back
+    private void sweepTileImages() {
+        List<TileThumbnails.Job> jobs = new ArrayList<>();
+        for (GameEntry entry : GameRegistry.getGames()) {
+            TileThumbnails.Job job = thumbnails.iconJob(entry);
+            if (job != null) {
+                jobs.add(job);
+            }
+        }
+        thumbnails.sweep(jobs);
+    }
 
-                    g2.dispose();
-                }
+    // The raft tile is its crop pixelated at the tile size; a cached copy is restored to the calibrated surface type
+    private static TileThumbnails.Job raftTileJob() {
+        return new TileThumbnails.Job(RAFT_TILE_ID,
+                () -> Assets.get() == null ? null : Assets.get().readBytes(RAFT_IMAGE.getFallbackResource()),
+                TILE_WIDTH + "x" + TILE_HEIGHT + "/" + TILE_BLOCKS_WIDE + "x" + TILE_BLOCKS_HIGH,
+                bytes -> {
+                    BufferedImage blocks = RegionDecoder.decode(bytes, raftCrop(TILE_BLOCKS_WIDE, TILE_BLOCKS_HIGH));
+                    return blocks == null ? null : pixelateTile(blocks);
+                },
+                image -> SurfaceType.get().copy(image, null));
+    }
+
+    // The top-right quadrant of the raft image, averaged to a blocksWide x blocksHigh grid
+    static ImageRegion raftCrop(int blocksWide, int blocksHigh) {
+        return new ImageRegion(RAFT_IMAGE, 0.5, 0, 0.5, 0.5, blocksWide, blocksHigh);
+    }
+
+    // Enlarges the tile's block grid to give chunky pixels, in the calibrated surface type so repaints
+    // blit an image the pipeline can cache
+    static BufferedImage pixelateTile(BufferedImage blocks) {
+        BufferedImage tileImg = new BufferedImage(TILE_WIDTH, TILE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        new Pixelator().pixelateInto(blocks, new Rectangle(0, 0, blocks.getWidth(), blocks.getHeight()),
+                blocks.getWidth(), blocks.getHeight(), tileImg);
+        return SurfaceType.get().copy(tileImg, null);
+    }
+
+    private JComponent makeWhiteScreen(Runnable returnToMenu) {
+        // The panel asks for the crop at its current block grid; the gradient ocean covers the time until it arrives
+        RaftScreenPanel panel = new RaftScreenPanel((blocksWide, blocksHigh, onLoaded) -> {
+            ImageRegion region = raftCrop(blocksWide, blocksHigh);
+            BufferedImage loaded = AssetLoader.getDefault().getIfLoaded(region);
+            if (loaded != null) {
+                onLoaded.accept(loaded);
+            } else {
+                AssetLoader.getDefault().load(region, onLoaded);
             }
-        };
+        });
 
         JPanel top = new JPanel(new BorderLayout());
         top.setOpaque(false);
         top.setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
 
         JButton back = new JButton("X");
-        back.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        back.setFont(FontRole.TITLE.font());
         back.addActionListener(e -> returnToMenu.run());
 
         JPanel right = new JPanel();
@@ -425,24 +503,84 @@ public final class LauncherApp {
         return panel;
     }
 
-    private void openGame(GameEntry entry) {
-        Game game = entry.getFactory().get();
-        showPanel(game.getView(this::showMenu));
+    JComponent getRootComponent() {
+        return root;
+    }
+
+    // The area below the title bar that holds the menu, the raft screen or a game view
+    JComponent getContentComponent() {
+        return contentPanel;
+    }
+
+    GameSessionManager getSessions() {
+        return sessions;
+    }
+
+    RemoteInput getRemoteInput() {
+        return remoteInput;
+    }
+
+    void showRaftScreen() {
+        JComponent screen = makeWhiteScreen(this::showMenu);
+        if (recorder != null) {
+            recorder.opened("raft", null, screen);
+        }
+        showPanel(screen, "raft");
+    }
+
+    void openGame(GameEntry entry) {
+        long opened = System.nanoTime();
+        boolean warmStarted = sessions.isWarm(entry);
+        JComponent view = sessions.open(entry, this::showMenu);
+        if (recorder != null) {
+            recorder.opened(entry.getId(), sessions.getActiveGame(), view);
+        }
+        showPanel(view, entry.getId());
+        // Queued behind the repaint that showPanel scheduled, so it runs once the first frame is painted
+        SwingUtilities.invokeLater(() -> sessions.recordFirstFrame(entry, opened, warmStarted));
         SwingUtilities.invokeLater(this::bringToFront);
     }
 
-    private void showMenu() {
-        showPanel(menuPanel);
+    void showMenu() {
+        if (recorder != null) {
+            recorder.menu();
+        }
+        sessions.closeActive();
+        showPanel(menuPanel, "menu");
+        SwingUtilities.invokeLater(this::focusMenu);
+    }
+
+    private void showPanel(JComponent panel, String name) {
+        screenName = name;
+        showIn(contentPanel, panel);
+    }
+
+    private void installHudToggle() {
+        JRootPane rootPane = frame.getRootPane();
+        rootPane.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), "toggleHud");
+        rootPane.getActionMap().put("toggleHud", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent event) {
+                hud.toggle();
+            }
+        });
     }
 
-    private void showPanel(JComponent panel) {
-        contentPanel.removeAll();
-        contentPanel.add(panel, BorderLayout.CENTER);
-        contentPanel.revalidate();
-        contentPanel.repaint();
+    static void showIn(JPanel content, JComponent panel) {
+        content.removeAll();
+        content.add(panel, BorderLayout.CENTER);
+        content.revalidate();
+        content.repaint();
     }
 
     private static void applyTheme() {
+        // Installing the look and feel again under live components (a second offscreen instance)
+        // leaves Nimbus' derived colours half-updated, so the theme is applied once per process
+        if (themeApplied) {
+            return;
+        }
+        themeApplied = true;
         try {
             UIManager.setLookAndFeel("javax.swing.plaf.nimbus.NimbusLookAndFeel");
         } catch (ClassNotFoundException | InstantiationException
@@ -450,27 +588,21 @@ public final class LauncherApp {
             return;
         }
 
-        UIManager.put("control", new Color(10, 12, 14));
-        UIManager.put("info", new Color(10, 12, 14));
-        UIManager.put("nimbusBase", new Color(0, 100, 0));
-        UIManager.put("nimbusAlertYellow", new Color(245, 246, 248));
-        UIManager.put("nimbusDisabledText", new Color(112, 160, 84));
-        UIManager.put("nimbusFocus", new Color(56, 176, 0));
-        UIManager.put("nimbusLightBackground", new Color(10, 12, 14));
-        UIManager.put("nimbusSelectionBackground", new Color(0, 128, 0));
-        UIManager.put("nimbusSelectedText", new Color(245, 246, 248));
-        UIManager.put("text", new Color(245, 246, 248));
-        UIManager.put("Panel.background", new Color(10, 12, 14));
-        UIManager.put("Button.background", new Color(0, 100, 0));
-        UIManager.put("Button.foreground", new Color(245, 246, 248));
-        UIManager.put("Label.foreground", new Color(245, 246, 248));
+        // Nimbus compiles its per-component defaults from a HashSet of every table's entries, so a key
+        // overridden only in the developer table wins or loses by hash order. Writing the look and feel's
+        // own table too leaves one entry per key.
+        UIDefaults lookAndFeelDefaults = UIManager.getLookAndFeelDefaults();
+        THEME.nimbusDefaults().forEach((key, color) -> {
+            lookAndFeelDefaults.put(key, color);
+            UIManager.put(key, color);
+        });
     }
 
     private JPanel buildTitleBar() {
-        Color barBackground = new Color(10, 12, 14);
-        Color barBorder = new Color(0, 75, 35);
-        Color titleText = new Color(245, 246, 248);
-        Font titleFont = new Font("Segoe UI", Font.BOLD, 14);
+        Color barBackground = THEME.color(ColorRole.BACKGROUND);
+        Color barBorder = THEME.color(ColorRole.ACCENT_DARK);
+        Color titleText = THEME.color(ColorRole.TEXT);
+        Font titleFont = FontRole.TITLE.font();
 
         JPanel titleBar = new JPanel(new BorderLayout());
         titleBar.setBackground(barBackground);
@@ -483,23 +615,22 @@ public final class LauncherApp {
 
         JLabel iconLabel = new JLabel();
         iconLabel.setBorder(BorderFactory.createEmptyBorder(6, 12, 6, 6));
-        ImageIcon appIcon = loadAppIcon();
-        if (appIcon != null) {
-            iconLabel.setIcon(scaleIcon(appIcon, 18, 18));
-        }
+        // Reserve the icon's space so the title does not shift when it is set after startup
+        iconLabel.setPreferredSize(new Dimension(36, 30));
+        titleIconLabel = iconLabel;
 
         JPanel titleArea = new JPanel(new BorderLayout());
         titleArea.setBackground(barBackground);
         titleArea.add(iconLabel, BorderLayout.WEST);
         titleArea.add(title, BorderLayout.CENTER);
 
-        JButton minimizeButton = createTitleBarButton("_", 18, 12);
+        JButton minimizeButton = createTitleBarButton("_", FontRole.HEADING, 12);
         minimizeButton.addActionListener(event -> frame.setState(Frame.ICONIFIED));
 
-        maximizeButton = createTitleBarButton("MAX", 12, 10);
+        maximizeButton = createTitleBarButton("MAX", FontRole.CAPTION, 10);
         maximizeButton.addActionListener(event -> toggleMaximize());
 
-        JButton closeButton = createTitleBarButton("X", 12, 10);
+        JButton closeButton = createTitleBarButton("X", FontRole.CAPTION, 10);
         closeButton.addActionListener(event -> frame.dispose());
 
         JPanel controls = new JPanel(new GridLayout(1, 3, 6, 0));
@@ -538,13 +669,13 @@ public final class LauncherApp {
         return titleBar;
     }
 
-    private JButton createTitleBarButton(String label, int fontSize, int horizontalPadding) {
-        Color base = new Color(0, 114, 0);
-        Color hover = new Color(0, 128, 0);
+    private JButton createTitleBarButton(String label, FontRole font, int horizontalPadding) {
+        Color base = THEME.color(ColorRole.ACCENT_RAISED);
+        Color hover = THEME.color(ColorRole.ACCENT_BRIGHT);
         JButton button = new JButton(label);
-        button.setFont(new Font("Segoe UI", Font.BOLD, fontSize));
+        button.setFont(font.font());
         button.setBackground(base);
-        button.setForeground(new Color(245, 246, 248));
+        button.setForeground(THEME.color(ColorRole.TEXT));
         button.setOpaque(true);
         button.setContentAreaFilled(true);
         button.setBorderPainted(false);
@@ -589,6 +720,9 @@ public final class LauncherApp {
     }
 
     private void bringToFront() {
+        if (frame == null) {
+            return;
+        }
         frame.setExtendedState(Frame.NORMAL);
         frame.setVisible(true);
         frame.setAlwaysOnTop(true);
@@ -633,28 +767,62 @@ public final class LauncherApp {
         );
     }
 
-    private void applyWindowIcon() {
-        ImageIcon appIcon = loadAppIcon();
-        if (appIcon != null) {
-            frame.setIconImage(appIcon.getImage());
+    private void applyAppIcon(List<Image> windowIcons, Icon titleIcon) {
+        if (!windowIcons.isEmpty() && frame != null) {
+            frame.setIconImages(windowIcons);
+        }
+        if (titleIcon != null) {
+            titleIconLabel.setIcon(titleIcon);
         }
     }
 
-    private ImageIcon loadAppIcon() {
-        try (InputStream stream = LauncherApp.class.getResourceAsStream("/icons/app-logo.png")) {
-            if (stream == null) {
-                return null;
+    // Each size is a raster the bundle was built with (see assetBundle.rasters in build.gradle),
+    // so loading one is a copy of the pixels drawn rather than a decode and scale of the logo
+    private static List<Image> loadWindowIcons() {
+        List<Image> icons = new ArrayList<>();
+        for (Dimension size : WINDOW_ICON_SIZES) {
+            BufferedImage icon = loadAppIcon(size.width, size.height);
+            if (icon != null) {
+                icons.add(icon);
             }
-            Image image = ImageIO.read(stream);
-            return new ImageIcon(image);
+        }
+        return icons;
+    }
+
+    private static Icon loadTitleIcon() {
+        BufferedImage icon = loadAppIcon(TITLE_ICON_SIZE, TITLE_ICON_SIZE);
+        return icon == null ? null : new ImageIcon(icon);
+    }
+
+    private static BufferedImage loadAppIcon(int width, int height) {
+        try {
+            return Assets.get() == null ? null : Assets.get().getImage(AssetBundle.scaledName(APP_ICON, width, height));
         } catch (IOException ignored) {
             return null;
         }
     }
 
-    private ImageIcon scaleIcon(ImageIcon icon, int width, int height) {
-        Image scaled = icon.getImage().getScaledInstance(width, height, Image.SCALE_SMOOTH);
-        return new ImageIcon(scaled);
+    // The launcher's images, packed from src/main/assets at build time; opened once
+    private static final class Assets {
+        private static final AssetBundle BUNDLE = open();
+
+        static AssetBundle get() {
+            return BUNDLE;
+        }
+
+        private static AssetBundle open() {
+            try {
+                AssetBundle bundle = AssetBundle.find(LauncherApp.class.getClassLoader(), "launcher");
+                if (bundle == null) {
+                    LOG.warning("The launcher's asset bundle is missing; tile and window art will not load");
+                } else {
+                    AssetLoader.getDefault().addBundle(bundle);
+                }
+                return bundle;
+            } catch (IOException ex) {
+                LOG.log(Level.WARNING, "Cannot open the launcher's asset bundle", ex);
+                return null;
+            }
+        }
     }
 }
-
@@ -0,0 +1,202 @@
+package tvgameboy.launcher;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.util.Random;
+import tvgameboy.shared.render.SineTable;
+
+// Procedural ocean shown while the raft image is unavailable. The sky, bands,
+// clouds, foam and bubbles are baked once per size through renderStatic; the
+// wave lines are drawn every frame from tables built for the current size.
+final class OceanScene {
+    private static final int WAVE_LAYERS = 8;
+    private static final int MIN_SAMPLE_SPACING = 6;
+    private static final int MAX_WAVE_SAMPLES = 320;
+    private static final double WAVE_RADIANS_PER_SECOND = 1.5;
+
+    private static final Color SKY_TOP = new Color(135, 206, 235);
+    private static final Color SKY_BOTTOM = new Color(70, 130, 180);
+    private static final Color SEA_TOP = new Color(28, 107, 160);
+    private static final Color SEA_BOTTOM = new Color(0, 51, 102);
+    private static final Color[] OCEAN_BANDS = {
+            new Color(28, 107, 160),
+            new Color(20, 90, 150),
+            new Color(15, 75, 140),
+            new Color(10, 60, 120),
+            new Color(6, 45, 100)
+    };
+    private static final Color[] WHITE_ALPHA = new Color[256];
+
+    static {
+        for (int a = 0; a < WHITE_ALPHA.length; a++) {
+            WHITE_ALPHA[a] = new Color(255, 255, 255, a);
+        }
+    }
+
+    private int width = -1;
+    private int height = -1;
+    private int samples;
+    private int[] xPoints;
+    private int[] yPoints;
+    private float[] envelope;
+    private int[][] layerPhase;
+    private Color[][] rowColors;
+
+    void renderStatic(Graphics2D g2, int w, int h) {
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        // Sky gradient (top half)
+        g2.setPaint(new GradientPaint(0, 0, SKY_TOP, 0, h / 2, SKY_BOTTOM));
+        g2.fillRect(0, 0, w, h / 2);
+
+        // Ocean gradient (bottom half)
+        g2.setPaint(new GradientPaint(0, h / 2, SEA_TOP, 0, h, SEA_BOTTOM));
+        g2.fillRect(0, h / 2, w, h / 2);
+
+        // Soft, organic clouds (overlapping translucent ovals)
+        Random rnd = new Random(42);
+        int cloudCount = 3 + (w / 500);
+        for (int c = 0; c < cloudCount; c++) {
+            int cx = 40 + c * (w / Math.max(3, cloudCount)) + rnd.nextInt(120) - 60;
+            int cy = 30 + rnd.nextInt(Math.max(1, h / 8));
+            int blobs = 5 + rnd.nextInt(6);
+            for (int b = 0; b < blobs; b++) {
+                int sx = cx + rnd.nextInt(140) - 70;
+                int sy = cy + rnd.nextInt(60) - 30;
+                int rw = 60 + rnd.nextInt(100);
+                int rh = 24 + rnd.nextInt(40);
+                int alpha = 120 + rnd.nextInt(100);
+                g2.setColor(WHITE_ALPHA[Math.min(255, alpha)]);
+                g2.fillOval(sx - rw / 2, sy - rh / 2, rw, rh);
+            }
+            // brighter core
+            for (int core = 0; core < 2; core++) {
+                int sx = cx + rnd.nextInt(60) - 30;
+                int sy = cy + rnd.nextInt(30) - 15;
+                int rw = 40 + rnd.nextInt(40);
+                int rh = 18 + rnd.nextInt(20);
+                g2.setColor(WHITE_ALPHA[200]);
+                g2.fillOval(sx - rw / 2, sy - rh / 2, rw, rh);
+            }
+        }
+
+        // Multi-hue ocean bands for richer texture
+        int bands = OCEAN_BANDS.length;
+        for (int i = 0; i < bands; i++) {
+            int y0 = h / 2 + (i * (h / 2)) / bands;
+            int y1 = h / 2 + ((i + 1) * (h / 2)) / bands;
+            g2.setPaint(new GradientPaint(0, y0, OCEAN_BANDS[i], 0, y1, OCEAN_BANDS[Math.min(i + 1, bands - 1)]));
+            g2.fillRect(0, y0, w, Math.max(1, y1 - y0));
+        }
+
+        // Subtle highlights and foam: many small translucent ovals
+        int highlights = Math.max(200, (w * h) / 8000);
+        for (int i = 0; i < highlights; i++) {
+            int xx = rnd.nextInt(w);
+            int yy = h / 2 + rnd.nextInt(Math.max(1, h / 2));
+            int rw = 1 + rnd.nextInt(6);
+            int rh = 1 + rnd.nextInt(3);
+            int a = 20 + rnd.nextInt(120);
+            g2.setColor(WHITE_ALPHA[Math.min(200, a)]);
+            g2.fillOval(xx - rw, yy - rh, rw * 2, rh * 2);
+        }
+
+        // Bubbles: small translucent circles near the surface (baked under the animated waves)
+        for (int i = 0; i < 30; i++) {
+            int bx = rnd.nextInt(w);
+            int by = h / 2 + rnd.nextInt(Math.max(1, h / 3));
+            int radius = 2 + rnd.nextInt(6);
+            int a = 80 + rnd.nextInt(120);
+            g2.setColor(WHITE_ALPHA[a]);
+            g2.fillOval(bx - radius, by - radius, radius * 2, radius * 2);
+            g2.setColor(WHITE_ALPHA[Math.max(40, a - 60)]);
+            g2.drawOval(bx - radius, by - radius, radius * 2, radius * 2);
+        }
+    }
+
+    // Draws the moving wave lines; allocates nothing once the tables match the size. Lines are
+    // drawn opaque and aliased because translucent or antialiased lines are far slower in the
+    // software loops; each row's colour is pre-blended against the band it crosses instead.
+    void paintWaves(Graphics2D g2, int w, int h, long nanos) {
+        if (w != width || h != height) {
+            buildTables(w, h);
+        }
+
+        int time = SineTable.toSteps(nanos / 1_000_000_000.0 * WAVE_RADIANS_PER_SECOND);
+        int rowStep = SineTable.toSteps(0.5);
+        int layerStep = SineTable.toSteps(0.3);
+        for (int layer = 0; layer < WAVE_LAYERS; layer++) {
+            int[] phase = layerPhase[layer];
+            float ampBase = 4 + layer;
+            int layerTime = time + (time * layer >> 3);
+            int rows = 3 + layer;
+            for (int r = 0; r < rows; r++) {
+                int y = h / 2 + 10 + r * 14 + layer * 6;
+                int offset = r * rowStep + layer * layerStep + layerTime;
+                g2.setColor(rowColors[layer][r]);
+                for (int i = 0; i < samples; i++) {
+                    float amplitude = ampBase + envelope[i];
+                    yPoints[i] = y + (int) (SineTable.sin(phase[i] + offset) * amplitude);
+                }
+                g2.drawPolyline(xPoints, yPoints, samples);
+            }
+        }
+    }
+
+    private void buildTables(int w, int h) {
+        width = w;
+        height = h;
+
+        // A fixed sample budget keeps wave cost flat as the resolution grows
+        int spacing = Math.max(MIN_SAMPLE_SPACING, (w + MAX_WAVE_SAMPLES - 1) / MAX_WAVE_SAMPLES);
+        samples = w / spacing + 2;
+        xPoints = new int[samples];
+        yPoints = new int[samples];
+        envelope = new float[samples];
+        layerPhase = new int[WAVE_LAYERS][samples];
+        rowColors = new Color[WAVE_LAYERS][];
+        for (int layer = 0; layer < WAVE_LAYERS; layer++) {
+            int alpha = Math.max(20, 60 - layer * 6);
+            rowColors[layer] = new Color[3 + layer];
+            for (int r = 0; r < rowColors[layer].length; r++) {
+                int y = h / 2 + 10 + r * 14 + layer * 6;
+                rowColors[layer][r] = blendWhite(bandColorAt(y, h), alpha);
+            }
+        }
+        for (int i = 0; i < samples; i++) {
+            int x = Math.min(w, i * spacing);
+            xPoints[i] = x;
+            envelope[i] = (float) (Math.sin(x * 0.005) * 2);
+            for (int layer = 0; layer < WAVE_LAYERS; layer++) {
+                layerPhase[layer][i] = SineTable.toSteps(x * (0.01 + layer * 0.002));
+            }
+        }
+    }
+
+    private static Color bandColorAt(int y, int h) {
+        int bands = OCEAN_BANDS.length;
+        for (int i = 0; i < bands; i++) {
+            int y0 = h / 2 + (i * (h / 2)) / bands;
+            int y1 = h / 2 + ((i + 1) * (h / 2)) / bands;
+            if (y < y1 || i == bands - 1) {
+                float t = Math.max(0f, Math.min(1f, (y - y0) / (float) Math.max(1, y1 - y0)));
+                Color from = OCEAN_BANDS[i];
+                Color to = OCEAN_BANDS[Math.min(i + 1, bands - 1)];
+                return new Color(
+                        Math.round(from.getRed() + (to.getRed() - from.getRed()) * t),
+                        Math.round(from.getGreen() + (to.getGreen() - from.getGreen()) * t),
+                        Math.round(from.getBlue() + (to.getBlue() - from.getBlue()) * t));
+            }
+        }
+        return OCEAN_BANDS[bands - 1];
+    }
+
+    private static Color blendWhite(Color base, int alpha) {
+        return new Color(
+                base.getRed() + (255 - base.getRed()) * alpha / 255,
+                base.getGreen() + (255 - base.getGreen()) * alpha / 255,
+                base.getBlue() + (255 - base.getBlue()) * alpha / 255);
+    }
+}
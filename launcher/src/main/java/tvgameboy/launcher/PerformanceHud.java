@@ -0,0 +1,237 @@
+package tvgameboy.launcher;
+
+import java.awt.Color;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import tvgameboy.shared.metrics.Histogram;
+import tvgameboy.shared.metrics.Metrics;
+import tvgameboy.shared.theme.FontRole;
+
+// Overlay drawn over the content area from the frame's glass pane. While it is
+// hidden nothing is sampled, the glass pane is not painted and Metrics stays
+// disabled, so paint timing in the launcher and games reduces to a flag check.
+final class PerformanceHud extends JComponent {
+    private static final long PROBE_MILLIS = 100;
+    private static final long SAMPLE_MILLIS = 500;
+    private static final int BAR_COUNT = 120;
+    private static final int WIDTH = 420;
+    private static final int CHART_HEIGHT = 60;
+    private static final long BAR_SCALE_NANOS = 50_000_000L;
+    private static final long FRAME_BUDGET_NANOS = 16_666_667L;
+    private static final Color BACKGROUND = new Color(0, 0, 0, 180);
+    private static final Color TEXT = new Color(220, 255, 220);
+    private static final Color BAR = new Color(56, 176, 0);
+    private static final Color BAR_SLOW = new Color(220, 60, 40);
+    private static final Color BUDGET_LINE = new Color(255, 255, 255, 120);
+
+    private final Metrics metrics = Metrics.get();
+    private final Histogram frameTimes = metrics.histogram("launcher.frame");
+    private final Histogram edtLatency = metrics.histogram("launcher.edt.latency");
+    private final Histogram inputLatency = metrics.histogram("input.latency");
+    private final JComponent target;
+    private final Supplier<String> screenName;
+    private ScheduledExecutorService sampler;
+    private List<String> lines = List.of("collecting...");
+    private String paintScreen;
+    private Histogram screenPaints;
+    private long edtThreadId = -1;
+    private long lastSampleNanos;
+    private long lastGcCount;
+    private long lastGcMillis;
+    private long lastTotalAllocated;
+    private long lastGameAllocated;
+
+    PerformanceHud(JComponent target, Supplier<String> screenName) {
+        this.target = target;
+        this.screenName = screenName;
+        setOpaque(false);
+        setVisible(false);
+    }
+
+    boolean isActive() {
+        return metrics.isEnabled();
+    }
+
+    void toggle() {
+        setActive(!isVisible());
+    }
+
+    void setActive(boolean active) {
+        if (active == isVisible()) {
+            return;
+        }
+        metrics.setEnabled(active);
+        setVisible(active);
+        if (active) {
+            edtThreadId = Thread.currentThread().getId();
+            lastSampleNanos = 0;
+            sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "performance-hud");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sampler.scheduleAtFixedRate(this::probeEdt, 0, PROBE_MILLIS, TimeUnit.MILLISECONDS);
+            sampler.scheduleAtFixedRate(this::sample, 0, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+        } else if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+    }
+
+    // Called by the content panel around painting its current view; only while active.
+    void recordPaint(long startNanos, long endNanos) {
+        frameTimes.record(endNanos - startNanos);
+        String screen = screenName.get();
+        if (!screen.equals(paintScreen)) {
+            paintScreen = screen;
+            screenPaints = metrics.histogram("paint." + screen);
+        }
+        screenPaints.record(endNanos - startNanos);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setFont(FontRole.MONOSPACED.font());
+        FontMetrics fm = FontRole.MONOSPACED.metrics();
+        List<String> text = lines;
+        int lineHeight = fm.getHeight();
+        Rectangle bounds = panelBounds(text.size());
+        int width = bounds.width;
+        int chartHeight = CHART_HEIGHT;
+        int height = bounds.height;
+        int x = bounds.x;
+        int y = bounds.y;
+
+        g.setColor(BACKGROUND);
+        g.fillRect(x, y, width, height);
+        g.setColor(TEXT);
+        int baseline = y + 6 + fm.getAscent();
+        for (String line : text) {
+            g.drawString(line, x + 8, baseline);
+            baseline += lineHeight;
+        }
+
+        // Rolling frame-time chart, newest on the right, with the 60 fps budget marked
+        long[] frames = frameTimes.snapshot();
+        int chartTop = y + height - 6 - chartHeight;
+        int barWidth = Math.max(1, (width - 16) / BAR_COUNT);
+        int first = Math.max(0, frames.length - BAR_COUNT);
+        for (int i = first; i < frames.length; i++) {
+            int barHeight = (int) Math.min(chartHeight, frames[i] * chartHeight / BAR_SCALE_NANOS);
+            g.setColor(frames[i] > FRAME_BUDGET_NANOS ? BAR_SLOW : BAR);
+            g.fillRect(x + 8 + (i - first) * barWidth, chartTop + chartHeight - barHeight, barWidth, barHeight);
+        }
+        int budgetY = chartTop + chartHeight - (int) (FRAME_BUDGET_NANOS * chartHeight / BAR_SCALE_NANOS);
+        g.setColor(BUDGET_LINE);
+        g.drawLine(x + 8, budgetY, x + width - 8, budgetY);
+    }
+
+    // Where the panel goes for the given number of text lines, in this component's coordinates
+    private Rectangle panelBounds(int lineCount) {
+        Rectangle area = SwingUtilities.convertRectangle(target.getParent(), target.getBounds(), this);
+        int height = 12 + lineCount * FontRole.MONOSPACED.metrics().getHeight() + CHART_HEIGHT + 12;
+        return new Rectangle(area.x + 8, area.y + 8, WIDTH, height);
+    }
+
+    private void probeEdt() {
+        long posted = System.nanoTime();
+        SwingUtilities.invokeLater(() -> edtLatency.record(System.nanoTime() - posted));
+    }
+
+    private void sample() {
+        long now = System.nanoTime();
+        double seconds = lastSampleNanos == 0 ? 0 : (now - lastSampleNanos) / 1_000_000_000.0;
+        lastSampleNanos = now;
+
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, gc.getCollectionCount());
+            gcMillis += Math.max(0, gc.getCollectionTime());
+        }
+
+        long totalAllocated = 0;
+        long gameAllocated = 0;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+            long[] ids = threads.getAllThreadIds();
+            long[] bytes = allocation.getThreadAllocatedBytes(ids);
+            ThreadInfo[] infos = threads.getThreadInfo(ids);
+            for (int i = 0; i < ids.length; i++) {
+                if (bytes[i] < 0 || infos[i] == null) {
+                    continue;
+                }
+                totalAllocated += bytes[i];
+                // Swing games allocate on the EDT; loop games on their own loop thread
+                if (ids[i] == edtThreadId || infos[i].getThreadName().startsWith("game-loop-")) {
+                    gameAllocated += bytes[i];
+                }
+            }
+        }
+
+        List<String> next = new ArrayList<>();
+        String screen = screenName.get();
+        next.add("Screen " + screen + "   (F3 hides)");
+        next.add(String.format("Frame  last %5.1f  p50 %5.1f  p95 %5.1f  p99 %5.1f ms",
+                ms(frameTimes.getLast()), ms(frameTimes.percentile(0.5)),
+                ms(frameTimes.percentile(0.95)), ms(frameTimes.percentile(0.99))));
+        Histogram loopFrames = metrics.getHistograms().get("loop.frame");
+        if (loopFrames != null && loopFrames.getCount() > 0) {
+            next.add(String.format("Loop   last %5.1f  p50 %5.1f  p95 %5.1f ms",
+                    ms(loopFrames.getLast()), ms(loopFrames.percentile(0.5)), ms(loopFrames.percentile(0.95))));
+        }
+        for (Map.Entry<String, Histogram> entry : metrics.getHistograms().entrySet()) {
+            if (entry.getKey().startsWith("paint.") && entry.getValue().getCount() > 0) {
+                Histogram paint = entry.getValue();
+                next.add(String.format("Paint  %-14s last %5.2f  p95 %5.2f ms", entry.getKey().substring(6),
+                        ms(paint.getLast()), ms(paint.percentile(0.95))));
+            }
+        }
+        next.add(String.format("EDT    latency p50 %5.2f  p99 %5.2f  max %5.2f ms",
+                ms(edtLatency.percentile(0.5)), ms(edtLatency.percentile(0.99)), ms(edtLatency.percentile(1.0))));
+        if (inputLatency.getCount() > 0) {
+            next.add(String.format("Input  to photon last %5.1f  p50 %5.1f  p95 %5.1f ms", ms(inputLatency.getLast()),
+                    ms(inputLatency.percentile(0.5)), ms(inputLatency.percentile(0.95))));
+        }
+        if (seconds > 0) {
+            next.add(String.format("GC     %d pause(s), %d ms in %.1f s",
+                    gcCount - lastGcCount, gcMillis - lastGcMillis, seconds));
+            next.add(String.format("Alloc  total %6.1f MB/s   %s %6.1f MB/s",
+                    Math.max(0, totalAllocated - lastTotalAllocated) / seconds / 1_048_576.0, screen,
+                    Math.max(0, gameAllocated - lastGameAllocated) / seconds / 1_048_576.0));
+        }
+        lastGcCount = gcCount;
+        lastGcMillis = gcMillis;
+        lastTotalAllocated = totalAllocated;
+        lastGameAllocated = gameAllocated;
+
+        metrics.counterValues().forEach((name, value) -> next.add(String.format("%-30s %d", name, value)));
+        metrics.gaugeValues().forEach((name, value) -> next.add(String.format("%-30s %d", name, value)));
+
+        SwingUtilities.invokeLater(() -> {
+            // Only the panel, as large as it was or is now, rather than the whole glass pane
+            Rectangle dirty = panelBounds(lines.size()).union(panelBounds(next.size()));
+            lines = next;
+            repaint(dirty);
+        });
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,166 @@
+package tvgameboy.launcher;
+
+import java.awt.BorderLayout;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+import javax.swing.JPanel;
+import javax.swing.Timer;
+import tvgameboy.shared.render.FrameCache;
+import tvgameboy.shared.render.FrameRenderer;
+import tvgameboy.shared.render.Pixelator;
+import tvgameboy.shared.theme.ColorRole;
+import tvgameboy.shared.theme.Theme;
+
+final class RaftScreenPanel extends JPanel {
+    // Supplies the raft crop averaged to a blocksWide x blocksHigh grid, on the event dispatch thread
+    interface BlockLoader {
+        void load(int blocksWide, int blocksHigh, Consumer<BufferedImage> onLoaded);
+    }
+
+    private static final Theme THEME = Theme.DARK;
+    private static final int WAVE_FRAME_MILLIS = 16;
+
+    private final FrameCache imageFrame = new FrameCache("raft.image");
+    private final FrameRenderer imageRenderer = this::renderImageFrame;
+    private final Pixelator pixelator = new Pixelator();
+    private final OceanScene ocean = new OceanScene();
+    private final FrameCache oceanFrame = new FrameCache("raft.ocean");
+    private final FrameRenderer oceanRenderer = ocean::renderStatic;
+    private final Timer waveTimer = new Timer(WAVE_FRAME_MILLIS, event -> repaint());
+    private final long startNanos = System.nanoTime();
+    private final BlockLoader blockLoader;
+    private BufferedImage image;
+    private int pixelFactor;
+    private int requestedWide;
+    private int requestedHigh;
+
+    RaftScreenPanel(BlockLoader blockLoader) {
+        super(new BorderLayout());
+        this.blockLoader = blockLoader;
+        waveTimer.setCoalesce(true);
+        // The grid follows the size, so it is asked for when the size changes rather than from paint
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent event) {
+                requestBlocks();
+            }
+        });
+    }
+
+    // A fixed image, pixelated to whatever grid the size needs; nothing is loaded.
+    RaftScreenPanel(BufferedImage image) {
+        this((blocksWide, blocksHigh, onLoaded) -> { });
+        this.image = image;
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        updateWaveTimer();
+        requestBlocks();
+    }
+
+    @Override
+    public void removeNotify() {
+        waveTimer.stop();
+        super.removeNotify();
+    }
+
+    void setImage(BufferedImage image) {
+        this.image = image;
+        if (image != null) {
+            oceanFrame.invalidate();
+        }
+        updateWaveTimer();
+        repaint();
+    }
+
+    FrameCache getImageFrameCache() {
+        return imageFrame;
+    }
+
+    FrameCache getOceanFrameCache() {
+        return oceanFrame;
+    }
+
+    static int pixelFactor(int w, int h) {
+        return Math.max(16, Math.min(48, Math.min(w, h) / 20));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        int w = Math.max(1, getWidth());
+        int h = Math.max(1, getHeight());
+        pixelFactor = pixelFactor(w, h);
+
+        if (image != null) {
+            // The pixelated raft view only changes with size or source image, so repaints are a single blit.
+            // Until a resize's new grid arrives, the previous one is averaged onto it.
+            imageFrame.paint(g, getGraphicsConfiguration(), w, h, pixelFactor, image, imageRenderer);
+            return;
+        }
+
+        // Static ocean layers are baked per size; only the wave lines are drawn each frame
+        oceanFrame.paint(g, getGraphicsConfiguration(), w, h, 0, null, oceanRenderer);
+        ocean.paintWaves((Graphics2D) g, w, h, System.nanoTime() - startNanos);
+    }
+
+    private void requestBlocks() {
+        if (getWidth() <= 0 || getHeight() <= 0) {
+            return;
+        }
+        int factor = pixelFactor(getWidth(), getHeight());
+        int blocksWide = Math.max(1, getWidth() / factor);
+        int blocksHigh = Math.max(1, getHeight() / factor);
+        boolean current = image != null && image.getWidth() == blocksWide && image.getHeight() == blocksHigh;
+        if (current || (requestedWide == blocksWide && requestedHigh == blocksHigh)) {
+            return;
+        }
+        requestedWide = blocksWide;
+        requestedHigh = blocksHigh;
+        blockLoader.load(blocksWide, blocksHigh, blocks -> {
+            // Drop grids for a size the panel has since left
+            if (blocks != null && blocks.getWidth() == requestedWide && blocks.getHeight() == requestedHigh) {
+                setImage(blocks);
+            }
+        });
+    }
+
+    private void updateWaveTimer() {
+        if (image == null && isDisplayable()) {
+            waveTimer.start();
+        } else {
+            waveTimer.stop();
+        }
+    }
+
+    private void renderImageFrame(Graphics2D g2, int w, int h) {
+        BufferedImage img = image;
+        // The image is already the top-right crop; at the current grid size each block is one pixel of it
+        Rectangle whole = new Rectangle(0, 0, img.getWidth(), img.getHeight());
+        g2.drawImage(pixelator.pixelate(img, whole, w, h, pixelFactor), 0, 0, null);
+
+        // Simple first-person raft overlay: draw wooden plank across bottom center
+        int plankH = Math.max(40, h / 8);
+        int plankW = Math.max(200, w / 2);
+        int px = (w - plankW) / 2;
+        int py = h - plankH - 20;
+        g2.setColor(THEME.color(ColorRole.PLANK));
+        g2.fillRect(px, py, plankW, plankH);
+        g2.setColor(THEME.color(ColorRole.PLANK_GAP));
+        for (int i = 0; i < 8; i++) {
+            int x = px + i * (plankW / 8);
+            g2.fillRect(x, py, 2, plankH);
+        }
+
+        // Simple rope/edge in front
+        g2.setColor(THEME.color(ColorRole.ROPE));
+        g2.fillOval(px + plankW/2 - 30, py - 10, 60, 20);
+    }
+}
@@ -0,0 +1,40 @@
+package tvgameboy.launcher;
+
+import java.awt.KeyboardFocusManager;
+import java.awt.KeyEventDispatcher;
+import java.awt.event.KeyEvent;
+import tvgameboy.shared.input.InputAction;
+import tvgameboy.shared.input.InputQueue;
+
+// Routes remote and D-pad keys. While a game whose view carries an InputQueue is
+// open, mapped keys go to that queue, stamped with the time the OS produced them,
+// instead of to the focused Swing component. On the menu, and for games without a
+// queue, they fall through to normal key bindings.
+final class RemoteInput implements KeyEventDispatcher {
+    private final GameSessionManager sessions;
+
+    RemoteInput(GameSessionManager sessions) {
+        this.sessions = sessions;
+    }
+
+    void install() {
+        KeyboardFocusManager.getCurrentKeyboardFocusManager().addKeyEventDispatcher(this);
+    }
+
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent event) {
+        if (event.getID() == KeyEvent.KEY_TYPED) {
+            return false;
+        }
+        InputAction action = InputAction.fromKeyCode(event.getKeyCode());
+        if (action == null) {
+            return false;
+        }
+        InputQueue queue = InputQueue.of(sessions.getActiveView());
+        if (queue == null) {
+            return false;
+        }
+        queue.offer(action, event.getID() == KeyEvent.KEY_PRESSED, InputAction.eventNanos(event));
+        return true;
+    }
+}
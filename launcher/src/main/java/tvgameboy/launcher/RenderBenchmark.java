@@ -0,0 +1,131 @@
+package tvgameboy.launcher;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+import tvgameboy.shared.render.SurfaceType;
+
+// The child-JVM half of RenderCalibration: started with one pipeline's properties, it
+// draws the launcher's own patterns into an offscreen copy of the screen for each
+// surface type and prints one line per result:
+//
+//   config <class of the GraphicsConfiguration, or "headless">
+//   surface <SurfaceType> <median nanoseconds per frame>
+//
+// A frame is what the raft screen and the menu do most: fills (the ocean bands and the
+// raft's planks), a full-screen blit of the cached frame, the six tile images, a
+// nearest-neighbour stretch of a block grid and a bilinear icon downscale. The cached
+// frame is rebuilt with the real ocean scene once per round, as after a resize.
+final class RenderBenchmark {
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+    private static final int TILE_WIDTH = 160;
+    private static final int TILE_HEIGHT = 100;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+    private static final int FRAMES_PER_ROUND = 20;
+    private static final Color PLANK = new Color(102, 66, 40);
+    private static final Color[] BANDS = new Color[12];
+
+    static {
+        for (int band = 0; band < BANDS.length; band++) {
+            BANDS[band] = new Color(0x10 * (band % 8), 0x60, 0x90 + band * 4);
+        }
+    }
+
+    private RenderBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        GraphicsConfiguration config = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        System.out.println("config " + (config == null ? "headless" : config.getClass().getName()));
+        for (SurfaceType type : SurfaceType.values()) {
+            if (type == SurfaceType.VOLATILE && config == null) {
+                continue;
+            }
+            System.out.println("surface " + type + " " + measure(type, config));
+        }
+        System.out.flush();
+        // AWT's threads would otherwise keep the JVM alive
+        System.exit(0);
+    }
+
+    private static long measure(SurfaceType type, GraphicsConfiguration config) {
+        // Swing's back buffer is a VolatileImage on accelerated pipelines
+        Image screen = config == null
+                ? new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB)
+                : config.createCompatibleVolatileImage(WIDTH, HEIGHT);
+        Image frame = type == SurfaceType.VOLATILE
+                ? config.createCompatibleVolatileImage(WIDTH, HEIGHT)
+                : type.createImage(config, WIDTH, HEIGHT);
+        BufferedImage tile = type.copy(noise(TILE_WIDTH, TILE_HEIGHT, BufferedImage.TYPE_INT_RGB), config);
+        BufferedImage blocks = noise(WIDTH / 48, HEIGHT / 48, BufferedImage.TYPE_INT_RGB);
+        BufferedImage icon = noise(256, 256, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        OceanScene ocean = new OceanScene();
+
+        long[] rounds = new long[ROUNDS];
+        for (int round = -WARMUP_ROUNDS; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            Graphics2D cache = (Graphics2D) frame.getGraphics();
+            ocean.renderStatic(cache, WIDTH, HEIGHT);
+            cache.dispose();
+            for (int i = 0; i < FRAMES_PER_ROUND; i++) {
+                drawFrame((Graphics2D) screen.getGraphics(), frame, tile, blocks, icon, i);
+            }
+            // Accelerated pipelines queue their work; reading a pixel back waits for it
+            Toolkit.getDefaultToolkit().sync();
+            Graphics2D read = probe.createGraphics();
+            read.drawImage(screen, 0, 0, 1, 1, 0, 0, 1, 1, null);
+            read.dispose();
+            if (round >= 0) {
+                rounds[round] = (System.nanoTime() - start) / FRAMES_PER_ROUND;
+            }
+        }
+        Arrays.sort(rounds);
+        return rounds[ROUNDS / 2];
+    }
+
+    private static void drawFrame(Graphics2D g, Image frame, BufferedImage tile, BufferedImage blocks,
+            BufferedImage icon, int index) {
+        try {
+            g.drawImage(frame, 0, 0, null);
+            for (int band = 0; band < BANDS.length; band++) {
+                g.setColor(BANDS[band]);
+                g.fillRect(0, HEIGHT / 2 + band * HEIGHT / 24, WIDTH, HEIGHT / 24);
+            }
+            g.setColor(PLANK);
+            for (int plank = 0; plank < 8; plank++) {
+                g.fillRect(WIDTH / 4 + plank * WIDTH / 16, HEIGHT - 110, WIDTH / 16 - 2, 90);
+            }
+            for (int t = 0; t < 6; t++) {
+                g.drawImage(tile, 40 + (t % 3) * (TILE_WIDTH + 20), 60 + (t / 3) * (TILE_HEIGHT + 20), null);
+            }
+            // Offset by the frame index so no two frames draw identical pixels
+            g.drawImage(blocks, index % 2, 0, WIDTH, HEIGHT / 3, null);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(icon, 8, 8, 18, 18, null);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static BufferedImage noise(int width, int height, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Random random = new Random(width * 31L + height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt() | 0xFF000000);
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,265 @@
+package tvgameboy.launcher;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import tvgameboy.shared.render.SurfaceType;
+
+// Chooses the Java2D pipeline and SurfaceType for this machine. At first start, once the
+// menu is up, a background thread runs RenderBenchmark in one child JVM per candidate
+// pipeline and keeps the fastest pipeline and surface type, with every timing, in
+// ~/.tvgameboy/render (-Dtvgameboy.render.dir moves it). Later starts apply the saved
+// choice before AWT loads. Results are per machine and Java version; a change of either
+// calibrates again, as does -Dtvgameboy.render.calibrate=true (false never calibrates).
+//
+// -Dtvgameboy.render.pipeline=xrender|opengl|d3d|metal|software|default and
+// -Dtvgameboy.render.surface=volatile|compatible|int_rgb|int_argb_pre override the saved
+// choice, and any sun.java2d pipeline property on the command line is left alone.
+final class RenderCalibration {
+    private static final Logger LOG = Logger.getLogger(RenderCalibration.class.getName());
+    private static final String PIPELINE_PROPERTY = "tvgameboy.render.pipeline";
+    private static final String SURFACE_PROPERTY = "tvgameboy.render.surface";
+    private static final String CALIBRATE_PROPERTY = "tvgameboy.render.calibrate";
+    private static final String DIR_PROPERTY = "tvgameboy.render.dir";
+    private static final String HEADLESS = "headless";
+    private static final int CHILD_TIMEOUT_SECONDS = 30;
+
+    private static final String MACHINE = machine();
+    private static boolean needed;
+
+    private RenderCalibration() {
+    }
+
+    // Call before anything touches AWT.
+    static void apply() {
+        Properties saved = load();
+        String pipeline = System.getProperty(PIPELINE_PROPERTY);
+        String surface = System.getProperty(SURFACE_PROPERTY);
+        String source = pipeline != null || surface != null ? "override" : saved != null ? "calibrated" : "default";
+        if (pipeline == null && saved != null) {
+            pipeline = saved.getProperty("pipeline");
+        }
+        if (surface == null && saved != null) {
+            surface = saved.getProperty("surface");
+        }
+        try {
+            if (pipeline != null && !pipeline.equalsIgnoreCase("default") && !RenderPipeline.isChosenByUser()) {
+                RenderPipeline.parse(pipeline).apply();
+            }
+            if (surface != null) {
+                SurfaceType.set(SurfaceType.valueOf(surface.trim().toUpperCase(Locale.ROOT)));
+            }
+        } catch (IllegalArgumentException ex) {
+            LOG.warning("Ignoring unknown render pipeline or surface: " + pipeline + ", " + surface);
+        }
+        String calibrate = System.getProperty(CALIBRATE_PROPERTY);
+        needed = calibrate == null ? saved == null : Boolean.parseBoolean(calibrate);
+        LOG.info("Render pipeline " + (pipeline == null ? "default" : pipeline) + ", surface " + SurfaceType.get()
+                + " (" + source + ")");
+    }
+
+    // Starts a calibration in the background if this machine has none; it applies from the next start.
+    static void startIfNeeded() {
+        if (!needed) {
+            return;
+        }
+        needed = false;
+        Thread thread = new Thread(RenderCalibration::calibrate, "render-calibration");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    private static void calibrate() {
+        long start = System.nanoTime();
+        Map<RenderPipeline, String> configs = new EnumMap<>(RenderPipeline.class);
+        Map<RenderPipeline, Map<SurfaceType, Long>> results = new EnumMap<>(RenderPipeline.class);
+        for (RenderPipeline pipeline : RenderPipeline.candidates()) {
+            Map<SurfaceType, Long> timings = new EnumMap<>(SurfaceType.class);
+            String config = runChild(pipeline, timings);
+            if (config == null || timings.isEmpty()) {
+                continue;
+            }
+            // A pipeline that cannot start falls back silently to one already measured
+            if (configs.containsValue(config)) {
+                LOG.info("Render pipeline " + pipeline + " is not available here; it fell back to " + config);
+                continue;
+            }
+            configs.put(pipeline, config);
+            results.put(pipeline, timings);
+            if (HEADLESS.equals(config)) {
+                // Without a display no pipeline loads, so one run says all there is
+                break;
+            }
+        }
+        if (results.isEmpty()) {
+            LOG.warning("Render calibration failed; keeping the default pipeline");
+            return;
+        }
+
+        RenderPipeline bestPipeline = null;
+        SurfaceType bestSurface = null;
+        long best = Long.MAX_VALUE;
+        for (Map.Entry<RenderPipeline, Map<SurfaceType, Long>> entry : results.entrySet()) {
+            for (Map.Entry<SurfaceType, Long> timing : entry.getValue().entrySet()) {
+                if (timing.getValue() < best) {
+                    best = timing.getValue();
+                    bestPipeline = entry.getKey();
+                    bestSurface = timing.getKey();
+                }
+            }
+        }
+        // Only the surface is worth keeping from a headless run
+        String pipeline = HEADLESS.equals(configs.get(bestPipeline)) ? "default" : bestPipeline.name();
+        Map<String, String> record = new LinkedHashMap<>();
+        record.put("machine", MACHINE);
+        record.put("java.version", System.getProperty("java.version"));
+        record.put("calibrated", Instant.now().toString());
+        record.put("pipeline", pipeline.toLowerCase(Locale.ROOT));
+        record.put("surface", bestSurface.name().toLowerCase(Locale.ROOT));
+        StringBuilder report = new StringBuilder(String.format(
+                "Render calibration took %d ms; next start uses pipeline %s with surface %s",
+                (System.nanoTime() - start) / 1_000_000, record.get("pipeline"), record.get("surface")));
+        for (Map.Entry<RenderPipeline, Map<SurfaceType, Long>> entry : results.entrySet()) {
+            String name = entry.getKey().name().toLowerCase(Locale.ROOT);
+            record.put("config." + name, configs.get(entry.getKey()));
+            report.append(String.format("%n  %-9s %s", name, configs.get(entry.getKey())));
+            for (Map.Entry<SurfaceType, Long> timing : entry.getValue().entrySet()) {
+                String surface = timing.getKey().name().toLowerCase(Locale.ROOT);
+                record.put("result." + name + "." + surface, Long.toString(timing.getValue()));
+                report.append(String.format("%n    %-13s %8.3f ms/frame", surface, timing.getValue() / 1e6));
+            }
+        }
+        save(record);
+        LOG.info(report.toString());
+    }
+
+    // Runs the benchmark under one pipeline; returns its configuration class and fills timings, or returns null.
+    private static String runChild(RenderPipeline pipeline, Map<SurfaceType, Long> timings) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command()
+                .orElse(Paths.get(System.getProperty("java.home"), "bin", "java").toString()));
+        pipeline.getProperties().forEach((key, value) -> command.add("-D" + key + "=" + value));
+        command.add("-Xshare:auto");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(RenderBenchmark.class.getName());
+        Process process = null;
+        try {
+            process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+            String config = null;
+            try (BufferedReader out = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = out.readLine()) != null) {
+                    String[] parts = line.trim().split(" ");
+                    if (parts.length == 2 && parts[0].equals("config")) {
+                        config = parts[1];
+                    } else if (parts.length == 3 && parts[0].equals("surface")) {
+                        timings.put(SurfaceType.valueOf(parts[1]), Long.parseLong(parts[2]));
+                    }
+                }
+            }
+            if (!process.waitFor(CHILD_TIMEOUT_SECONDS, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                LOG.info("Render benchmark under " + pipeline + " did not finish cleanly");
+                timings.clear();
+                return null;
+            }
+            return config;
+        } catch (IOException | IllegalArgumentException ex) {
+            LOG.log(Level.INFO, "Render benchmark under " + pipeline + " failed", ex);
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            if (process != null) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    // The saved calibration if it was made on this machine with this Java, else null.
+    private static Properties load() {
+        Path file = file();
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Properties saved = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            saved.load(in);
+        } catch (IOException | IllegalArgumentException ex) {
+            return null;
+        }
+        boolean current = MACHINE.equals(saved.getProperty("machine"))
+                && System.getProperty("java.version").equals(saved.getProperty("java.version"));
+        return current ? saved : null;
+    }
+
+    private static void save(Map<String, String> record) {
+        StringBuilder text = new StringBuilder("# Written by the launcher's render calibration\n");
+        record.forEach((key, value) -> text.append(key).append('=')
+                .append(value.replace("\\", "\\\\")).append('\n'));
+        Path file = file();
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), ".tmp", null);
+            try {
+                Files.writeString(temp, text, StandardCharsets.UTF_8);
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Cannot save the render calibration to " + file, ex);
+        }
+    }
+
+    // One file per machine, so a home directory shared between boxes keeps each one's choice
+    private static Path file() {
+        String configured = System.getProperty(DIR_PROPERTY);
+        Path dir = configured != null && !configured.isBlank()
+                ? Paths.get(configured)
+                : Paths.get(System.getProperty("user.home"), ".tvgameboy", "render");
+        return dir.resolve("render-" + Integer.toHexString(MACHINE.hashCode()) + ".properties");
+    }
+
+    private static String machine() {
+        String host = System.getenv("HOSTNAME");
+        if (host == null) {
+            host = System.getenv("COMPUTERNAME");
+        }
+        if (host == null) {
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (IOException ex) {
+                host = "localhost";
+            }
+        }
+        return host + "/" + System.getProperty("os.name") + "/" + System.getProperty("os.arch")
+                + "/" + Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,66 @@
+package tvgameboy.launcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// The Java2D pipelines worth trying on each platform, as the system properties that select
+// them. They only take effect if set before AWT starts, so each is measured in its own JVM.
+enum RenderPipeline {
+    XRENDER(Map.of("sun.java2d.xrender", "true")),
+    OPENGL(Map.of("sun.java2d.opengl", "true")),
+    D3D(Map.of("sun.java2d.d3d", "true")),
+    METAL(Map.of("sun.java2d.metal", "true")),
+    // Java2D's own software loops, with every accelerated pipeline switched off
+    SOFTWARE(Map.of("sun.java2d.xrender", "false", "sun.java2d.opengl", "false",
+            "sun.java2d.d3d", "false", "sun.java2d.noddraw", "true"));
+
+    private final Map<String, String> properties;
+
+    RenderPipeline(Map<String, String> properties) {
+        this.properties = properties;
+    }
+
+    Map<String, String> getProperties() {
+        return properties;
+    }
+
+    static List<RenderPipeline> candidates() {
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        List<RenderPipeline> candidates = new ArrayList<>();
+        if (os.startsWith("windows")) {
+            candidates.add(D3D);
+            candidates.add(OPENGL);
+            candidates.add(SOFTWARE);
+        } else if (os.startsWith("mac")) {
+            candidates.add(METAL);
+            candidates.add(OPENGL);
+        } else {
+            candidates.add(XRENDER);
+            candidates.add(OPENGL);
+            candidates.add(SOFTWARE);
+        }
+        return candidates;
+    }
+
+    // True if the user picked a pipeline on the command line, which calibration must not override.
+    static boolean isChosenByUser() {
+        for (RenderPipeline pipeline : values()) {
+            for (String key : pipeline.properties.keySet()) {
+                if (System.getProperty(key) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    void apply() {
+        properties.forEach(System::setProperty);
+    }
+
+    static RenderPipeline parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,130 @@
+package tvgameboy.launcher;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.JComponent;
+import tvgameboy.shared.Game;
+import tvgameboy.shared.GameTimers;
+import tvgameboy.shared.input.InputQueue;
+import tvgameboy.shared.replay.InputRecorder;
+
+// With -Dtvgameboy.record=<file>, records the session for InputReplay: every tile
+// picked, every return to the menu, every input the open game takes from its
+// InputQueue, every firing of each of its GameTimers, and every pause and resume of
+// it. The session seed is fixed through
+// -Dtvgameboy.seed (picked at random when unset) so games roll the same dice on replay.
+// Recording stops with a warning at the first write error.
+final class SessionRecorder {
+    static final String RECORD_PROPERTY = "tvgameboy.record";
+    static final String SEED_PROPERTY = "tvgameboy.seed";
+    private static final Logger LOG = Logger.getLogger(SessionRecorder.class.getName());
+
+    private InputRecorder recorder;
+
+    private SessionRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    // Null unless recording was asked for and the log could be created.
+    static SessionRecorder startIfRequested() {
+        String file = System.getProperty(RECORD_PROPERTY);
+        if (file == null || file.isBlank()) {
+            return null;
+        }
+        long seed = Long.getLong(SEED_PROPERTY, System.nanoTime());
+        System.setProperty(SEED_PROPERTY, Long.toString(seed));
+        Path path = Paths.get(file);
+        try {
+            SessionRecorder session = new SessionRecorder(new InputRecorder(path, seed));
+            Runtime.getRuntime().addShutdownHook(new Thread(session::close, "input-recorder-close"));
+            LOG.info("Recording input to " + path.toAbsolutePath() + " with seed " + seed);
+            return session;
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Cannot record input to " + path, ex);
+            return null;
+        }
+    }
+
+    // Records a tile being picked and, for a game, taps its input queue and timers.
+    void opened(String screenId, Game game, JComponent view) {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.open(screenId);
+        } catch (IOException ex) {
+            fail(ex);
+            return;
+        }
+        InputQueue queue = InputQueue.of(view);
+        if (queue != null) {
+            queue.setObserver((action, pressed, timestampNanos) -> {
+                if (recorder != null) {
+                    try {
+                        recorder.input(action, pressed);
+                    } catch (IOException ex) {
+                        fail(ex);
+                    }
+                }
+            });
+        }
+        GameTimers timers = game == null ? null : game.getTimers();
+        if (timers != null) {
+            timers.setFireObserver(timerId -> {
+                if (recorder != null) {
+                    try {
+                        recorder.tick(timerId);
+                    } catch (IOException ex) {
+                        fail(ex);
+                    }
+                }
+            });
+        }
+    }
+
+    void menu() {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.menu();
+        } catch (IOException ex) {
+            fail(ex);
+        }
+    }
+
+    void paused(boolean paused) {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            if (paused) {
+                recorder.pause();
+            } else {
+                recorder.resume();
+            }
+        } catch (IOException ex) {
+            fail(ex);
+        }
+    }
+
+    synchronized void close() {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.close();
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Closing the input log failed", ex);
+        }
+        recorder = null;
+    }
+
+    private void fail(IOException ex) {
+        LOG.log(Level.WARNING, "Input recording stopped", ex);
+        close();
+    }
+}
@@ -0,0 +1,179 @@
+package tvgameboy.launcher;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import tvgameboy.shared.Game;
+import tvgameboy.shared.snapshot.SnapshotReader;
+import tvgameboy.shared.snapshot.SnapshotWriter;
+
+// Keeps the last snapshot of each game, by game id, in memory and in one file under
+// ~/.tvgameboy/snapshots (-Dtvgameboy.snapshots.dir overrides it). The file is read once
+// in the background at startup. Saves only mark the store dirty; a daemon thread writes
+// the whole file a couple of seconds after the first unsaved change, so leaving and
+// picking games in quick succession costs one write, and a shutdown hook writes whatever
+// is still pending. Every entry carries a CRC32, and a damaged entry is dropped rather
+// than restored. -Dtvgameboy.snapshots=false turns the store off.
+final class SnapshotStore {
+    private static final Logger LOG = Logger.getLogger(SnapshotStore.class.getName());
+    private static final String ENABLED_PROPERTY = "tvgameboy.snapshots";
+    private static final String DIR_PROPERTY = "tvgameboy.snapshots.dir";
+    private static final String FILE_NAME = "snapshots.bin";
+    private static final int MAGIC = 0x54564753; // "TVGS"
+    private static final int VERSION = 1;
+    private static final int FLUSH_DELAY_MILLIS = 2000;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final Path file;
+    private final Map<String, byte[]> snapshots = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final ScheduledExecutorService writer;
+    private final CompletableFuture<Void> loaded;
+    // Reused for every save; only touched on the EDT
+    private final SnapshotWriter encoder = new SnapshotWriter(INITIAL_CAPACITY);
+
+    private SnapshotStore(Path file) {
+        this.file = file;
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-store");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        loaded = CompletableFuture.runAsync(this::load, writer);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "snapshot-store-flush"));
+    }
+
+    // Null when snapshots are turned off.
+    static SnapshotStore openIfEnabled() {
+        if (!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return null;
+        }
+        String configured = System.getProperty(DIR_PROPERTY);
+        Path dir = configured != null && !configured.isBlank()
+                ? Paths.get(configured)
+                : Paths.get(System.getProperty("user.home"), ".tvgameboy", "snapshots");
+        return new SnapshotStore(dir.resolve(FILE_NAME));
+    }
+
+    // Asks the game for a snapshot and keeps it; a game that has none forgets any older one.
+    void save(String id, Game game) {
+        byte[] bytes;
+        try {
+            bytes = game.writeSnapshot(encoder.reset()) ? encoder.toByteArray() : null;
+        } catch (RuntimeException ex) {
+            LOG.log(Level.WARNING, "Game " + id + " failed to write a snapshot", ex);
+            bytes = null;
+        }
+        awaitLoad();
+        if (bytes == null ? snapshots.remove(id) == null : Arrays.equals(bytes, snapshots.put(id, bytes))) {
+            return;
+        }
+        if (dirty.compareAndSet(false, true)) {
+            writer.schedule(this::flush, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Null when the game has no snapshot.
+    byte[] get(String id) {
+        awaitLoad();
+        return snapshots.get(id);
+    }
+
+    // A snapshot the game rejected is dropped so it is not offered again.
+    void discard(String id) {
+        if (snapshots.remove(id) != null && dirty.compareAndSet(false, true)) {
+            writer.schedule(this::flush, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void awaitLoad() {
+        // The load never fails; a missing or damaged file is an empty store
+        loaded.join();
+    }
+
+    private void load() {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException ex) {
+            return;
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Cannot read snapshots from " + file, ex);
+            return;
+        }
+        try {
+            SnapshotReader in = new SnapshotReader(bytes);
+            if (in.getInt() != MAGIC || in.getVarint() != VERSION) {
+                LOG.warning("Ignoring snapshots in an unknown format: " + file);
+                return;
+            }
+            CRC32 crc = new CRC32();
+            long count = in.getVarint();
+            for (long i = 0; i < count; i++) {
+                String id = in.getString();
+                int checksum = in.getInt();
+                byte[] snapshot = in.getBytes(in.getVarint(in.remaining()));
+                crc.reset();
+                crc.update(snapshot);
+                if ((int) crc.getValue() == checksum) {
+                    snapshots.put(id, snapshot);
+                } else {
+                    LOG.warning("Dropping the damaged snapshot of " + id);
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            // A failed load would fail every later save and get, so nothing may escape it
+            LOG.log(Level.WARNING, "Snapshots in " + file + " are damaged; keeping those read", ex);
+        }
+    }
+
+    synchronized void flush() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        // Entries put while this runs land in the next write
+        Map<String, byte[]> pending = Map.copyOf(snapshots);
+        SnapshotWriter out = new SnapshotWriter(INITIAL_CAPACITY * Math.max(1, pending.size()));
+        out.putInt(MAGIC).putVarint(VERSION).putVarint(pending.size());
+        CRC32 crc = new CRC32();
+        for (Map.Entry<String, byte[]> entry : pending.entrySet()) {
+            byte[] snapshot = entry.getValue();
+            crc.reset();
+            crc.update(snapshot);
+            out.putString(entry.getKey()).putInt((int) crc.getValue()).putVarint(snapshot.length)
+                    .putBytes(snapshot, 0, snapshot.length);
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), ".tmp", null);
+            try {
+                Files.write(temp, out.toByteArray());
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Cannot write snapshots to " + file, ex);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package tvgameboy.launcher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+// Times the launcher's startup phases and the first painted frame. Phases are
+// logged as they finish and are available through getPhases().
+public final class StartupProfiler {
+    private static final Logger LOG = Logger.getLogger(StartupProfiler.class.getName());
+    private static final StartupProfiler INSTANCE = new StartupProfiler();
+
+    private final long createdNanos = System.nanoTime();
+    private final List<Phase> phases = Collections.synchronizedList(new ArrayList<>());
+    private final List<Runnable> firstFrameListeners = new ArrayList<>();
+    private volatile long firstFrameNanos = -1;
+
+    private StartupProfiler() {
+    }
+
+    public static StartupProfiler get() {
+        return INSTANCE;
+    }
+
+    public void time(String name, Runnable phase) {
+        long start = System.nanoTime();
+        try {
+            phase.run();
+        } finally {
+            record(name, start);
+        }
+    }
+
+    public <T> T time(String name, Supplier<T> phase) {
+        long start = System.nanoTime();
+        try {
+            return phase.get();
+        } finally {
+            record(name, start);
+        }
+    }
+
+    public List<Phase> getPhases() {
+        synchronized (phases) {
+            return new ArrayList<>(phases);
+        }
+    }
+
+    // Nanoseconds from profiler creation (the first launcher class use) to the first painted frame, or -1.
+    public long getFirstFrameNanos() {
+        return firstFrameNanos;
+    }
+
+    public boolean hasFirstFrame() {
+        return firstFrameNanos >= 0;
+    }
+
+    // Runs on the EDT once the first frame has been painted, or immediately if it already has.
+    public void onFirstFrame(Runnable listener) {
+        if (hasFirstFrame()) {
+            listener.run();
+            return;
+        }
+        firstFrameListeners.add(listener);
+    }
+
+    void markFirstFrame() {
+        if (hasFirstFrame()) {
+            return;
+        }
+        firstFrameNanos = System.nanoTime() - createdNanos;
+        String processUptime = ProcessHandle.current().info().startInstant()
+                .map(start -> String.format(", %d ms since process start",
+                        Duration.between(start, Instant.now()).toMillis()))
+                .orElse("");
+        LOG.info(String.format("First frame %.1f ms after launcher start%s", firstFrameNanos / 1_000_000.0, processUptime));
+        List<Runnable> listeners = new ArrayList<>(firstFrameListeners);
+        firstFrameListeners.clear();
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    public String report() {
+        StringBuilder report = new StringBuilder("Startup phases:");
+        for (Phase phase : getPhases()) {
+            report.append(String.format("%n  %-20s %8.1f ms  [%s]", phase.getName(),
+                    phase.getDurationNanos() / 1_000_000.0, phase.getThreadName()));
+        }
+        if (hasFirstFrame()) {
+            report.append(String.format("%n  %-20s %8.1f ms", "first frame", firstFrameNanos / 1_000_000.0));
+        }
+        return report.toString();
+    }
+
+    private void record(String name, long start) {
+        Phase phase = new Phase(name, start - createdNanos, System.nanoTime() - start, Thread.currentThread().getName());
+        phases.add(phase);
+        LOG.fine(() -> String.format("Startup phase %s took %.1f ms", name, phase.getDurationNanos() / 1_000_000.0));
+    }
+
+    public static final class Phase {
+        private final String name;
+        private final long offsetNanos;
+        private final long durationNanos;
+        private final String threadName;
+
+        Phase(String name, long offsetNanos, long durationNanos, String threadName) {
+            this.name = name;
+            this.offsetNanos = offsetNanos;
+            this.durationNanos = durationNanos;
+            this.threadName = threadName;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getOffsetNanos() {
+            return offsetNanos;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.1f ms", name, durationNanos / 1_000_000.0);
+        }
+    }
+}
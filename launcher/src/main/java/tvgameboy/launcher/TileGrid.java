@@ -0,0 +1,197 @@
+package tvgameboy.launcher;
+
+import java.awt.Component;
+import java.awt.GridLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.swing.AbstractAction;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.KeyStroke;
+import tvgameboy.shared.input.GridFocus;
+import tvgameboy.shared.input.InputAction;
+
+// A grid of tile buttons over a list of any length. It holds one screen of buttons and
+// scrolls a row at a time by binding those same buttons to other items, so a catalog of
+// hundreds builds no more components than one of six. The remote moves focus across the
+// tiles and scrolls when it runs off the top or bottom row; Page Up and Page Down (the
+// channel keys on most remotes) scroll a screen, and the mouse wheel a row. Slots past
+// the end of the list are bound to null.
+final class TileGrid<T> extends JPanel {
+    interface Binder<T> {
+        // Called on every scroll for each tile, so it must set everything an item changes
+        void bind(JButton tile, int index, T item);
+    }
+
+    private final int columns;
+    private final int visibleRows;
+    private final int rowCount;
+    private final List<T> items;
+    private final Binder<T> binder;
+    private final JButton[] tiles;
+    private final int[] boundIndex;
+    private int firstRow;
+    private Runnable onScroll;
+
+    TileGrid(int rows, int columns, int gap, List<T> items, Supplier<JButton> tileFactory, Binder<T> binder) {
+        super(new GridLayout(rows, columns, gap, gap));
+        this.columns = columns;
+        this.visibleRows = rows;
+        this.rowCount = Math.max(rows, (items.size() + columns - 1) / columns);
+        this.items = items;
+        this.binder = binder;
+        tiles = new JButton[rows * columns];
+        boundIndex = new int[tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = tileFactory.get();
+            add(tiles[i]);
+        }
+        bindAll();
+        installNavigation();
+        addMouseWheelListener(event -> scrollTo(firstRow + event.getWheelRotation()));
+    }
+
+    // The item a tile currently shows, or null for an empty slot or a tile of another grid.
+    T itemOf(Component tile) {
+        int index = indexOf(tile);
+        return index < 0 || index >= items.size() ? null : items.get(index);
+    }
+
+    // The list index a tile is currently bound to, or -1.
+    int indexOf(Component tile) {
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == tile) {
+                return boundIndex[i];
+            }
+        }
+        return -1;
+    }
+
+    // True if a tile currently shows an item that matches; empty slots are tested as null.
+    boolean isShowing(Predicate<T> match) {
+        for (int index : boundIndex) {
+            if (match.test(index < items.size() ? items.get(index) : null)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int getFirstRow() {
+        return firstRow;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    int getVisibleRows() {
+        return visibleRows;
+    }
+
+    // Runs after each scroll, on the event dispatch thread.
+    void setOnScroll(Runnable onScroll) {
+        this.onScroll = onScroll;
+    }
+
+    // Shows the given row at the top, within range; returns false if nothing moved.
+    boolean scrollTo(int row) {
+        int target = Math.max(0, Math.min(rowCount - visibleRows, row));
+        if (target == firstRow) {
+            return false;
+        }
+        firstRow = target;
+        bindAll();
+        if (onScroll != null) {
+            onScroll.run();
+        }
+        return true;
+    }
+
+    private void bindAll() {
+        for (int i = 0; i < tiles.length; i++) {
+            int index = firstRow * columns + i;
+            boundIndex[i] = index;
+            binder.bind(tiles[i], index, index < items.size() ? items.get(index) : null);
+        }
+    }
+
+    private void installNavigation() {
+        for (InputAction action : InputAction.values()) {
+            for (int keyCode : action.getKeyCodes()) {
+                getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).put(KeyStroke.getKeyStroke(keyCode, 0), action);
+            }
+            getActionMap().put(action, new AbstractAction() {
+                @Override
+                public void actionPerformed(ActionEvent event) {
+                    if (action == InputAction.SELECT) {
+                        JButton focused = focusedTile();
+                        if (focused != null) {
+                            focused.doClick(0);
+                        }
+                    } else if (action != InputAction.BACK) {
+                        move(action);
+                    }
+                }
+            });
+        }
+        bindScroll(KeyEvent.VK_PAGE_UP, -visibleRows);
+        bindScroll(KeyEvent.VK_PAGE_DOWN, visibleRows);
+    }
+
+    private void bindScroll(int keyCode, int rows) {
+        String name = "scroll" + rows;
+        getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).put(KeyStroke.getKeyStroke(keyCode, 0), name);
+        getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent event) {
+                JButton focused = focusedTile();
+                if (scrollTo(firstRow + rows) && focused != null) {
+                    keepFocusInRow(focused);
+                }
+            }
+        });
+    }
+
+    private void move(InputAction action) {
+        JButton focused = focusedTile();
+        if (focused == null || GridFocus.move(this, action)) {
+            return;
+        }
+        // Off the top or bottom row: the focused tile stays put and the items move under it
+        int rows = action == InputAction.UP ? -1 : action == InputAction.DOWN ? 1 : 0;
+        if (rows != 0 && scrollTo(firstRow + rows)) {
+            keepFocusInRow(focused);
+        }
+    }
+
+    // After a scroll the focused tile may show an empty slot; focus the nearest filled one to its left
+    private void keepFocusInRow(JButton focused) {
+        int cell = -1;
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == focused) {
+                cell = i;
+            }
+        }
+        for (int i = cell; i >= cell - cell % columns; i--) {
+            if (tiles[i].isEnabled()) {
+                tiles[i].requestFocusInWindow();
+                return;
+            }
+        }
+        GridFocus.focusFirst(this);
+    }
+
+    private JButton focusedTile() {
+        for (JButton tile : tiles) {
+            if (tile.isFocusOwner()) {
+                return tile;
+            }
+        }
+        return null;
+    }
+}
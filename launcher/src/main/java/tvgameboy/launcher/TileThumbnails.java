@@ -0,0 +1,295 @@
+package tvgameboy.launcher;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import javax.swing.SwingUtilities;
+import tvgameboy.shared.asset.DiskCache;
+
+// Tile images built from source artwork on a fork-join pool and kept on disk as raw
+// pixels, keyed by the SHA-256 of the source bytes and the target size, so once an image
+// has been built no later start decodes its source again. sweep() queues every job of
+// the catalog in the background; a tile that asks for an image puts its job at the head
+// of the queue and shows its placeholder until the image is published to it on the event
+// dispatch thread. In memory only the most recently shown images are kept, so memory
+// follows the number of tiles on screen rather than the size of the catalog; a job whose
+// tiles scrolled away before it ran only fills the disk cache. Used on the event dispatch
+// thread, apart from the jobs themselves.
+final class TileThumbnails {
+    private static final Logger LOG = Logger.getLogger(TileThumbnails.class.getName());
+    // Cached for entries with no image, so they are not read again
+    private static final Icon NONE = new ImageIcon();
+    private static final String KEY_PREFIX = "thumbnail:";
+
+    // One tile image: where its source bytes come from, the size it is built at (part of the
+    // cache key), how the source becomes the image (null if it cannot) and how a cached copy
+    // becomes the image to show.
+    static final class Job {
+        private final String id;
+        private final GameEntry.IconData source;
+        private final String size;
+        private final Function<byte[], BufferedImage> render;
+        private final UnaryOperator<BufferedImage> restore;
+
+        Job(String id, GameEntry.IconData source, String size, Function<byte[], BufferedImage> render,
+                UnaryOperator<BufferedImage> restore) {
+            this.id = id;
+            this.source = source;
+            this.size = size;
+            this.render = render;
+            this.restore = restore;
+        }
+    }
+
+    private final DiskCache disk;
+    private final int maxSize;
+    private final Predicate<String> wanted;
+    private final Map<String, Icon> cache;
+    private final Map<String, List<Consumer<Icon>>> pending = new HashMap<>();
+    // Jobs a tile is waiting for; for these the pool builds the image, not just the cache entry
+    private final Map<String, Job> requested = new ConcurrentHashMap<>();
+    // Ids whose image is known to be on disk, so a sweep passes over them
+    private final Map<String, Boolean> onDisk = new ConcurrentHashMap<>();
+    private final LinkedBlockingDeque<Job> queue = new LinkedBlockingDeque<>();
+    private final AtomicInteger workers = new AtomicInteger();
+    private final int parallelism = Runtime.getRuntime().availableProcessors();
+    private ForkJoinPool pool;
+
+    // wanted says whether a tile still shows the job with the given id.
+    TileThumbnails(DiskCache disk, int capacity, int maxSize, Predicate<String> wanted) {
+        this.disk = disk;
+        this.maxSize = maxSize;
+        this.wanted = wanted;
+        this.cache = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Icon> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // The job that builds an entry's tile icon, decoded and shrunk to fit maxSize square; null
+    // for entries whose icon is given up front or missing.
+    Job iconJob(GameEntry entry) {
+        if (entry.getIcon() != null || !entry.hasIconData()) {
+            return null;
+        }
+        return new Job(entry.getId(), entry::readIconData, "fit" + maxSize, this::fit, UnaryOperator.identity());
+    }
+
+    // The entry's icon if it is ready, else null; also null for entries without one.
+    Icon getIfLoaded(GameEntry entry) {
+        if (entry.getIcon() != null || !entry.hasIconData()) {
+            return entry.getIcon();
+        }
+        Icon icon = cache.get(entry.getId());
+        return icon == NONE ? null : icon;
+    }
+
+    // Reads or builds the entry's icon and hands it, or null if it cannot be read, to onLoaded
+    // on the event dispatch thread. Does nothing if getIfLoaded already has the answer.
+    void load(GameEntry entry, Consumer<Icon> onLoaded) {
+        if (entry.getIcon() != null || !entry.hasIconData() || cache.containsKey(entry.getId())) {
+            return;
+        }
+        load(iconJob(entry), onLoaded);
+    }
+
+    void load(Job job, Consumer<Icon> onLoaded) {
+        // Tiles scrolled away since they asked no longer need their images built
+        requested.values().removeIf(waiting -> !wanted.test(waiting.id));
+        pending.keySet().removeIf(id -> !requested.containsKey(id));
+        pending.computeIfAbsent(job.id, id -> new ArrayList<>()).add(onLoaded);
+        if (requested.putIfAbsent(job.id, job) == null) {
+            queue.offerFirst(job);
+            startWorker();
+        }
+    }
+
+    // Queues jobs behind the ones tiles are waiting for, so the whole catalog is on disk
+    // before the player scrolls to it.
+    void sweep(List<Job> jobs) {
+        queue.addAll(jobs);
+        for (int i = 0; i < Math.min(jobs.size(), parallelism); i++) {
+            startWorker();
+        }
+    }
+
+    private void startWorker() {
+        if (!claimWorker()) {
+            return;
+        }
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism, TileThumbnails::newThread, null, true);
+        }
+        pool.execute(this::drain);
+    }
+
+    private boolean claimWorker() {
+        int running;
+        do {
+            running = workers.get();
+            if (running >= parallelism) {
+                return false;
+            }
+        } while (!workers.compareAndSet(running, running + 1));
+        return true;
+    }
+
+    private void drain() {
+        do {
+            Job job;
+            while ((job = queue.pollFirst()) != null) {
+                run(job);
+            }
+            workers.decrementAndGet();
+            // A job queued between the last poll and the decrement still needs a worker
+        } while (!queue.isEmpty() && claimWorker());
+    }
+
+    private void run(Job job) {
+        boolean publish = requested.get(job.id) == job;
+        if (!publish && onDisk.containsKey(job.id)) {
+            return;
+        }
+        BufferedImage image = null;
+        try {
+            byte[] source = job.source.read();
+            if (source != null) {
+                String key = KEY_PREFIX + DiskCache.sha256(source) + ":" + job.size;
+                if (publish || !disk.contains(key)) {
+                    BufferedImage cached = readRaster(publish ? disk.get(key) : null);
+                    if (cached != null) {
+                        image = job.restore.apply(cached);
+                    } else {
+                        image = job.render.apply(source);
+                        if (image != null) {
+                            disk.put(key, writeRaster(image));
+                        }
+                    }
+                }
+            }
+            onDisk.put(job.id, Boolean.TRUE);
+        } catch (IOException | RuntimeException ex) {
+            LOG.log(Level.FINE, "Cannot build the tile image of " + job.id, ex);
+        }
+        if (publish) {
+            Icon icon = image == null ? null : new ImageIcon(image);
+            SwingUtilities.invokeLater(() -> publish(job, icon));
+        }
+    }
+
+    private void publish(Job job, Icon icon) {
+        if (!requested.remove(job.id, job)) {
+            return;
+        }
+        cache.put(job.id, icon == null ? NONE : icon);
+        List<Consumer<Icon>> callbacks = pending.remove(job.id);
+        if (callbacks != null) {
+            for (Consumer<Icon> callback : callbacks) {
+                callback.accept(icon);
+            }
+        }
+    }
+
+    // Halves an oversized image until it fits maxSize square, keeping its aspect ratio
+    private BufferedImage fit(byte[] source) {
+        BufferedImage image;
+        try {
+            image = ImageIO.read(new MemoryCacheImageInputStream(new ByteArrayInputStream(source)));
+        } catch (IOException ex) {
+            return null;
+        }
+        if (image == null) {
+            return null;
+        }
+        BufferedImage current = image;
+        while (current.getWidth() > maxSize || current.getHeight() > maxSize) {
+            double scale = Math.max(0.5, (double) maxSize / Math.max(current.getWidth(), current.getHeight()));
+            int w = Math.max(1, (int) Math.round(current.getWidth() * scale));
+            int h = Math.max(1, (int) Math.round(current.getHeight() * scale));
+            current = draw(current, w, h);
+        }
+        // Always ARGB, so an icon read back from the cache draws the same as a freshly built one
+        return current.getType() == BufferedImage.TYPE_INT_ARGB
+                ? current : draw(current, current.getWidth(), current.getHeight());
+    }
+
+    private static BufferedImage draw(BufferedImage image, int width, int height) {
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = result.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return result;
+    }
+
+    // Width, height, whether there is alpha, then the pixels; nothing to decode on the way back
+    private static byte[] writeRaster(BufferedImage image) throws IOException {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(9 + width * height * 4);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeBoolean(image.getColorModel().hasAlpha());
+            for (int pixel : image.getRGB(0, 0, width, height, null, 0, width)) {
+                out.writeInt(pixel);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static BufferedImage readRaster(byte[] bytes) throws IOException {
+        if (bytes == null || bytes.length < 9) {
+            return null;
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int width = in.readInt();
+        int height = in.readInt();
+        boolean alpha = in.readBoolean();
+        if (width < 1 || height < 1 || bytes.length != 9 + (long) width * height * 4) {
+            return null;
+        }
+        int[] pixels = new int[width * height];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = in.readInt();
+        }
+        BufferedImage image = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, width, height, pixels, 0, width);
+        return image;
+    }
+
+    private static ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("tile-icons-" + thread.getPoolIndex());
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    }
+}
@@ -0,0 +1,88 @@
+package tvgameboy.launcher;
+
+import java.util.concurrent.CountDownLatch;
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import tvgameboy.shared.Game;
+
+// The leak audit that runs a second after a session closes: a game that leaves its
+// thread running is reported, and a thread started by the session opened next
+// within that second is not blamed on the closed one.
+final class LeakAuditTest {
+    private static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+    // Once a thread started on the EDT and a Swing timer have both run, AWT no longer shuts
+    // down by itself, so the test exits explicitly, failed or not.
+    public static void main(String[] args) {
+        try {
+            run();
+        } catch (Throwable ex) {
+            ex.printStackTrace();
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static void run() throws Exception {
+        try {
+            GameSessionManager sessions = new GameSessionManager();
+            onEdt(() -> sessions.open(new GameEntry("tidy", "Tidy", () -> new ThreadGame(true)), () -> { }));
+            onEdt(() -> sessions.open(new GameEntry("leaky", "Leaky", () -> new ThreadGame(false)), () -> { }));
+            Thread.sleep(1500);
+            check(sessions.getLeakedSessionCount() == 0, "the next session's thread was blamed on the closed one");
+
+            onEdt(sessions::closeActive);
+            Thread.sleep(1500);
+            check(sessions.getLeakedSessionCount() == 1, "a thread left running after dispose is reported");
+        } finally {
+            RELEASE.countDown();
+        }
+    }
+
+    private static void onEdt(Runnable task) throws Exception {
+        SwingUtilities.invokeAndWait(task);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    // Starts a worker with its view and, when tidy, stops it on dispose.
+    private static final class ThreadGame implements Game {
+        private final boolean tidy;
+        private Thread worker;
+
+        ThreadGame(boolean tidy) {
+            this.tidy = tidy;
+        }
+
+        @Override
+        public JComponent getView(Runnable returnToMenu) {
+            worker = new Thread(() -> {
+                try {
+                    RELEASE.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "worker-" + (tidy ? "tidy" : "leaky"));
+            worker.setDaemon(true);
+            worker.start();
+            return new JPanel();
+        }
+
+        @Override
+        public void dispose() {
+            if (tidy) {
+                worker.interrupt();
+                try {
+                    worker.join(1000);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package tvgameboy.launcher;
+
+import java.awt.Graphics2D;
+import java.util.function.BooleanSupplier;
+import javax.swing.SwingUtilities;
+import tvgameboy.shared.LoopGame;
+import tvgameboy.shared.loop.GameLoop;
+
+// Opens a LoopGame through GameSessionManager and runs its loop: pausing the
+// session stops the update calls, resuming starts them again, and closing the
+// session stops the loop thread.
+final class LoopSessionTest {
+    public static void main(String[] args) throws Exception {
+        CountingGame game = new CountingGame();
+        GameSessionManager sessions = new GameSessionManager();
+        onEdt(() -> sessions.open(new GameEntry("loop-game", "Loop", () -> game), () -> { }));
+        GameLoop loop = GameLoop.of(game);
+        check(loop != null, "the view's loop is kept for the game");
+
+        // Headless, the canvas never becomes displayable, so start the loop by hand
+        loop.start();
+        await(() -> game.updates > 5);
+        check(game.updates > 5, "running session updates");
+
+        onEdt(sessions::pauseActive);
+        Thread.sleep(50);
+        int paused = game.updates;
+        Thread.sleep(200);
+        check(game.updates == paused, "paused session stopped updating, ran " + (game.updates - paused) + " more");
+
+        onEdt(sessions::resumeActive);
+        await(() -> game.updates > paused + 5);
+        check(game.updates > paused + 5, "resumed session updates again");
+
+        Thread loopThread = game.thread;
+        onEdt(sessions::closeActive);
+        check(!loop.isRunning() && !loopThread.isAlive(), "closing the session stopped the loop thread");
+        check(GameLoop.of(game) == null, "the loop is dropped with the session");
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void onEdt(Runnable task) throws Exception {
+        SwingUtilities.invokeAndWait(task);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private static final class CountingGame implements LoopGame {
+        volatile int updates;
+        volatile Thread thread;
+
+        @Override
+        public void update(double stepSeconds) {
+            thread = Thread.currentThread();
+            updates++;
+        }
+
+        @Override
+        public void render(Graphics2D g, int width, int height, double interpolation) {
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package tvgameboy.launcher;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import tvgameboy.shared.metrics.Metrics;
+
+// Paints the raft screen offscreen and checks that a repaint at the same size and
+// pixel factor is a single blit of the cached frame, that a size with another
+// pixel factor rebuilds it, and that both are published through Metrics.
+final class RaftScreenPanelTest {
+    public static void main(String[] args) {
+        BufferedImage blocks = new BufferedImage(40, 22, BufferedImage.TYPE_INT_RGB);
+        RaftScreenPanel panel = new RaftScreenPanel(blocks);
+        long hitsBefore = Metrics.get().counter("frame.raft.image.hits").get();
+        long rebuildsBefore = Metrics.get().counter("frame.raft.image.rebuilds").get();
+
+        panel.setSize(1280, 720);
+        paint(panel);
+        check(panel.getImageFrameCache().getRebuilds() == 1, "first paint renders the frame");
+        paint(panel);
+        paint(panel);
+        check(panel.getImageFrameCache().getRebuilds() == 1, "unchanged repaints do not rebuild");
+        check(panel.getImageFrameCache().getHits() == 2, "unchanged repaints blit the cached frame");
+
+        check(RaftScreenPanel.pixelFactor(640, 360) != RaftScreenPanel.pixelFactor(1280, 720),
+                "the smaller size has another pixel factor");
+        panel.setSize(640, 360);
+        paint(panel);
+        check(panel.getImageFrameCache().getRebuilds() == 2, "a new size and pixel factor rebuilds");
+
+        check(Metrics.get().counter("frame.raft.image.hits").get() - hitsBefore == 2, "hits are published");
+        check(Metrics.get().counter("frame.raft.image.rebuilds").get() - rebuildsBefore == 2,
+                "rebuilds are published");
+    }
+
+    private static void paint(RaftScreenPanel panel) {
+        BufferedImage target = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            panel.paint(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
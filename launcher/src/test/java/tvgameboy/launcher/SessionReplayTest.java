@@ -0,0 +1,140 @@
+package tvgameboy.launcher;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import tvgameboy.games.template.FishingModel;
+import tvgameboy.games.template.FishingRules;
+import tvgameboy.games.template.TemplateGame;
+import tvgameboy.shared.GameTimers;
+import tvgameboy.shared.input.InputAction;
+import tvgameboy.shared.input.InputQueue;
+import tvgameboy.shared.replay.InputLogReader;
+import tvgameboy.shared.replay.LogEvent;
+import tvgameboy.shared.snapshot.SnapshotReader;
+import tvgameboy.shared.snapshot.SnapshotWriter;
+
+// Records a scripted session of the template game through SessionRecorder: timer
+// advances, casts, casts that wait behind a timer firing, pauses and resumes. Then
+// replays the log into a fresh game the way InputReplay does and checks that the
+// game ends in the same model state.
+final class SessionReplayTest {
+    private static final GameEntry ENTRY = new GameEntry("template-game", "Cast", TemplateGame::new);
+    private static final int STEPS = 500;
+
+    public static void main(String[] args) throws Exception {
+        GameTimers.setManualClock(true);
+        Path log = Files.createTempFile("session-replay-test", ".tvgr");
+        try {
+            byte[] recorded = record(log);
+            FishingModel model = readModel(recorded);
+            check(model.getCasts() > 0 && model.getCatches() > 0 && model.getPhaseChanges() > 0,
+                    "scripted session cast, caught and saw a phase change");
+            check(Arrays.equals(recorded, replay(log)), "replay ended in the recorded model state");
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    private static byte[] record(Path log) throws Exception {
+        System.setProperty(SessionRecorder.RECORD_PROPERTY, log.toString());
+        System.setProperty(SessionRecorder.SEED_PROPERTY, "42");
+        SessionRecorder recorder = SessionRecorder.startIfRequested();
+        check(recorder != null, "recorder started");
+        GameSessionManager sessions = new GameSessionManager();
+        sessions.setPauseObserver(recorder::paused);
+        onEdt(() -> {
+            JComponent view = sessions.open(ENTRY, () -> { });
+            recorder.opened(ENTRY.getId(), sessions.getActiveGame(), view);
+        });
+
+        Random random = new Random(7);
+        for (int step = 0; step < STEPS; step++) {
+            int choice = random.nextInt(10);
+            int millis = random.nextInt(3000);
+            onEdt(() -> {
+                GameTimers timers = sessions.getActiveGame().getTimers();
+                InputQueue queue = InputQueue.of(sessions.getActiveView());
+                if (choice < 5) {
+                    timers.advance(millis);
+                } else if (choice < 8) {
+                    long now = System.nanoTime();
+                    queue.offer(InputAction.SELECT, true, now);
+                    queue.offer(InputAction.SELECT, false, now);
+                    if (choice == 7) {
+                        // The game sees these firings before the cast, which is still queued
+                        timers.advance(millis);
+                    }
+                } else if (choice == 8) {
+                    sessions.pauseActive();
+                } else {
+                    sessions.resumeActive();
+                }
+            });
+            // Lets the input queue drain
+            onEdt(() -> { });
+        }
+        byte[][] state = new byte[1][];
+        onEdt(() -> {
+            state[0] = snapshot(sessions);
+            sessions.closeActive();
+        });
+        recorder.close();
+        return state[0];
+    }
+
+    private static byte[] replay(Path log) throws Exception {
+        InputLogReader reader = new InputLogReader(log);
+        check(reader.getSeed() == 42, "seed recorded");
+        System.setProperty(SessionRecorder.SEED_PROPERTY, Long.toString(reader.getSeed()));
+        GameSessionManager sessions = new GameSessionManager();
+        int[] counts = new int[LogEvent.values().length];
+        while (reader.next()) {
+            LogEvent event = reader.getEvent();
+            counts[event.ordinal()]++;
+            onEdt(() -> {
+                if (event == LogEvent.OPEN) {
+                    sessions.open(ENTRY, () -> { });
+                } else {
+                    check(InputReplay.applyToActive(reader, sessions), event + " record " + counts[event.ordinal()]
+                            + " could not be replayed");
+                }
+            });
+            onEdt(() -> { });
+        }
+        for (LogEvent event : LogEvent.values()) {
+            check(event == LogEvent.MENU || counts[event.ordinal()] > 0, "session recorded " + event);
+        }
+        byte[][] state = new byte[1][];
+        onEdt(() -> {
+            state[0] = snapshot(sessions);
+            sessions.closeActive();
+        });
+        return state[0];
+    }
+
+    private static byte[] snapshot(GameSessionManager sessions) {
+        SnapshotWriter out = new SnapshotWriter(64);
+        check(sessions.getActiveGame().writeSnapshot(out), "game wrote a snapshot");
+        return out.toByteArray();
+    }
+
+    private static FishingModel readModel(byte[] snapshot) throws Exception {
+        SnapshotReader in = new SnapshotReader(snapshot);
+        in.getVarint();
+        return FishingModel.readFrom(FishingRules.DEFAULT, in);
+    }
+
+    private static void onEdt(Runnable task) throws Exception {
+        SwingUtilities.invokeAndWait(task);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package tvgameboy.launcher;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import tvgameboy.shared.Game;
+import tvgameboy.shared.snapshot.SnapshotWriter;
+
+// Snapshots saved and flushed by one store are read back by the next. A file with a
+// damaged checksum, or with an entry whose length decodes negative, loads the
+// entries before the damage, and the store keeps working instead of failing every
+// later save and get.
+final class SnapshotStoreTest {
+    private static final byte[] FIRST = {1, 2, 3};
+    private static final byte[] SECOND = {4, 5};
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("snapshot-store-test");
+        Path file = dir.resolve("snapshots.bin");
+        System.setProperty("tvgameboy.snapshots.dir", dir.toString());
+        try {
+            SnapshotStore store = SnapshotStore.openIfEnabled();
+            store.save("first", new SnapshotGame(FIRST));
+            store.save("second", new SnapshotGame(SECOND));
+            store.save("none", new SnapshotGame(null));
+            store.flush();
+            SnapshotStore reopened = SnapshotStore.openIfEnabled();
+            check(Arrays.equals(reopened.get("first"), FIRST), "first snapshot read back");
+            check(Arrays.equals(reopened.get("second"), SECOND), "second snapshot read back");
+            check(reopened.get("none") == null, "a game without a snapshot has none");
+
+            SnapshotWriter damaged = header(2).putString("first").putInt(crc(FIRST) ^ 1)
+                    .putVarint(FIRST.length).putBytes(FIRST, 0, FIRST.length);
+            entry(damaged, "second", SECOND);
+            Files.write(file, damaged.toByteArray());
+            SnapshotStore checked = SnapshotStore.openIfEnabled();
+            check(checked.get("first") == null, "an entry with a bad checksum is dropped");
+            check(Arrays.equals(checked.get("second"), SECOND), "the entry after it is kept");
+
+            // A negative varint, nine full groups and the top bit, where the second id's length goes
+            SnapshotWriter negative = entry(header(2), "first", FIRST);
+            byte[] minusOne = {-1, -1, -1, -1, -1, -1, -1, -1, -1, 1};
+            negative.putBytes(minusOne, 0, minusOne.length);
+            Files.write(file, negative.toByteArray());
+            SnapshotStore recovered = SnapshotStore.openIfEnabled();
+            check(Arrays.equals(recovered.get("first"), FIRST), "entries before the damage are kept");
+            check(recovered.get("second") == null, "the damaged entry is not");
+            recovered.save("second", new SnapshotGame(SECOND));
+            check(Arrays.equals(recovered.get("second"), SECOND), "the store still saves");
+            recovered.flush();
+            check(Arrays.equals(SnapshotStore.openIfEnabled().get("second"), SECOND), "and writes its file again");
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path path : (Iterable<Path>) files::iterator) {
+                    Files.delete(path);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static SnapshotWriter header(int count) {
+        return new SnapshotWriter(64).putInt(0x54564753).putVarint(1).putVarint(count);
+    }
+
+    private static SnapshotWriter entry(SnapshotWriter out, String id, byte[] snapshot) {
+        return out.putString(id).putInt(crc(snapshot)).putVarint(snapshot.length)
+                .putBytes(snapshot, 0, snapshot.length);
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    // Writes the given bytes as its snapshot, or has none when they are null.
+    private static final class SnapshotGame implements Game {
+        private final byte[] snapshot;
+
+        SnapshotGame(byte[] snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public JComponent getView(Runnable returnToMenu) {
+            return new JPanel();
+        }
+
+        @Override
+        public boolean writeSnapshot(SnapshotWriter out) {
+            if (snapshot == null) {
+                return false;
+            }
+            out.putBytes(snapshot, 0, snapshot.length);
+            return true;
+        }
+    }
+}
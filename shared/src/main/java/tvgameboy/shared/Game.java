@@ -1,5 +1,44 @@
 package tvgameboy.shared;
 
+import java.io.IOException;
+import tvgameboy.shared.snapshot.SnapshotReader;
+import tvgameboy.shared.snapshot.SnapshotWriter;
+
 public interface Game {
     javax.swing.JComponent getView(Runnable returnToMenu);
+
+    // Lifecycle callbacks from the launcher, always on the EDT. A game is paused while
+    // its view is hidden and disposed exactly once when its session ends.
+    default void pause() {
+    }
+
+    default void resume() {
+    }
+
+    default void dispose() {
+    }
+
+    // Games that create their timers through GameTimers return them here so the launcher
+    // can report timers still running after dispose, and harnesses can fire ticks directly.
+    default GameTimers getTimers() {
+        return null;
+    }
+
+    // Suspend and resume. When the player leaves, a game that can describe its progress
+    // writes it, starting with its own format version, and returns true. The launcher
+    // keeps the bytes and, next time the tile is picked, hands them to a new instance's
+    // readSnapshot before getView. Returning false there (say, for an unknown version)
+    // or throwing IOException starts the game fresh.
+    default boolean writeSnapshot(SnapshotWriter out) {
+        return false;
+    }
+
+    default boolean readSnapshot(SnapshotReader in) throws IOException {
+        return false;
+    }
+
+    default int getActiveTimerCount() {
+        GameTimers timers = getTimers();
+        return timers == null ? 0 : timers.getRunningCount();
+    }
 }
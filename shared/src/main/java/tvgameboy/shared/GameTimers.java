@@ -0,0 +1,220 @@
+package tvgameboy.shared;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import javax.swing.Timer;
+
+// Owns the Swing timers of one game so they can be paused, resumed and stopped
+// together. One-shot timers drop out of the group after they fire; stopped timers
+// stay in it, so one restarted after stopAll still shows in getRunningCount.
+//
+// With the manual clock on (setManualClock, or -Dtvgameboy.timers.manual=true)
+// timers created afterwards are never scheduled on Swing's timer thread; they
+// only fire from advance or fire, which lets harnesses and benchmarks run game
+// time deterministically and faster than real time. Each timer is numbered in the
+// order the group created it, so a recorded firing can be replayed on the same timer.
+public final class GameTimers {
+    private static volatile boolean manualClockDefault = Boolean.getBoolean("tvgameboy.timers.manual");
+
+    private final boolean manual = manualClockDefault;
+    private final Set<Timer> timers = new LinkedHashSet<>();
+    private final List<Timer> paused = new ArrayList<>();
+    private long clockMillis;
+    private int created;
+    private IntConsumer fireObserver;
+
+    public static void setManualClock(boolean manual) {
+        manualClockDefault = manual;
+    }
+
+    public boolean isManualClock() {
+        return manual;
+    }
+
+    // Is given the number of each timer in the group after it fires, on the EDT, as the launcher's
+    // input recorder is.
+    public void setFireObserver(IntConsumer observer) {
+        this.fireObserver = observer;
+    }
+
+    public Timer create(int delayMillis, ActionListener listener) {
+        int id = created++;
+        Timer timer = new ManagedTimer(id, delayMillis);
+        if (listener != null) {
+            timer.addActionListener(listener);
+        }
+        timer.addActionListener(event -> {
+            if (!timer.isRepeats()) {
+                timers.remove(timer);
+            }
+            if (fireObserver != null) {
+                fireObserver.accept(id);
+            }
+        });
+        timers.add(timer);
+        return timer;
+    }
+
+    public void pauseAll() {
+        for (Timer timer : timers) {
+            if (timer.isRunning()) {
+                timer.stop();
+                paused.add(timer);
+            }
+        }
+    }
+
+    public void resumeAll() {
+        for (Timer timer : paused) {
+            if (timers.contains(timer)) {
+                timer.start();
+            }
+        }
+        paused.clear();
+    }
+
+    // Returns how many timers were still running after being told to stop.
+    public int stopAll() {
+        int stillRunning = 0;
+        for (Timer timer : timers) {
+            timer.stop();
+            if (timer.isRunning()) {
+                stillRunning++;
+            }
+        }
+        paused.clear();
+        return stillRunning;
+    }
+
+    // Delivers one tick to every running timer immediately.
+    public void fireRunning() {
+        List<Timer> running = new ArrayList<>();
+        for (Timer timer : timers) {
+            if (timer.isRunning()) {
+                running.add(timer);
+            }
+        }
+        for (Timer timer : running) {
+            if (!timer.isRepeats()) {
+                timer.stop();
+            } else if (manual) {
+                ((ManagedTimer) timer).dueMillis = clockMillis + Math.max(1, timer.getDelay());
+            }
+            fire(timer);
+        }
+    }
+
+    // Manual clock only: moves game time forward, firing every timer that falls due in order.
+    public void advance(long millis) {
+        if (!manual) {
+            throw new IllegalStateException("advance needs the manual timer clock");
+        }
+        long target = clockMillis + millis;
+        while (true) {
+            ManagedTimer next = null;
+            for (Timer timer : timers) {
+                ManagedTimer managed = (ManagedTimer) timer;
+                if (managed.manualRunning && managed.dueMillis <= target
+                        && (next == null || managed.dueMillis < next.dueMillis)) {
+                    next = managed;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            fireDue(next);
+        }
+        clockMillis = target;
+    }
+
+    // Manual clock only: fires the timer numbered id once, now, as advance does when it falls
+    // due. Returns false if that timer is not running.
+    public boolean fire(int id) {
+        if (!manual) {
+            throw new IllegalStateException("fire needs the manual timer clock");
+        }
+        for (Timer timer : timers) {
+            ManagedTimer managed = (ManagedTimer) timer;
+            if (managed.id == id) {
+                if (!managed.manualRunning) {
+                    return false;
+                }
+                fireDue(managed);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getClockMillis() {
+        return clockMillis;
+    }
+
+    public int getRunningCount() {
+        int running = 0;
+        for (Timer timer : timers) {
+            if (timer.isRunning()) {
+                running++;
+            }
+        }
+        return running;
+    }
+
+    private void fireDue(ManagedTimer timer) {
+        clockMillis = Math.max(clockMillis, timer.dueMillis);
+        if (timer.isRepeats()) {
+            timer.dueMillis += Math.max(1, timer.getDelay());
+        } else {
+            timer.manualRunning = false;
+        }
+        fire(timer);
+    }
+
+    private static void fire(Timer timer) {
+        ActionEvent event = new ActionEvent(timer, ActionEvent.ACTION_PERFORMED, null, System.currentTimeMillis(), 0);
+        // Same order as Timer itself: most recently added listener first
+        ActionListener[] listeners = timer.getActionListeners();
+        for (int i = listeners.length - 1; i >= 0; i--) {
+            listeners[i].actionPerformed(event);
+        }
+    }
+
+    private final class ManagedTimer extends Timer {
+        private final int id;
+        private boolean manualRunning;
+        private long dueMillis;
+
+        ManagedTimer(int id, int delayMillis) {
+            super(delayMillis, null);
+            this.id = id;
+        }
+
+        @Override
+        public void start() {
+            if (!manual) {
+                super.start();
+                return;
+            }
+            if (!manualRunning) {
+                manualRunning = true;
+                dueMillis = clockMillis + getInitialDelay();
+            }
+        }
+
+        @Override
+        public void stop() {
+            manualRunning = false;
+            super.stop();
+        }
+
+        @Override
+        public boolean isRunning() {
+            return manual ? manualRunning : super.isRunning();
+        }
+    }
+}
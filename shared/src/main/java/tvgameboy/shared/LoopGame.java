@@ -0,0 +1,54 @@
+package tvgameboy.shared;
+
+import java.awt.Graphics2D;
+import javax.swing.JComponent;
+import tvgameboy.shared.input.InputAction;
+import tvgameboy.shared.loop.GameLoop;
+
+// A game driven by the shared fixed-timestep loop instead of Swing timers.
+// update and render are called on the loop thread, never on the EDT.
+public interface LoopGame extends Game {
+    void update(double stepSeconds);
+
+    void render(Graphics2D g, int width, int height, double interpolation);
+
+    default void onAttach(Runnable returnToMenu) {
+    }
+
+    // Remote and D-pad input, drained on the loop thread just before each frame's updates.
+    default void onInput(InputAction action, boolean pressed, long timestampNanos) {
+    }
+
+    default int getUpdatesPerSecond() {
+        return GameLoop.DEFAULT_UPDATES_PER_SECOND;
+    }
+
+    @Override
+    default JComponent getView(Runnable returnToMenu) {
+        onAttach(returnToMenu);
+        return GameLoop.attach(this).createView();
+    }
+
+    // The loop stops running updates while the view is hidden and exits on dispose.
+    // A game that overrides these calls LoopGame.super first.
+    @Override
+    default void pause() {
+        GameLoop loop = GameLoop.of(this);
+        if (loop != null) {
+            loop.setPaused(true);
+        }
+    }
+
+    @Override
+    default void resume() {
+        GameLoop loop = GameLoop.of(this);
+        if (loop != null) {
+            loop.setPaused(false);
+        }
+    }
+
+    @Override
+    default void dispose() {
+        GameLoop.detach(this);
+    }
+}
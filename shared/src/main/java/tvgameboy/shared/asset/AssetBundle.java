@@ -0,0 +1,269 @@
+package tvgameboy.shared.asset;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+// A module's assets packed by AssetBundleWriter into one file: a header, an index of
+// every entry's name, kind, offset and length, then the entries. The file is mapped into
+// memory once and its index read into a hash map, so any number of lookups cost one file
+// open and constant time each, and raw entries are handed out as slices of the mapping
+// without copying. Raster entries hold pixels decoded at build time, either at full
+// size or scaled to a size the module draws them at (see scaledName).
+//
+//   int magic "TVAB", int version, int entry count
+//   per entry: short name length, UTF-8 name, byte kind, long offset, int length, int width, int height
+//   entry data, each starting on an 8-byte boundary; rasters are big-endian 0xAARRGGBB ints
+//
+// A module's bundle ships as META-INF/tvgameboy/<name>.assets in its jar. The launcher
+// installs game bundles next to their jars, where they can be mapped; a bundle found only
+// inside a jar is copied out once into the cache directory (DiskCache.defaultRoot) and
+// mapped from there. Safe to share between threads.
+public final class AssetBundle {
+    public static final String EXTENSION = ".assets";
+    static final String RESOURCE_DIR = "META-INF/tvgameboy/";
+    static final int MAGIC = 0x54564142;
+    static final int VERSION = 1;
+    static final byte RAW = 0;
+    static final byte RASTER_RGB = 1;
+    static final byte RASTER_ARGB = 2;
+
+    private final ByteBuffer data;
+    private final Map<String, Entry> index;
+
+    private static final class Entry {
+        final byte kind;
+        final int offset;
+        final int length;
+        final int width;
+        final int height;
+
+        Entry(byte kind, int offset, int length, int width, int height) {
+            this.kind = kind;
+            this.offset = offset;
+            this.length = length;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private AssetBundle(ByteBuffer data) throws IOException {
+        this.data = data;
+        this.index = readIndex(data);
+    }
+
+    // Maps a bundle file.
+    public static AssetBundle open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping outlives the channel
+            return new AssetBundle(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // The bundle called name that the class loader sees, or null if there is none.
+    public static AssetBundle find(ClassLoader loader, String name) throws IOException {
+        URL url = loader.getResource(RESOURCE_DIR + name + EXTENSION);
+        if (url == null) {
+            return null;
+        }
+        try {
+            if (url.getProtocol().equals("file")) {
+                return open(Paths.get(url.toURI()));
+            }
+            if (url.getProtocol().equals("jar")) {
+                URL jar = ((JarURLConnection) url.openConnection()).getJarFileURL();
+                if (jar.getProtocol().equals("file")) {
+                    return find(Paths.get(jar.toURI()), name);
+                }
+            }
+        } catch (URISyntaxException | IllegalArgumentException ex) {
+            throw new IOException("Cannot locate asset bundle " + url, ex);
+        }
+        // Neither a file nor a jar on disk, say a jar nested in another: nothing to map
+        try (InputStream stream = url.openStream()) {
+            return new AssetBundle(ByteBuffer.wrap(stream.readAllBytes()));
+        }
+    }
+
+    // The bundle called name for a jar: the file installed next to it if there is one, else
+    // the copy inside it, else null.
+    public static AssetBundle find(Path jar, String name) throws IOException {
+        Path installed = jar.resolveSibling(name + EXTENSION);
+        if (Files.isRegularFile(installed)) {
+            return open(installed);
+        }
+        try (JarFile file = new JarFile(jar.toFile())) {
+            ZipEntry entry = file.getEntry(RESOURCE_DIR + name + EXTENSION);
+            if (entry == null) {
+                return null;
+            }
+            // Named by the entry's checksum and size, so a changed jar gets a fresh copy
+            Path extracted = DiskCache.defaultRoot().resolve("bundles").resolve(String.format("%s-%08x-%d%s",
+                    name, entry.getCrc(), entry.getSize(), EXTENSION));
+            if (Files.isRegularFile(extracted) && Files.size(extracted) == entry.getSize()) {
+                return open(extracted);
+            }
+            try {
+                Files.createDirectories(extracted.getParent());
+                Path temp = Files.createTempFile(extracted.getParent(), ".tmp", null);
+                try {
+                    try (InputStream stream = file.getInputStream(entry)) {
+                        Files.copy(stream, temp, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    Files.move(temp, extracted, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+                return open(extracted);
+            } catch (IOException unwritable) {
+                // A read-only cache directory: fall back to a copy in memory
+                try (InputStream stream = file.getInputStream(entry)) {
+                    return new AssetBundle(ByteBuffer.wrap(stream.readAllBytes()));
+                }
+            }
+        }
+    }
+
+    // The name of the raster that AssetBundleWriter scaled from the image entry name to the
+    // given size, when the module's assetBundle.rasters asks for that size.
+    public static String scaledName(String name, int width, int height) {
+        return normalize(name) + "@" + width + "x" + height;
+    }
+
+    public boolean contains(String name) {
+        return index.containsKey(normalize(name));
+    }
+
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    // The stored bytes of an entry as a read-only view of the bundle, or null if there is no
+    // such entry. For a raster these are its pixels.
+    public ByteBuffer getBytes(String name) {
+        Entry entry = index.get(normalize(name));
+        return entry == null ? null : data.slice(entry.offset, entry.length).asReadOnlyBuffer();
+    }
+
+    // A copy of the stored bytes, for APIs that take arrays.
+    public byte[] readBytes(String name) {
+        ByteBuffer bytes = getBytes(name);
+        if (bytes == null) {
+            return null;
+        }
+        byte[] copy = new byte[bytes.remaining()];
+        bytes.get(copy);
+        return copy;
+    }
+
+    // The entry as an image: a raster's pixels copied into a new image, or a raw entry
+    // decoded by ImageIO. Null if there is no such entry or it is not an image.
+    public BufferedImage getImage(String name) throws IOException {
+        Entry entry = index.get(normalize(name));
+        if (entry == null) {
+            return null;
+        }
+        ByteBuffer bytes = data.slice(entry.offset, entry.length);
+        if (entry.kind == RAW) {
+            return ImageIO.read(new MemoryCacheImageInputStream(new BufferInputStream(bytes)));
+        }
+        int[] pixels = new int[entry.width * entry.height];
+        bytes.asIntBuffer().get(pixels);
+        BufferedImage image = new BufferedImage(entry.width, entry.height,
+                entry.kind == RASTER_ARGB ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        // Through the raster rather than its array, so the pipeline can still cache the image
+        image.getRaster().setDataElements(0, 0, entry.width, entry.height, pixels);
+        return image;
+    }
+
+    private static Map<String, Entry> readIndex(ByteBuffer data) throws IOException {
+        try {
+            if (data.getInt(0) != MAGIC) {
+                throw new IOException("Not an asset bundle");
+            }
+            if (data.getInt(4) != VERSION) {
+                throw new IOException("Unsupported asset bundle version " + data.getInt(4));
+            }
+            int count = data.getInt(8);
+            Map<String, Entry> index = new HashMap<>(Math.max(16, count * 2));
+            int position = 12;
+            for (int i = 0; i < count; i++) {
+                int nameLength = Short.toUnsignedInt(data.getShort(position));
+                byte[] name = new byte[nameLength];
+                data.get(position + 2, name);
+                position += 2 + nameLength;
+                byte kind = data.get(position);
+                long offset = data.getLong(position + 1);
+                int length = data.getInt(position + 9);
+                int width = data.getInt(position + 13);
+                int height = data.getInt(position + 17);
+                position += 21;
+                boolean raster = kind == RASTER_RGB || kind == RASTER_ARGB;
+                if (offset < position || length < 0 || offset + length > data.capacity()
+                        || (kind != RAW && !raster) || (raster && (long) width * height * 4 != length)) {
+                    throw new IOException("Corrupt asset bundle entry " + i);
+                }
+                index.put(new String(name, StandardCharsets.UTF_8), new Entry(kind, (int) offset, length, width, height));
+            }
+            return index;
+        } catch (IndexOutOfBoundsException ex) {
+            throw new IOException("Truncated asset bundle", ex);
+        }
+    }
+
+    // Names are paths relative to the module's asset directory; a leading slash is allowed
+    private static String normalize(String name) {
+        return name.startsWith("/") ? name.substring(1) : name;
+    }
+
+    // Lets ImageIO read a slice of the bundle without copying it to an array first
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
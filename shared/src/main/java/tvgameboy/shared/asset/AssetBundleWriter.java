@@ -0,0 +1,189 @@
+package tvgameboy.shared.asset;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+
+// Writes an AssetBundle from a directory; run by the assetBundle task of each module that
+// applies gradle/asset-bundle.gradle. Every file under the directory becomes a raw entry
+// named by its relative path, except images matching one of the raster globs, which are
+// decoded here and stored as pixels. A glob followed by sizes, as in icons/*.png@18x18,64x42,
+// keeps the image encoded and adds a raster scaled to each size, named as
+// AssetBundle.scaledName gives, so a large image drawn small costs only the pixels drawn.
+//
+//   AssetBundleWriter <bundle file> <asset directory> [raster glob[@WxH,...] ...]
+public final class AssetBundleWriter {
+    private static final int ALIGNMENT = 8;
+
+    private AssetBundleWriter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException(
+                    "Usage: AssetBundleWriter <bundle file> <asset directory> [raster glob[@WxH,...] ...]");
+        }
+        List<RasterSpec> rasters = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            rasters.add(RasterSpec.parse(args[i]));
+        }
+        write(Paths.get(args[0]), Paths.get(args[1]), rasters);
+    }
+
+    static void write(Path bundle, Path directory, List<RasterSpec> rasters) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        List<String> names = new ArrayList<>();
+        List<byte[]> contents = new ArrayList<>();
+        List<int[]> shapes = new ArrayList<>();
+        for (Path file : files) {
+            Path relative = directory.relativize(file);
+            String name = relative.toString().replace(relative.getFileSystem().getSeparator(), "/");
+            RasterSpec raster = rasters.stream().filter(spec -> spec.matcher.matches(relative)).findFirst().orElse(null);
+            if (raster == null || !raster.sizes.isEmpty()) {
+                addEntry(names, name);
+                contents.add(Files.readAllBytes(file));
+                shapes.add(new int[] {AssetBundle.RAW, 0, 0});
+            }
+            if (raster == null) {
+                continue;
+            }
+            BufferedImage image = ImageIO.read(file.toFile());
+            if (image == null) {
+                throw new IOException("Cannot decode " + file + " as a raster entry");
+            }
+            if (raster.sizes.isEmpty()) {
+                addEntry(names, name);
+                contents.add(pixels(image));
+                shapes.add(new int[] {image.getColorModel().hasAlpha()
+                        ? AssetBundle.RASTER_ARGB : AssetBundle.RASTER_RGB, image.getWidth(), image.getHeight()});
+            }
+            for (int[] size : raster.sizes) {
+                BufferedImage scaled = scale(image, size[0], size[1]);
+                addEntry(names, AssetBundle.scaledName(name, size[0], size[1]));
+                contents.add(pixels(scaled));
+                shapes.add(new int[] {AssetBundle.RASTER_ARGB, size[0], size[1]});
+            }
+        }
+
+        int indexEnd = 12;
+        for (String name : names) {
+            indexEnd += 2 + name.getBytes(StandardCharsets.UTF_8).length + 21;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(AssetBundle.MAGIC);
+            out.writeInt(AssetBundle.VERSION);
+            out.writeInt(names.size());
+            long offset = align(indexEnd);
+            for (int i = 0; i < names.size(); i++) {
+                byte[] name = names.get(i).getBytes(StandardCharsets.UTF_8);
+                out.writeShort(name.length);
+                out.write(name);
+                out.writeByte(shapes.get(i)[0]);
+                out.writeLong(offset);
+                out.writeInt(contents.get(i).length);
+                out.writeInt(shapes.get(i)[1]);
+                out.writeInt(shapes.get(i)[2]);
+                offset = align(offset + contents.get(i).length);
+            }
+            for (byte[] content : contents) {
+                out.write(new byte[(int) (align(out.size()) - out.size())]);
+                out.write(content);
+            }
+        }
+        Files.createDirectories(bundle.toAbsolutePath().getParent());
+        Files.write(bundle, bytes.toByteArray());
+    }
+
+    private static void addEntry(List<String> names, String name) throws IOException {
+        if (name.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) {
+            throw new IOException("Asset name too long: " + name);
+        }
+        names.add(name);
+    }
+
+    // Progressive halving keeps the quality of SCALE_SMOOTH without its slow area-averaging filter
+    static BufferedImage scale(BufferedImage image, int width, int height) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        BufferedImage current = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        current.getRaster().setDataElements(0, 0, w, h, image.getRGB(0, 0, w, h, null, 0, w));
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            BufferedImage step = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = step;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    private static byte[] pixels(BufferedImage image) throws IOException {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(width * height * 4);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (int pixel : image.getRGB(0, 0, width, height, null, 0, width)) {
+                out.writeInt(pixel);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static long align(long position) {
+        return (position + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    // A raster glob and the sizes to scale its images to; none means full size
+    static final class RasterSpec {
+        final PathMatcher matcher;
+        final List<int[]> sizes;
+
+        private RasterSpec(PathMatcher matcher, List<int[]> sizes) {
+            this.matcher = matcher;
+            this.sizes = sizes;
+        }
+
+        static RasterSpec parse(String spec) {
+            int at = spec.lastIndexOf('@');
+            List<int[]> sizes = new ArrayList<>();
+            if (at >= 0) {
+                for (String size : spec.substring(at + 1).split(",")) {
+                    String[] parts = size.trim().split("x");
+                    try {
+                        int width = Integer.parseInt(parts[0]);
+                        int height = parts.length == 2 ? Integer.parseInt(parts[1]) : -1;
+                        if (width <= 0 || height <= 0) {
+                            throw new NumberFormatException();
+                        }
+                        sizes.add(new int[] {width, height});
+                    } catch (NumberFormatException ex) {
+                        throw new IllegalArgumentException("Bad raster size '" + size + "' in " + spec);
+                    }
+                }
+            }
+            String glob = at >= 0 ? spec.substring(0, at) : spec;
+            return new RasterSpec(FileSystems.getDefault().getPathMatcher("glob:" + glob), sizes);
+        }
+    }
+}
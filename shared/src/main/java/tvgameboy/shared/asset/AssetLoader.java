@@ -0,0 +1,229 @@
+package tvgameboy.shared.asset;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.swing.SwingUtilities;
+
+// Loads images off the event dispatch thread. Lookup order is memory, then the
+// on-disk cache, then the asset location, then the bundled fallback resource.
+// Bundled assets skip straight to the resource, which is looked up in the added
+// asset bundles before the class path. Regions are decoded at their target size
+// from the same sources and cached separately from whole images; only the most
+// recently used MAX_REGIONS regions are kept, since every window size asks for
+// its own. An image that came from the fallback is kept only for the retry
+// interval; the next request after that tries the asset location again.
+public final class AssetLoader {
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final int READ_TIMEOUT_MILLIS = 15000;
+    private static final long FALLBACK_RETRY_MILLIS = 60_000;
+    private static final int MAX_REGIONS = 8;
+    private static final AssetLoader DEFAULT = new AssetLoader(new DiskCache(DiskCache.defaultRoot()), 2);
+
+    private final DiskCache diskCache;
+    private final ExecutorService executor;
+    private final Map<ImageAsset, CompletableFuture<BufferedImage>> images = new ConcurrentHashMap<>();
+    private final Map<ImageRegion, CompletableFuture<BufferedImage>> regions = Collections.synchronizedMap(
+            new LinkedHashMap<>(MAX_REGIONS * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ImageRegion, CompletableFuture<BufferedImage>> eldest) {
+                    if (size() <= MAX_REGIONS) {
+                        return false;
+                    }
+                    fallbackTimes.remove(eldest.getKey());
+                    return true;
+                }
+            });
+    private final List<AssetBundle> bundles = new CopyOnWriteArrayList<>();
+    // When each cached image or region was last served from the fallback resource
+    private final Map<Object, Long> fallbackTimes = new ConcurrentHashMap<>();
+    private final long fallbackRetryMillis;
+
+    public AssetLoader(DiskCache diskCache, int threads) {
+        this(diskCache, threads, FALLBACK_RETRY_MILLIS);
+    }
+
+    public AssetLoader(DiskCache diskCache, int threads, long fallbackRetryMillis) {
+        this.diskCache = diskCache;
+        this.fallbackRetryMillis = fallbackRetryMillis;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), new LoaderThreadFactory());
+    }
+
+    public static AssetLoader getDefault() {
+        return DEFAULT;
+    }
+
+    public void addBundle(AssetBundle bundle) {
+        bundles.add(bundle);
+    }
+
+    public CompletableFuture<BufferedImage> load(ImageAsset asset) {
+        return loadCached(images, asset, key -> loadFrom(key, key, AssetLoader::decode));
+    }
+
+    public CompletableFuture<BufferedImage> load(ImageRegion region) {
+        return loadCached(regions, region,
+                key -> loadFrom(key, key.getAsset(), bytes -> RegionDecoder.decode(bytes, key)));
+    }
+
+    // Invokes the callback on the event dispatch thread; the image is null if every source failed.
+    public void load(ImageAsset asset, Consumer<BufferedImage> onLoaded) {
+        deliver(load(asset), onLoaded);
+    }
+
+    public void load(ImageRegion region, Consumer<BufferedImage> onLoaded) {
+        deliver(load(region), onLoaded);
+    }
+
+    public BufferedImage getIfLoaded(ImageAsset asset) {
+        return getIfDone(images.get(asset));
+    }
+
+    public BufferedImage getIfLoaded(ImageRegion region) {
+        return getIfDone(regions.get(region));
+    }
+
+    private <K> CompletableFuture<BufferedImage> loadCached(Map<K, CompletableFuture<BufferedImage>> cache, K key,
+                                                            Function<K, BufferedImage> loader) {
+        Long fellBack = fallbackTimes.get(key);
+        if (fellBack != null && System.currentTimeMillis() - fellBack >= fallbackRetryMillis) {
+            CompletableFuture<BufferedImage> stale = cache.get(key);
+            if (stale != null && stale.isDone() && fallbackTimes.remove(key, fellBack)) {
+                cache.remove(key, stale);
+            }
+        }
+        return cache.computeIfAbsent(key, k -> {
+            CompletableFuture<BufferedImage> pending = CompletableFuture.supplyAsync(() -> loader.apply(k), executor);
+            // Forget failed loads so a later request (for example once the network is back) retries.
+            pending.whenCompleteAsync((image, error) -> {
+                if (image == null) {
+                    cache.remove(k, pending);
+                }
+            }, executor);
+            return pending;
+        });
+    }
+
+    private static void deliver(CompletableFuture<BufferedImage> future, Consumer<BufferedImage> onLoaded) {
+        future.whenComplete((image, error) ->
+                SwingUtilities.invokeLater(() -> onLoaded.accept(error == null ? image : null)));
+    }
+
+    private static BufferedImage getIfDone(CompletableFuture<BufferedImage> future) {
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future.join();
+    }
+
+    // Also drops every region cut from the asset.
+    public void evict(ImageAsset asset) {
+        images.remove(asset);
+        regions.keySet().removeIf(region -> region.getAsset().equals(asset));
+        fallbackTimes.keySet().removeIf(key -> key.equals(asset)
+                || (key instanceof ImageRegion && ((ImageRegion) key).getAsset().equals(asset)));
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Tries each source in order and returns the first one the decoder accepts; key is the
+    // cache entry the result is for.
+    private <T> T loadFrom(Object key, ImageAsset asset, Function<byte[], T> decoder) {
+        if (asset.isBundled()) {
+            return decoder.apply(readResource(asset.getFallbackResource()));
+        }
+        String location = asset.getLocation();
+        T result = decoder.apply(diskCache.get(location));
+        if (result != null) {
+            fallbackTimes.remove(key);
+            return result;
+        }
+
+        byte[] fetched = fetch(location);
+        result = decoder.apply(fetched);
+        if (result != null) {
+            diskCache.put(location, fetched);
+            fallbackTimes.remove(key);
+            return result;
+        }
+
+        result = decoder.apply(readResource(asset.getFallbackResource()));
+        if (result != null) {
+            fallbackTimes.put(key, System.currentTimeMillis());
+        }
+        return result;
+    }
+
+    private static byte[] fetch(String location) {
+        try {
+            URLConnection connection = new URL(location).openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            try (InputStream stream = connection.getInputStream()) {
+                return stream.readAllBytes();
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private byte[] readResource(String resource) {
+        if (resource == null) {
+            return null;
+        }
+        for (AssetBundle bundle : bundles) {
+            if (bundle.contains(resource)) {
+                return bundle.readBytes(resource);
+            }
+        }
+        try (InputStream stream = AssetLoader.class.getResourceAsStream(resource)) {
+            return stream == null ? null : stream.readAllBytes();
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private static BufferedImage decode(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            // Keep the stream in memory; ImageIO.read(InputStream) may spool it to a temp file
+            return ImageIO.read(new MemoryCacheImageInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private static final class LoaderThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "asset-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package tvgameboy.shared.asset;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+// Content-addressed store: blobs are named by the SHA-256 of their bytes, and
+// small ref files map a lookup key (for example a URL) to the blob hash.
+public final class DiskCache {
+    private final Path root;
+    private final Path blobs;
+    private final Path refs;
+
+    public DiskCache(Path root) {
+        this.root = root;
+        this.blobs = root.resolve("blobs");
+        this.refs = root.resolve("refs");
+    }
+
+    public static Path defaultRoot() {
+        String configured = System.getProperty("tvgameboy.cache.dir");
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".tvgameboy", "cache");
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public byte[] get(String key) {
+        Path ref = refs.resolve(sha256(key.getBytes(StandardCharsets.UTF_8)));
+        try {
+            if (!Files.isRegularFile(ref)) {
+                return null;
+            }
+            String hash = Files.readString(ref, StandardCharsets.US_ASCII).trim();
+            Path blob = blobs.resolve(hash);
+            if (!Files.isRegularFile(blob)) {
+                return null;
+            }
+            byte[] bytes = Files.readAllBytes(blob);
+            // Treat a corrupted blob as a miss rather than decoding garbage.
+            return hash.equals(sha256(bytes)) ? bytes : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    // True if get would find a blob for the key, without reading or verifying it.
+    public boolean contains(String key) {
+        Path ref = refs.resolve(sha256(key.getBytes(StandardCharsets.UTF_8)));
+        try {
+            return Files.isRegularFile(ref)
+                    && Files.isRegularFile(blobs.resolve(Files.readString(ref, StandardCharsets.US_ASCII).trim()));
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    public void put(String key, byte[] bytes) {
+        String hash = sha256(bytes);
+        try {
+            Files.createDirectories(blobs);
+            Files.createDirectories(refs);
+            Path blob = blobs.resolve(hash);
+            if (!Files.exists(blob)) {
+                writeAtomically(blob, bytes);
+            }
+            writeAtomically(refs.resolve(sha256(key.getBytes(StandardCharsets.UTF_8))),
+                    hash.getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException ignored) {
+            // The cache is an optimisation; a read-only or full disk just means more downloads.
+        }
+    }
+
+    public void remove(String key) {
+        try {
+            Files.deleteIfExists(refs.resolve(sha256(key.getBytes(StandardCharsets.UTF_8))));
+        } catch (IOException ignored) {
+        }
+    }
+
+    public static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), ".tmp", null);
+        try {
+            Files.write(temp, bytes);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package tvgameboy.shared.asset;
+
+import java.util.Objects;
+
+public final class ImageAsset {
+    private static final String BUNDLED_PREFIX = "classpath:";
+
+    private final String location;
+    private final String fallbackResource;
+
+    public ImageAsset(String location) {
+        this(location, null);
+    }
+
+    public ImageAsset(String location, String fallbackResource) {
+        this.location = Objects.requireNonNull(location, "location");
+        this.fallbackResource = fallbackResource;
+    }
+
+    // An image shipped on the class path; it is read directly, without the network or the disk cache.
+    public static ImageAsset bundled(String resource) {
+        return new ImageAsset(BUNDLED_PREFIX + resource, resource);
+    }
+
+    public boolean isBundled() {
+        return location.startsWith(BUNDLED_PREFIX);
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getFallbackResource() {
+        return fallbackResource;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ImageAsset)) {
+            return false;
+        }
+        ImageAsset that = (ImageAsset) other;
+        return location.equals(that.location) && Objects.equals(fallbackResource, that.fallbackResource);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(location, fallbackResource);
+    }
+
+    @Override
+    public String toString() {
+        return location;
+    }
+}
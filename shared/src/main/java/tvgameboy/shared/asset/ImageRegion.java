@@ -0,0 +1,79 @@
+package tvgameboy.shared.asset;
+
+import java.awt.Rectangle;
+import java.util.Objects;
+
+// A crop of an image asset at a fixed output size. The crop is given as
+// fractions of the source so callers need not know its pixel dimensions; for
+// example (0.5, 0, 0.5, 0.5) is the top-right quadrant.
+public final class ImageRegion {
+    private final ImageAsset asset;
+    private final double x;
+    private final double y;
+    private final double width;
+    private final double height;
+    private final int targetWidth;
+    private final int targetHeight;
+
+    public ImageRegion(ImageAsset asset, double x, double y, double width, double height,
+                       int targetWidth, int targetHeight) {
+        if (!(x >= 0 && y >= 0 && width > 0 && height > 0 && x + width <= 1 && y + height <= 1)) {
+            throw new IllegalArgumentException("Crop must lie within the unit square: "
+                    + x + ", " + y + ", " + width + ", " + height);
+        }
+        if (targetWidth < 1 || targetHeight < 1) {
+            throw new IllegalArgumentException("Target size must be positive: " + targetWidth + "x" + targetHeight);
+        }
+        this.asset = Objects.requireNonNull(asset, "asset");
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.targetWidth = targetWidth;
+        this.targetHeight = targetHeight;
+    }
+
+    public ImageAsset getAsset() {
+        return asset;
+    }
+
+    public int getTargetWidth() {
+        return targetWidth;
+    }
+
+    public int getTargetHeight() {
+        return targetHeight;
+    }
+
+    // The crop in pixels of a source of the given size, at least one pixel each way.
+    public Rectangle toPixels(int sourceWidth, int sourceHeight) {
+        int left = Math.min(sourceWidth - 1, (int) Math.floor(x * sourceWidth));
+        int top = Math.min(sourceHeight - 1, (int) Math.floor(y * sourceHeight));
+        int right = Math.max(left + 1, (int) Math.floor((x + width) * sourceWidth));
+        int bottom = Math.max(top + 1, (int) Math.floor((y + height) * sourceHeight));
+        return new Rectangle(left, top, right - left, bottom - top);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ImageRegion)) {
+            return false;
+        }
+        ImageRegion that = (ImageRegion) other;
+        return asset.equals(that.asset) && x == that.x && y == that.y && width == that.width
+                && height == that.height && targetWidth == that.targetWidth && targetHeight == that.targetHeight;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(asset, x, y, width, height, targetWidth, targetHeight);
+    }
+
+    @Override
+    public String toString() {
+        return asset + " [" + x + ", " + y + ", " + width + ", " + height + "] at " + targetWidth + "x" + targetHeight;
+    }
+}
@@ -0,0 +1,63 @@
+package tvgameboy.shared.asset;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import tvgameboy.shared.render.Pixelator;
+
+// Decodes only the part of an encoded image that an ImageRegion covers. The
+// reader is handed the crop as a source region, subsampled to about four
+// samples per output pixel each way, and the result is area-averaged down to
+// exactly the target size. The full-resolution image is never built.
+public final class RegionDecoder {
+    // Averaging a few samples per output pixel keeps the result close to a full-resolution average
+    private static final int SAMPLES_PER_PIXEL = 4;
+
+    private RegionDecoder() {
+    }
+
+    // Returns an opaque TYPE_INT_RGB image of the region's target size, or null if no reader can decode bytes.
+    public static BufferedImage decode(byte[] bytes, ImageRegion region) {
+        if (bytes == null) {
+            return null;
+        }
+        try (ImageInputStream stream = new MemoryCacheImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                return read(reader, region);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static BufferedImage read(ImageReader reader, ImageRegion region) throws IOException {
+        Rectangle crop = region.toPixels(reader.getWidth(0), reader.getHeight(0));
+        int targetWidth = region.getTargetWidth();
+        int targetHeight = region.getTargetHeight();
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceRegion(crop);
+        param.setSourceSubsampling(Math.max(1, crop.width / (targetWidth * SAMPLES_PER_PIXEL)),
+                Math.max(1, crop.height / (targetHeight * SAMPLES_PER_PIXEL)), 0, 0);
+        BufferedImage decoded = reader.read(0, param);
+
+        BufferedImage result = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        new Pixelator().pixelateInto(decoded, new Rectangle(0, 0, decoded.getWidth(), decoded.getHeight()),
+                targetWidth, targetHeight, result);
+        return result;
+    }
+}
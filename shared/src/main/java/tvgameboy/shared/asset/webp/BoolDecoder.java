@@ -0,0 +1,82 @@
+package tvgameboy.shared.asset.webp;
+
+// The VP8 boolean entropy decoder (RFC 6386 section 7). Reading past the end of
+// the partition yields zero bits, as the reference decoder does; isExhausted says
+// when decoded values have started to depend on them.
+final class BoolDecoder {
+    private final byte[] data;
+    private final int end;
+    private int position;
+    private int value;
+    private int range = 255;
+    private int bitCount;
+    // Bits shifted out of the 8-bit window so far, and the bits the partition really has
+    private long consumedBits;
+    private final long availableBits;
+
+    BoolDecoder(byte[] data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.end = Math.min(data.length, offset + Math.max(0, length));
+        this.availableBits = 8L * Math.max(0, end - offset);
+        value = (nextByte() << 8) | nextByte();
+    }
+
+    int readBool(int probability) {
+        int split = 1 + (((range - 1) * probability) >> 8);
+        int bigSplit = split << 8;
+        int bit;
+        if (value >= bigSplit) {
+            range -= split;
+            value -= bigSplit;
+            bit = 1;
+        } else {
+            range = split;
+            bit = 0;
+        }
+        if (range < 128) {
+            // Renormalise in one step; at most one new byte is needed for a shift of up to 7
+            int shift = Integer.numberOfLeadingZeros(range) - 24;
+            range <<= shift;
+            value <<= shift;
+            bitCount += shift;
+            consumedBits += shift;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                value |= nextByte() << bitCount;
+            }
+        }
+        return bit;
+    }
+
+    int readBit() {
+        return readBool(128);
+    }
+
+    int readLiteral(int bits) {
+        int v = 0;
+        while (bits-- > 0) {
+            v = (v << 1) | readBool(128);
+        }
+        return v;
+    }
+
+    // Magnitude followed by a sign bit, as used in the frame header.
+    int readSigned(int bits) {
+        int v = readLiteral(bits);
+        return readBit() == 1 ? -v : v;
+    }
+
+    // An optional signed field: a flag, then the value if the flag is set.
+    int readOptionalSigned(int bits) {
+        return readBit() == 1 ? readSigned(bits) : 0;
+    }
+
+    boolean isExhausted() {
+        return consumedBits + 8 > availableBits;
+    }
+
+    private int nextByte() {
+        return position < end ? data[position++] & 0xFF : 0;
+    }
+}
@@ -0,0 +1,106 @@
+package tvgameboy.shared.asset.webp;
+
+import java.io.IOException;
+
+// A canonical prefix code as used by VP8L. Codes up to 8 bits resolve with one
+// table lookup; longer ones fall back to walking the code lengths bit by bit.
+final class HuffmanCode {
+    private static final int MAX_LENGTH = 15;
+    private static final int TABLE_BITS = 8;
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;
+
+    // symbol << 8 | length, or 0 when the code is longer than TABLE_BITS
+    private final int[] table = new int[TABLE_SIZE];
+    private final int[] counts = new int[MAX_LENGTH + 1];
+    private final int[] sorted;
+    private final int singleSymbol;
+
+    HuffmanCode(int[] lengths, int alphabetSize) throws IOException {
+        int used = 0;
+        int last = 0;
+        for (int s = 0; s < alphabetSize; s++) {
+            if (lengths[s] > 0) {
+                counts[lengths[s]]++;
+                used++;
+                last = s;
+            }
+        }
+        if (used == 0) {
+            throw new IOException("VP8L prefix code has no symbols");
+        }
+        sorted = new int[used];
+        // A lone symbol takes no bits, whatever length it was given
+        if (used == 1) {
+            singleSymbol = last;
+            sorted[0] = last;
+            return;
+        }
+        singleSymbol = -1;
+
+        int space = 1;
+        for (int len = 1; len <= MAX_LENGTH; len++) {
+            space = (space << 1) - counts[len];
+            if (space < 0) {
+                throw new IOException("VP8L prefix code is over-subscribed");
+            }
+        }
+        if (space != 0) {
+            throw new IOException("VP8L prefix code is incomplete");
+        }
+
+        int[] offsets = new int[MAX_LENGTH + 2];
+        for (int len = 1; len <= MAX_LENGTH; len++) {
+            offsets[len + 1] = offsets[len] + counts[len];
+        }
+        int[] next = offsets.clone();
+        for (int s = 0; s < alphabetSize; s++) {
+            if (lengths[s] > 0) {
+                sorted[next[lengths[s]]++] = s;
+            }
+        }
+
+        // Canonical codes are read most significant bit first, so table keys are bit-reversed
+        int code = 0;
+        int index = 0;
+        for (int len = 1; len <= MAX_LENGTH; len++) {
+            for (int i = 0; i < counts[len]; i++, index++, code++) {
+                if (len <= TABLE_BITS) {
+                    int reversed = Integer.reverse(code) >>> (32 - len);
+                    for (int k = reversed; k < TABLE_SIZE; k += 1 << len) {
+                        table[k] = (sorted[index] << 8) | len;
+                    }
+                }
+            }
+            code <<= 1;
+        }
+    }
+
+    int read(LosslessBitReader reader) {
+        if (singleSymbol >= 0) {
+            return singleSymbol;
+        }
+        int bits = reader.peek();
+        int entry = table[bits & (TABLE_SIZE - 1)];
+        if (entry != 0) {
+            reader.skip(entry & 0xFF);
+            return entry >>> 8;
+        }
+        int code = 0;
+        int first = 0;
+        int index = 0;
+        for (int len = 1; len <= MAX_LENGTH; len++) {
+            code |= (bits >>> (len - 1)) & 1;
+            int count = counts[len];
+            if (code - first < count) {
+                reader.skip(len);
+                return sorted[index + code - first];
+            }
+            index += count;
+            first = (first + count) << 1;
+            code <<= 1;
+        }
+        // Unreachable for a complete code
+        reader.skip(MAX_LENGTH);
+        return sorted[0];
+    }
+}
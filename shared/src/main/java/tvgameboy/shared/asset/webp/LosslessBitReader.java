@@ -0,0 +1,63 @@
+package tvgameboy.shared.asset.webp;
+
+import java.io.IOException;
+
+// Least-significant-bit-first reader for VP8L streams. Bits past the end read as
+// zero; check() reports a stream that was consumed beyond its last byte.
+final class LosslessBitReader {
+    private final byte[] data;
+    private final int end;
+    private int position;
+    private long buffer;
+    private int bitCount;
+    private long consumedPastEnd;
+
+    LosslessBitReader(byte[] data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.end = Math.min(data.length, offset + length);
+        fill();
+    }
+
+    int readBits(int n) {
+        if (n == 0) {
+            return 0;
+        }
+        if (bitCount < n) {
+            fill();
+        }
+        int value = (int) (buffer & ((1L << n) - 1));
+        skip(n);
+        return value;
+    }
+
+    // Up to 32 bits without consuming them.
+    int peek() {
+        if (bitCount < 32) {
+            fill();
+        }
+        return (int) buffer;
+    }
+
+    void skip(int n) {
+        buffer >>>= n;
+        bitCount -= n;
+        if (bitCount < 0) {
+            consumedPastEnd -= bitCount;
+            bitCount = 0;
+        }
+    }
+
+    void check() throws IOException {
+        if (consumedPastEnd > 0) {
+            throw new IOException("VP8L stream is truncated");
+        }
+    }
+
+    private void fill() {
+        while (bitCount <= 56 && position < end) {
+            buffer |= (data[position++] & 0xFFL) << bitCount;
+            bitCount += 8;
+        }
+    }
+}
@@ -0,0 +1,986 @@
+package tvgameboy.shared.asset.webp;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Decodes a lossy WebP frame: a VP8 key frame (RFC 6386) reconstructed into
+// macroblock-aligned Y, U and V planes, followed by the loop filter. Intra
+// prediction reads the unfiltered reconstruction, so the whole frame is built
+// first and filtered in one pass afterwards.
+final class Vp8Decoder {
+    // Sub-block modes; the 16x16 luma and chroma modes share the first four values
+    private static final int DC_PRED = 0;
+    private static final int TM_PRED = 1;
+    private static final int V_PRED = 2;
+    private static final int H_PRED = 3;
+    private static final int B_RD_PRED = 4;
+    private static final int B_VR_PRED = 5;
+    private static final int B_LD_PRED = 6;
+    private static final int B_VL_PRED = 7;
+    private static final int B_HD_PRED = 8;
+    private static final int B_HU_PRED = 9;
+
+    private static final int TYPE_I16_AC = 0;
+    private static final int TYPE_Y2 = 1;
+    private static final int TYPE_CHROMA = 2;
+    private static final int TYPE_I4 = 3;
+
+    // Work buffers hold one macroblock plus its top row, left column and (luma) top-right pixels
+    private static final int BPS = 32;
+    private static final int Y_ORIGIN = BPS + 1;
+    private static final int UV_ORIGIN = BPS + 1;
+
+    private final byte[] data;
+    private final int offset;
+    private final int length;
+
+    private int width;
+    private int height;
+    private int mbWidth;
+    private int mbHeight;
+
+    private boolean useSegments;
+    private boolean updateSegmentMap;
+    private boolean absoluteSegmentValues;
+    private final int[] segmentQuantizer = new int[4];
+    private final int[] segmentFilterLevel = new int[4];
+    private final int[] segmentProba = {255, 255, 255};
+
+    private boolean simpleFilter;
+    private int filterLevel;
+    private int sharpness;
+    private boolean useLfDelta;
+    private final int[] refLfDelta = new int[4];
+    private final int[] modeLfDelta = new int[4];
+
+    private final int[] y1Dc = new int[4];
+    private final int[] y1Ac = new int[4];
+    private final int[] y2Dc = new int[4];
+    private final int[] y2Ac = new int[4];
+    private final int[] uvDc = new int[4];
+    private final int[] uvAc = new int[4];
+
+    private final int[][][][] proba = new int[4][8][3][11];
+    private boolean useSkipProba;
+    private int skipProba;
+
+    private BoolDecoder header;
+    private BoolDecoder[] partitions;
+
+    private Vp8Frame frame;
+    private int[] intraTop;
+    private final int[] intraLeft = new int[4];
+    private final int[] subModes = new int[16];
+    private int[] nzTop;
+    private int[] nzDcTop;
+    private int nzLeft;
+    private int nzDcLeft;
+    private final int[] coeffs = new int[384];
+    private final int[] dcCoeffs = new int[16];
+    // Scratch for the transforms, reused rather than allocated per block
+    private final int[] transformTmp = new int[16];
+    private byte[] mbFilterInfo;
+    private final int[] yWork = new int[17 * BPS];
+    private final int[] uWork = new int[9 * BPS];
+    private final int[] vWork = new int[9 * BPS];
+
+    private Vp8Decoder(byte[] data, int offset, int length) {
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    static Vp8Frame decode(byte[] data, int offset, int length) throws IOException {
+        return decode(data, offset, length, Integer.MAX_VALUE);
+    }
+
+    // Only the macroblock rows needed for the first rowsNeeded pixel rows are decoded and filtered.
+    static Vp8Frame decode(byte[] data, int offset, int length, int rowsNeeded) throws IOException {
+        Vp8Decoder decoder = new Vp8Decoder(data, offset, length);
+        decoder.readHeaders();
+        // Filtering a row's top edge changes the three rows above it, so decode one more row
+        int rows = Math.min(decoder.mbHeight, (int) ((Math.max(1L, rowsNeeded) + 15) >> 4) + 1);
+        decoder.decodeMacroblocks(rows);
+        decoder.filter(rows);
+        return decoder.frame;
+    }
+
+    // Reads only the frame dimensions.
+    static int[] readSize(byte[] data, int offset, int length) throws IOException {
+        checkFrameTag(data, offset, length);
+        return new int[] {
+                (((data[offset + 7] & 0xFF) << 8) | (data[offset + 6] & 0xFF)) & 0x3FFF,
+                (((data[offset + 9] & 0xFF) << 8) | (data[offset + 8] & 0xFF)) & 0x3FFF
+        };
+    }
+
+    private static int checkFrameTag(byte[] data, int offset, int length) throws IOException {
+        if (length < 10) {
+            throw new IOException("VP8 frame is truncated");
+        }
+        int bits = (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8) | ((data[offset + 2] & 0xFF) << 16);
+        if ((bits & 1) != 0) {
+            throw new IOException("VP8 frame is not a key frame");
+        }
+        if (((bits >> 1) & 7) > 3) {
+            throw new IOException("Unknown VP8 profile " + ((bits >> 1) & 7));
+        }
+        if ((data[offset + 3] & 0xFF) != 0x9D || (data[offset + 4] & 0xFF) != 0x01 || (data[offset + 5] & 0xFF) != 0x2A) {
+            throw new IOException("Bad VP8 start code");
+        }
+        return bits >>> 5;
+    }
+
+    private void readHeaders() throws IOException {
+        int partitionLength = checkFrameTag(data, offset, length);
+        int[] size = readSize(data, offset, length);
+        width = size[0];
+        height = size[1];
+        if (width == 0 || height == 0) {
+            throw new IOException("VP8 frame has no pixels");
+        }
+        mbWidth = (width + 15) >> 4;
+        mbHeight = (height + 15) >> 4;
+        if (10 + partitionLength > length) {
+            throw new IOException("VP8 first partition is truncated");
+        }
+
+        BoolDecoder br = new BoolDecoder(data, offset + 10, partitionLength);
+        header = br;
+        br.readBit(); // colour space
+        br.readBit(); // clamping type
+
+        useSegments = br.readBit() == 1;
+        if (useSegments) {
+            updateSegmentMap = br.readBit() == 1;
+            if (br.readBit() == 1) {
+                absoluteSegmentValues = br.readBit() == 1;
+                for (int s = 0; s < 4; s++) {
+                    segmentQuantizer[s] = br.readOptionalSigned(7);
+                }
+                for (int s = 0; s < 4; s++) {
+                    segmentFilterLevel[s] = br.readOptionalSigned(6);
+                }
+            }
+            if (updateSegmentMap) {
+                for (int i = 0; i < 3; i++) {
+                    segmentProba[i] = br.readBit() == 1 ? br.readLiteral(8) : 255;
+                }
+            }
+        }
+
+        simpleFilter = br.readBit() == 1;
+        filterLevel = br.readLiteral(6);
+        sharpness = br.readLiteral(3);
+        useLfDelta = br.readBit() == 1;
+        if (useLfDelta && br.readBit() == 1) {
+            for (int i = 0; i < 4; i++) {
+                if (br.readBit() == 1) {
+                    refLfDelta[i] = br.readSigned(6);
+                }
+            }
+            for (int i = 0; i < 4; i++) {
+                if (br.readBit() == 1) {
+                    modeLfDelta[i] = br.readSigned(6);
+                }
+            }
+        }
+
+        readPartitions(br.readLiteral(2), offset + 10 + partitionLength);
+        readQuantizers(br);
+        br.readBit(); // refresh entropy probabilities; there is only one frame
+        for (int t = 0; t < 4; t++) {
+            for (int b = 0; b < 8; b++) {
+                for (int c = 0; c < 3; c++) {
+                    for (int p = 0; p < 11; p++) {
+                        proba[t][b][c][p] = br.readBool(Vp8Tables.COEFF_UPDATE_PROBA[t][b][c][p]) == 1
+                                ? br.readLiteral(8) : Vp8Tables.COEFF_PROBA[t][b][c][p];
+                    }
+                }
+            }
+        }
+        useSkipProba = br.readBit() == 1;
+        if (useSkipProba) {
+            skipProba = br.readLiteral(8);
+        }
+    }
+
+    private void readPartitions(int log2Count, int start) throws IOException {
+        int count = 1 << log2Count;
+        int end = offset + length;
+        int sizes = start;
+        int partStart = start + 3 * (count - 1);
+        if (partStart > end) {
+            throw new IOException("VP8 partition table is truncated");
+        }
+        partitions = new BoolDecoder[count];
+        for (int i = 0; i < count; i++) {
+            int size;
+            if (i < count - 1) {
+                size = (data[sizes] & 0xFF) | ((data[sizes + 1] & 0xFF) << 8) | ((data[sizes + 2] & 0xFF) << 16);
+                sizes += 3;
+                size = Math.min(size, end - partStart);
+            } else {
+                size = end - partStart;
+            }
+            partitions[i] = new BoolDecoder(data, partStart, size);
+            partStart += size;
+        }
+    }
+
+    private void readQuantizers(BoolDecoder br) {
+        int base = br.readLiteral(7);
+        int y1DcDelta = br.readOptionalSigned(4);
+        int y2DcDelta = br.readOptionalSigned(4);
+        int y2AcDelta = br.readOptionalSigned(4);
+        int uvDcDelta = br.readOptionalSigned(4);
+        int uvAcDelta = br.readOptionalSigned(4);
+        for (int s = 0; s < 4; s++) {
+            int q = base;
+            if (useSegments) {
+                q = segmentQuantizer[s] + (absoluteSegmentValues ? 0 : base);
+            }
+            y1Dc[s] = Vp8Tables.DC_QUANT[clip(q + y1DcDelta, 127)];
+            y1Ac[s] = Vp8Tables.AC_QUANT[clip(q, 127)];
+            y2Dc[s] = Vp8Tables.DC_QUANT[clip(q + y2DcDelta, 127)] * 2;
+            y2Ac[s] = Math.max(8, Vp8Tables.AC_QUANT[clip(q + y2AcDelta, 127)] * 155 / 100);
+            uvDc[s] = Vp8Tables.DC_QUANT[clip(q + uvDcDelta, 117)];
+            uvAc[s] = Vp8Tables.AC_QUANT[clip(q + uvAcDelta, 127)];
+        }
+    }
+
+    private static int clip(int v, int max) {
+        return v < 0 ? 0 : Math.min(v, max);
+    }
+
+    private void decodeMacroblocks(int rows) throws IOException {
+        // Planes only cover the rows being decoded, so a crop near the top needs a fraction of the frame
+        frame = new Vp8Frame(width, height, mbWidth * 16, rows * 16);
+        intraTop = new int[mbWidth * 4];
+        nzTop = new int[mbWidth];
+        nzDcTop = new int[mbWidth];
+        mbFilterInfo = new byte[mbWidth * mbHeight];
+        for (int my = 0; my < rows; my++) {
+            BoolDecoder tokens = partitions[my & (partitions.length - 1)];
+            Arrays.fill(intraLeft, DC_PRED);
+            nzLeft = 0;
+            nzDcLeft = 0;
+            for (int mx = 0; mx < mbWidth; mx++) {
+                decodeMacroblock(mx, my, tokens);
+            }
+            if (header.isExhausted() || tokens.isExhausted()) {
+                throw new IOException("VP8 frame is truncated at macroblock row " + my);
+            }
+        }
+    }
+
+    private void decodeMacroblock(int mx, int my, BoolDecoder tokens) {
+        BoolDecoder br = header;
+        int segment = 0;
+        if (updateSegmentMap) {
+            segment = br.readBool(segmentProba[0]) == 0
+                    ? br.readBool(segmentProba[1]) : 2 + br.readBool(segmentProba[2]);
+        }
+        boolean skip = useSkipProba && br.readBool(skipProba) == 1;
+
+        boolean is4x4 = br.readBool(145) == 0;
+        int yMode = DC_PRED;
+        if (!is4x4) {
+            yMode = br.readBool(156) == 1
+                    ? (br.readBool(128) == 1 ? TM_PRED : H_PRED)
+                    : (br.readBool(163) == 1 ? V_PRED : DC_PRED);
+            for (int i = 0; i < 4; i++) {
+                intraTop[mx * 4 + i] = yMode;
+                intraLeft[i] = yMode;
+            }
+        } else {
+            for (int y = 0; y < 4; y++) {
+                int left = intraLeft[y];
+                for (int x = 0; x < 4; x++) {
+                    int mode = readSubBlockMode(br, Vp8Tables.BMODE_PROBA[intraTop[mx * 4 + x]][left]);
+                    intraTop[mx * 4 + x] = mode;
+                    subModes[y * 4 + x] = mode;
+                    left = mode;
+                }
+                intraLeft[y] = left;
+            }
+        }
+        int uvMode = br.readBool(142) == 0 ? DC_PRED
+                : br.readBool(114) == 0 ? V_PRED
+                : br.readBool(183) == 1 ? TM_PRED : H_PRED;
+
+        Arrays.fill(coeffs, 0);
+        if (!skip) {
+            skip = !readResiduals(tokens, segment, is4x4, mx);
+        } else {
+            nzTop[mx] = 0;
+            nzLeft = 0;
+            if (!is4x4) {
+                nzDcTop[mx] = 0;
+                nzDcLeft = 0;
+            }
+        }
+        // Inner edges are filtered for 4x4-predicted blocks and blocks with residuals
+        mbFilterInfo[my * mbWidth + mx] = (byte) (segment * 2 + (is4x4 ? 1 : 0) + (is4x4 || !skip ? 8 : 0));
+
+        reconstructLuma(mx, my, is4x4, yMode);
+        reconstructChroma(mx, my, uvMode);
+    }
+
+    private static int readSubBlockMode(BoolDecoder br, int[] p) {
+        if (br.readBool(p[0]) == 0) {
+            return DC_PRED;
+        }
+        if (br.readBool(p[1]) == 0) {
+            return TM_PRED;
+        }
+        if (br.readBool(p[2]) == 0) {
+            return V_PRED;
+        }
+        if (br.readBool(p[3]) == 0) {
+            if (br.readBool(p[4]) == 0) {
+                return H_PRED;
+            }
+            return br.readBool(p[5]) == 0 ? B_RD_PRED : B_VR_PRED;
+        }
+        if (br.readBool(p[6]) == 0) {
+            return B_LD_PRED;
+        }
+        if (br.readBool(p[7]) == 0) {
+            return B_VL_PRED;
+        }
+        return br.readBool(p[8]) == 0 ? B_HD_PRED : B_HU_PRED;
+    }
+
+    // Returns whether any coefficient is non-zero.
+    private boolean readResiduals(BoolDecoder br, int segment, boolean is4x4, int mx) {
+        boolean nonZero = false;
+        int first;
+        int acType;
+        if (!is4x4) {
+            Arrays.fill(dcCoeffs, 0);
+            int ctx = nzDcTop[mx] + nzDcLeft;
+            int nz = readCoeffs(br, TYPE_Y2, ctx, y2Dc[segment], y2Ac[segment], 0, dcCoeffs, 0);
+            nzDcTop[mx] = nz > 0 ? 1 : 0;
+            nzDcLeft = nzDcTop[mx];
+            if (nz > 1) {
+                inverseWalshHadamard(dcCoeffs, coeffs, transformTmp);
+            } else {
+                int dc = (dcCoeffs[0] + 3) >> 3;
+                for (int i = 0; i < 256; i += 16) {
+                    coeffs[i] = dc;
+                }
+            }
+            first = 1;
+            acType = TYPE_I16_AC;
+        } else {
+            first = 0;
+            acType = TYPE_I4;
+        }
+
+        int tnz = nzTop[mx] & 0x0F;
+        int lnz = nzLeft & 0x0F;
+        for (int y = 0; y < 4; y++) {
+            int l = lnz & 1;
+            for (int x = 0; x < 4; x++) {
+                int block = (y * 4 + x) * 16;
+                int nz = readCoeffs(br, acType, l + (tnz & 1), y1Dc[segment], y1Ac[segment], first, coeffs, block);
+                l = nz > first ? 1 : 0;
+                tnz = (tnz >> 1) | (l << 7);
+                nonZero |= nz > 1 || coeffs[block] != 0;
+            }
+            tnz >>= 4;
+            lnz = (lnz >> 1) | (l << 7);
+        }
+        int outTop = tnz;
+        int outLeft = lnz >> 4;
+
+        for (int ch = 0; ch < 4; ch += 2) {
+            tnz = nzTop[mx] >> (4 + ch);
+            lnz = nzLeft >> (4 + ch);
+            for (int y = 0; y < 2; y++) {
+                int l = lnz & 1;
+                for (int x = 0; x < 2; x++) {
+                    int block = 256 + ch * 32 + (y * 2 + x) * 16;
+                    int nz = readCoeffs(br, TYPE_CHROMA, l + (tnz & 1), uvDc[segment], uvAc[segment], 0, coeffs, block);
+                    l = nz > 0 ? 1 : 0;
+                    tnz = (tnz >> 1) | (l << 3);
+                    nonZero |= nz > 1 || coeffs[block] != 0;
+                }
+                tnz >>= 2;
+                lnz = (lnz >> 1) | (l << 5);
+            }
+            outTop |= (tnz << 4) << ch;
+            outLeft |= (lnz & 0xF0) << ch;
+        }
+        nzTop[mx] = outTop;
+        nzLeft = outLeft;
+        return nonZero;
+    }
+
+    // Reads one block's tokens from position n; returns one past the last non-zero position.
+    private int readCoeffs(BoolDecoder br, int type, int ctx, int dcQuant, int acQuant, int n, int[] out, int outOffset) {
+        int[][][] bands = proba[type];
+        int[] p = bands[Vp8Tables.BANDS[n]][ctx];
+        for (; n < 16; n++) {
+            if (br.readBool(p[0]) == 0) {
+                return n;
+            }
+            while (br.readBool(p[1]) == 0) {
+                n++;
+                if (n == 16) {
+                    return 16;
+                }
+                p = bands[Vp8Tables.BANDS[n]][0];
+            }
+            int[][] next = bands[Vp8Tables.BANDS[n + 1]];
+            int v;
+            if (br.readBool(p[2]) == 0) {
+                v = 1;
+                p = next[1];
+            } else {
+                v = readLargeValue(br, p);
+                p = next[2];
+            }
+            if (br.readBit() == 1) {
+                v = -v;
+            }
+            out[outOffset + Vp8Tables.ZIGZAG[n]] = v * (n > 0 ? acQuant : dcQuant);
+        }
+        return 16;
+    }
+
+    private static int readLargeValue(BoolDecoder br, int[] p) {
+        if (br.readBool(p[3]) == 0) {
+            if (br.readBool(p[4]) == 0) {
+                return 2;
+            }
+            return 3 + br.readBool(p[5]);
+        }
+        if (br.readBool(p[6]) == 0) {
+            if (br.readBool(p[7]) == 0) {
+                return 5 + br.readBool(159);
+            }
+            int v = 7 + 2 * br.readBool(165);
+            return v + br.readBool(145);
+        }
+        int bit1 = br.readBool(p[8]);
+        int bit0 = br.readBool(p[9 + bit1]);
+        int category = 2 * bit1 + bit0;
+        int v = 0;
+        for (int prob : Vp8Tables.CAT3456[category]) {
+            v += v + br.readBool(prob);
+        }
+        return v + 3 + (8 << category);
+    }
+
+    private static void inverseWalshHadamard(int[] in, int[] out, int[] tmp) {
+        for (int i = 0; i < 4; i++) {
+            int a0 = in[i] + in[12 + i];
+            int a1 = in[4 + i] + in[8 + i];
+            int a2 = in[4 + i] - in[8 + i];
+            int a3 = in[i] - in[12 + i];
+            tmp[i] = a0 + a1;
+            tmp[8 + i] = a0 - a1;
+            tmp[4 + i] = a3 + a2;
+            tmp[12 + i] = a3 - a2;
+        }
+        for (int i = 0; i < 4; i++) {
+            int dc = tmp[i * 4] + 3;
+            int a0 = dc + tmp[3 + i * 4];
+            int a1 = tmp[1 + i * 4] + tmp[2 + i * 4];
+            int a2 = tmp[1 + i * 4] - tmp[2 + i * 4];
+            int a3 = dc - tmp[3 + i * 4];
+            int row = i * 64;
+            out[row] = (a0 + a1) >> 3;
+            out[row + 16] = (a3 + a2) >> 3;
+            out[row + 32] = (a0 - a1) >> 3;
+            out[row + 48] = (a3 - a2) >> 3;
+        }
+    }
+
+    private static int mul1(int a) {
+        return ((a * 20091) >> 16) + a;
+    }
+
+    private static int mul2(int a) {
+        return (a * 35468) >> 16;
+    }
+
+    // Inverse DCT of one 4x4 block, added to the prediction already in dst.
+    private void addInverseTransform(int[] in, int inOffset, int[] dst, int dstOffset) {
+        boolean zero = true;
+        for (int i = 0; i < 16 && zero; i++) {
+            zero = in[inOffset + i] == 0;
+        }
+        if (zero) {
+            return;
+        }
+        int[] tmp = transformTmp;
+        for (int i = 0; i < 4; i++) {
+            int c0 = in[inOffset + i];
+            int c4 = in[inOffset + 4 + i];
+            int c8 = in[inOffset + 8 + i];
+            int c12 = in[inOffset + 12 + i];
+            int a = c0 + c8;
+            int b = c0 - c8;
+            int c = mul2(c4) - mul1(c12);
+            int d = mul1(c4) + mul2(c12);
+            tmp[i * 4] = a + d;
+            tmp[i * 4 + 1] = b + c;
+            tmp[i * 4 + 2] = b - c;
+            tmp[i * 4 + 3] = a - d;
+        }
+        for (int i = 0; i < 4; i++) {
+            int dc = tmp[i] + 4;
+            int a = dc + tmp[8 + i];
+            int b = dc - tmp[8 + i];
+            int c = mul2(tmp[4 + i]) - mul1(tmp[12 + i]);
+            int d = mul1(tmp[4 + i]) + mul2(tmp[12 + i]);
+            int row = dstOffset + i * BPS;
+            dst[row] = clip255(dst[row] + ((a + d) >> 3));
+            dst[row + 1] = clip255(dst[row + 1] + ((b + c) >> 3));
+            dst[row + 2] = clip255(dst[row + 2] + ((b - c) >> 3));
+            dst[row + 3] = clip255(dst[row + 3] + ((a - d) >> 3));
+        }
+    }
+
+    private static int clip255(int v) {
+        return v < 0 ? 0 : Math.min(v, 255);
+    }
+
+    private void reconstructLuma(int mx, int my, boolean is4x4, int yMode) {
+        int[] w = yWork;
+        byte[] plane = frame.luma;
+        int stride = frame.lumaStride;
+        int x0 = mx * 16;
+        int y0 = my * 16;
+
+        if (my == 0) {
+            Arrays.fill(w, 0, 21, 127);
+        } else {
+            int above = (y0 - 1) * stride + x0;
+            w[0] = mx == 0 ? 129 : plane[above - 1] & 0xFF;
+            for (int i = 0; i < 16; i++) {
+                w[1 + i] = plane[above + i] & 0xFF;
+            }
+            for (int i = 0; i < 4; i++) {
+                w[17 + i] = mx == mbWidth - 1 ? plane[above + 15] & 0xFF : plane[above + 16 + i] & 0xFF;
+            }
+        }
+        for (int j = 0; j < 16; j++) {
+            w[(j + 1) * BPS] = mx == 0 ? 129 : plane[(y0 + j) * stride + x0 - 1] & 0xFF;
+        }
+
+        if (is4x4) {
+            // Sub-blocks on the right edge take their top-right pixels from above the macroblock
+            for (int k = 4; k < 16; k += 4) {
+                System.arraycopy(w, 17, w, Y_ORIGIN + (k - 1) * BPS + 16, 4);
+            }
+            for (int n = 0; n < 16; n++) {
+                int dst = Y_ORIGIN + (n >> 2) * 4 * BPS + (n & 3) * 4;
+                predict4x4(w, dst, subModes[n]);
+                addInverseTransform(coeffs, n * 16, w, dst);
+            }
+        } else {
+            predictBlock(w, Y_ORIGIN, 16, yMode, mx > 0, my > 0);
+            for (int n = 0; n < 16; n++) {
+                addInverseTransform(coeffs, n * 16, w, Y_ORIGIN + (n >> 2) * 4 * BPS + (n & 3) * 4);
+            }
+        }
+
+        for (int j = 0; j < 16; j++) {
+            int src = Y_ORIGIN + j * BPS;
+            int out = (y0 + j) * stride + x0;
+            for (int i = 0; i < 16; i++) {
+                plane[out + i] = (byte) w[src + i];
+            }
+        }
+    }
+
+    private void reconstructChroma(int mx, int my, int uvMode) {
+        reconstructChromaPlane(uWork, frame.u, mx, my, uvMode, 256);
+        reconstructChromaPlane(vWork, frame.v, mx, my, uvMode, 320);
+    }
+
+    private void reconstructChromaPlane(int[] w, byte[] plane, int mx, int my, int mode, int coeffOffset) {
+        int stride = frame.chromaStride;
+        int x0 = mx * 8;
+        int y0 = my * 8;
+        if (my == 0) {
+            Arrays.fill(w, 0, 9, 127);
+        } else {
+            int above = (y0 - 1) * stride + x0;
+            w[0] = mx == 0 ? 129 : plane[above - 1] & 0xFF;
+            for (int i = 0; i < 8; i++) {
+                w[1 + i] = plane[above + i] & 0xFF;
+            }
+        }
+        for (int j = 0; j < 8; j++) {
+            w[(j + 1) * BPS] = mx == 0 ? 129 : plane[(y0 + j) * stride + x0 - 1] & 0xFF;
+        }
+
+        predictBlock(w, UV_ORIGIN, 8, mode, mx > 0, my > 0);
+        for (int n = 0; n < 4; n++) {
+            addInverseTransform(coeffs, coeffOffset + n * 16, w, UV_ORIGIN + (n >> 1) * 4 * BPS + (n & 1) * 4);
+        }
+
+        for (int j = 0; j < 8; j++) {
+            int src = UV_ORIGIN + j * BPS;
+            int out = (y0 + j) * stride + x0;
+            for (int i = 0; i < 8; i++) {
+                plane[out + i] = (byte) w[src + i];
+            }
+        }
+    }
+
+    // 16x16 luma or 8x8 chroma prediction. Only DC cares whether the neighbours are real;
+    // the others use the 127/129 border values at frame edges.
+    private static void predictBlock(int[] w, int dst, int size, int mode, boolean hasLeft, boolean hasTop) {
+        switch (mode) {
+            case DC_PRED: {
+                int sum = 0;
+                int count = 0;
+                if (hasTop) {
+                    for (int i = 0; i < size; i++) {
+                        sum += w[dst - BPS + i];
+                    }
+                    count += size;
+                }
+                if (hasLeft) {
+                    for (int j = 0; j < size; j++) {
+                        sum += w[dst + j * BPS - 1];
+                    }
+                    count += size;
+                }
+                int dc = count == 0 ? 128 : (sum + (count >> 1)) / count;
+                for (int j = 0; j < size; j++) {
+                    Arrays.fill(w, dst + j * BPS, dst + j * BPS + size, dc);
+                }
+                break;
+            }
+            case TM_PRED:
+                trueMotion(w, dst, size);
+                break;
+            case V_PRED:
+                for (int j = 0; j < size; j++) {
+                    System.arraycopy(w, dst - BPS, w, dst + j * BPS, size);
+                }
+                break;
+            default:
+                for (int j = 0; j < size; j++) {
+                    Arrays.fill(w, dst + j * BPS, dst + j * BPS + size, w[dst + j * BPS - 1]);
+                }
+                break;
+        }
+    }
+
+    private static void trueMotion(int[] w, int dst, int size) {
+        int topLeft = w[dst - BPS - 1];
+        for (int j = 0; j < size; j++) {
+            int left = w[dst + j * BPS - 1] - topLeft;
+            for (int i = 0; i < size; i++) {
+                w[dst + j * BPS + i] = clip255(w[dst - BPS + i] + left);
+            }
+        }
+    }
+
+    private static int avg3(int a, int b, int c) {
+        return (a + 2 * b + c + 2) >> 2;
+    }
+
+    private static int avg2(int a, int b) {
+        return (a + b + 1) >> 1;
+    }
+
+    private static void predict4x4(int[] w, int dst, int mode) {
+        int top = dst - BPS;
+        int x = w[top - 1];
+        int a = w[top];
+        int b = w[top + 1];
+        int c = w[top + 2];
+        int d = w[top + 3];
+        int e = w[top + 4];
+        int f = w[top + 5];
+        int g = w[top + 6];
+        int h = w[top + 7];
+        int i = w[dst - 1];
+        int j = w[dst + BPS - 1];
+        int k = w[dst + 2 * BPS - 1];
+        int l = w[dst + 3 * BPS - 1];
+        int r0 = dst;
+        int r1 = dst + BPS;
+        int r2 = dst + 2 * BPS;
+        int r3 = dst + 3 * BPS;
+        switch (mode) {
+            case DC_PRED: {
+                int dc = (a + b + c + d + i + j + k + l + 4) >> 3;
+                for (int row = r0; row <= r3; row += BPS) {
+                    Arrays.fill(w, row, row + 4, dc);
+                }
+                break;
+            }
+            case TM_PRED:
+                trueMotion(w, dst, 4);
+                break;
+            case V_PRED: {
+                int v0 = avg3(x, a, b);
+                int v1 = avg3(a, b, c);
+                int v2 = avg3(b, c, d);
+                int v3 = avg3(c, d, e);
+                for (int row = r0; row <= r3; row += BPS) {
+                    w[row] = v0;
+                    w[row + 1] = v1;
+                    w[row + 2] = v2;
+                    w[row + 3] = v3;
+                }
+                break;
+            }
+            case H_PRED:
+                Arrays.fill(w, r0, r0 + 4, avg3(x, i, j));
+                Arrays.fill(w, r1, r1 + 4, avg3(i, j, k));
+                Arrays.fill(w, r2, r2 + 4, avg3(j, k, l));
+                Arrays.fill(w, r3, r3 + 4, avg3(k, l, l));
+                break;
+            case B_RD_PRED:
+                w[r3] = avg3(j, k, l);
+                w[r3 + 1] = w[r2] = avg3(i, j, k);
+                w[r3 + 2] = w[r2 + 1] = w[r1] = avg3(x, i, j);
+                w[r3 + 3] = w[r2 + 2] = w[r1 + 1] = w[r0] = avg3(a, x, i);
+                w[r2 + 3] = w[r1 + 2] = w[r0 + 1] = avg3(b, a, x);
+                w[r1 + 3] = w[r0 + 2] = avg3(c, b, a);
+                w[r0 + 3] = avg3(d, c, b);
+                break;
+            case B_LD_PRED:
+                w[r0] = avg3(a, b, c);
+                w[r0 + 1] = w[r1] = avg3(b, c, d);
+                w[r0 + 2] = w[r1 + 1] = w[r2] = avg3(c, d, e);
+                w[r0 + 3] = w[r1 + 2] = w[r2 + 1] = w[r3] = avg3(d, e, f);
+                w[r1 + 3] = w[r2 + 2] = w[r3 + 1] = avg3(e, f, g);
+                w[r2 + 3] = w[r3 + 2] = avg3(f, g, h);
+                w[r3 + 3] = avg3(g, h, h);
+                break;
+            case B_VR_PRED:
+                w[r0] = w[r2 + 1] = avg2(x, a);
+                w[r0 + 1] = w[r2 + 2] = avg2(a, b);
+                w[r0 + 2] = w[r2 + 3] = avg2(b, c);
+                w[r0 + 3] = avg2(c, d);
+                w[r3] = avg3(k, j, i);
+                w[r2] = avg3(j, i, x);
+                w[r1] = w[r3 + 1] = avg3(i, x, a);
+                w[r1 + 1] = w[r3 + 2] = avg3(x, a, b);
+                w[r1 + 2] = w[r3 + 3] = avg3(a, b, c);
+                w[r1 + 3] = avg3(b, c, d);
+                break;
+            case B_VL_PRED:
+                w[r0] = avg2(a, b);
+                w[r0 + 1] = w[r2] = avg2(b, c);
+                w[r0 + 2] = w[r2 + 1] = avg2(c, d);
+                w[r0 + 3] = w[r2 + 2] = avg2(d, e);
+                w[r1] = avg3(a, b, c);
+                w[r1 + 1] = w[r3] = avg3(b, c, d);
+                w[r1 + 2] = w[r3 + 1] = avg3(c, d, e);
+                w[r1 + 3] = w[r3 + 2] = avg3(d, e, f);
+                w[r2 + 3] = avg3(e, f, g);
+                w[r3 + 3] = avg3(f, g, h);
+                break;
+            case B_HD_PRED:
+                w[r0] = w[r1 + 2] = avg2(i, x);
+                w[r1] = w[r2 + 2] = avg2(j, i);
+                w[r2] = w[r3 + 2] = avg2(k, j);
+                w[r3] = avg2(l, k);
+                w[r0 + 3] = avg3(a, b, c);
+                w[r0 + 2] = avg3(x, a, b);
+                w[r0 + 1] = w[r1 + 3] = avg3(i, x, a);
+                w[r1 + 1] = w[r2 + 3] = avg3(x, i, j);
+                w[r2 + 1] = w[r3 + 3] = avg3(i, j, k);
+                w[r3 + 1] = avg3(j, k, l);
+                break;
+            default: // B_HU_PRED
+                w[r0] = avg2(i, j);
+                w[r0 + 2] = w[r1] = avg2(j, k);
+                w[r1 + 2] = w[r2] = avg2(k, l);
+                w[r0 + 1] = avg3(i, j, k);
+                w[r0 + 3] = w[r1 + 1] = avg3(j, k, l);
+                w[r1 + 3] = w[r2 + 1] = avg3(k, l, l);
+                w[r2 + 3] = w[r2 + 2] = w[r3] = w[r3 + 1] = w[r3 + 2] = w[r3 + 3] = l;
+                break;
+        }
+    }
+
+    private void filter(int rows) {
+        if (filterLevel == 0) {
+            return;
+        }
+        // Per segment and prediction type: limit, interior limit and high edge variance threshold
+        int[] limit = new int[8];
+        int[] interior = new int[8];
+        int[] hevThreshold = new int[8];
+        for (int s = 0; s < 4; s++) {
+            int base = filterLevel;
+            if (useSegments) {
+                base = segmentFilterLevel[s] + (absoluteSegmentValues ? 0 : filterLevel);
+            }
+            for (int i4x4 = 0; i4x4 <= 1; i4x4++) {
+                int level = base;
+                if (useLfDelta) {
+                    level += refLfDelta[0];
+                    if (i4x4 == 1) {
+                        level += modeLfDelta[0];
+                    }
+                }
+                level = clip(level, 63);
+                int index = s * 2 + i4x4;
+                if (level > 0) {
+                    int ilevel = level;
+                    if (sharpness > 0) {
+                        ilevel >>= sharpness > 4 ? 2 : 1;
+                        ilevel = Math.min(ilevel, 9 - sharpness);
+                    }
+                    ilevel = Math.max(ilevel, 1);
+                    interior[index] = ilevel;
+                    limit[index] = 2 * level + ilevel;
+                    hevThreshold[index] = level >= 40 ? 2 : level >= 15 ? 1 : 0;
+                }
+            }
+        }
+
+        byte[] luma = frame.luma;
+        byte[] u = frame.u;
+        byte[] v = frame.v;
+        int ys = frame.lumaStride;
+        int cs = frame.chromaStride;
+        for (int my = 0; my < rows; my++) {
+            for (int mx = 0; mx < mbWidth; mx++) {
+                int info = mbFilterInfo[my * mbWidth + mx];
+                int index = info & 7;
+                boolean inner = (info & 8) != 0;
+                int lim = limit[index];
+                if (lim == 0) {
+                    continue;
+                }
+                int yp = my * 16 * ys + mx * 16;
+                if (simpleFilter) {
+                    if (mx > 0) {
+                        simpleFilter(luma, yp, 1, ys, lim + 4);
+                    }
+                    if (inner) {
+                        for (int k = 4; k < 16; k += 4) {
+                            simpleFilter(luma, yp + k, 1, ys, lim);
+                        }
+                    }
+                    if (my > 0) {
+                        simpleFilter(luma, yp, ys, 1, lim + 4);
+                    }
+                    if (inner) {
+                        for (int k = 4; k < 16; k += 4) {
+                            simpleFilter(luma, yp + k * ys, ys, 1, lim);
+                        }
+                    }
+                    continue;
+                }
+                int il = interior[index];
+                int hev = hevThreshold[index];
+                int cp = my * 8 * cs + mx * 8;
+                if (mx > 0) {
+                    edgeFilter(luma, yp, 1, ys, 16, lim + 4, il, hev, true);
+                    edgeFilter(u, cp, 1, cs, 8, lim + 4, il, hev, true);
+                    edgeFilter(v, cp, 1, cs, 8, lim + 4, il, hev, true);
+                }
+                if (inner) {
+                    for (int k = 4; k < 16; k += 4) {
+                        edgeFilter(luma, yp + k, 1, ys, 16, lim, il, hev, false);
+                    }
+                    edgeFilter(u, cp + 4, 1, cs, 8, lim, il, hev, false);
+                    edgeFilter(v, cp + 4, 1, cs, 8, lim, il, hev, false);
+                }
+                if (my > 0) {
+                    edgeFilter(luma, yp, ys, 1, 16, lim + 4, il, hev, true);
+                    edgeFilter(u, cp, cs, 1, 8, lim + 4, il, hev, true);
+                    edgeFilter(v, cp, cs, 1, 8, lim + 4, il, hev, true);
+                }
+                if (inner) {
+                    for (int k = 4; k < 16; k += 4) {
+                        edgeFilter(luma, yp + k * ys, ys, 1, 16, lim, il, hev, false);
+                    }
+                    edgeFilter(u, cp + 4 * cs, cs, 1, 8, lim, il, hev, false);
+                    edgeFilter(v, cp + 4 * cs, cs, 1, 8, lim, il, hev, false);
+                }
+            }
+        }
+    }
+
+    // step crosses the edge, along moves to the next pixel on it
+    private static void simpleFilter(byte[] px, int p, int step, int along, int threshold) {
+        int threshold2 = 2 * threshold + 1;
+        for (int n = 0; n < 16; n++, p += along) {
+            int p1 = px[p - 2 * step] & 0xFF;
+            int p0 = px[p - step] & 0xFF;
+            int q0 = px[p] & 0xFF;
+            int q1 = px[p + step] & 0xFF;
+            if (4 * Math.abs(p0 - q0) + Math.abs(p1 - q1) <= threshold2) {
+                filter2(px, p, step, p1, p0, q0, q1);
+            }
+        }
+    }
+
+    private static void edgeFilter(byte[] px, int p, int step, int along, int size,
+                                   int threshold, int interior, int hevThreshold, boolean macroblockEdge) {
+        int threshold2 = 2 * threshold + 1;
+        for (int n = 0; n < size; n++, p += along) {
+            int p3 = px[p - 4 * step] & 0xFF;
+            int p2 = px[p - 3 * step] & 0xFF;
+            int p1 = px[p - 2 * step] & 0xFF;
+            int p0 = px[p - step] & 0xFF;
+            int q0 = px[p] & 0xFF;
+            int q1 = px[p + step] & 0xFF;
+            int q2 = px[p + 2 * step] & 0xFF;
+            int q3 = px[p + 3 * step] & 0xFF;
+            if (4 * Math.abs(p0 - q0) + Math.abs(p1 - q1) > threshold2
+                    || Math.abs(p3 - p2) > interior || Math.abs(p2 - p1) > interior
+                    || Math.abs(p1 - p0) > interior || Math.abs(q3 - q2) > interior
+                    || Math.abs(q2 - q1) > interior || Math.abs(q1 - q0) > interior) {
+                continue;
+            }
+            if (Math.abs(p1 - p0) > hevThreshold || Math.abs(q1 - q0) > hevThreshold) {
+                filter2(px, p, step, p1, p0, q0, q1);
+            } else if (macroblockEdge) {
+                int a = signedClip(3 * (q0 - p0) + signedClip(p1 - q1));
+                int a1 = (27 * a + 63) >> 7;
+                int a2 = (18 * a + 63) >> 7;
+                int a3 = (9 * a + 63) >> 7;
+                px[p - 3 * step] = (byte) clip255(p2 + a3);
+                px[p - 2 * step] = (byte) clip255(p1 + a2);
+                px[p - step] = (byte) clip255(p0 + a1);
+                px[p] = (byte) clip255(q0 - a1);
+                px[p + step] = (byte) clip255(q1 - a2);
+                px[p + 2 * step] = (byte) clip255(q2 - a3);
+            } else {
+                int a = 3 * (q0 - p0);
+                int a1 = smallClip((a + 4) >> 3);
+                int a2 = smallClip((a + 3) >> 3);
+                int a3 = (a1 + 1) >> 1;
+                px[p - 2 * step] = (byte) clip255(p1 + a3);
+                px[p - step] = (byte) clip255(p0 + a2);
+                px[p] = (byte) clip255(q0 - a1);
+                px[p + step] = (byte) clip255(q1 - a3);
+            }
+        }
+    }
+
+    private static void filter2(byte[] px, int p, int step, int p1, int p0, int q0, int q1) {
+        int a = 3 * (q0 - p0) + signedClip(p1 - q1);
+        int a1 = smallClip((a + 4) >> 3);
+        int a2 = smallClip((a + 3) >> 3);
+        px[p - step] = (byte) clip255(p0 + a2);
+        px[p] = (byte) clip255(q0 - a1);
+    }
+
+    private static int signedClip(int v) {
+        return v < -128 ? -128 : Math.min(v, 127);
+    }
+
+    private static int smallClip(int v) {
+        return v < -16 ? -16 : Math.min(v, 15);
+    }
+}
@@ -0,0 +1,90 @@
+package tvgameboy.shared.asset.webp;
+
+// A decoded VP8 frame in macroblock-aligned YUV 4:2:0 planes. A partial decode
+// allocates only the macroblock rows it reconstructed.
+final class Vp8Frame {
+    final int width;
+    final int height;
+    final byte[] luma;
+    final byte[] u;
+    final byte[] v;
+    final int lumaStride;
+    final int chromaStride;
+
+    Vp8Frame(int width, int height, int alignedWidth, int alignedHeight) {
+        this.width = width;
+        this.height = height;
+        this.lumaStride = alignedWidth;
+        this.chromaStride = alignedWidth / 2;
+        this.luma = new byte[alignedWidth * alignedHeight];
+        this.u = new byte[chromaStride * (alignedHeight / 2)];
+        this.v = new byte[chromaStride * (alignedHeight / 2)];
+    }
+
+    // Converts every xStep-th column and yStep-th row of the region to opaque ARGB, row-major into
+    // out. Chroma is upsampled with the same 9-3-3-1 interpolation as libwebp's default output.
+    void toArgb(int x0, int y0, int regionWidth, int regionHeight, int xStep, int yStep, int[] out) {
+        int chromaHeight = (height + 1) >> 1;
+        int[] uRow = new int[regionWidth];
+        int[] vRow = new int[regionWidth];
+        int row = 0;
+        for (int y = y0; y < y0 + regionHeight; y += yStep) {
+            // The nearer chroma row gets weight 3, the other weight 1
+            int near = (y == 0) ? 0 : (y & 1) == 1 ? (y - 1) >> 1 : y >> 1;
+            int far = (y == 0) ? 0 : (y & 1) == 1 ? (y + 1) >> 1 : (y >> 1) - 1;
+            if (far >= chromaHeight) {
+                far = near;
+            }
+            upsampleRow(u, near * chromaStride, far * chromaStride, x0, regionWidth, uRow);
+            upsampleRow(v, near * chromaStride, far * chromaStride, x0, regionWidth, vRow);
+            int lumaRow = y * lumaStride + x0;
+            for (int i = 0; i < regionWidth; i += xStep) {
+                out[row++] = yuvToArgb(luma[lumaRow + i] & 0xFF, uRow[i], vRow[i]);
+            }
+        }
+    }
+
+    // Interpolates columns x0 .. x0 + count - 1 of one output row. Each pair of output columns
+    // (2i - 1, 2i) lies between chroma samples i - 1 and i and shares their four values.
+    private void upsampleRow(byte[] plane, int near, int far, int x0, int count, int[] dst) {
+        int lastPair = (width - 1) >> 1;
+        int x1 = x0 + count;
+        int x = x0;
+        if (x == 0) {
+            dst[0] = (3 * (plane[near] & 0xFF) + (plane[far] & 0xFF) + 2) >> 2;
+            x = 1;
+        }
+        for (int i = (x + 1) >> 1; x < x1 && i <= lastPair; i++) {
+            int nearLeft = plane[near + i - 1] & 0xFF;
+            int nearRight = plane[near + i] & 0xFF;
+            int farLeft = plane[far + i - 1] & 0xFF;
+            int farRight = plane[far + i] & 0xFF;
+            int sum = nearLeft + nearRight + farLeft + farRight + 8;
+            if ((x & 1) == 1) {
+                dst[x - x0] = (((sum + 2 * (nearRight + farLeft)) >> 3) + nearLeft) >> 1;
+                x++;
+            }
+            if (x < x1) {
+                dst[x - x0] = (((sum + 2 * (nearLeft + farRight)) >> 3) + nearRight) >> 1;
+                x++;
+            }
+        }
+        // An even width leaves a last odd column beyond the final chroma pair
+        if (x < x1) {
+            dst[x - x0] = (3 * (plane[near + lastPair] & 0xFF) + (plane[far + lastPair] & 0xFF) + 2) >> 2;
+        }
+    }
+
+    // BT.601 limited range in 14-bit fixed point, matching libwebp
+    static int yuvToArgb(int y, int u, int v) {
+        int luma = (y * 19077) >> 8;
+        int r = clip8(luma + ((v * 26149) >> 8) - 14234);
+        int g = clip8(luma - ((u * 6419) >> 8) - ((v * 13320) >> 8) + 8708);
+        int b = clip8(luma + ((u * 33050) >> 8) - 17685);
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+
+    private static int clip8(int v) {
+        return (v & ~16383) == 0 ? v >> 6 : v < 0 ? 0 : 255;
+    }
+}
@@ -0,0 +1,451 @@
+package tvgameboy.shared.asset.webp;
+
+import java.io.IOException;
+
+// Decodes a lossless WebP (VP8L) image stream into ARGB pixels, following the
+// WebP lossless bitstream specification: transforms, colour cache, meta prefix
+// codes and LZ77 backward references.
+final class Vp8lDecoder {
+    private static final int SIGNATURE = 0x2F;
+    private static final int PREDICTOR_TRANSFORM = 0;
+    private static final int CROSS_COLOR_TRANSFORM = 1;
+    private static final int SUBTRACT_GREEN = 2;
+    private static final int COLOR_INDEXING_TRANSFORM = 3;
+    private static final int NUM_LITERAL_CODES = 256;
+    private static final int NUM_LENGTH_CODES = 24;
+    private static final int NUM_DISTANCE_CODES = 40;
+    private static final int CODE_LENGTH_CODES = 19;
+    private static final int[] CODE_LENGTH_ORDER = {17, 18, 0, 1, 2, 3, 4, 5, 16, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15};
+    // (dy << 4) | (8 - dx) for the 120 short distance codes
+    private static final int[] CODE_TO_PLANE = {
+            24, 7, 23, 25, 40, 6, 39, 41, 22, 26, 38, 42, 56, 5, 55, 57,
+            21, 27, 54, 58, 37, 43, 72, 4, 71, 73, 20, 28, 53, 59, 70, 74,
+            36, 44, 88, 69, 75, 52, 60, 3, 87, 89, 19, 29, 86, 90, 35, 45,
+            68, 76, 85, 91, 51, 61, 104, 2, 103, 105, 18, 30, 102, 106, 34, 46,
+            84, 92, 67, 77, 101, 107, 50, 62, 120, 1, 119, 121, 83, 93, 17, 31,
+            100, 108, 66, 78, 118, 122, 33, 47, 117, 123, 49, 63, 99, 109, 82, 94,
+            0, 116, 124, 65, 79, 16, 32, 98, 110, 48, 115, 125, 81, 95, 64, 114,
+            126, 97, 111, 80, 113, 127, 96, 112
+    };
+
+    private final LosslessBitReader reader;
+    private final int[] transformTypes = new int[4];
+    private final int[] transformBits = new int[4];
+    private final int[] transformWidths = new int[4];
+    private final int[][] transformData = new int[4][];
+    private int transformCount;
+
+    private Vp8lDecoder(LosslessBitReader reader) {
+        this.reader = reader;
+    }
+
+    // Returns {width, height, hasAlpha}.
+    static int[] readHeader(byte[] data, int offset, int length) throws IOException {
+        if (length < 5 || (data[offset] & 0xFF) != SIGNATURE) {
+            throw new IOException("Bad VP8L signature");
+        }
+        LosslessBitReader reader = new LosslessBitReader(data, offset + 1, 4);
+        int width = reader.readBits(14) + 1;
+        int height = reader.readBits(14) + 1;
+        int alpha = reader.readBits(1);
+        if (reader.readBits(3) != 0) {
+            throw new IOException("Unknown VP8L version");
+        }
+        return new int[] {width, height, alpha};
+    }
+
+    static int[] decode(byte[] data, int offset, int length) throws IOException {
+        int[] header = readHeader(data, offset, length);
+        return decodeStream(data, offset + 5, length - 5, header[0], header[1]);
+    }
+
+    // A headerless image stream, as embedded in alpha chunks.
+    static int[] decodeStream(byte[] data, int offset, int length, int width, int height) throws IOException {
+        LosslessBitReader reader = new LosslessBitReader(data, offset, length);
+        int[] pixels = new Vp8lDecoder(reader).decodeImage(width, height);
+        reader.check();
+        return pixels;
+    }
+
+    private int[] decodeImage(int width, int height) throws IOException {
+        int codedWidth = width;
+        boolean[] seen = new boolean[4];
+        while (reader.readBits(1) == 1) {
+            int type = reader.readBits(2);
+            if (seen[type]) {
+                throw new IOException("VP8L transform " + type + " repeated");
+            }
+            seen[type] = true;
+            codedWidth = readTransform(type, codedWidth, height);
+        }
+        int[] pixels = decodeEntropyImage(codedWidth, height, true);
+        for (int t = transformCount - 1; t >= 0; t--) {
+            pixels = inverseTransform(t, pixels, height);
+        }
+        return pixels;
+    }
+
+    private int readTransform(int type, int width, int height) throws IOException {
+        int index = transformCount++;
+        transformTypes[index] = type;
+        transformWidths[index] = width;
+        switch (type) {
+            case PREDICTOR_TRANSFORM:
+            case CROSS_COLOR_TRANSFORM: {
+                int bits = reader.readBits(3) + 2;
+                transformBits[index] = bits;
+                transformData[index] = decodeEntropyImage(subSampleSize(width, bits), subSampleSize(height, bits), false);
+                return width;
+            }
+            case COLOR_INDEXING_TRANSFORM: {
+                int size = reader.readBits(8) + 1;
+                int bits = size > 16 ? 0 : size > 4 ? 1 : size > 2 ? 2 : 3;
+                transformBits[index] = bits;
+                int[] palette = decodeEntropyImage(size, 1, false);
+                // Entries are stored as differences from the previous one
+                int[] table = new int[256];
+                table[0] = palette[0];
+                for (int i = 1; i < size; i++) {
+                    table[i] = addPixels(palette[i], table[i - 1]);
+                }
+                transformData[index] = table;
+                return subSampleSize(width, bits);
+            }
+            default:
+                return width;
+        }
+    }
+
+    private static int subSampleSize(int size, int bits) {
+        return (size + (1 << bits) - 1) >> bits;
+    }
+
+    private int[] decodeEntropyImage(int width, int height, boolean topLevel) throws IOException {
+        int cacheBits = 0;
+        if (reader.readBits(1) == 1) {
+            cacheBits = reader.readBits(4);
+            if (cacheBits < 1 || cacheBits > 11) {
+                throw new IOException("Bad VP8L colour cache size " + cacheBits);
+            }
+        }
+
+        int metaBits = 0;
+        int metaWidth = 0;
+        int[] metaCodes = null;
+        int groupCount = 1;
+        if (topLevel && reader.readBits(1) == 1) {
+            metaBits = reader.readBits(3) + 2;
+            metaWidth = subSampleSize(width, metaBits);
+            metaCodes = decodeEntropyImage(metaWidth, subSampleSize(height, metaBits), false);
+            for (int i = 0; i < metaCodes.length; i++) {
+                metaCodes[i] = (metaCodes[i] >> 8) & 0xFFFF;
+                groupCount = Math.max(groupCount, metaCodes[i] + 1);
+            }
+        }
+
+        int cacheSize = cacheBits > 0 ? 1 << cacheBits : 0;
+        HuffmanCode[][] groups = new HuffmanCode[groupCount][];
+        for (int g = 0; g < groupCount; g++) {
+            groups[g] = new HuffmanCode[] {
+                    readCode(NUM_LITERAL_CODES + NUM_LENGTH_CODES + cacheSize),
+                    readCode(NUM_LITERAL_CODES),
+                    readCode(NUM_LITERAL_CODES),
+                    readCode(NUM_LITERAL_CODES),
+                    readCode(NUM_DISTANCE_CODES)
+            };
+        }
+        reader.check();
+        return decodePixels(width, height, groups, metaBits, metaWidth, metaCodes, cacheBits);
+    }
+
+    private HuffmanCode readCode(int alphabetSize) throws IOException {
+        int[] lengths = new int[alphabetSize];
+        if (reader.readBits(1) == 1) {
+            int symbols = reader.readBits(1) + 1;
+            int first = reader.readBits(reader.readBits(1) == 0 ? 1 : 8);
+            if (first >= alphabetSize) {
+                throw new IOException("VP8L symbol out of range");
+            }
+            lengths[first] = 1;
+            if (symbols == 2) {
+                int second = reader.readBits(8);
+                if (second >= alphabetSize) {
+                    throw new IOException("VP8L symbol out of range");
+                }
+                lengths[second] = 1;
+            }
+            return new HuffmanCode(lengths, alphabetSize);
+        }
+
+        int[] codeLengthLengths = new int[CODE_LENGTH_CODES];
+        int count = reader.readBits(4) + 4;
+        for (int i = 0; i < count; i++) {
+            codeLengthLengths[CODE_LENGTH_ORDER[i]] = reader.readBits(3);
+        }
+        HuffmanCode lengthCode = new HuffmanCode(codeLengthLengths, CODE_LENGTH_CODES);
+
+        int maxSymbol = alphabetSize;
+        if (reader.readBits(1) == 1) {
+            int lengthBits = 2 + 2 * reader.readBits(3);
+            maxSymbol = 2 + reader.readBits(lengthBits);
+            if (maxSymbol > alphabetSize) {
+                throw new IOException("VP8L code length count out of range");
+            }
+        }
+        int previous = 8;
+        int symbol = 0;
+        while (symbol < alphabetSize && maxSymbol-- > 0) {
+            int code = lengthCode.read(reader);
+            if (code < 16) {
+                lengths[symbol++] = code;
+                if (code != 0) {
+                    previous = code;
+                }
+                continue;
+            }
+            int repeat = code == 16 ? 3 + reader.readBits(2)
+                    : code == 17 ? 3 + reader.readBits(3) : 11 + reader.readBits(7);
+            if (symbol + repeat > alphabetSize) {
+                throw new IOException("VP8L code length repeat out of range");
+            }
+            int value = code == 16 ? previous : 0;
+            while (repeat-- > 0) {
+                lengths[symbol++] = value;
+            }
+        }
+        return new HuffmanCode(lengths, alphabetSize);
+    }
+
+    private int[] decodePixels(int width, int height, HuffmanCode[][] groups, int metaBits, int metaWidth,
+                               int[] metaCodes, int cacheBits) throws IOException {
+        int total = width * height;
+        int[] pixels = new int[total];
+        int[] cache = cacheBits > 0 ? new int[1 << cacheBits] : null;
+        int cacheShift = 32 - cacheBits;
+        int lengthLimit = NUM_LITERAL_CODES + NUM_LENGTH_CODES;
+        int position = 0;
+        int cached = 0;
+        while (position < total) {
+            HuffmanCode[] group = groups[0];
+            if (metaCodes != null) {
+                int x = position % width;
+                int y = position / width;
+                group = groups[metaCodes[(y >> metaBits) * metaWidth + (x >> metaBits)]];
+            }
+            int code = group[0].read(reader);
+            if (code < NUM_LITERAL_CODES) {
+                int red = group[1].read(reader);
+                int blue = group[2].read(reader);
+                int alpha = group[3].read(reader);
+                pixels[position++] = (alpha << 24) | (red << 16) | (code << 8) | blue;
+            } else if (code < lengthLimit) {
+                int length = readPrefixValue(code - NUM_LITERAL_CODES);
+                int distance = planeCodeToDistance(width, readPrefixValue(group[4].read(reader)));
+                if (distance > position || length > total - position) {
+                    throw new IOException("VP8L backward reference out of range");
+                }
+                for (int i = 0; i < length; i++, position++) {
+                    pixels[position] = pixels[position - distance];
+                }
+            } else {
+                int key = code - lengthLimit;
+                if (cache == null || key >= cache.length) {
+                    throw new IOException("VP8L colour cache index out of range");
+                }
+                while (cached < position) {
+                    int argb = pixels[cached++];
+                    cache[(0x1E35A7BD * argb) >>> cacheShift] = argb;
+                }
+                pixels[position++] = cache[key];
+            }
+            if (cache != null) {
+                while (cached < position) {
+                    int argb = pixels[cached++];
+                    cache[(0x1E35A7BD * argb) >>> cacheShift] = argb;
+                }
+            }
+        }
+        reader.check();
+        return pixels;
+    }
+
+    private int readPrefixValue(int symbol) {
+        if (symbol < 4) {
+            return symbol + 1;
+        }
+        int extraBits = (symbol - 2) >> 1;
+        int offset = (2 + (symbol & 1)) << extraBits;
+        return offset + reader.readBits(extraBits) + 1;
+    }
+
+    private static int planeCodeToDistance(int width, int code) {
+        if (code > CODE_TO_PLANE.length) {
+            return code - CODE_TO_PLANE.length;
+        }
+        int planeCode = CODE_TO_PLANE[code - 1];
+        int distance = (planeCode >> 4) * width + (8 - (planeCode & 0xF));
+        return Math.max(1, distance);
+    }
+
+    private int[] inverseTransform(int index, int[] pixels, int height) {
+        int width = transformWidths[index];
+        int bits = transformBits[index];
+        int[] data = transformData[index];
+        switch (transformTypes[index]) {
+            case PREDICTOR_TRANSFORM:
+                inversePredictor(pixels, width, height, bits, data);
+                return pixels;
+            case CROSS_COLOR_TRANSFORM:
+                inverseCrossColor(pixels, width, height, bits, data);
+                return pixels;
+            case SUBTRACT_GREEN:
+                for (int i = 0; i < pixels.length; i++) {
+                    int argb = pixels[i];
+                    int green = (argb >> 8) & 0xFF;
+                    int redBlue = ((argb & 0x00FF00FF) + ((green << 16) | green)) & 0x00FF00FF;
+                    pixels[i] = (argb & 0xFF00FF00) | redBlue;
+                }
+                return pixels;
+            default:
+                return inverseColorIndexing(pixels, width, height, bits, data);
+        }
+    }
+
+    private static void inversePredictor(int[] pixels, int width, int height, int bits, int[] modes) {
+        int blocksWide = subSampleSize(width, bits);
+        pixels[0] = addPixels(pixels[0], 0xFF000000);
+        for (int x = 1; x < width; x++) {
+            pixels[x] = addPixels(pixels[x], pixels[x - 1]);
+        }
+        for (int y = 1; y < height; y++) {
+            int row = y * width;
+            pixels[row] = addPixels(pixels[row], pixels[row - width]);
+            int modeRow = (y >> bits) * blocksWide;
+            for (int x = 1; x < width; x++) {
+                int i = row + x;
+                int mode = (modes[modeRow + (x >> bits)] >> 8) & 0xF;
+                pixels[i] = addPixels(pixels[i], predict(mode, pixels, i, width));
+            }
+        }
+    }
+
+    private static int predict(int mode, int[] pixels, int i, int width) {
+        int left = pixels[i - 1];
+        int top = pixels[i - width];
+        // For the last column this is the first pixel of the current row, as the format specifies
+        int topRight = pixels[i - width + 1];
+        int topLeft = pixels[i - width - 1];
+        switch (mode) {
+            case 0:
+                return 0xFF000000;
+            case 1:
+                return left;
+            case 2:
+                return top;
+            case 3:
+                return topRight;
+            case 4:
+                return topLeft;
+            case 5:
+                return average2(average2(left, topRight), top);
+            case 6:
+                return average2(left, topLeft);
+            case 7:
+                return average2(left, top);
+            case 8:
+                return average2(topLeft, top);
+            case 9:
+                return average2(top, topRight);
+            case 10:
+                return average2(average2(left, topLeft), average2(top, topRight));
+            case 11:
+                return select(top, left, topLeft);
+            case 12:
+                return clampAddSubtractFull(left, top, topLeft);
+            case 13:
+                return clampAddSubtractHalf(average2(left, top), topLeft);
+            default:
+                // Modes 14 and 15 are unused; decoders treat them as black
+                return 0xFF000000;
+        }
+    }
+
+    private static int average2(int a, int b) {
+        return (int) ((((a ^ b) & 0xFEFEFEFEL) >>> 1) + (a & b));
+    }
+
+    private static int select(int a, int b, int c) {
+        int distance = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int ca = (a >>> shift) & 0xFF;
+            int cb = (b >>> shift) & 0xFF;
+            int cc = (c >>> shift) & 0xFF;
+            distance += Math.abs(cb - cc) - Math.abs(ca - cc);
+        }
+        return distance <= 0 ? a : b;
+    }
+
+    private static int clampAddSubtractFull(int a, int b, int c) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int v = ((a >>> shift) & 0xFF) + ((b >>> shift) & 0xFF) - ((c >>> shift) & 0xFF);
+            result |= clip255(v) << shift;
+        }
+        return result;
+    }
+
+    private static int clampAddSubtractHalf(int a, int b) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int ca = (a >>> shift) & 0xFF;
+            int cb = (b >>> shift) & 0xFF;
+            result |= clip255(ca + (ca - cb) / 2) << shift;
+        }
+        return result;
+    }
+
+    private static int clip255(int v) {
+        return v < 0 ? 0 : Math.min(v, 255);
+    }
+
+    private static int addPixels(int a, int b) {
+        int alphaGreen = (a & 0xFF00FF00) + (b & 0xFF00FF00);
+        int redBlue = (a & 0x00FF00FF) + (b & 0x00FF00FF);
+        return (alphaGreen & 0xFF00FF00) | (redBlue & 0x00FF00FF);
+    }
+
+    private static void inverseCrossColor(int[] pixels, int width, int height, int bits, int[] elements) {
+        int blocksWide = subSampleSize(width, bits);
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            int elementRow = (y >> bits) * blocksWide;
+            for (int x = 0; x < width; x++) {
+                int element = elements[elementRow + (x >> bits)];
+                int greenToRed = (byte) element;
+                int greenToBlue = (byte) (element >> 8);
+                int redToBlue = (byte) (element >> 16);
+                int argb = pixels[row + x];
+                int green = (byte) (argb >> 8);
+                int red = (((argb >> 16) & 0xFF) + ((greenToRed * green) >> 5)) & 0xFF;
+                int blue = (argb & 0xFF) + ((greenToBlue * green) >> 5) + ((redToBlue * (byte) red) >> 5);
+                pixels[row + x] = (argb & 0xFF00FF00) | (red << 16) | (blue & 0xFF);
+            }
+        }
+    }
+
+    private static int[] inverseColorIndexing(int[] packed, int width, int height, int bits, int[] palette) {
+        int packedWidth = subSampleSize(width, bits);
+        int[] pixels = new int[width * height];
+        int perByte = 1 << bits;
+        int bitsPerIndex = 8 >> bits;
+        int mask = (1 << bitsPerIndex) - 1;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int green = (packed[y * packedWidth + (x >> bits)] >> 8) & 0xFF;
+                int index = (green >> ((x & (perByte - 1)) * bitsPerIndex)) & mask;
+                pixels[y * width + x] = palette[index];
+            }
+        }
+        return pixels;
+    }
+}
@@ -0,0 +1,330 @@
+package tvgameboy.shared.asset.webp;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import javax.imageio.IIOException;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+
+// Reads still WebP images (lossy VP8, lossless VP8L, and extended files with an
+// alpha chunk). The source region and subsampling of an ImageReadParam are
+// applied while converting, so a reduced-size read never builds the full-size
+// image, and lossy frames stop decoding below the last requested row.
+public final class WebPImageReader extends ImageReader {
+    private static final int VP8X_ANIMATION = 0x02;
+    private static final int VP8X_ALPHA = 0x10;
+
+    private byte[] data;
+    private boolean lossless;
+    private int imageOffset;
+    private int imageLength;
+    private int alphaOffset = -1;
+    private int alphaLength;
+    private int width;
+    private int height;
+    private boolean hasAlpha;
+
+    WebPImageReader(WebPImageReaderSpi provider) {
+        super(provider);
+    }
+
+    @Override
+    public void setInput(Object input, boolean seekForwardOnly, boolean ignoreMetadata) {
+        super.setInput(input, seekForwardOnly, ignoreMetadata);
+        data = null;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        data = null;
+    }
+
+    @Override
+    public int getNumImages(boolean allowSearch) throws IOException {
+        parse();
+        return 1;
+    }
+
+    @Override
+    public int getWidth(int imageIndex) throws IOException {
+        checkIndex(imageIndex);
+        return width;
+    }
+
+    @Override
+    public int getHeight(int imageIndex) throws IOException {
+        checkIndex(imageIndex);
+        return height;
+    }
+
+    @Override
+    public Iterator<ImageTypeSpecifier> getImageTypes(int imageIndex) throws IOException {
+        checkIndex(imageIndex);
+        int type = hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        return Collections.singletonList(ImageTypeSpecifier.createFromBufferedImageType(type)).iterator();
+    }
+
+    @Override
+    public IIOMetadata getStreamMetadata() {
+        return null;
+    }
+
+    @Override
+    public IIOMetadata getImageMetadata(int imageIndex) {
+        return null;
+    }
+
+    @Override
+    public BufferedImage read(int imageIndex, ImageReadParam param) throws IOException {
+        checkIndex(imageIndex);
+        Rectangle region = getSourceRegion(param, width, height);
+        int xStep = param == null ? 1 : param.getSourceXSubsampling();
+        int yStep = param == null ? 1 : param.getSourceYSubsampling();
+        if (region.isEmpty()) {
+            throw new IIOException("WebP source region is empty");
+        }
+        int outWidth = (region.width + xStep - 1) / xStep;
+        int outHeight = (region.height + yStep - 1) / yStep;
+        BufferedImage image = new BufferedImage(outWidth, outHeight,
+                hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        int[] out = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        processImageStarted(imageIndex);
+        try {
+            if (lossless) {
+                int[] pixels = Vp8lDecoder.decode(data, imageOffset, imageLength);
+                copyRegion(pixels, width, region, xStep, yStep, out);
+            } else {
+                Vp8Frame frame = Vp8Decoder.decode(data, imageOffset, imageLength, region.y + region.height);
+                if (frame.width != width || frame.height != height) {
+                    throw new IIOException("VP8 frame size does not match the WebP canvas");
+                }
+                frame.toArgb(region.x, region.y, region.width, region.height, xStep, yStep, out);
+                if (hasAlpha) {
+                    applyAlpha(readAlpha(), width, region, xStep, yStep, out);
+                }
+            }
+        } catch (IIOException ex) {
+            throw ex;
+        } catch (IOException | RuntimeException ex) {
+            throw new IIOException("Cannot decode WebP image: " + ex.getMessage(), ex);
+        }
+        processImageComplete();
+        return image;
+    }
+
+    private void checkIndex(int imageIndex) throws IOException {
+        if (imageIndex != 0) {
+            throw new IndexOutOfBoundsException("WebP files hold a single image");
+        }
+        parse();
+    }
+
+    private void parse() throws IOException {
+        if (data != null) {
+            return;
+        }
+        if (!(input instanceof ImageInputStream)) {
+            throw new IllegalStateException("No input set");
+        }
+        ImageInputStream stream = (ImageInputStream) input;
+        byte[] header = new byte[12];
+        stream.readFully(header);
+        if (!isWebP(header)) {
+            throw new IIOException("Not a WebP file");
+        }
+        long riffSize = readLittleEndian32(header, 4) & 0xFFFFFFFFL;
+        if (riffSize < 4 || riffSize > Integer.MAX_VALUE - 8) {
+            throw new IIOException("Bad RIFF size " + riffSize);
+        }
+        long streamLength = stream.length();
+        long fileSize = riffSize + 8;
+        if (streamLength >= 0 && streamLength < fileSize) {
+            fileSize = streamLength;
+        }
+        byte[] bytes = new byte[(int) fileSize];
+        System.arraycopy(header, 0, bytes, 0, header.length);
+        // Tolerate files whose RIFF size overstates the data that follows
+        int read = header.length;
+        while (read < bytes.length) {
+            int n = stream.read(bytes, read, bytes.length - read);
+            if (n < 0) {
+                break;
+            }
+            read += n;
+        }
+        parseChunks(bytes, read);
+        data = bytes;
+    }
+
+    private void parseChunks(byte[] bytes, int end) throws IOException {
+        boolean extended = false;
+        boolean alphaFlag = false;
+        alphaOffset = -1;
+        int position = 12;
+        while (position + 8 <= end) {
+            String fourCc = new String(bytes, position, 4, StandardCharsets.US_ASCII);
+            long size = readLittleEndian32(bytes, position + 4) & 0xFFFFFFFFL;
+            int payload = position + 8;
+            int length = (int) Math.min(size, end - payload);
+            switch (fourCc) {
+                case "VP8X":
+                    if (length < 10) {
+                        throw new IIOException("VP8X chunk is truncated");
+                    }
+                    int flags = bytes[payload] & 0xFF;
+                    if ((flags & VP8X_ANIMATION) != 0) {
+                        throw new IIOException("Animated WebP is not supported");
+                    }
+                    extended = true;
+                    alphaFlag = (flags & VP8X_ALPHA) != 0;
+                    width = readLittleEndian24(bytes, payload + 4) + 1;
+                    height = readLittleEndian24(bytes, payload + 7) + 1;
+                    break;
+                case "ALPH":
+                    alphaOffset = payload;
+                    alphaLength = length;
+                    break;
+                case "VP8 ": {
+                    int[] frameSize = Vp8Decoder.readSize(bytes, payload, length);
+                    setImage(false, payload, length, extended, frameSize[0], frameSize[1],
+                            alphaFlag && alphaOffset >= 0);
+                    return;
+                }
+                case "VP8L": {
+                    int[] header = Vp8lDecoder.readHeader(bytes, payload, length);
+                    setImage(true, payload, length, extended, header[0], header[1],
+                            extended ? alphaFlag : header[2] != 0);
+                    return;
+                }
+                default:
+                    // Metadata (ICCP, EXIF, XMP) and unknown chunks are skipped
+                    break;
+            }
+            position = payload + (int) ((size + 1) & ~1L);
+        }
+        throw new IIOException("WebP file has no image data");
+    }
+
+    private void setImage(boolean isLossless, int offset, int length, boolean extended, int frameWidth,
+                          int frameHeight, boolean alpha) throws IIOException {
+        if (extended && (frameWidth != width || frameHeight != height)) {
+            throw new IIOException("WebP frame size does not match the canvas");
+        }
+        lossless = isLossless;
+        imageOffset = offset;
+        imageLength = length;
+        width = frameWidth;
+        height = frameHeight;
+        hasAlpha = alpha;
+    }
+
+    private static void copyRegion(int[] pixels, int stride, Rectangle region, int xStep, int yStep, int[] out) {
+        int o = 0;
+        for (int y = region.y; y < region.y + region.height; y += yStep) {
+            int row = y * stride;
+            if (xStep == 1) {
+                System.arraycopy(pixels, row + region.x, out, o, region.width);
+                o += region.width;
+                continue;
+            }
+            for (int x = region.x; x < region.x + region.width; x += xStep) {
+                out[o++] = pixels[row + x];
+            }
+        }
+    }
+
+    private byte[] readAlpha() throws IOException {
+        if (alphaLength < 1) {
+            throw new IIOException("ALPH chunk is empty");
+        }
+        int header = data[alphaOffset] & 0xFF;
+        int compression = header & 3;
+        int filter = (header >> 2) & 3;
+        byte[] alpha = new byte[width * height];
+        if (compression == 0) {
+            if (alphaLength - 1 < alpha.length) {
+                throw new IIOException("ALPH chunk is truncated");
+            }
+            System.arraycopy(data, alphaOffset + 1, alpha, 0, alpha.length);
+        } else if (compression == 1) {
+            // Alpha values travel in the green channel of a headerless lossless stream
+            int[] pixels = Vp8lDecoder.decodeStream(data, alphaOffset + 1, alphaLength - 1, width, height);
+            for (int i = 0; i < alpha.length; i++) {
+                alpha[i] = (byte) (pixels[i] >> 8);
+            }
+        } else {
+            throw new IIOException("Unknown WebP alpha compression " + compression);
+        }
+        if (filter != 0) {
+            unfilterAlpha(alpha, width, height, filter);
+        }
+        return alpha;
+    }
+
+    // Inverts the horizontal (1), vertical (2) or gradient (3) alpha prediction. The first row is
+    // always predicted horizontally, and the first column of later rows from the pixel above.
+    private static void unfilterAlpha(byte[] alpha, int width, int height, int filter) {
+        for (int x = 1; x < width; x++) {
+            alpha[x] += alpha[x - 1];
+        }
+        for (int y = 1; y < height; y++) {
+            int row = y * width;
+            int above = row - width;
+            alpha[row] += alpha[above];
+            switch (filter) {
+                case 1:
+                    for (int x = 1; x < width; x++) {
+                        alpha[row + x] += alpha[row + x - 1];
+                    }
+                    break;
+                case 2:
+                    for (int x = 1; x < width; x++) {
+                        alpha[row + x] += alpha[above + x];
+                    }
+                    break;
+                default:
+                    for (int x = 1; x < width; x++) {
+                        int predicted = (alpha[row + x - 1] & 0xFF) + (alpha[above + x] & 0xFF)
+                                - (alpha[above + x - 1] & 0xFF);
+                        alpha[row + x] += (byte) (predicted < 0 ? 0 : Math.min(predicted, 255));
+                    }
+                    break;
+            }
+        }
+    }
+
+    private static void applyAlpha(byte[] alpha, int stride, Rectangle region, int xStep, int yStep, int[] out) {
+        int o = 0;
+        for (int y = region.y; y < region.y + region.height; y += yStep) {
+            for (int x = region.x; x < region.x + region.width; x += xStep) {
+                out[o] = (out[o] & 0x00FFFFFF) | ((alpha[y * stride + x] & 0xFF) << 24);
+                o++;
+            }
+        }
+    }
+
+    static boolean isWebP(byte[] header) {
+        return header.length >= 12
+                && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P';
+    }
+
+    private static int readLittleEndian32(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8)
+                | ((bytes[offset + 2] & 0xFF) << 16) | ((bytes[offset + 3] & 0xFF) << 24);
+    }
+
+    private static int readLittleEndian24(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8) | ((bytes[offset + 2] & 0xFF) << 16);
+    }
+}
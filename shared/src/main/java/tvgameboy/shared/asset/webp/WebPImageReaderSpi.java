@@ -0,0 +1,54 @@
+package tvgameboy.shared.asset.webp;
+
+import java.io.IOException;
+import java.util.Locale;
+import javax.imageio.ImageReader;
+import javax.imageio.spi.ImageReaderSpi;
+import javax.imageio.stream.ImageInputStream;
+
+// Registered through META-INF/services, so ImageIO.read picks up WebP once the
+// shared module is on the class path.
+public final class WebPImageReaderSpi extends ImageReaderSpi {
+    public WebPImageReaderSpi() {
+        super("TV GameBoy", "1.0",
+                new String[] {"webp", "WEBP"},
+                new String[] {"webp"},
+                new String[] {"image/webp"},
+                WebPImageReader.class.getName(),
+                new Class<?>[] {ImageInputStream.class},
+                null, false, null, null, null, null, false, null, null, null, null);
+    }
+
+    @Override
+    public boolean canDecodeInput(Object source) throws IOException {
+        if (!(source instanceof ImageInputStream)) {
+            return false;
+        }
+        ImageInputStream stream = (ImageInputStream) source;
+        byte[] header = new byte[12];
+        stream.mark();
+        try {
+            int read = 0;
+            while (read < header.length) {
+                int n = stream.read(header, read, header.length - read);
+                if (n < 0) {
+                    return false;
+                }
+                read += n;
+            }
+        } finally {
+            stream.reset();
+        }
+        return WebPImageReader.isWebP(header);
+    }
+
+    @Override
+    public ImageReader createReaderInstance(Object extension) {
+        return new WebPImageReader(this);
+    }
+
+    @Override
+    public String getDescription(Locale locale) {
+        return "WebP image reader";
+    }
+}
@@ -0,0 +1,94 @@
+package tvgameboy.shared.input;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.GridLayout;
+
+// D-pad focus movement across a container laid out by GridLayout. Moves skip
+// disabled or unfocusable cells in the chosen direction and stop at the edges.
+public final class GridFocus {
+    private GridFocus() {
+    }
+
+    // Moves focus from the grid's focused cell; returns false if there is nowhere to go.
+    public static boolean move(Container grid, InputAction direction) {
+        Component target = neighbour(grid, focusedCell(grid), direction);
+        return target != null && target.requestFocusInWindow();
+    }
+
+    public static boolean focusFirst(Container grid) {
+        for (Component cell : grid.getComponents()) {
+            if (canFocus(cell)) {
+                return cell.requestFocusInWindow();
+            }
+        }
+        return false;
+    }
+
+    // The next focusable cell from "from" in the given direction, or null.
+    public static Component neighbour(Container grid, Component from, InputAction direction) {
+        int index = indexOf(grid, from);
+        if (index < 0) {
+            return null;
+        }
+        int count = grid.getComponentCount();
+        int columns = columns(grid, count);
+        int dx = direction == InputAction.LEFT ? -1 : direction == InputAction.RIGHT ? 1 : 0;
+        int dy = direction == InputAction.UP ? -1 : direction == InputAction.DOWN ? 1 : 0;
+        if (dx == 0 && dy == 0) {
+            return null;
+        }
+        int column = index % columns + dx;
+        int row = index / columns + dy;
+        while (column >= 0 && column < columns && row >= 0) {
+            int next = row * columns + column;
+            if (next >= count) {
+                break;
+            }
+            Component cell = grid.getComponent(next);
+            if (canFocus(cell)) {
+                return cell;
+            }
+            column += dx;
+            row += dy;
+        }
+        return null;
+    }
+
+    private static Component focusedCell(Container grid) {
+        for (Component cell : grid.getComponents()) {
+            if (cell.isFocusOwner()) {
+                return cell;
+            }
+        }
+        return null;
+    }
+
+    private static int indexOf(Container grid, Component cell) {
+        if (cell == null) {
+            return -1;
+        }
+        for (int i = 0; i < grid.getComponentCount(); i++) {
+            if (grid.getComponent(i) == cell) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // GridLayout ignores the column count when a row count is set
+    private static int columns(Container grid, int count) {
+        if (grid.getLayout() instanceof GridLayout) {
+            GridLayout layout = (GridLayout) grid.getLayout();
+            if (layout.getRows() > 0) {
+                return Math.max(1, (count + layout.getRows() - 1) / layout.getRows());
+            }
+            return Math.max(1, layout.getColumns());
+        }
+        return Math.max(1, count);
+    }
+
+    private static boolean canFocus(Component cell) {
+        return cell.isVisible() && cell.isEnabled() && cell.isFocusable();
+    }
+}
@@ -0,0 +1,46 @@
+package tvgameboy.shared.input;
+
+import java.awt.event.KeyEvent;
+
+// The buttons a TV remote or D-pad has. Keyboards, remotes (which arrive as key
+// events from the TV's input driver) and gamepads in keyboard mode all map onto these.
+public enum InputAction {
+    UP(KeyEvent.VK_UP, KeyEvent.VK_KP_UP),
+    DOWN(KeyEvent.VK_DOWN, KeyEvent.VK_KP_DOWN),
+    LEFT(KeyEvent.VK_LEFT, KeyEvent.VK_KP_LEFT),
+    RIGHT(KeyEvent.VK_RIGHT, KeyEvent.VK_KP_RIGHT),
+    SELECT(KeyEvent.VK_ENTER, KeyEvent.VK_ACCEPT),
+    BACK(KeyEvent.VK_ESCAPE, KeyEvent.VK_BACK_SPACE);
+
+    private static final InputAction[] VALUES = values();
+
+    private final int[] keyCodes;
+
+    InputAction(int... keyCodes) {
+        this.keyCodes = keyCodes;
+    }
+
+    public int[] getKeyCodes() {
+        return keyCodes.clone();
+    }
+
+    // The action a key code stands for, or null for keys that are not remote buttons.
+    public static InputAction fromKeyCode(int keyCode) {
+        for (InputAction action : VALUES) {
+            for (int code : action.keyCodes) {
+                if (code == keyCode) {
+                    return action;
+                }
+            }
+        }
+        return null;
+    }
+
+    // KeyEvent.getWhen is wall-clock milliseconds from when the OS produced the event; the
+    // delay until now is taken off System.nanoTime so latency includes the time spent queued.
+    public static long eventNanos(KeyEvent event) {
+        long queuedMillis = System.currentTimeMillis() - event.getWhen();
+        long now = System.nanoTime();
+        return queuedMillis > 0 && queuedMillis < 1000 ? now - queuedMillis * 1_000_000L : now;
+    }
+}
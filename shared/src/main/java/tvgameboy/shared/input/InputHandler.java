@@ -0,0 +1,8 @@
+package tvgameboy.shared.input;
+
+// Receives drained input on the thread that drains the queue. timestampNanos is on the
+// System.nanoTime clock.
+@FunctionalInterface
+public interface InputHandler {
+    void onInput(InputAction action, boolean pressed, long timestampNanos);
+}
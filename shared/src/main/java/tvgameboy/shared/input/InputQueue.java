@@ -0,0 +1,155 @@
+package tvgameboy.shared.input;
+
+import java.awt.Toolkit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import tvgameboy.shared.metrics.Counter;
+import tvgameboy.shared.metrics.Histogram;
+import tvgameboy.shared.metrics.Metrics;
+
+// Single-producer, single-consumer ring of timestamped input. The launcher offers
+// from the EDT; the game drains on its own thread (the loop thread for a LoopGame)
+// or on the EDT. Neither side locks or allocates, and a full queue drops new input.
+//
+// Input-to-photon latency: drained presses are held until the consumer reports that
+// the frame showing their effect was presented, then their age is recorded in the
+// input.latency histogram.
+public final class InputQueue {
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final String CLIENT_PROPERTY = InputQueue.class.getName();
+    private static final InputAction[] ACTIONS = InputAction.values();
+
+    private final byte[] actions;
+    private final boolean[] pressed;
+    private final long[] timestamps;
+    private final int mask;
+    // Next slot to read; written only by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // Next slot to write; written only by the producer
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Runnable wakeUp;
+    private final Counter dropped = Metrics.get().counter("input.dropped");
+    private final Histogram latency = Metrics.get().histogram("input.latency");
+    private final long[] unpresented;
+    private int unpresentedCount;
+    private volatile InputHandler observer;
+
+    public InputQueue() {
+        this(DEFAULT_CAPACITY, null);
+    }
+
+    // wakeUp runs on the producer when input arrives and no drain is pending yet
+    public InputQueue(int capacity, Runnable wakeUp) {
+        // A power of two, so slots are found by masking
+        int size = 2;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        actions = new byte[size];
+        pressed = new boolean[size];
+        timestamps = new long[size];
+        unpresented = new long[size];
+        mask = size - 1;
+        this.wakeUp = wakeUp;
+    }
+
+    // For Swing games: input is handed to handler on the EDT, and the frame counts as
+    // presented once the repaints the handler queued have been painted.
+    public static InputQueue drainingOnEdt(InputHandler handler) {
+        InputQueue[] queue = new InputQueue[1];
+        Runnable presented = () -> {
+            Toolkit.getDefaultToolkit().sync();
+            queue[0].framePresented();
+        };
+        Runnable drain = () -> {
+            if (queue[0].drain(handler) > 0) {
+                // Queued behind the repaints the handler scheduled
+                SwingUtilities.invokeLater(presented);
+            }
+        };
+        queue[0] = new InputQueue(DEFAULT_CAPACITY, () -> SwingUtilities.invokeLater(drain));
+        return queue[0];
+    }
+
+    // Marks view as the receiver of this queue, so the launcher routes remote input to it.
+    public void attachTo(JComponent view) {
+        view.putClientProperty(CLIENT_PROPERTY, this);
+    }
+
+    public static InputQueue of(JComponent view) {
+        Object queue = view == null ? null : view.getClientProperty(CLIENT_PROPERTY);
+        return queue instanceof InputQueue ? (InputQueue) queue : null;
+    }
+
+    // Sees every input on the consumer side just before the handler does, so it sees input in the
+    // order the game acts on it, as the launcher's input recorder needs; null removes it.
+    public void setObserver(InputHandler observer) {
+        this.observer = observer;
+    }
+
+    // Producer side. Returns false, counting the drop, when the consumer has fallen a full queue behind.
+    public boolean offer(InputAction action, boolean isPressed, long timestampNanos) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped.increment();
+            return false;
+        }
+        int slot = (int) t & mask;
+        actions[slot] = (byte) action.ordinal();
+        pressed[slot] = isPressed;
+        timestamps[slot] = timestampNanos;
+        // Publishes the slot to the consumer
+        tail.lazySet(t + 1);
+        if (wakeUp != null && drainScheduled.compareAndSet(false, true)) {
+            wakeUp.run();
+        }
+        return true;
+    }
+
+    // Consumer side. Hands every queued event to handler, oldest first, and returns how many there were.
+    public int drain(InputHandler handler) {
+        drainScheduled.set(false);
+        long h = head.get();
+        long t = tail.get();
+        InputHandler watcher = observer;
+        int count = 0;
+        for (; h < t; h++) {
+            int slot = (int) h & mask;
+            InputAction action = ACTIONS[actions[slot]];
+            boolean isPressed = pressed[slot];
+            long timestamp = timestamps[slot];
+            head.lazySet(h + 1);
+            if (isPressed && unpresentedCount < unpresented.length) {
+                unpresented[unpresentedCount++] = timestamp;
+            }
+            if (watcher != null) {
+                watcher.onInput(action, isPressed, timestamp);
+            }
+            handler.onInput(action, isPressed, timestamp);
+            count++;
+        }
+        return count;
+    }
+
+    // Consumer side, after the frame that reflects the drained input is on screen.
+    public void framePresented() {
+        if (unpresentedCount == 0) {
+            return;
+        }
+        if (Metrics.get().isEnabled()) {
+            long now = System.nanoTime();
+            for (int i = 0; i < unpresentedCount; i++) {
+                latency.record(now - unpresented[i]);
+            }
+        }
+        unpresentedCount = 0;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+}
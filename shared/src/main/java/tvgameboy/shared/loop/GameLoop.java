@@ -0,0 +1,264 @@
+package tvgameboy.shared.loop;
+
+import java.awt.BorderLayout;
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.DisplayMode;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import tvgameboy.shared.LoopGame;
+import tvgameboy.shared.input.InputHandler;
+import tvgameboy.shared.input.InputQueue;
+import tvgameboy.shared.metrics.Histogram;
+import tvgameboy.shared.metrics.Metrics;
+
+// Runs a LoopGame on a dedicated thread: fixed-timestep updates, then one
+// interpolated render per frame into a page-flipped BufferStrategy. The loop
+// starts when its canvas becomes displayable and stops when it is removed.
+// Queued input is drained into the game at the start of each frame. Each
+// LoopGame's loop is kept from attach to detach so its lifecycle callbacks
+// can pause, resume and stop it.
+public final class GameLoop {
+    public static final int DEFAULT_UPDATES_PER_SECOND = 60;
+
+    private static final int FALLBACK_REFRESH_RATE = 60;
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+    private static final int MAX_UPDATES_PER_FRAME = 10;
+    private static final Map<LoopGame, GameLoop> LOOPS = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final LoopGame game;
+    private final long stepNanos;
+    private final double stepSeconds;
+    private final LoopCanvas canvas = new LoopCanvas();
+    private final InputQueue input = new InputQueue();
+    private final InputHandler inputHandler;
+    private final Histogram frameTimes = Metrics.get().histogram("loop.frame");
+    private final LongSupplier clock;
+    private volatile Thread thread;
+    private volatile boolean running;
+    private volatile boolean paused;
+    private volatile long frames;
+    private volatile long updates;
+    // Only touched by the loop thread
+    private long previous;
+    private long accumulator;
+
+    public GameLoop(LoopGame game) {
+        this(game, System::nanoTime);
+    }
+
+    GameLoop(LoopGame game, LongSupplier clock) {
+        this.game = game;
+        this.clock = clock;
+        this.previous = clock.getAsLong();
+        int updatesPerSecond = Math.max(1, game.getUpdatesPerSecond());
+        this.stepNanos = 1_000_000_000L / updatesPerSecond;
+        this.stepSeconds = 1.0 / updatesPerSecond;
+        this.inputHandler = game::onInput;
+        canvas.setBackground(Color.BLACK);
+        canvas.setIgnoreRepaint(true);
+        canvas.setFocusable(true);
+    }
+
+    // Creates the loop for the game's view, replacing and stopping any earlier one
+    public static GameLoop attach(LoopGame game) {
+        GameLoop loop = new GameLoop(game);
+        GameLoop replaced = LOOPS.put(game, loop);
+        if (replaced != null) {
+            replaced.stop();
+        }
+        return loop;
+    }
+
+    public static GameLoop of(LoopGame game) {
+        return LOOPS.get(game);
+    }
+
+    public static void detach(LoopGame game) {
+        GameLoop loop = LOOPS.remove(game);
+        if (loop != null) {
+            loop.stop();
+        }
+    }
+
+    public JComponent createView() {
+        JPanel view = new JPanel(new BorderLayout());
+        view.add(canvas, BorderLayout.CENTER);
+        input.attachTo(view);
+        return view;
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    public InputQueue getInputQueue() {
+        return input;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        Thread loopThread = new Thread(this::run, "game-loop-" + game.getClass().getSimpleName());
+        loopThread.setDaemon(true);
+        thread = loopThread;
+        loopThread.start();
+    }
+
+    public void stop() {
+        Thread loopThread = requestStop();
+        if (loopThread != null && loopThread != Thread.currentThread()) {
+            try {
+                loopThread.join(1000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private synchronized Thread requestStop() {
+        running = false;
+        Thread loopThread = thread;
+        thread = null;
+        if (loopThread != null) {
+            LockSupport.unpark(loopThread);
+        }
+        return loopThread;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        Thread loopThread = thread;
+        if (!paused && loopThread != null) {
+            LockSupport.unpark(loopThread);
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getFrameCount() {
+        return frames;
+    }
+
+    public long getUpdateCount() {
+        return updates;
+    }
+
+    private void run() {
+        BufferStrategy strategy = canvas.getBufferStrategy();
+        long frameNanos = 1_000_000_000L / refreshRate(canvas.getGraphicsConfiguration());
+
+        previous = clock.getAsLong();
+        long lastFrameStart = 0;
+        // A quick stop/start pair hands over to a new thread; the old one must still exit
+        while (running && thread == Thread.currentThread()) {
+            if (paused) {
+                LockSupport.park(this);
+                previous = clock.getAsLong();
+                continue;
+            }
+
+            long frameStart = clock.getAsLong();
+            if (lastFrameStart != 0 && Metrics.get().isEnabled()) {
+                frameTimes.record(frameStart - lastFrameStart);
+            }
+            lastFrameStart = frameStart;
+            double interpolation = catchUp(frameStart);
+
+            try {
+                render(strategy, interpolation);
+            } catch (IllegalStateException ex) {
+                // The canvas lost its peer between the running check and the flip
+                if (running && thread == Thread.currentThread()) {
+                    throw ex;
+                }
+                break;
+            }
+            input.framePresented();
+            frames++;
+
+            long sleep = frameStart + frameNanos - clock.getAsLong();
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+        }
+    }
+
+    // Drains queued input and runs the updates that fell due by now; returns how far
+    // the game is into the next step, for the render to interpolate by
+    double catchUp(long now) {
+        // Clamp long stalls so the simulation does not spiral trying to catch up
+        accumulator += Math.min(MAX_FRAME_NANOS, now - previous);
+        previous = now;
+        input.drain(inputHandler);
+
+        int steps = 0;
+        while (accumulator >= stepNanos && steps < MAX_UPDATES_PER_FRAME) {
+            game.update(stepSeconds);
+            accumulator -= stepNanos;
+            updates++;
+            steps++;
+        }
+        if (steps == MAX_UPDATES_PER_FRAME) {
+            accumulator = 0;
+        }
+        return accumulator / (double) stepNanos;
+    }
+
+    private void render(BufferStrategy strategy, double interpolation) {
+        int width = canvas.getWidth();
+        int height = canvas.getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    game.render(g, width, height, interpolation);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    private static int refreshRate(GraphicsConfiguration config) {
+        if (config == null) {
+            return FALLBACK_REFRESH_RATE;
+        }
+        int rate = config.getDevice().getDisplayMode().getRefreshRate();
+        return rate == DisplayMode.REFRESH_RATE_UNKNOWN || rate <= 0 ? FALLBACK_REFRESH_RATE : rate;
+    }
+
+    private final class LoopCanvas extends Canvas {
+        @Override
+        public void addNotify() {
+            super.addNotify();
+            createBufferStrategy(2);
+            start();
+        }
+
+        @Override
+        public void removeNotify() {
+            // Only signal here: removeNotify holds the tree lock, so joining could deadlock
+            requestStop();
+            super.removeNotify();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package tvgameboy.shared.metrics;
+
+import java.util.Arrays;
+
+// Rolling window of the most recent samples (nanoseconds for timings). Recording
+// writes into a fixed ring and never allocates.
+public final class Histogram {
+    public static final int DEFAULT_WINDOW = 240;
+
+    private final String name;
+    private final long[] samples;
+    private int next;
+    private long count;
+
+    Histogram(String name, int window) {
+        this.name = name;
+        this.samples = new long[window];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized void record(long value) {
+        samples[next] = value;
+        next = (next + 1) % samples.length;
+        count++;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getLast() {
+        return count == 0 ? 0 : samples[(next - 1 + samples.length) % samples.length];
+    }
+
+    // Oldest first; at most the window size.
+    public synchronized long[] snapshot() {
+        int size = (int) Math.min(count, samples.length);
+        long[] copy = new long[size];
+        int start = (next - size + samples.length) % samples.length;
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples[(start + i) % samples.length];
+        }
+        return copy;
+    }
+
+    public long percentile(double fraction) {
+        long[] values = snapshot();
+        if (values.length == 0) {
+            return 0;
+        }
+        Arrays.sort(values);
+        int index = (int) Math.min(values.length - 1, Math.max(0, Math.ceil(fraction * values.length) - 1));
+        return values[index];
+    }
+
+    public long mean() {
+        long[] values = snapshot();
+        if (values.length == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+}
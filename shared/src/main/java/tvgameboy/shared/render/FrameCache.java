@@ -0,0 +1,138 @@
+package tvgameboy.shared.render;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import tvgameboy.shared.metrics.Counter;
+import tvgameboy.shared.metrics.Metrics;
+
+// Holds one pre-rendered frame keyed by (width, height, variant, source). A
+// repaint with an unchanged key is a single blit; anything else re-renders.
+// Frames live in a VolatileImage when a graphics configuration is available
+// and are re-rendered if the accelerated surface loses its contents. When
+// SurfaceType.get() names another type, or offscreen, they live in an image of it.
+// Hits and rebuilds are also published as frame.<name>.hits and .rebuilds.
+public final class FrameCache {
+    private static final int MAX_RESTORE_ATTEMPTS = 3;
+
+    private VolatileImage volatileFrame;
+    private BufferedImage bufferedFrame;
+    private int width;
+    private int height;
+    private int variant;
+    private Object source;
+    private long hits;
+    private long rebuilds;
+    private final Counter hitCount;
+    private final Counter rebuildCount;
+
+    public FrameCache(String name) {
+        hitCount = Metrics.get().counter("frame." + name + ".hits");
+        rebuildCount = Metrics.get().counter("frame." + name + ".rebuilds");
+    }
+
+    public void paint(Graphics g, GraphicsConfiguration config, int width, int height,
+                      int variant, Object source, FrameRenderer renderer) {
+        boolean keyChanged = width != this.width || height != this.height
+                || variant != this.variant || source != this.source;
+        if (keyChanged) {
+            invalidate();
+            this.width = width;
+            this.height = height;
+            this.variant = variant;
+            this.source = source;
+        }
+
+        if (config == null || SurfaceType.get() != SurfaceType.VOLATILE) {
+            paintBuffered(g, config, renderer);
+            return;
+        }
+
+        for (int attempt = 0; attempt < MAX_RESTORE_ATTEMPTS; attempt++) {
+            boolean render = false;
+            if (volatileFrame == null) {
+                volatileFrame = config.createCompatibleVolatileImage(width, height);
+                render = true;
+            } else {
+                int status = volatileFrame.validate(config);
+                if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                    volatileFrame.flush();
+                    volatileFrame = config.createCompatibleVolatileImage(width, height);
+                    render = true;
+                } else if (status == VolatileImage.IMAGE_RESTORED) {
+                    render = true;
+                }
+            }
+
+            if (render) {
+                render(volatileFrame, renderer);
+            } else {
+                hit();
+            }
+            g.drawImage(volatileFrame, 0, 0, null);
+            if (!volatileFrame.contentsLost()) {
+                return;
+            }
+        }
+    }
+
+    public void invalidate() {
+        if (volatileFrame != null) {
+            volatileFrame.flush();
+            volatileFrame = null;
+        }
+        if (bufferedFrame != null) {
+            bufferedFrame.flush();
+            bufferedFrame = null;
+        }
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getRebuilds() {
+        return rebuilds;
+    }
+
+    public void resetCounters() {
+        hits = 0;
+        rebuilds = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameCache[" + width + "x" + height + "/" + variant + ", hits=" + hits + ", rebuilds=" + rebuilds + "]";
+    }
+
+    private void paintBuffered(Graphics g, GraphicsConfiguration config, FrameRenderer renderer) {
+        if (bufferedFrame == null) {
+            bufferedFrame = config == null
+                    ? new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB)
+                    : SurfaceType.get().createImage(config, width, height);
+            render(bufferedFrame, renderer);
+        } else {
+            hit();
+        }
+        g.drawImage(bufferedFrame, 0, 0, null);
+    }
+
+    private void render(Image target, FrameRenderer renderer) {
+        Graphics2D g = (Graphics2D) target.getGraphics();
+        try {
+            renderer.renderFrame(g, width, height);
+        } finally {
+            g.dispose();
+        }
+        rebuilds++;
+        rebuildCount.increment();
+    }
+
+    private void hit() {
+        hits++;
+        hitCount.increment();
+    }
+}
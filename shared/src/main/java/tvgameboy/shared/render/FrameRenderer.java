@@ -0,0 +1,8 @@
+package tvgameboy.shared.render;
+
+import java.awt.Graphics2D;
+
+@FunctionalInterface
+public interface FrameRenderer {
+    void renderFrame(Graphics2D g, int width, int height);
+}
@@ -0,0 +1,249 @@
+package tvgameboy.shared.render;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Crops, block-averages and enlarges an image in one pass over int-packed
+// rasters: each output block is the mean colour of the source pixels it covers,
+// written straight into the destination rows. A block wider or taller than
+// MAX_SAMPLES pixels is averaged over an evenly spread MAX_SAMPLES lattice rather
+// than every pixel, so the cost follows the output size, not the crop size.
+// Frames with more than about a million pixels of work are split by block rows
+// across a fork-join pool.
+//
+// Sources that are not int-packed RGB have their crop copied once; the copy is
+// kept for the next call with the same image and crop. An instance reuses its
+// output and copy buffers, so it is not safe for concurrent use.
+//
+// Reading and writing the rasters directly stops Java2D from caching those
+// images in video memory; blit the result into a FrameCache or similar.
+public final class Pixelator {
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+    private static final int TASKS_PER_WORKER = 4;
+    private static final int MAX_SAMPLES = 8;
+
+    private final ForkJoinPool pool;
+    private BufferedImage output;
+    private BufferedImage copy;
+    private BufferedImage copiedFrom;
+    private final Rectangle copiedCrop = new Rectangle();
+
+    public Pixelator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public Pixelator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Pixelates crop of src to width x height with blocks of about blockSize pixels. The
+    // returned image belongs to this Pixelator and is overwritten by the next call of the same size.
+    public BufferedImage pixelate(BufferedImage src, Rectangle crop, int width, int height, int blockSize) {
+        if (output == null || output.getWidth() != width || output.getHeight() != height) {
+            output = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        int size = Math.max(1, blockSize);
+        pixelateInto(src, crop, Math.max(1, width / size), Math.max(1, height / size), output);
+        return output;
+    }
+
+    // Averages crop of src into a blocksWide x blocksHigh grid and fills dest with it, stretched
+    // the same way a nearest-neighbour drawImage would. dest must be TYPE_INT_RGB or TYPE_INT_ARGB.
+    public void pixelateInto(BufferedImage src, Rectangle crop, int blocksWide, int blocksHigh, BufferedImage dest) {
+        if (!isIntRgb(dest)) {
+            throw new IllegalArgumentException("Destination must be an int-packed RGB image: " + dest);
+        }
+        Rectangle area = crop.intersection(new Rectangle(0, 0, src.getWidth(), src.getHeight()));
+        if (area.isEmpty()) {
+            throw new IllegalArgumentException("Crop " + crop + " is outside the source image");
+        }
+        BufferedImage source = src;
+        if (!isIntRgb(src)) {
+            source = copyCrop(src, area);
+            area = new Rectangle(0, 0, area.width, area.height);
+        }
+
+        Frame frame = new Frame(source, area, Math.min(blocksWide, dest.getWidth()),
+                Math.min(blocksHigh, dest.getHeight()), dest);
+        long work = (long) frame.sampleColumns.length * Math.min(area.height, frame.blocksHigh * MAX_SAMPLES)
+                + (long) dest.getWidth() * dest.getHeight();
+        if (work < PARALLEL_THRESHOLD || pool.getParallelism() < 2) {
+            frame.renderBlockRows(0, frame.blocksHigh);
+        } else {
+            int grain = Math.max(1, frame.blocksHigh / (pool.getParallelism() * TASKS_PER_WORKER));
+            pool.invoke(new BlockRows(frame, 0, frame.blocksHigh, grain));
+        }
+    }
+
+    private BufferedImage copyCrop(BufferedImage src, Rectangle area) {
+        if (copy != null && copiedFrom == src && copiedCrop.equals(area)) {
+            return copy;
+        }
+        if (copy == null || copy.getWidth() != area.width || copy.getHeight() != area.height) {
+            copy = new BufferedImage(area.width, area.height, BufferedImage.TYPE_INT_RGB);
+        }
+        Graphics2D g = copy.createGraphics();
+        try {
+            g.drawImage(src, -area.x, -area.y, null);
+        } finally {
+            g.dispose();
+        }
+        copiedFrom = src;
+        copiedCrop.setBounds(area);
+        return copy;
+    }
+
+    private static boolean isIntRgb(BufferedImage image) {
+        int type = image.getType();
+        return type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB;
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    private static int stride(BufferedImage image) {
+        return ((SinglePixelPackedSampleModel) image.getRaster().getSampleModel()).getScanlineStride();
+    }
+
+    // Index of pixel (0, 0); sub-images share their parent's array at an offset
+    private static int origin(BufferedImage image) {
+        WritableRaster raster = image.getRaster();
+        return raster.getDataBuffer().getOffset()
+                - raster.getSampleModelTranslateY() * stride(image) - raster.getSampleModelTranslateX();
+    }
+
+    private static final class Frame {
+        private final int[] src;
+        private final int srcOrigin;
+        private final int srcStride;
+        private final int[] dst;
+        private final int dstOrigin;
+        private final int dstStride;
+        private final int cropY;
+        private final int cropHeight;
+        private final int outWidth;
+        private final int outHeight;
+        private final int blocksWide;
+        private final int blocksHigh;
+        // Source columns read for block bx: sampleColumns[sampleStart[bx]] up to sampleStart[bx + 1]
+        private final int[] sampleStart;
+        private final int[] sampleColumns;
+
+        Frame(BufferedImage source, Rectangle crop, int blocksWide, int blocksHigh, BufferedImage dest) {
+            this.src = pixels(source);
+            this.srcOrigin = origin(source);
+            this.srcStride = stride(source);
+            this.dst = pixels(dest);
+            this.dstOrigin = origin(dest);
+            this.dstStride = stride(dest);
+            this.cropY = crop.y;
+            this.cropHeight = crop.height;
+            this.outWidth = dest.getWidth();
+            this.outHeight = dest.getHeight();
+            this.blocksWide = blocksWide;
+            this.blocksHigh = blocksHigh;
+            this.sampleStart = new int[blocksWide + 1];
+            int[] columns = new int[blocksWide * MAX_SAMPLES];
+            int count = 0;
+            for (int bx = 0; bx < blocksWide; bx++) {
+                int left = crop.x + (int) ((long) bx * crop.width / blocksWide);
+                // A crop narrower than the grid repeats columns rather than leaving empty blocks
+                int right = Math.max(left + 1, crop.x + (int) ((long) (bx + 1) * crop.width / blocksWide));
+                sampleStart[bx] = count;
+                int samples = Math.min(right - left, MAX_SAMPLES);
+                for (int k = 0; k < samples; k++) {
+                    columns[count++] = left + sample(k, samples, right - left);
+                }
+            }
+            sampleStart[blocksWide] = count;
+            this.sampleColumns = Arrays.copyOf(columns, count);
+        }
+
+        // The k-th of n samples spread over span pixels, each in the middle of its share; every
+        // pixel when n == span
+        private static int sample(int k, int n, int span) {
+            return (int) ((2L * k + 1) * span / (2L * n));
+        }
+
+        void renderBlockRows(int from, int to) {
+            int[] red = new int[blocksWide];
+            int[] green = new int[blocksWide];
+            int[] blue = new int[blocksWide];
+            for (int by = from; by < to; by++) {
+                int outTop = (int) ((long) by * outHeight / blocksHigh);
+                int outBottom = (int) ((long) (by + 1) * outHeight / blocksHigh);
+                int rowTop = cropY + (int) ((long) by * cropHeight / blocksHigh);
+                int rowBottom = Math.max(rowTop + 1, cropY + (int) ((long) (by + 1) * cropHeight / blocksHigh));
+                int rows = Math.min(rowBottom - rowTop, MAX_SAMPLES);
+
+                Arrays.fill(red, 0);
+                Arrays.fill(green, 0);
+                Arrays.fill(blue, 0);
+                for (int k = 0; k < rows; k++) {
+                    int row = srcOrigin + (rowTop + sample(k, rows, rowBottom - rowTop)) * srcStride;
+                    for (int bx = 0; bx < blocksWide; bx++) {
+                        int r = 0;
+                        int g = 0;
+                        int b = 0;
+                        for (int i = sampleStart[bx], end = sampleStart[bx + 1]; i < end; i++) {
+                            int p = src[row + sampleColumns[i]];
+                            r += (p >> 16) & 0xFF;
+                            g += (p >> 8) & 0xFF;
+                            b += p & 0xFF;
+                        }
+                        red[bx] += r;
+                        green[bx] += g;
+                        blue[bx] += b;
+                    }
+                }
+
+                // Fill the first output row of the band block by block, then copy it down
+                int first = dstOrigin + outTop * dstStride;
+                for (int bx = 0; bx < blocksWide; bx++) {
+                    int count = rows * (sampleStart[bx + 1] - sampleStart[bx]);
+                    int half = count / 2;
+                    int colour = 0xFF000000 | ((red[bx] + half) / count) << 16
+                            | ((green[bx] + half) / count) << 8 | ((blue[bx] + half) / count);
+                    int left = (int) ((long) bx * outWidth / blocksWide);
+                    int right = (int) ((long) (bx + 1) * outWidth / blocksWide);
+                    Arrays.fill(dst, first + left, first + right, colour);
+                }
+                for (int y = outTop + 1; y < outBottom; y++) {
+                    System.arraycopy(dst, first, dst, dstOrigin + y * dstStride, outWidth);
+                }
+            }
+        }
+    }
+
+    private static final class BlockRows extends RecursiveAction {
+        private final Frame frame;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        BlockRows(Frame frame, int from, int to, int grain) {
+            this.frame = frame;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                frame.renderBlockRows(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BlockRows(frame, from, middle, grain), new BlockRows(frame, middle, to, grain));
+        }
+    }
+}
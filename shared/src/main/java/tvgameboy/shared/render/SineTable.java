@@ -0,0 +1,28 @@
+package tvgameboy.shared.render;
+
+// Fixed-point sine lookup: a full turn is SIZE steps, so callers can keep
+// phases as ints and wrap them with a mask instead of calling Math.sin.
+public final class SineTable {
+    public static final int BITS = 12;
+    public static final int SIZE = 1 << BITS;
+    public static final int MASK = SIZE - 1;
+
+    private static final float[] VALUES = new float[SIZE];
+
+    static {
+        for (int i = 0; i < SIZE; i++) {
+            VALUES[i] = (float) Math.sin(i * 2.0 * Math.PI / SIZE);
+        }
+    }
+
+    private SineTable() {
+    }
+
+    public static float sin(int step) {
+        return VALUES[step & MASK];
+    }
+
+    public static int toSteps(double radians) {
+        return (int) Math.round(radians * SIZE / (2.0 * Math.PI));
+    }
+}
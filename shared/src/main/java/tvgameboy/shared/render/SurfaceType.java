@@ -0,0 +1,64 @@
+package tvgameboy.shared.render;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+// The kind of image that pre-rendered frames and tile art are kept in between blits.
+// Which one blits fastest depends on the Java2D pipeline and the machine; the launcher
+// calibrates it at first start and sets it before anything is drawn. VOLATILE keeps
+// frames in accelerated VolatileImages, falling back to COMPATIBLE for art that must
+// outlive a lost surface.
+public enum SurfaceType {
+    VOLATILE,
+    COMPATIBLE,
+    INT_RGB,
+    INT_ARGB_PRE;
+
+    private static volatile SurfaceType current = VOLATILE;
+
+    public static SurfaceType get() {
+        return current;
+    }
+
+    public static void set(SurfaceType type) {
+        current = type;
+    }
+
+    // An opaque image of this type, to render into and then blit. config may be null offscreen.
+    public BufferedImage createImage(GraphicsConfiguration config, int width, int height) {
+        switch (this) {
+            case INT_RGB:
+                return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            case INT_ARGB_PRE:
+                return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+            default:
+                GraphicsConfiguration target = config != null ? config : defaultConfiguration();
+                return target == null
+                        ? new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB)
+                        : target.createCompatibleImage(width, height, Transparency.OPAQUE);
+        }
+    }
+
+    // Copies an opaque image into a fresh one of this type. Images whose rasters were written
+    // directly are never cached by the pipeline, so art built that way should be copied once.
+    public BufferedImage copy(BufferedImage image, GraphicsConfiguration config) {
+        BufferedImage copy = createImage(config, image.getWidth(), image.getHeight());
+        Graphics2D g = copy.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return copy;
+    }
+
+    private static GraphicsConfiguration defaultConfiguration() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return null;
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+}
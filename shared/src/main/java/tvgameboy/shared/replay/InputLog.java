@@ -0,0 +1,22 @@
+package tvgameboy.shared.replay;
+
+// The input log format, shared by InputRecorder and InputLogReader. All numbers are
+// big-endian.
+//
+//   header: int magic "TVGR", byte version, long seed, long start (epoch millis)
+//   record: byte type (LogEvent ordinal), varint microseconds since the previous record,
+//           then for OPEN a varint length and that many UTF-8 bytes of screen id, for
+//           INPUT one byte: the InputAction ordinal, plus 0x80 for a press, and for TICK
+//           a varint timer number
+//
+// Varints are unsigned LEB128, so most records take two or three bytes.
+final class InputLog {
+    static final int MAGIC = 0x54564752;
+    static final byte VERSION = 2;
+    static final int HEADER_BYTES = 4 + 1 + 8 + 8;
+    static final int MAX_SCREEN_ID_BYTES = 256;
+    static final int PRESSED_BIT = 0x80;
+
+    private InputLog() {
+    }
+}
@@ -0,0 +1,143 @@
+package tvgameboy.shared.replay;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import tvgameboy.shared.input.InputAction;
+
+// Reads an input log through a read-only memory mapping, one record at a time. The
+// current record's fields are exposed through getters, so stepping through a log
+// allocates nothing except the screen id of an OPEN record.
+public final class InputLogReader {
+    private static final LogEvent[] EVENTS = LogEvent.values();
+    private static final InputAction[] ACTIONS = InputAction.values();
+
+    private final MappedByteBuffer buffer;
+    private final long seed;
+    private final long startEpochMillis;
+    private LogEvent event;
+    private long timeNanos;
+    private String screenId;
+    private InputAction action;
+    private boolean pressed;
+    private int timerId;
+
+    public InputLogReader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < InputLog.HEADER_BYTES || buffer.getInt() != InputLog.MAGIC) {
+            throw new IOException("Not an input log: " + path);
+        }
+        byte version = buffer.get();
+        if (version != InputLog.VERSION) {
+            throw new IOException("Unsupported input log version " + version + ": " + path);
+        }
+        seed = buffer.getLong();
+        startEpochMillis = buffer.getLong();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    // Moves to the next record. Returns false at the end of the log, including a last
+    // record cut short by a crash while recording.
+    public boolean next() throws IOException {
+        if (!buffer.hasRemaining()) {
+            return false;
+        }
+        int start = buffer.position();
+        try {
+            int type = buffer.get() & 0xFF;
+            if (type >= EVENTS.length) {
+                throw new IOException("Unknown input log record type " + type + " at byte " + start);
+            }
+            long micros = getVarint();
+            LogEvent next = EVENTS[type];
+            switch (next) {
+                case OPEN:
+                    int length = (int) getVarint();
+                    if (length > InputLog.MAX_SCREEN_ID_BYTES) {
+                        throw new IOException("Bad screen id length " + length + " at byte " + start);
+                    }
+                    byte[] id = new byte[length];
+                    buffer.get(id);
+                    screenId = new String(id, StandardCharsets.UTF_8);
+                    break;
+                case INPUT:
+                    int value = buffer.get() & 0xFF;
+                    int ordinal = value & ~InputLog.PRESSED_BIT;
+                    if (ordinal >= ACTIONS.length) {
+                        throw new IOException("Unknown input action " + ordinal + " at byte " + start);
+                    }
+                    action = ACTIONS[ordinal];
+                    pressed = (value & InputLog.PRESSED_BIT) != 0;
+                    break;
+                case TICK:
+                    long number = getVarint();
+                    if (number > Integer.MAX_VALUE) {
+                        throw new IOException("Bad timer number " + number + " at byte " + start);
+                    }
+                    timerId = (int) number;
+                    break;
+                default:
+                    break;
+            }
+            event = next;
+            timeNanos += micros * 1000;
+            return true;
+        } catch (BufferUnderflowException truncated) {
+            buffer.position(buffer.limit());
+            return false;
+        }
+    }
+
+    public LogEvent getEvent() {
+        return event;
+    }
+
+    // Time of the current record since recording started
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    // The last OPEN record's screen id
+    public String getScreenId() {
+        return screenId;
+    }
+
+    public InputAction getAction() {
+        return action;
+    }
+
+    public boolean isPressed() {
+        return pressed;
+    }
+
+    // The timer that fired, for a TICK record
+    public int getTimerId() {
+        return timerId;
+    }
+
+    private long getVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint at byte " + buffer.position());
+    }
+}
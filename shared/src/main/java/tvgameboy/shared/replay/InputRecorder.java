@@ -0,0 +1,121 @@
+package tvgameboy.shared.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import tvgameboy.shared.input.InputAction;
+
+// Appends a play session to an input log (see InputLog for the format). Records go
+// into a fixed buffer that is written out when it fills, on every return to the menu
+// and on close, so a session costs a few bytes per event and no allocation.
+public final class InputRecorder implements Closeable {
+    private static final int BUFFER_BYTES = 8192;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final long seed;
+    private long lastNanos;
+    private boolean closed;
+
+    // Starts a new log at path, replacing any file there. seed is stored for the replay
+    // to hand back to the games.
+    public InputRecorder(Path path, long seed) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.seed = seed;
+        this.lastNanos = System.nanoTime();
+        buffer.putInt(InputLog.MAGIC).put(InputLog.VERSION).putLong(seed).putLong(System.currentTimeMillis());
+        flush();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public synchronized void open(String screenId) throws IOException {
+        byte[] id = screenId.getBytes(StandardCharsets.UTF_8);
+        if (id.length > InputLog.MAX_SCREEN_ID_BYTES) {
+            throw new IllegalArgumentException("Screen id too long: " + screenId);
+        }
+        begin(LogEvent.OPEN, 5 + id.length);
+        putVarint(id.length);
+        buffer.put(id);
+    }
+
+    public synchronized void menu() throws IOException {
+        begin(LogEvent.MENU, 0);
+        flush();
+    }
+
+    public synchronized void input(InputAction action, boolean pressed) throws IOException {
+        begin(LogEvent.INPUT, 1);
+        buffer.put((byte) (action.ordinal() | (pressed ? InputLog.PRESSED_BIT : 0)));
+    }
+
+    public synchronized void tick(int timerId) throws IOException {
+        begin(LogEvent.TICK, 5);
+        putVarint(timerId);
+    }
+
+    public synchronized void pause() throws IOException {
+        begin(LogEvent.PAUSE, 0);
+    }
+
+    public synchronized void resume() throws IOException {
+        begin(LogEvent.RESUME, 0);
+    }
+
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void begin(LogEvent event, int payloadBytes) throws IOException {
+        if (closed) {
+            throw new IOException("Input log is closed");
+        }
+        // Type byte, then at most ten bytes of varint
+        if (buffer.remaining() < 11 + payloadBytes) {
+            flush();
+        }
+        long now = System.nanoTime();
+        long micros = Math.max(0, (now - lastNanos) / 1000);
+        // Advance by whole microseconds so rounding never accumulates
+        lastNanos += micros * 1000;
+        buffer.put((byte) event.ordinal());
+        putVarint(micros);
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
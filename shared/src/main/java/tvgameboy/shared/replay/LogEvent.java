@@ -0,0 +1,18 @@
+package tvgameboy.shared.replay;
+
+// What a record in an input log stands for. The ordinal is the record's type byte,
+// so new kinds of record go at the end.
+public enum LogEvent {
+    // A menu tile was picked; carries the screen id, a game id or "raft"
+    OPEN,
+    // The player went back to the menu
+    MENU,
+    // The open game took a remote, D-pad or button input from its InputQueue
+    INPUT,
+    // One of the open game's timers fired; carries the timer's number in its GameTimers
+    TICK,
+    // The open game was paused, as when the window is iconified
+    PAUSE,
+    // The open game was resumed
+    RESUME
+}
@@ -0,0 +1,101 @@
+package tvgameboy.shared.snapshot;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Decodes what a SnapshotWriter wrote, in the same order. Running past the end or
+// meeting a malformed value throws IOException, so a damaged snapshot is rejected
+// instead of restoring half a game.
+public final class SnapshotReader {
+    private final byte[] bytes;
+    private final int limit;
+    private int position;
+
+    public SnapshotReader(byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    public SnapshotReader(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int getByte() throws IOException {
+        need(1);
+        return bytes[position++] & 0xFF;
+    }
+
+    public boolean getBoolean() throws IOException {
+        int value = getByte();
+        if (value > 1) {
+            throw new IOException("Bad boolean " + value + " at byte " + (position - 1));
+        }
+        return value == 1;
+    }
+
+    public int getInt() throws IOException {
+        need(4);
+        int value = (bytes[position] & 0xFF) << 24 | (bytes[position + 1] & 0xFF) << 16
+                | (bytes[position + 2] & 0xFF) << 8 | (bytes[position + 3] & 0xFF);
+        position += 4;
+        return value;
+    }
+
+    public long getLong() throws IOException {
+        return (long) getInt() << 32 | (getInt() & 0xFFFFFFFFL);
+    }
+
+    public long getVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = getByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                // Varints are unsigned; only damage sets the top bit
+                if (value < 0) {
+                    throw new IOException("Varint out of range at byte " + position);
+                }
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint at byte " + position);
+    }
+
+    // A varint that must fit in [0, max]
+    public int getVarint(int max) throws IOException {
+        long value = getVarint();
+        if (value < 0 || value > max) {
+            throw new IOException("Value " + value + " outside [0, " + max + "] at byte " + position);
+        }
+        return (int) value;
+    }
+
+    public String getString() throws IOException {
+        int length = getVarint(remaining());
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public byte[] getBytes(int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("Negative length " + length + " at byte " + position);
+        }
+        need(length);
+        byte[] value = Arrays.copyOfRange(bytes, position, position + length);
+        position += length;
+        return value;
+    }
+
+    public int remaining() {
+        return limit - position;
+    }
+
+    private void need(int count) throws IOException {
+        if (limit - position < count) {
+            throw new IOException("Snapshot truncated at byte " + position);
+        }
+    }
+}
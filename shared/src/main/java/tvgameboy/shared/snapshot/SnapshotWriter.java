@@ -0,0 +1,89 @@
+package tvgameboy.shared.snapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Encodes a game's state into a compact byte array. Fixed-width numbers are
+// big-endian; counts and small non-negative numbers should use putVarint (unsigned
+// LEB128). Games write a format version first and check it when reading back.
+//
+// The writer is reused: reset() keeps the buffer, which is sized up front and only
+// grows when a snapshot outgrows it, so steady-state encoding allocates nothing but
+// the array returned by toByteArray.
+public final class SnapshotWriter {
+    private byte[] buffer;
+    private int size;
+
+    public SnapshotWriter(int initialCapacity) {
+        buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public SnapshotWriter reset() {
+        size = 0;
+        return this;
+    }
+
+    public SnapshotWriter putByte(int value) {
+        ensure(1);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    public SnapshotWriter putBoolean(boolean value) {
+        return putByte(value ? 1 : 0);
+    }
+
+    public SnapshotWriter putInt(int value) {
+        ensure(4);
+        buffer[size++] = (byte) (value >>> 24);
+        buffer[size++] = (byte) (value >>> 16);
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    public SnapshotWriter putLong(long value) {
+        putInt((int) (value >>> 32));
+        return putInt((int) value);
+    }
+
+    public SnapshotWriter putVarint(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Varints are unsigned: " + value);
+        }
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    public SnapshotWriter putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarint(bytes.length);
+        return putBytes(bytes, 0, bytes.length);
+    }
+
+    public SnapshotWriter putBytes(byte[] bytes, int offset, int length) {
+        ensure(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensure(int bytes) {
+        if (size + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package tvgameboy.shared.theme;
+
+// What a colour is for. Themes give every role a colour; code asks for the role.
+public enum ColorRole {
+    BACKGROUND,
+    TEXT,
+    TEXT_MUTED,
+    DISABLED_TEXT,
+    ACCENT,
+    ACCENT_RAISED,
+    ACCENT_BRIGHT,
+    ACCENT_DARK,
+    FOCUS,
+    // Backdrop of game scenes; changes between the day and night themes
+    SKY,
+    // The raft in the foreground of the raft screen: deck planks, the gaps between them, and rope
+    PLANK,
+    PLANK_GAP,
+    ROPE
+}
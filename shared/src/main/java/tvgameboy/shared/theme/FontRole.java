@@ -0,0 +1,87 @@
+package tvgameboy.shared.theme;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import javax.swing.UIDefaults;
+import javax.swing.UIManager;
+
+// The launcher's fonts, created once per process. Games take fonts from here rather
+// than constructing their own, so they get the instances whose glyphs and metrics the
+// launcher warmed up at startup.
+public enum FontRole {
+    HEADING("Segoe UI", Font.BOLD, 18),
+    BUTTON("Segoe UI", Font.BOLD, 16),
+    TITLE("Segoe UI", Font.BOLD, 14),
+    CAPTION("Segoe UI", Font.BOLD, 12),
+    BODY_LARGE("Segoe UI", Font.PLAIN, 18),
+    BODY("Segoe UI", Font.PLAIN, 14),
+    BODY_SMALL("Segoe UI", Font.PLAIN, 12),
+    DISPLAY("Comic Sans MS", Font.BOLD, 18),
+    MONOSPACED(Font.MONOSPACED, Font.PLAIN, 12);
+
+    private static final String WARM_UP_SAMPLE =
+            "TV GameBoy Cast Fish caught: 0123456789 Day Night Waiting... Catch";
+    // Guarded by the class: Graphics objects are not thread-safe
+    private static Graphics2D scratch;
+
+    private final Font font;
+    private volatile FontMetrics metrics;
+
+    FontRole(String family, int style, int size) {
+        this.font = new Font(family, style, size);
+    }
+
+    public Font font() {
+        return font;
+    }
+
+    // Metrics for an unscaled context with the look and feel's text hints; computed on first use and kept.
+    public FontMetrics metrics() {
+        FontMetrics cached = metrics;
+        if (cached == null) {
+            synchronized (FontRole.class) {
+                cached = metrics;
+                if (cached == null) {
+                    cached = scratch().getFontMetrics(font);
+                    metrics = cached;
+                }
+            }
+        }
+        return cached;
+    }
+
+    // Loads every role's font and renders a sample with it so the glyph cache is filled
+    // before the first screen needs it. Call after the look and feel is installed, since
+    // the glyphs are cached per text hint. Safe to call off the EDT.
+    public static void warmUp() {
+        synchronized (FontRole.class) {
+            Graphics2D g = scratch();
+            for (FontRole role : values()) {
+                g.setFont(role.font);
+                role.metrics().stringWidth(WARM_UP_SAMPLE);
+                g.drawString(WARM_UP_SAMPLE, 0, 0);
+            }
+        }
+    }
+
+    // Opaque like the screen, since LCD text falls back to greyscale on a translucent image, and
+    // with the text hints that JComponent.setUI gives every label and button
+    private static Graphics2D scratch() {
+        if (scratch == null) {
+            scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+            UIDefaults defaults = UIManager.getDefaults();
+            Object antialiasing = defaults.get(RenderingHints.KEY_TEXT_ANTIALIASING);
+            Object contrast = defaults.get(RenderingHints.KEY_TEXT_LCD_CONTRAST);
+            if (antialiasing != null) {
+                scratch.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, antialiasing);
+            }
+            if (contrast != null) {
+                scratch.setRenderingHint(RenderingHints.KEY_TEXT_LCD_CONTRAST, contrast);
+            }
+        }
+        return scratch;
+    }
+}
@@ -0,0 +1,114 @@
+package tvgameboy.shared.theme;
+
+import java.awt.Color;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// An immutable palette: one colour per ColorRole. Themes are built once, and colours
+// are interned, so equal colours are the same instance across every theme. Switching
+// theme is a reference swap and role lookups index an array, so neither allocates.
+public final class Theme {
+    private static final Map<Integer, Color> INTERNED = new ConcurrentHashMap<>();
+
+    public static final Theme DARK = new Builder("dark")
+            .set(ColorRole.BACKGROUND, 10, 12, 14)
+            .set(ColorRole.TEXT, 245, 246, 248)
+            .set(ColorRole.TEXT_MUTED, 190, 195, 202)
+            .set(ColorRole.DISABLED_TEXT, 112, 160, 84)
+            .set(ColorRole.ACCENT, 0, 100, 0)
+            .set(ColorRole.ACCENT_RAISED, 0, 114, 0)
+            .set(ColorRole.ACCENT_BRIGHT, 0, 128, 0)
+            .set(ColorRole.ACCENT_DARK, 0, 75, 35)
+            .set(ColorRole.FOCUS, 56, 176, 0)
+            .set(ColorRole.SKY, 10, 12, 14)
+            .set(ColorRole.PLANK, 102, 66, 40)
+            .set(ColorRole.PLANK_GAP, 80, 48, 28)
+            .set(ColorRole.ROPE, 60, 40, 20)
+            .build();
+    public static final Theme DAY = new Builder("day", DARK).set(ColorRole.SKY, 120, 168, 255).build();
+    public static final Theme NIGHT = new Builder("night", DARK).set(ColorRole.SKY, 10, 12, 40).build();
+
+    // Nimbus keys the launcher's look and feel takes from the theme
+    private static final Object[][] NIMBUS_KEYS = {
+            {"control", ColorRole.BACKGROUND},
+            {"info", ColorRole.BACKGROUND},
+            {"nimbusBase", ColorRole.ACCENT},
+            {"nimbusAlertYellow", ColorRole.TEXT},
+            {"nimbusDisabledText", ColorRole.DISABLED_TEXT},
+            {"nimbusFocus", ColorRole.FOCUS},
+            {"nimbusLightBackground", ColorRole.BACKGROUND},
+            {"nimbusSelectionBackground", ColorRole.ACCENT_BRIGHT},
+            {"nimbusSelectedText", ColorRole.TEXT},
+            {"text", ColorRole.TEXT},
+            {"Panel.background", ColorRole.BACKGROUND},
+            {"Button.background", ColorRole.ACCENT},
+            {"Button.foreground", ColorRole.TEXT},
+            {"Label.foreground", ColorRole.TEXT}
+    };
+
+    private final String name;
+    private final Color[] colors;
+
+    private Theme(String name, Color[] colors) {
+        this.name = name;
+        this.colors = colors;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Color color(ColorRole role) {
+        return colors[role.ordinal()];
+    }
+
+    // UIManager keys and values for the Nimbus look and feel, in a stable order.
+    public Map<String, Color> nimbusDefaults() {
+        Map<String, Color> defaults = new LinkedHashMap<>();
+        for (Object[] key : NIMBUS_KEYS) {
+            defaults.put((String) key[0], color((ColorRole) key[1]));
+        }
+        return defaults;
+    }
+
+    // The shared instance for an opaque colour.
+    public static Color rgb(int red, int green, int blue) {
+        int value = 0xFF000000 | (red & 0xFF) << 16 | (green & 0xFF) << 8 | (blue & 0xFF);
+        return INTERNED.computeIfAbsent(value, Color::new);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static final class Builder {
+        private final String name;
+        private final Color[] colors;
+
+        Builder(String name) {
+            this.name = name;
+            this.colors = new Color[ColorRole.values().length];
+        }
+
+        Builder(String name, Theme base) {
+            this.name = name;
+            this.colors = base.colors.clone();
+        }
+
+        Builder set(ColorRole role, int red, int green, int blue) {
+            colors[role.ordinal()] = rgb(red, green, blue);
+            return this;
+        }
+
+        Theme build() {
+            for (ColorRole role : ColorRole.values()) {
+                if (colors[role.ordinal()] == null) {
+                    throw new IllegalStateException("Theme " + name + " has no colour for " + role);
+                }
+            }
+            return new Theme(name, colors);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package tvgameboy.shared;
+
+import javax.swing.Timer;
+
+// The running count the launcher audits after dispose: zero once stopAll has run, and
+// still counting a timer the game restarts or creates afterwards.
+final class GameTimersTest {
+    public static void main(String[] args) {
+        GameTimers.setManualClock(true);
+        GameTimers timers = new GameTimers();
+        int[] fired = new int[1];
+        Timer tick = timers.create(100, event -> fired[0]++);
+        Timer once = timers.create(250, null);
+        once.setRepeats(false);
+        tick.start();
+        once.start();
+        check(timers.getRunningCount() == 2, "two timers running");
+
+        timers.advance(300);
+        check(fired[0] == 3, "tick fired 3 times, got " + fired[0]);
+        check(timers.getRunningCount() == 1, "one-shot left the group after firing");
+
+        check(timers.stopAll() == 0, "every timer stopped");
+        check(timers.getRunningCount() == 0, "nothing running after stopAll");
+
+        tick.start();
+        check(timers.getRunningCount() == 1, "timer restarted after stopAll is counted");
+        timers.create(50, null).start();
+        check(timers.getRunningCount() == 2, "timer created after stopAll is counted");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package tvgameboy.shared.asset;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+
+// Writes a bundle with a full-size raster, a large image kept encoded beside rasters scaled
+// to the sizes drawn, and a raw file; reads each back. Then finds the bundle inside a jar,
+// which copies it out to the cache directory once and maps that copy from then on.
+final class AssetBundleTest {
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("asset-bundle-test");
+        try {
+            Path bundle = writeBundle(dir);
+            readsEntries(AssetBundle.open(bundle));
+            findsInJar(dir, bundle);
+        } finally {
+            try (Stream<Path> walk = Files.walk(dir)) {
+                walk.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static Path writeBundle(Path dir) throws IOException {
+        Path assets = dir.resolve("assets");
+        Files.createDirectories(assets.resolve("icons"));
+        writePng(assets.resolve("icons/small.png"), 4, 3);
+        writePng(assets.resolve("icons/logo.png"), 300, 200);
+        Files.writeString(assets.resolve("notes.txt"), "hello");
+        Path bundle = dir.resolve("test.assets");
+        AssetBundleWriter.main(new String[] {bundle.toString(), assets.toString(),
+                "icons/small.png", "icons/logo.png@18x18,48x32"});
+        return bundle;
+    }
+
+    private static void readsEntries(AssetBundle bundle) throws IOException {
+        check(bundle.getNames().size() == 5, "five entries, got " + bundle.getNames());
+        checkSize(bundle.getImage("icons/small.png"), 4, 3, "full-size raster");
+        check(bundle.getBytes("icons/small.png").remaining() == 4 * 3 * 4, "full-size raster is stored as pixels");
+
+        // The large image stays encoded; only its scaled copies are pixels
+        byte[] encoded = bundle.readBytes("icons/logo.png");
+        check(encoded.length < 300 * 200 * 4, "large image kept encoded");
+        checkSize(bundle.getImage("icons/logo.png"), 300, 200, "encoded image");
+        BufferedImage title = bundle.getImage(AssetBundle.scaledName("icons/logo.png", 18, 18));
+        checkSize(title, 18, 18, "title icon");
+        checkSize(bundle.getImage(AssetBundle.scaledName("/icons/logo.png", 48, 32)), 48, 32, "window icon");
+        check(bundle.getImage(AssetBundle.scaledName("icons/logo.png", 64, 64)) == null, "no size that was not asked for");
+        check((title.getRGB(9, 9) & 0xFFFFFF) == 0xFF8000, "scaled pixels keep the colour");
+
+        check("hello".equals(new String(bundle.readBytes("notes.txt"))), "raw entry");
+    }
+
+    private static void findsInJar(Path dir, Path bundle) throws IOException {
+        // Away from the bundle file, which find would take for one installed next to the jar
+        Path jar = Files.createDirectories(dir.resolve("plugins")).resolve("game.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry(AssetBundle.RESOURCE_DIR + "test" + AssetBundle.EXTENSION));
+            Files.copy(bundle, out);
+            out.closeEntry();
+        }
+        Path cache = dir.resolve("cache");
+        System.setProperty("tvgameboy.cache.dir", cache.toString());
+
+        readsEntries(AssetBundle.find(jar, "test"));
+        List<Path> extracted = list(cache.resolve("bundles"));
+        check(extracted.size() == 1, "bundle copied out once, got " + extracted);
+        check(Files.size(extracted.get(0)) == Files.size(bundle), "copy is the whole bundle");
+
+        long modified = Files.getLastModifiedTime(extracted.get(0)).toMillis();
+        readsEntries(AssetBundle.find(jar, "test"));
+        check(list(cache.resolve("bundles")).equals(extracted)
+                && Files.getLastModifiedTime(extracted.get(0)).toMillis() == modified, "second find maps the same copy");
+        check(AssetBundle.find(jar, "missing") == null, "no bundle of another name");
+    }
+
+    private static List<Path> list(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static void writePng(Path file, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, 0xFFFF8000);
+            }
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            ImageIO.write(image, "png", out);
+        }
+    }
+
+    private static void checkSize(BufferedImage image, int width, int height, String what) {
+        check(image != null, what + ": no image");
+        check(image.getWidth() == width && image.getHeight() == height,
+                what + ": expected " + width + "x" + height + ", got " + image.getWidth() + "x" + image.getHeight());
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
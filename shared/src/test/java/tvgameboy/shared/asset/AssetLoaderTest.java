@@ -0,0 +1,105 @@
+package tvgameboy.shared.asset;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+
+// Loads file: URLs through AssetLoader: a fetch that lands in the disk cache, a later load
+// served from the cache alone, the bundled WebP fallback with and without a retry, and
+// the bound on cached regions.
+final class AssetLoaderTest {
+    private static final String FALLBACK = "/tvgameboy/shared/asset/webp/lossy-alpha-37x23.webp";
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("asset-loader-test");
+        try {
+            fetchesThenHitsDiskCache(dir);
+            keepsFallbackUntilRetry(dir);
+            keepsRecentRegions(dir);
+        } finally {
+            try (Stream<Path> walk = Files.walk(dir)) {
+                walk.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static void fetchesThenHitsDiskCache(Path dir) throws Exception {
+        Path art = dir.resolve("art.png");
+        writePng(art, 5, 3);
+        DiskCache cache = new DiskCache(dir.resolve("cache"));
+        ImageAsset asset = new ImageAsset(art.toUri().toString(), FALLBACK);
+
+        AssetLoader first = new AssetLoader(cache, 1);
+        checkSize(load(first, asset), 5, 3, "fetched image");
+        check(cache.contains(asset.getLocation()), "fetched bytes are in the disk cache");
+        check(first.getIfLoaded(asset) != null, "fetched image is in memory");
+        first.shutdown();
+
+        // With the source gone only the disk cache can answer
+        Files.delete(art);
+        AssetLoader second = new AssetLoader(cache, 1);
+        checkSize(load(second, asset), 5, 3, "disk cache hit");
+        second.shutdown();
+    }
+
+    private static void keepsFallbackUntilRetry(Path dir) throws Exception {
+        Path art = dir.resolve("late.png");
+        ImageAsset asset = new ImageAsset(art.toUri().toString(), FALLBACK);
+        AssetLoader patient = new AssetLoader(new DiskCache(dir.resolve("patient")), 1);
+        AssetLoader eager = new AssetLoader(new DiskCache(dir.resolve("eager")), 1, 0);
+
+        checkSize(load(patient, asset), 37, 23, "fallback before the source exists");
+        checkSize(load(eager, asset), 37, 23, "fallback before the source exists, no retry delay");
+
+        writePng(art, 5, 3);
+        checkSize(load(patient, asset), 37, 23, "fallback kept within the retry interval");
+        checkSize(load(eager, asset), 5, 3, "source picked up once the retry interval passed");
+        checkSize(load(eager, asset), 5, 3, "source kept once loaded");
+        patient.shutdown();
+        eager.shutdown();
+    }
+
+    private static void keepsRecentRegions(Path dir) throws Exception {
+        Path art = dir.resolve("regions.png");
+        writePng(art, 64, 48);
+        ImageAsset asset = new ImageAsset(art.toUri().toString());
+        AssetLoader loader = new AssetLoader(new DiskCache(dir.resolve("regions")), 1);
+        ImageRegion first = new ImageRegion(asset, 0, 0, 1, 1, 1, 1);
+        checkSize(loader.load(first).get(10, TimeUnit.SECONDS), 1, 1, "first region");
+        // One region per window size, as resizing the raft screen asks for
+        for (int blocks = 2; blocks <= 20; blocks++) {
+            ImageRegion region = new ImageRegion(asset, 0, 0, 1, 1, blocks, blocks);
+            checkSize(loader.load(region).get(10, TimeUnit.SECONDS), blocks, blocks, "region " + blocks);
+            check(loader.getIfLoaded(region) != null, "region " + blocks + " is cached");
+        }
+        check(loader.getIfLoaded(first) == null, "least recently used region was dropped");
+        loader.shutdown();
+    }
+
+    private static BufferedImage load(AssetLoader loader, ImageAsset asset) throws Exception {
+        return loader.load(asset).get(10, TimeUnit.SECONDS);
+    }
+
+    private static void writePng(Path file, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, 0xFF8000);
+        ImageIO.write(image, "png", file.toFile());
+    }
+
+    private static void checkSize(BufferedImage image, int width, int height, String what) {
+        check(image != null, what + ": no image");
+        check(image.getWidth() == width && image.getHeight() == height,
+                what + ": expected " + width + "x" + height + ", got " + image.getWidth() + "x" + image.getHeight());
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
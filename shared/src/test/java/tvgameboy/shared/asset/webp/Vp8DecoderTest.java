@@ -0,0 +1,149 @@
+package tvgameboy.shared.asset.webp;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+// Decodes WebP samples made with libwebp's encoder and compares every pixel with what
+// libwebp's own decoder produced for them (the PNGs next to each sample). Then feeds the
+// VP8 and VP8L decoders truncated and corrupted copies: each must either decode or
+// throw IOException, never an unchecked exception.
+final class Vp8DecoderTest {
+    private static final String DIR = "/tvgameboy/shared/asset/webp/";
+    // Lossy with an ALPH chunk, lossy without, lossy with busy content, lossless with alpha;
+    // all with odd sizes that leave partial macroblocks
+    private static final String[] SAMPLES = {
+            "lossy-alpha-37x23", "lossy-53x31", "lossy-noise-67x45", "lossless-alpha-19x11"
+    };
+
+    public static void main(String[] args) throws Exception {
+        for (String sample : SAMPLES) {
+            byte[] webp = read(sample + ".webp");
+            BufferedImage expected = ImageIO.read(new ByteArrayInputStream(read(sample + ".png")));
+            BufferedImage decoded = decode(webp, null);
+            checkPixels(sample, expected, decoded, 0, 0);
+            check(decoded.getColorModel().hasAlpha() == sample.contains("alpha"), sample + ": alpha channel");
+
+            Rectangle region = new Rectangle(3, 5, expected.getWidth() / 2, expected.getHeight() / 2);
+            checkPixels(sample + " region", expected, decode(webp, region), region.x, region.y);
+
+            truncatedFailsCleanly(sample, webp);
+            corruptedFailsCleanly(sample, webp);
+        }
+    }
+
+    private static void checkPixels(String what, BufferedImage expected, BufferedImage actual, int x0, int y0) {
+        for (int y = 0; y < actual.getHeight(); y++) {
+            for (int x = 0; x < actual.getWidth(); x++) {
+                int want = expected.getRGB(x0 + x, y0 + y);
+                int got = actual.getRGB(x, y);
+                if (!actual.getColorModel().hasAlpha()) {
+                    want |= 0xFF000000;
+                }
+                check(want == got, String.format("%s: pixel (%d, %d) is %08x, expected %08x", what, x, y, got, want));
+            }
+        }
+    }
+
+    // Every prefix of the image chunk, straight into its decoder
+    private static void truncatedFailsCleanly(String sample, byte[] webp) {
+        int[] chunk = findImageChunk(webp);
+        boolean lossless = chunk[2] == 1;
+        for (int length = 0; length < chunk[1]; length++) {
+            try {
+                decodeChunk(webp, chunk[0], length, lossless);
+                // Dropping the last bytes of a frame the encoder padded can still decode
+                check(length >= chunk[1] - 2, sample + ": decoded with only " + length + " of " + chunk[1] + " bytes");
+            } catch (IOException expected) {
+                // As it should
+            } catch (RuntimeException ex) {
+                throw new AssertionError(sample + ": " + length + "-byte prefix threw " + ex, ex);
+            }
+        }
+    }
+
+    // Random bytes overwritten, through the decoder and through ImageIO
+    private static void corruptedFailsCleanly(String sample, byte[] webp) throws IOException {
+        int[] chunk = findImageChunk(webp);
+        Random random = new Random(sample.hashCode());
+        for (int round = 0; round < 1000; round++) {
+            byte[] copy = webp.clone();
+            for (int i = 1 + random.nextInt(4); i > 0; i--) {
+                copy[chunk[0] + random.nextInt(chunk[1])] = (byte) random.nextInt(256);
+            }
+            try {
+                decodeChunk(copy, chunk[0], chunk[1], chunk[2] == 1);
+            } catch (IOException expected) {
+                // As it should
+            } catch (RuntimeException ex) {
+                throw new AssertionError(sample + ": corrupted copy " + round + " threw " + ex, ex);
+            }
+            try {
+                decode(copy, null);
+            } catch (IOException expected) {
+                // As it should
+            } catch (RuntimeException ex) {
+                throw new AssertionError(sample + ": corrupted copy " + round + " threw " + ex + " from ImageIO", ex);
+            }
+        }
+    }
+
+    private static void decodeChunk(byte[] data, int offset, int length, boolean lossless) throws IOException {
+        if (lossless) {
+            Vp8lDecoder.decode(data, offset, length);
+        } else {
+            Vp8Decoder.decode(data, offset, length);
+        }
+    }
+
+    // Offset and length of the VP8 or VP8L payload, and 1 if it is VP8L
+    private static int[] findImageChunk(byte[] webp) {
+        int position = 12;
+        while (position + 8 <= webp.length) {
+            String type = new String(webp, position, 4, StandardCharsets.US_ASCII);
+            int size = (webp[position + 4] & 0xFF) | (webp[position + 5] & 0xFF) << 8
+                    | (webp[position + 6] & 0xFF) << 16 | (webp[position + 7] & 0xFF) << 24;
+            if (type.equals("VP8 ") || type.equals("VP8L")) {
+                return new int[] {position + 8, size, type.equals("VP8L") ? 1 : 0};
+            }
+            position += 8 + size + (size & 1);
+        }
+        throw new AssertionError("No image chunk");
+    }
+
+    private static BufferedImage decode(byte[] webp, Rectangle region) throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("webp");
+        check(readers.hasNext(), "no WebP reader registered");
+        ImageReader reader = readers.next();
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(webp))) {
+            reader.setInput(input);
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceRegion(region);
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private static byte[] read(String name) throws IOException {
+        try (InputStream stream = Vp8DecoderTest.class.getResourceAsStream(DIR + name)) {
+            check(stream != null, "missing test resource " + name);
+            return stream.readAllBytes();
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
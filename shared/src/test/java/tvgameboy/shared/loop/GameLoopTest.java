@@ -0,0 +1,76 @@
+package tvgameboy.shared.loop;
+
+import java.awt.Graphics2D;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import tvgameboy.shared.LoopGame;
+
+// Drives a stub game on a controlled clock: the number of updates for an elapsed
+// time at 60 updates per second, the clamp on a long stall, the interpolation
+// alpha staying in [0, 1), and the loop thread running only the updates that fell
+// due and exiting on stop.
+final class GameLoopTest {
+    private static final long MILLIS = 1_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        AtomicLong clock = new AtomicLong();
+        StubGame game = new StubGame();
+        GameLoop loop = new GameLoop(game, clock::get);
+
+        for (int frame = 0; frame < 100; frame++) {
+            double alpha = loop.catchUp(clock.addAndGet(10 * MILLIS));
+            check(alpha >= 0 && alpha < 1, "alpha in [0, 1), got " + alpha);
+        }
+        check(game.updates == 60, "one second in 10 ms frames runs 60 updates, got " + game.updates);
+        check(game.stepSeconds == 1.0 / 60, "each update is one 60 Hz step");
+
+        double alpha = loop.catchUp(clock.addAndGet(5_000 * MILLIS));
+        check(game.updates == 70, "a stall runs at most 10 updates, got " + (game.updates - 60));
+        check(alpha == 0, "a clamped stall drops the remainder, got " + alpha);
+
+        loop.start();
+        // The thread reads the clock as it starts; move it only once a frame has run
+        await(() -> loop.getFrameCount() > 0);
+        check(game.updates == 70, "no time passed, no updates");
+        clock.addAndGet(100 * MILLIS);
+        await(() -> game.updates >= 76);
+        Thread.sleep(100);
+        check(game.updates == 76, "the loop thread ran the 6 updates due in 100 ms, got " + (game.updates - 70));
+        Thread loopThread = game.thread;
+        check(loopThread != null && loopThread != Thread.currentThread(), "updates ran on the loop thread");
+
+        loop.stop();
+        check(!loop.isRunning(), "loop reports stopped");
+        check(!loopThread.isAlive(), "loop thread exited");
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000 * MILLIS;
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private static final class StubGame implements LoopGame {
+        volatile int updates;
+        volatile double stepSeconds;
+        volatile Thread thread;
+
+        @Override
+        public void update(double stepSeconds) {
+            this.stepSeconds = stepSeconds;
+            thread = Thread.currentThread();
+            updates++;
+        }
+
+        @Override
+        public void render(Graphics2D g, int width, int height, double interpolation) {
+        }
+    }
+}
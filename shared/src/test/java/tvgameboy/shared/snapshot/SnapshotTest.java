@@ -0,0 +1,91 @@
+package tvgameboy.shared.snapshot;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// What SnapshotWriter writes, SnapshotReader reads back, also from a slice of a larger
+// array. Any damage, from truncation to a varint with the top bit set, is an
+// IOException and never a runtime exception.
+final class SnapshotTest {
+    private static final byte[] PAYLOAD = {9, 8, 7};
+
+    public static void main(String[] args) throws Exception {
+        byte[] bytes = write().toByteArray();
+        read(new SnapshotReader(bytes));
+
+        byte[] padded = new byte[bytes.length + 6];
+        System.arraycopy(bytes, 0, padded, 3, bytes.length);
+        read(new SnapshotReader(padded, 3, bytes.length));
+
+        for (int length = 0; length < bytes.length; length++) {
+            SnapshotReader in = new SnapshotReader(bytes, 0, length);
+            expectIOException("truncated to " + length + " bytes", () -> read(in));
+        }
+
+        // Ten bytes that decode to -1: nine full groups and the top bit
+        byte[] negative = {-1, -1, -1, -1, -1, -1, -1, -1, -1, 1};
+        expectIOException("negative varint", () -> new SnapshotReader(negative).getVarint());
+        expectIOException("negative bounded varint", () -> new SnapshotReader(negative).getVarint(100));
+        expectIOException("negative string length", () -> new SnapshotReader(negative).getString());
+        byte[] endless = new byte[11];
+        Arrays.fill(endless, (byte) 0x80);
+        expectIOException("varint longer than ten bytes", () -> new SnapshotReader(endless).getVarint());
+        expectIOException("varint above its bound", () -> new SnapshotReader(new byte[] {101}).getVarint(100));
+        expectIOException("string longer than the snapshot", () -> new SnapshotReader(new byte[] {5, 'a'}).getString());
+        expectIOException("boolean that is neither 0 nor 1", () -> new SnapshotReader(new byte[] {2}).getBoolean());
+        expectIOException("negative byte count", () -> new SnapshotReader(bytes).getBytes(-1));
+    }
+
+    private static SnapshotWriter write() {
+        // Small enough that writing has to grow the buffer
+        return new SnapshotWriter(4)
+                .putByte(200)
+                .putBoolean(true)
+                .putBoolean(false)
+                .putInt(-5)
+                .putLong(Long.MIN_VALUE)
+                .putVarint(0)
+                .putVarint(128)
+                .putVarint(Long.MAX_VALUE)
+                .putVarint(300)
+                .putString("Fi\u00dfch \u2603")
+                .putVarint(PAYLOAD.length)
+                .putBytes(PAYLOAD, 0, PAYLOAD.length);
+    }
+
+    private static void read(SnapshotReader in) throws IOException {
+        check(in.getByte() == 200, "byte");
+        check(in.getBoolean(), "true");
+        check(!in.getBoolean(), "false");
+        check(in.getInt() == -5, "int");
+        check(in.getLong() == Long.MIN_VALUE, "long");
+        check(in.getVarint() == 0, "zero varint");
+        check(in.getVarint() == 128, "two-byte varint");
+        check(in.getVarint() == Long.MAX_VALUE, "largest varint");
+        check(in.getVarint(300) == 300, "varint at its bound");
+        check(in.getString().equals("Fi\u00dfch \u2603"), "string");
+        check(Arrays.equals(in.getBytes(in.getVarint(in.remaining())), PAYLOAD), "bytes");
+        check(in.remaining() == 0, "everything read");
+    }
+
+    private static void expectIOException(String name, Read read) {
+        try {
+            read.run();
+        } catch (IOException expected) {
+            return;
+        } catch (RuntimeException ex) {
+            throw new AssertionError(name + " threw " + ex + " instead of an IOException", ex);
+        }
+        throw new AssertionError(name + " was read without an error");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private interface Read {
+        void run() throws IOException;
+    }
+}